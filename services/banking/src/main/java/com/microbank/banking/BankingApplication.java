@@ -2,10 +2,12 @@ package com.microbank.banking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 
 @SpringBootApplication
+@EnableScheduling
 @OpenAPIDefinition
 public class BankingApplication {
 
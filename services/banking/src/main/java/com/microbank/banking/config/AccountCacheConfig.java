@@ -0,0 +1,29 @@
+package com.microbank.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.microbank.banking.utils.AccountCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class AccountCacheConfig {
+
+    @Value("${banking.accounts.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${banking.accounts.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${banking.accounts.cache.ttl:PT10S}")
+    private Duration ttl;
+
+    @Bean
+    public AccountCache accountCache(MeterRegistry meterRegistry) {
+        return new AccountCache(enabled, maxSize, ttl, meterRegistry);
+    }
+}
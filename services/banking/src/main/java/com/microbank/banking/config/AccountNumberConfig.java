@@ -0,0 +1,16 @@
+package com.microbank.banking.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.utils.AccountNumberAllocator;
+
+@Configuration
+public class AccountNumberConfig {
+
+    @Bean
+    public AccountNumberAllocator accountNumberAllocator(BankAccountRepository bankAccountRepository) {
+        return new AccountNumberAllocator(bankAccountRepository);
+    }
+}
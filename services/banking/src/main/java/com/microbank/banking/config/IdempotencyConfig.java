@@ -0,0 +1,33 @@
+package com.microbank.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.IdempotencyKeyRepository;
+import com.microbank.banking.utils.IdempotencyGuard;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Value("${banking.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${banking.idempotency.cache-ttl:PT10M}")
+    private Duration cacheTtl;
+
+    @Value("${banking.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Bean
+    public IdempotencyGuard idempotencyGuard(IdempotencyKeyRepository idempotencyKeyRepository,
+            BankAccountRepository bankAccountRepository, MeterRegistry meterRegistry) {
+        return new IdempotencyGuard(idempotencyKeyRepository, bankAccountRepository,
+                cacheSize, cacheTtl, ttl, meterRegistry);
+    }
+}
@@ -1,15 +1,22 @@
 package com.microbank.banking.config;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
 import com.microbank.banking.repository.BankAccountRepository;
 import com.microbank.banking.repository.BankTransactionRepository;
@@ -17,49 +24,176 @@ import com.microbank.banking.services.BankAccountService;
 import com.microbank.banking.services.BankAccountServiceImpl;
 import com.microbank.banking.services.BankTransactionService;
 import com.microbank.banking.services.BankTransactionServiceImpl;
+import com.microbank.banking.services.TransferService;
+import com.microbank.banking.services.TransferServiceImpl;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+import com.microbank.security.RevocationFeed;
+import com.microbank.security.RevokedTokens;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
 
 @Configuration
 @Slf4j
 public class KafkaConfig {
 
+    private static final String USER_CREATED_TOPIC = "user-created";
+
     @Autowired
     private BankAccountRepository bankAccountRepository;
 
     @Autowired
     private BankTransactionRepository bankTransactionRepository;
 
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private AccountLaneExecutor accountLaneExecutor;
+
+    @Autowired
+    private IdempotencyGuard idempotencyGuard;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RevokedTokens revokedTokens;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${banking.consumer.rails:8}")
+    private int rails;
+
+    @Value("${banking.consumer.max-deferred-commits:1000}")
+    private int maxDeferredCommits;
+
+    @Value("${banking.consumer.commit-interval:PT1S}")
+    private Duration commitInterval;
+
+    @Value("${banking.consumer.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${banking.consumer.batch.size:500}")
+    private int batchSize;
+
+    @Value("${banking.consumer.batch.linger:PT0.1S}")
+    private Duration batchLinger;
+
+    @Value("${banking.consumer.retry.delays:PT5S,PT1M,PT10M}")
+    private List<Duration> retryDelays;
+
+    @Value("${banking.consumer.dlq.replay-start-timeout:PT10S}")
+    private Duration replayStartTimeout;
+
+    @Value("${banking.consumer.dlq.replay-idle-timeout:PT2S}")
+    private Duration replayIdleTimeout;
+
+    @Value("${jwt.revocations.purge-interval:PT10M}")
+    private Duration revocationsPurgeInterval;
+
     @Bean
-    public ReceiverOptions<String, String> receiverOptions() {
+    public ReceiverOptions<String, byte[]> receiverOptions() {
         log.info("Creating Kafka ReceiverOptions for bootstrap servers: {}", bootstrapServers);
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "banking-group");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // values are UserEventCodec bytes, decoded by the handler so a malformed one can be dead-lettered
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
 
-        return ReceiverOptions.create(props);
+        ReceiverOptions<String, byte[]> options = ReceiverOptions.<String, byte[]>create(props)
+                .commitInterval(commitInterval);
+        if (batchEnabled) {
+            // batches are handled in order and commit their own highest offsets
+            log.info("Consuming in batches of up to {} records, lingering {}", batchSize, batchLinger);
+            return options;
+        }
+        // records of a partition finish out of order across rails; commit only up to the oldest unfinished one
+        return options.maxDeferredCommits(maxDeferredCommits);
+    }
+
+    @Bean
+    public SenderOptions<String, byte[]> senderOptions() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        // a source record is acknowledged once its retry copy is written, so the copy must not be lost
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return SenderOptions.create(props);
+    }
+
+    @Bean
+    public KafkaSender<String, byte[]> kafkaSender() {
+        return KafkaSender.create(senderOptions());
+    }
+
+    @Bean
+    public RetryTopics retryTopics() {
+        log.info("Retrying failed {} records after {}, then dead-lettering", USER_CREATED_TOPIC, retryDelays);
+        return new RetryTopics(USER_CREATED_TOPIC, retryDelays, receiverOptions(), kafkaSender(),
+                replayStartTimeout, replayIdleTimeout, meterRegistry);
+    }
+
+    @Bean
+    public KeyOrderedRails keyOrderedRails() {
+        return new KeyOrderedRails(rails, meterRegistry);
+    }
+
+    @Bean
+    public RecordBatcher recordBatcher() {
+        return new RecordBatcher(batchEnabled, batchSize, batchLinger, meterRegistry);
+    }
+
+    @Bean
+    public KafkaReceiver<String, byte[]> kafkaReceiver() {
+        return KafkaReceiver.create(receiverOptions().subscription(Collections.singleton(USER_CREATED_TOPIC)));
     }
 
+    /** The client service owns {@code blacklisted_tokens}; this side rebuilds the index from the topic. */
     @Bean
-    public KafkaReceiver<String, String> kafkaReceiver() {
-        return KafkaReceiver.create(receiverOptions().subscription(Collections.singleton("user-created")));
+    public RevocationFeed revocationFeed() {
+        return new RevocationFeed(revokedTokens, RevocationFeed.receiverOptions(bootstrapServers, "banking"),
+                Flux.empty(), revocationsPurgeInterval);
     }
 
     @Bean
     public BankAccountService bankAccountService() {
-        return new BankAccountServiceImpl(bankAccountRepository, bankTransactionRepository, kafkaReceiver());
+        return new BankAccountServiceImpl(bankAccountRepository, bankTransactionRepository, kafkaReceiver(),
+                transactionalOperator, accountLaneExecutor, idempotencyGuard, accountCache,
+                accountNumberAllocator, keyOrderedRails(), recordBatcher(), retryTopics(), meterRegistry);
     }
 
     @Bean
     public BankTransactionService bankTransactionService() {
         return new BankTransactionServiceImpl(bankTransactionRepository);
     }
+
+    @Bean
+    public TransferService transferService() {
+        return new TransferServiceImpl(bankAccountRepository, bankTransactionRepository, transactionalOperator,
+                accountCache);
+    }
 }
@@ -0,0 +1,24 @@
+package com.microbank.banking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.microbank.banking.utils.AccountLaneExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class LaneConfig {
+
+    @Value("${banking.lanes.count:64}")
+    private int laneCount;
+
+    @Value("${banking.lanes.queue-depth:1000}")
+    private int queueDepth;
+
+    @Bean
+    public AccountLaneExecutor accountLaneExecutor(MeterRegistry meterRegistry) {
+        return new AccountLaneExecutor(laneCount, queueDepth, meterRegistry);
+    }
+}
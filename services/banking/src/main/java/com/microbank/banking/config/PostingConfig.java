@@ -0,0 +1,31 @@
+package com.microbank.banking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.services.BulkPostingService;
+import com.microbank.banking.services.BulkPostingServiceImpl;
+import com.microbank.banking.utils.AccountCache;
+
+@Configuration
+public class PostingConfig {
+
+    @Value("${banking.postings.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${banking.postings.insert-chunk-size:1000}")
+    private int insertChunkSize;
+
+    @Bean
+    public BulkPostingService bulkPostingService(BankAccountRepository bankAccountRepository,
+            BankTransactionRepository bankTransactionRepository,
+            TransactionalOperator transactionalOperator,
+            AccountCache accountCache) {
+        return new BulkPostingServiceImpl(bankAccountRepository, bankTransactionRepository, transactionalOperator,
+                accountCache, batchSize, insertChunkSize);
+    }
+}
@@ -1,27 +1,46 @@
 package com.microbank.banking.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
 import org.springframework.r2dbc.connection.R2dbcTransactionManager;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
 import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.entity.Money;
+import com.microbank.metrics.ConnectionPools;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.r2dbc.spi.ConnectionFactory;
 
 
 @Configuration
 @EnableTransactionManagement
+@EnableConfigurationProperties(R2dbcProperties.class)
 public class R2DBCConfig {
 
-    @Value("${spring.r2dbc.username}")
-    private String username;
-
-    @Value("${spring.r2dbc.password}")
-    private String password;
+    /**
+     * The connection pool, configured from {@code spring.r2dbc} and timed when there is a meter
+     * registry (see {@link ConnectionPools}).
+     */
+    @Bean(destroyMethod = "dispose")
+    ConnectionFactory connectionFactory(R2dbcProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return ConnectionPools.warmedUp("connectionFactory", properties, meterRegistry.getIfAvailable());
+    }
 
     @Bean
     ConnectionFactoryInitializer initializer(
@@ -43,5 +62,37 @@ public class R2DBCConfig {
         return new R2dbcTransactionManager(connectionFactory);
     }
 
+    @Bean
+    TransactionalOperator transactionalOperator(
+            ReactiveTransactionManager transactionManager
+    ) {
+        return TransactionalOperator.create(transactionManager);
+    }
+
+    /** Maps the {@code DECIMAL(15, 2)} amount columns to {@link Money}, in entities and query parameters alike. */
+    @Bean
+    R2dbcCustomConversions r2dbcCustomConversions() {
+        return R2dbcCustomConversions.of(PostgresDialect.INSTANCE,
+                List.of(new MoneyReadingConverter(), new MoneyWritingConverter()));
+    }
+
+    @ReadingConverter
+    static class MoneyReadingConverter implements Converter<BigDecimal, Money> {
+
+        @Override
+        public Money convert(BigDecimal source) {
+            return Money.of(source);
+        }
+    }
+
+    @WritingConverter
+    static class MoneyWritingConverter implements Converter<Money, BigDecimal> {
+
+        @Override
+        public BigDecimal convert(Money source) {
+            return source.toDecimal();
+        }
+    }
+
 }
 
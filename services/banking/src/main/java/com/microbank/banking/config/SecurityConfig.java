@@ -1,11 +1,11 @@
 package com.microbank.banking.config;
 
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import javax.crypto.SecretKey;
-
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,9 +23,13 @@ import org.springframework.web.cors.reactive.CorsConfigurationSource;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 import org.springframework.web.server.WebFilter;
 
+import com.microbank.security.JwtVerifier;
+import com.microbank.security.RevokedTokens;
+
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 @Configuration
@@ -33,9 +37,22 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SecurityConfig {
 
+    /** Absent in slice tests, which then record into the no-op global registry. */
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${jwt.previous-secrets:}")
+    private List<String> jwtPreviousSecrets;
+
+    @Value("${jwt.cache-size:10000}")
+    private int jwtCacheSize;
+
+    @Value("${jwt.revocations.expected-entries:100000}")
+    private int revocationsExpectedEntries;
+
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
         return http
@@ -56,14 +73,23 @@ public class SecurityConfig {
                 )
                 .authorizeExchange(exchanges -> exchanges
                 .pathMatchers("/banking/swagger-ui.html", "/banking/api-docs/**", "/banking/webjars/**", "/banking/swagger-ui/**").permitAll()
+                .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .pathMatchers("/banking/api/v1/admin/**").hasAuthority("ROLE_ADMIN")
                 .anyExchange().authenticated()
                 )
                 .addFilterAt(jwtAuthFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
                 .build();
     }
 
-    @Bean
+    /**
+     * Not a bean: a {@code WebFilter} bean would also run outside the security chain, verifying
+     * and timing every token twice.
+     */
     WebFilter jwtAuthFilter() {
+        JwtVerifier verifier = jwtVerifier();
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        Timer valid = jwtValidationTimer("valid", registry);
+        Timer rejected = jwtValidationTimer("rejected", registry);
         return (exchange, chain) -> {
             String authHeader = exchange.getRequest().getHeaders().getFirst("Authorization");
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -73,12 +99,15 @@ public class SecurityConfig {
 
             String token = authHeader.substring(7); // Remove "Bearer " prefix
 
+            long started = System.nanoTime();
             try {
-                Authentication auth = validateToken(token); // Validate JWT
-                log.info("Token validated for user {}", auth.getName());
+                Authentication auth = verifier.authenticate(token); // Validate JWT
+                valid.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                log.debug("Token validated for user {}", auth.getName());
                 return chain.filter(exchange)
                         .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
             } catch (Exception e) {
+                rejected.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
                 log.error("JWT validation failed", e);
                 exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
                 return exchange.getResponse().setComplete(); // Block request
@@ -86,6 +115,17 @@ public class SecurityConfig {
         };
     }
 
+    /** Verification only, cache hits included; the request itself is timed by the server metrics. */
+    private static Timer jwtValidationTimer(String outcome, MeterRegistry registry) {
+        return Timer.builder("banking.jwt.validation")
+                .tag("outcome", outcome)
+                .description("Time to verify a bearer token")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(registry);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
@@ -100,14 +140,20 @@ public class SecurityConfig {
     }
     
 
-    private Authentication validateToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /** Builds the keys once and caches verified tokens until they expire. */
+    @Bean
+    public JwtVerifier jwtVerifier() {
+        return new JwtVerifier(jwtSecret, jwtPreviousSecrets, jwtCacheSize, SecurityConfig::toAuthentication,
+                revokedTokens());
+    }
+
+    /** Tokens logged out on the client service, kept current by the {@code RevocationFeed}. */
+    @Bean
+    public RevokedTokens revokedTokens() {
+        return new RevokedTokens(revocationsExpectedEntries);
+    }
 
+    static Authentication toAuthentication(Claims claims) {
         String username = claims.getSubject();
         List<?> rawRoles = claims.get("roles", List.class);
         List<String> roles = rawRoles == null ? List.of() : rawRoles.stream()
@@ -0,0 +1,31 @@
+package com.microbank.banking.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.repository.BalanceSnapshotRepository;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.services.BalanceSnapshotService;
+import com.microbank.banking.services.BalanceSnapshotServiceImpl;
+
+@Configuration
+public class SnapshotConfig {
+
+    @Value("${banking.snapshots.period:PT24H}")
+    private Duration period;
+
+    @Value("${banking.snapshots.settle-delay:PT5M}")
+    private Duration settleDelay;
+
+    @Bean
+    public BalanceSnapshotService balanceSnapshotService(BalanceSnapshotRepository balanceSnapshotRepository,
+            BankAccountRepository bankAccountRepository,
+            TransactionalOperator transactionalOperator) {
+        return new BalanceSnapshotServiceImpl(balanceSnapshotRepository, bankAccountRepository, transactionalOperator,
+                period, settleDelay);
+    }
+}
@@ -1,7 +1,9 @@
 package com.microbank.banking.controllers;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,11 +12,15 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.microbank.banking.dto.BalanceResponse;
 import com.microbank.banking.dto.TransactionRequest;
 import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.services.BalanceSnapshotService;
 import com.microbank.banking.services.BankAccountService;
 
 import lombok.AllArgsConstructor;
@@ -25,6 +31,7 @@ import reactor.core.publisher.Mono;
 @AllArgsConstructor
 public class BankAccountController {
     private final BankAccountService bankAccountService;
+    private final BalanceSnapshotService balanceSnapshotService;
 
     @PostMapping("")
     public Mono<ResponseEntity<BankAccount>> createAccount(@RequestBody BankAccount account) {
@@ -47,6 +54,18 @@ public class BankAccountController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * The balance at {@code asOf} (ISO date-time), counting postings created up to and including
+     * it. Without {@code asOf} this is the balance now according to the ledger.
+     */
+    @GetMapping("/{id}/balance")
+    public Mono<ResponseEntity<BalanceResponse>> getBalance(@PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return balanceSnapshotService.getBalanceAsOf(id, asOf)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     public Mono<ResponseEntity<Void>> deleteAccount(@PathVariable UUID id) {
         return bankAccountService.deleteAccount(id)
@@ -55,15 +74,23 @@ public class BankAccountController {
     }
 
     @PatchMapping("/{id}/deposit")
-    public Mono<ResponseEntity<BankAccount>> deposit(@PathVariable UUID id, @RequestBody TransactionRequest transactionRequest) {
-        return bankAccountService.deposit(id, transactionRequest.getAmount(), transactionRequest.getDescription())
+    public Mono<ResponseEntity<BankAccount>> deposit(@PathVariable UUID id, @RequestBody TransactionRequest transactionRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Mono<BankAccount> posted = idempotencyKey == null
+                ? bankAccountService.deposit(id, transactionRequest.getAmount(), transactionRequest.getDescription())
+                : bankAccountService.deposit(id, transactionRequest.getAmount(), transactionRequest.getDescription(), idempotencyKey);
+        return posted
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/{id}/withdraw")
-    public Mono<ResponseEntity<BankAccount>> withdraw(@PathVariable UUID id, @RequestBody TransactionRequest transactionRequest) {
-        return bankAccountService.withdraw(id, transactionRequest.getAmount(), transactionRequest.getDescription())
+    public Mono<ResponseEntity<BankAccount>> withdraw(@PathVariable UUID id, @RequestBody TransactionRequest transactionRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Mono<BankAccount> posted = idempotencyKey == null
+                ? bankAccountService.withdraw(id, transactionRequest.getAmount(), transactionRequest.getDescription())
+                : bankAccountService.withdraw(id, transactionRequest.getAmount(), transactionRequest.getDescription(), idempotencyKey);
+        return posted
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
@@ -1,11 +1,16 @@
 package com.microbank.banking.controllers;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.microbank.banking.entity.BankTransaction;
@@ -20,13 +25,44 @@ import reactor.core.publisher.Mono;
 @AllArgsConstructor
 public class BankTransactionController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BankTransactionService bankTransactionService;
 
-    @GetMapping("/{accountId}/transactions")
-    public Mono<ResponseEntity<Flux<BankTransaction>>> getTransactions(
-            @PathVariable String accountId
+    /**
+     * One page of history, newest first. When more rows follow, the cursor for the next page is
+     * returned in the {@value #NEXT_CURSOR_HEADER} header.
+     */
+    @GetMapping(value = "/{accountId}/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<BankTransaction>>> getTransactions(
+            @PathVariable String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return bankTransactionService.getTransactionPage(UUID.fromString(accountId), from, to, cursor, limit)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                    }
+                    return response.body(page.getItems());
+                });
+    }
+
+    /**
+     * The same history as NDJSON, streamed with backpressure. Without {@code limit} it runs to
+     * the end of the range.
+     */
+    @GetMapping(value = "/{accountId}/transactions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BankTransaction> streamTransactions(
+            @PathVariable String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
-        Flux<BankTransaction> transactions = bankTransactionService.getTransactionsByAccountId(UUID.fromString(accountId));
-        return Mono.just(ResponseEntity.ok().body(transactions));
+        return bankTransactionService.streamTransactions(UUID.fromString(accountId), from, to, cursor, limit);
     }
 }
@@ -0,0 +1,34 @@
+package com.microbank.banking.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.microbank.banking.dto.ReplayResponse;
+import com.microbank.banking.utils.RetryTopics;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/banking/api/v1/admin/dead-letters")
+@AllArgsConstructor
+public class DeadLetterController {
+
+    private final RetryTopics retryTopics;
+
+    /**
+     * Sends up to {@code limit} dead letters back to the topic they failed on and answers with
+     * how many were sent. Answers 409 while another replay is running.
+     */
+    @PostMapping("/replay")
+    public Mono<ResponseEntity<ReplayResponse>> replay(@RequestParam(defaultValue = "1000") int limit) {
+        return retryTopics.replayDeadLetters(limit)
+                .map(replayed -> ResponseEntity.ok(ReplayResponse.builder()
+                        .topic(retryTopics.deadLetterTopic())
+                        .replayed(replayed)
+                        .build()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.microbank.banking.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.microbank.banking.dto.PostingRequest;
+import com.microbank.banking.dto.PostingResult;
+import com.microbank.banking.services.BulkPostingService;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/banking/api/v1/postings")
+@AllArgsConstructor
+public class PostingController {
+
+    private final BulkPostingService bulkPostingService;
+
+    /**
+     * Accepts postings as a JSON array or as NDJSON and answers with one result per posting in
+     * the same order, as a JSON array or NDJSON depending on {@code Accept}.
+     */
+    @PostMapping(value = "",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<PostingResult>>> post(@RequestBody Flux<PostingRequest> postings) {
+        Flux<PostingResult> results = bulkPostingService.post(postings);
+        return Mono.just(ResponseEntity.ok().body(results));
+    }
+}
@@ -0,0 +1,31 @@
+package com.microbank.banking.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.microbank.banking.dto.TransferRequest;
+import com.microbank.banking.dto.TransferResponse;
+import com.microbank.banking.services.TransferService;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/banking/api/v1/transfers")
+@AllArgsConstructor
+public class TransferController {
+
+    private final TransferService transferService;
+
+    @PostMapping("")
+    public Mono<ResponseEntity<TransferResponse>> transfer(@RequestBody TransferRequest transferRequest) {
+        return transferService.transfer(transferRequest.getFromAccountId(), transferRequest.getToAccountId(),
+                transferRequest.getAmount(), transferRequest.getDescription())
+                .map(transfer -> ResponseEntity.status(HttpStatus.CREATED).body(transfer))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
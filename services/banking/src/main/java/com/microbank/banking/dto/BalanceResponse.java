@@ -0,0 +1,17 @@
+package com.microbank.banking.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.microbank.banking.entity.Money;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class BalanceResponse {
+    private UUID accountId;
+    private LocalDateTime asOf;
+    private Money balance;
+}
@@ -0,0 +1,17 @@
+package com.microbank.banking.dto;
+
+import java.util.UUID;
+
+import com.microbank.banking.entity.Money;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class PostingRequest {
+    private UUID accountId;
+    private Money amount;
+    private String transactionType;
+    private String description;
+}
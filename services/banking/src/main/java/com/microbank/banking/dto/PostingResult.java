@@ -0,0 +1,18 @@
+package com.microbank.banking.dto;
+
+import java.util.UUID;
+
+import com.microbank.banking.entity.Money;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class PostingResult {
+    private long index;
+    private UUID accountId;
+    private String status;
+    private String reason;
+    private Money balance;
+}
@@ -0,0 +1,11 @@
+package com.microbank.banking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ReplayResponse {
+    private String topic;
+    private long replayed;
+}
@@ -0,0 +1,15 @@
+package com.microbank.banking.dto;
+
+import java.util.List;
+
+import com.microbank.banking.entity.BankTransaction;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TransactionPage {
+    private List<BankTransaction> items;
+    private String nextCursor;
+}
@@ -1,11 +1,13 @@
 package com.microbank.banking.dto;
 
+import com.microbank.banking.entity.Money;
+
 import lombok.Builder;
 import lombok.Getter;
 
 @Getter
 @Builder
 public class TransactionRequest {
-    private double amount;
+    private Money amount;
     private String description;
 }
\ No newline at end of file
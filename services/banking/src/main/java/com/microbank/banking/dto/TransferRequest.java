@@ -0,0 +1,17 @@
+package com.microbank.banking.dto;
+
+import java.util.UUID;
+
+import com.microbank.banking.entity.Money;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TransferRequest {
+    private UUID fromAccountId;
+    private UUID toAccountId;
+    private Money amount;
+    private String description;
+}
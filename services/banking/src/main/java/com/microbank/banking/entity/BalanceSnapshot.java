@@ -0,0 +1,24 @@
+package com.microbank.banking.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+@Table("balance_snapshots")
+public class BalanceSnapshot {
+    @Id
+    private UUID id;
+    private UUID accountId;
+    private LocalDateTime asOf;
+    private Money balance;
+    private LocalDateTime createdAt;
+}
@@ -25,6 +25,7 @@ public class BankAccount {
     private String accountNumber;
     @NonNull
     private UUID accountHolderId;
-    private double balance;
+    @Builder.Default
+    private Money balance = Money.ZERO;
     private LocalDateTime createdAt;
 }
@@ -20,9 +20,10 @@ public class BankTransaction {
     private UUID id;
     @NonNull
     private UUID accountId;
-    private double amount;
+    private Money amount;
     @NonNull
     private String transactionType;
     private LocalDateTime createdAt;
     private String description;
+    private UUID transferId;
 }
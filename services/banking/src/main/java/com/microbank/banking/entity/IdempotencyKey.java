@@ -0,0 +1,26 @@
+package com.microbank.banking.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+@Table("idempotency_keys")
+public class IdempotencyKey {
+    @Id
+    private UUID id;
+    private UUID accountId;
+    private String idempotencyKey;
+    private String operation;
+    private Money balance;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
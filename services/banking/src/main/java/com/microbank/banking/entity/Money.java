@@ -0,0 +1,155 @@
+package com.microbank.banking.entity;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+/**
+ * An exact amount of money: a whole number of minor units (cents) in a currency.
+ *
+ * <p>Balances and amounts used to be {@code double}s, which cannot hold most cent values exactly,
+ * so every conversion to and from the {@code DECIMAL(15, 2)} columns could round. Here the
+ * arithmetic is plain {@code long} arithmetic: comparisons and sign checks allocate nothing, and
+ * {@link #plus}/{@link #minus} allocate one small object and fail on overflow instead of wrapping.
+ * {@link BigDecimal} only appears where values cross into the database or are parsed.
+ *
+ * <p>All accounts are kept in {@link #CURRENCY}. The tables store no currency code, so the R2DBC
+ * converters read every amount in that currency. Arithmetic across currencies is rejected.
+ *
+ * <p>In JSON an amount is a plain number with the currency's decimals, such as {@code 12.30},
+ * so clients see the same shape as before. Input with more decimals than the currency has is
+ * rejected rather than rounded.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    /** The currency every account is kept in. */
+    public static final Currency CURRENCY = Currency.getInstance("USD");
+
+    /** Decimal places of {@link #CURRENCY}, matching the scale of the amount columns. */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0, CURRENCY);
+
+    public Money {
+        if (currency == null) {
+            throw new IllegalArgumentException("currency is required");
+        }
+        if (currency != CURRENCY && currency.getDefaultFractionDigits() != SCALE) {
+            throw new IllegalArgumentException("Only currencies with " + SCALE + " decimal places are supported");
+        }
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, CURRENCY);
+    }
+
+    /**
+     * The exact amount {@code amount} in {@link #CURRENCY}.
+     *
+     * @throws IllegalArgumentException if it has more than {@link #SCALE} decimal places or
+     * does not fit in a {@code long} of minor units
+     */
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinor(amount.movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is not a whole number of cents", e);
+        }
+    }
+
+    /** Parses a decimal string such as {@code "12.30"}. */
+    public static Money of(String amount) {
+        try {
+            return of(new BigDecimal(amount));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Amount " + amount + " is not a number", e);
+        }
+    }
+
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (currency != other.currency && !currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine " + currency + " with " + other.currency);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    public static class Serializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toDecimal());
+        }
+    }
+
+    /** Reads numbers and numeric strings exactly, without going through {@code double}. */
+    public static class Deserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            try {
+                if (p.currentToken() == JsonToken.VALUE_NUMBER_INT || p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return of(p.getDecimalValue());
+                }
+                if (p.currentToken() == JsonToken.VALUE_STRING) {
+                    return of(p.getText().trim());
+                }
+            } catch (IllegalArgumentException e) {
+                throw InvalidFormatException.from(p, e.getMessage(), p.getText(), Money.class);
+            }
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.microbank.banking.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import com.microbank.banking.entity.BalanceSnapshot;
+import com.microbank.banking.entity.Money;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface BalanceSnapshotRepository extends ReactiveCrudRepository<BalanceSnapshot, UUID> {
+
+    /**
+     * The account's balance at {@code asOf}, counting postings created at or before it: the
+     * latest snapshot taken at or before {@code asOf}, plus the postings since that snapshot.
+     * An account with no snapshot yet is summed from the start of its history. Returned as a
+     * {@link BigDecimal}: a bare column read into {@link Money} is mapped as an entity, not
+     * through the Money converter.
+     */
+    @Query("""
+            SELECT COALESCE(s.balance, 0) + COALESCE((
+                       SELECT SUM(CASE WHEN t.transaction_type IN ('withdrawal', 'transfer_out')
+                                       THEN -t.amount ELSE t.amount END)
+                       FROM bank_transactions t
+                       WHERE t.account_id = :accountId
+                         AND t.created_at >= COALESCE(s.as_of, '-infinity')
+                         AND t.created_at <= :asOf), 0)
+            FROM (SELECT 1) AS one
+            LEFT JOIN LATERAL (
+                SELECT as_of, balance FROM balance_snapshots
+                WHERE account_id = :accountId AND as_of <= :asOf
+                ORDER BY as_of DESC
+                LIMIT 1
+            ) s ON true
+            """)
+    Mono<BigDecimal> balanceAsOf(UUID accountId, LocalDateTime asOf);
+
+    @Query("SELECT as_of FROM balance_snapshot_periods ORDER BY as_of DESC LIMIT 1")
+    Mono<LocalDateTime> findLatestPeriod();
+
+    @Query("SELECT created_at FROM bank_transactions ORDER BY created_at LIMIT 1")
+    Mono<LocalDateTime> findEarliestPosting();
+
+    /**
+     * Marks the period ending at {@code asOf} as taken. Returns 0 when it already was, which is
+     * how a second instance running the job at the same time backs off.
+     */
+    @Modifying
+    @Query("INSERT INTO balance_snapshot_periods (as_of) VALUES (:asOf) ON CONFLICT DO NOTHING")
+    Mono<Integer> claimPeriod(LocalDateTime asOf);
+
+    /**
+     * Snapshots every account with postings in {@code [periodStart, asOf)}: its previous
+     * snapshot plus the period's net movement. Accounts without postings in the period get no
+     * row; their latest snapshot is still their balance. Relies on the periods before
+     * {@code periodStart} having been snapshotted already.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO balance_snapshots (account_id, as_of, balance)
+            SELECT d.account_id, :asOf, COALESCE(s.balance, 0) + d.delta
+            FROM (
+                SELECT account_id, SUM(CASE WHEN transaction_type IN ('withdrawal', 'transfer_out')
+                                            THEN -amount ELSE amount END) AS delta
+                FROM bank_transactions
+                WHERE created_at >= :periodStart AND created_at < :asOf
+                GROUP BY account_id
+            ) d
+            LEFT JOIN LATERAL (
+                SELECT balance FROM balance_snapshots
+                WHERE account_id = d.account_id AND as_of < :asOf
+                ORDER BY as_of DESC
+                LIMIT 1
+            ) s ON true
+            ON CONFLICT (account_id, as_of) DO NOTHING
+            """)
+    Mono<Integer> snapshotPeriod(LocalDateTime periodStart, LocalDateTime asOf);
+}
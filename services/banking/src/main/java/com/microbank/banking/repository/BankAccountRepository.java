@@ -1,12 +1,16 @@
 package com.microbank.banking.repository;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 
 import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
@@ -19,4 +23,67 @@ public interface BankAccountRepository extends ReactiveCrudRepository<BankAccoun
 
     Mono<Boolean> existsByAccountHolderId(UUID accountHolderId);
 
+    /**
+     * Reserves the next block of account number sequence values and returns its first value.
+     * The sequence advances by {@link com.microbank.banking.utils.AccountNumberAllocator#BLOCK_SIZE}.
+     */
+    @Query("SELECT nextval('account_number_seq')")
+    Mono<Long> nextAccountNumberBlock();
+
+    /**
+     * Opens an account for each holder in {@code holderIds}, numbered by the matching entry of
+     * {@code accountNumbers}, in a single statement. Holders that already have an account are
+     * skipped by the unique index on {@code account_holder_id}; only the created rows are returned.
+     */
+    @Query("""
+            INSERT INTO bank_accounts (account_holder_id, account_number, balance)
+            SELECT holder_id, account_number, 0
+            FROM unnest(CAST(:holderIds AS uuid[]), CAST(:accountNumbers AS varchar[])) AS n(holder_id, account_number)
+            ON CONFLICT (account_holder_id) DO NOTHING
+            RETURNING *
+            """)
+    Flux<BankAccount> insertSkippingExistingHolders(UUID[] holderIds, String[] accountNumbers);
+
+    /**
+     * Adds {@code amount} to the balance in a single statement and returns the updated row.
+     * Emits nothing when the account does not exist.
+     */
+    @Query("UPDATE bank_accounts SET balance = balance + :amount WHERE id = :id RETURNING *")
+    Mono<BankAccount> credit(UUID id, Money amount);
+
+    /**
+     * Subtracts {@code amount} from the balance only if the account can cover it, so the
+     * overdraft check and the write happen atomically. Emits nothing when the account does
+     * not exist or has insufficient funds.
+     */
+    @Query("UPDATE bank_accounts SET balance = balance - :amount WHERE id = :id AND balance >= :amount RETURNING *")
+    Mono<BankAccount> debit(UUID id, Money amount);
+
+    /**
+     * Row-locks both accounts of a transfer. Postgres takes the locks in {@code id} order, so two
+     * transfers between the same pair of accounts in opposite directions queue up instead of
+     * deadlocking. Must run inside a transaction.
+     */
+    @Query("SELECT * FROM bank_accounts WHERE id IN (:first, :second) ORDER BY id FOR UPDATE")
+    Flux<BankAccount> lockInIdOrder(UUID first, UUID second);
+
+    /**
+     * Adds a net delta to each account in {@code ids} in a single statement. Rows are locked in
+     * {@code id} order first, the same order {@link #lockInIdOrder} uses, so overlapping batches
+     * and transfers queue up instead of deadlocking. An account whose delta would take it below
+     * zero is left untouched; only the updated rows are returned. Must run inside a transaction.
+     */
+    @Query("""
+            WITH deltas AS (
+                SELECT * FROM unnest(CAST(:ids AS uuid[]), CAST(:deltas AS numeric[])) AS d(id, delta)
+            ), locked AS MATERIALIZED (
+                SELECT a.id FROM bank_accounts a JOIN deltas d ON d.id = a.id ORDER BY a.id FOR UPDATE OF a
+            )
+            UPDATE bank_accounts a SET balance = a.balance + d.delta
+            FROM deltas d JOIN locked l ON l.id = d.id
+            WHERE a.id = d.id AND a.balance + d.delta >= 0
+            RETURNING a.*
+            """)
+    Flux<BankAccount> applyDeltas(UUID[] ids, BigDecimal[] deltas);
+
 }
@@ -1,15 +1,50 @@
 package com.microbank.banking.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 
 import com.microbank.banking.entity.BankTransaction;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Repository
 public interface BankTransactionRepository extends ReactiveCrudRepository<BankTransaction, UUID>{
     Flux<BankTransaction> findByAccountId(UUID accountId);
+
+    /**
+     * One keyset page of an account's history, newest first: rows created at or after
+     * {@code from} and strictly before the {@code (beforeCreatedAt, beforeId)} position. Served
+     * from the {@code (account_id, created_at, id)} index, so the cost depends on {@code limit},
+     * not on how deep into the history the page is.
+     */
+    @Query("""
+            SELECT * FROM bank_transactions
+            WHERE account_id = :accountId
+              AND created_at >= :from
+              AND (created_at, id) < (:beforeCreatedAt, :beforeId)
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """)
+    Flux<BankTransaction> findPage(UUID accountId, LocalDateTime from, LocalDateTime beforeCreatedAt,
+            UUID beforeId, int limit);
+
+    /**
+     * Writes many ledger rows with one multi-row {@code INSERT}. The arrays are parallel, one
+     * element per row; the statement text does not depend on the row count, so every chunk
+     * reuses the same prepared statement.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO bank_transactions (account_id, transaction_type, amount, description)
+            SELECT * FROM unnest(CAST(:accountIds AS uuid[]), CAST(:types AS varchar[]),
+                                 CAST(:amounts AS numeric[]), CAST(:descriptions AS text[]))
+            """)
+    Mono<Long> insertAll(UUID[] accountIds, String[] types, BigDecimal[] amounts, String[] descriptions);
 }
@@ -0,0 +1,44 @@
+package com.microbank.banking.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import com.microbank.banking.entity.IdempotencyKey;
+import com.microbank.banking.entity.Money;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface IdempotencyKeyRepository extends ReactiveCrudRepository<IdempotencyKey, UUID> {
+    Mono<IdempotencyKey> findByAccountIdAndIdempotencyKey(UUID accountId, String idempotencyKey);
+
+    /**
+     * Claims {@code key} for one posting. Emits the row when the key is new or its previous use
+     * has expired, and nothing when a live row already exists. If another transaction holds an
+     * uncommitted claim on the key, this waits for it to finish first.
+     */
+    @Query("""
+            INSERT INTO idempotency_keys (account_id, idempotency_key, operation, expires_at)
+            VALUES (:accountId, :key, :operation, :expiresAt)
+            ON CONFLICT (account_id, idempotency_key) DO UPDATE
+            SET operation = EXCLUDED.operation, balance = NULL,
+                created_at = CURRENT_TIMESTAMP, expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at < :now
+            RETURNING *
+            """)
+    Mono<IdempotencyKey> claim(UUID accountId, String key, String operation, LocalDateTime now,
+            LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE idempotency_keys SET balance = :balance WHERE account_id = :accountId AND idempotency_key = :key")
+    Mono<Integer> complete(UUID accountId, String key, Money balance);
+
+    @Modifying
+    @Query("DELETE FROM idempotency_keys WHERE expires_at < :now")
+    Mono<Integer> deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,18 @@
+package com.microbank.banking.services;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+
+import com.microbank.banking.dto.BalanceResponse;
+
+import reactor.core.publisher.Mono;
+
+@Service
+public interface BalanceSnapshotService {
+
+    public Mono<BalanceResponse> getBalanceAsOf(UUID accountId, LocalDateTime asOf);
+
+    public Mono<Integer> snapshotDuePeriods(LocalDateTime now);
+}
@@ -0,0 +1,114 @@
+package com.microbank.banking.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.dto.BalanceResponse;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BalanceSnapshotRepository;
+import com.microbank.banking.repository.BankAccountRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers "balance as of" queries from periodic closing-balance snapshots.
+ *
+ * <p>Time is cut into fixed periods aligned to the epoch (UTC). Once a period has ended and the
+ * settle delay has passed, the job writes a snapshot for every account that had postings in it,
+ * building on each account's previous snapshot, so each run only reads one period of postings.
+ * A balance query then reads the latest snapshot at or before {@code asOf} and adds the postings
+ * after it, which is at most about one period of that account's history however long it is.
+ *
+ * <p>The settle delay covers postings whose {@code created_at} (the start of their database
+ * transaction) falls in a period but which commit after it ends.
+ */
+@Slf4j
+public class BalanceSnapshotServiceImpl implements BalanceSnapshotService {
+
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final long periodSeconds;
+    private final Duration settleDelay;
+
+    public BalanceSnapshotServiceImpl(BalanceSnapshotRepository balanceSnapshotRepository,
+            BankAccountRepository bankAccountRepository,
+            TransactionalOperator transactionalOperator,
+            Duration period,
+            Duration settleDelay) {
+        if (period.getSeconds() < 1) {
+            throw new IllegalArgumentException("period must be at least one second");
+        }
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.periodSeconds = period.getSeconds();
+        this.settleDelay = settleDelay;
+    }
+
+    /**
+     * Emits nothing when the account does not exist. Before the account's first posting the
+     * balance is zero.
+     */
+    @Override
+    public Mono<BalanceResponse> getBalanceAsOf(UUID accountId, LocalDateTime asOf) {
+        LocalDateTime at = asOf == null ? LocalDateTime.now() : asOf;
+        return bankAccountRepository.existsById(accountId)
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> balanceSnapshotRepository.balanceAsOf(accountId, at))
+                .map(balance -> BalanceResponse.builder()
+                        .accountId(accountId)
+                        .asOf(at)
+                        .balance(Money.of(balance))
+                        .build());
+    }
+
+    /**
+     * Snapshots every period that ended at least the settle delay before {@code now} and has not
+     * been snapshotted yet, oldest first, one transaction per period. Emits the number of
+     * periods this call snapshotted.
+     */
+    @Override
+    public Mono<Integer> snapshotDuePeriods(LocalDateTime now) {
+        LocalDateTime due = periodStart(now.minus(settleDelay));
+        return balanceSnapshotRepository.findLatestPeriod()
+                .switchIfEmpty(Mono.defer(() -> balanceSnapshotRepository.findEarliestPosting().map(this::periodStart)))
+                .flatMapMany(last -> Flux.range(1, Integer.MAX_VALUE)
+                        .map(i -> last.plusSeconds(i * periodSeconds))
+                        .takeWhile(end -> !end.isAfter(due)))
+                .concatMap(this::snapshotPeriod)
+                .reduce(0, Integer::sum);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.snapshots.interval:PT15M}")
+    public void takeSnapshots() {
+        snapshotDuePeriods(LocalDateTime.now())
+                .doOnNext(periods -> log.debug("Snapshotted {} balance periods", periods))
+                .doOnError(e -> log.warn("Balance snapshot run failed", e))
+                .onErrorComplete()
+                .block();
+    }
+
+    private Mono<Integer> snapshotPeriod(LocalDateTime end) {
+        LocalDateTime start = end.minusSeconds(periodSeconds);
+        return balanceSnapshotRepository.claimPeriod(end)
+                .flatMap(claimed -> claimed == 0
+                ? Mono.just(0)
+                : balanceSnapshotRepository.snapshotPeriod(start, end)
+                        .doOnNext(accounts -> log.info("Snapshotted {} account balances as of {}", accounts, end))
+                        .thenReturn(1))
+                .as(transactionalOperator::transactional);
+    }
+
+    private LocalDateTime periodStart(LocalDateTime time) {
+        long epochSecond = time.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, periodSeconds) * periodSeconds, 0, ZoneOffset.UTC);
+    }
+}
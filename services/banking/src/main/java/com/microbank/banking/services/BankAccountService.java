@@ -5,6 +5,7 @@ import java.util.UUID;
 import org.springframework.stereotype.Service;
 
 import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
 
 import reactor.core.publisher.Mono;
 
@@ -19,7 +20,11 @@ public interface BankAccountService {
 
     public Mono<Void> deleteAccount(UUID id);
 
-    public Mono<BankAccount> deposit(UUID id, double amount, String description);
+    public Mono<BankAccount> deposit(UUID id, Money amount, String description);
 
-    public Mono<BankAccount> withdraw(UUID id, double amount, String description);
+    public Mono<BankAccount> deposit(UUID id, Money amount, String description, String idempotencyKey);
+
+    public Mono<BankAccount> withdraw(UUID id, Money amount, String description);
+
+    public Mono<BankAccount> withdraw(UUID id, Money amount, String description, String idempotencyKey);
 }
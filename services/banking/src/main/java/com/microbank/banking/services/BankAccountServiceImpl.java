@@ -1,21 +1,42 @@
 package com.microbank.banking.services;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
 import com.microbank.banking.entity.BankAccount;
 import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.Money;
 import com.microbank.banking.repository.BankAccountRepository;
 import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+import com.microbank.events.UserCreated;
+import com.microbank.events.UserEvent;
+import com.microbank.events.UserEventCodec;
+import com.microbank.metrics.OperationTimer;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOffset;
 import reactor.kafka.receiver.ReceiverRecord;
@@ -27,44 +48,194 @@ public class BankAccountServiceImpl implements BankAccountService {
 
     private final BankAccountRepository bankAccountRepository;
     private final BankTransactionRepository bankTransactionRepository;
-    private final KafkaReceiver<String, String> kafkaReceiver;
+    private final KafkaReceiver<String, byte[]> kafkaReceiver;
+    private final TransactionalOperator transactionalOperator;
+    private final AccountLaneExecutor accountLaneExecutor;
+    private final IdempotencyGuard idempotencyGuard;
+    private final AccountCache accountCache;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final KeyOrderedRails keyOrderedRails;
+    private final RecordBatcher recordBatcher;
+    private final RetryTopics retryTopics;
+    private final OperationTimer depositTimer;
+    private final OperationTimer withdrawTimer;
+    private final OperationTimer createAccountTimer;
+    private final Counter consumed;
+    private final Counter retriesConsumed;
+    private final Counter committed;
+    private final Counter failedRetried;
+    private final Counter failedDeadLettered;
     private Disposable consumerDisposable;
 
     public BankAccountServiceImpl(BankAccountRepository bankAccountRepository,
             BankTransactionRepository bankTransactionRepository,
-            KafkaReceiver<String, String> kafkaReceiver) {
+            KafkaReceiver<String, byte[]> kafkaReceiver,
+            TransactionalOperator transactionalOperator,
+            AccountLaneExecutor accountLaneExecutor,
+            IdempotencyGuard idempotencyGuard,
+            AccountCache accountCache,
+            AccountNumberAllocator accountNumberAllocator,
+            KeyOrderedRails keyOrderedRails,
+            RecordBatcher recordBatcher,
+            RetryTopics retryTopics,
+            MeterRegistry meterRegistry) {
         this.bankAccountRepository = bankAccountRepository;
         this.bankTransactionRepository = bankTransactionRepository;
         this.kafkaReceiver = kafkaReceiver;
+        this.transactionalOperator = transactionalOperator;
+        this.accountLaneExecutor = accountLaneExecutor;
+        this.idempotencyGuard = idempotencyGuard;
+        this.accountCache = accountCache;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.keyOrderedRails = keyOrderedRails;
+        this.recordBatcher = recordBatcher;
+        this.retryTopics = retryTopics;
+        this.depositTimer = operationTimer("deposit", meterRegistry);
+        this.withdrawTimer = operationTimer("withdraw", meterRegistry);
+        this.createAccountTimer = operationTimer("create_account", meterRegistry);
+        this.consumed = consumedCounter("main", meterRegistry);
+        this.retriesConsumed = consumedCounter("retry", meterRegistry);
+        this.committed = Counter.builder("banking.consumer.records.committed")
+                .description("Records handled and released for their offsets to be committed")
+                .register(meterRegistry);
+        this.failedRetried = failedCounter("retry", meterRegistry);
+        this.failedDeadLettered = failedCounter("dead_letter", meterRegistry);
+    }
+
+    private static OperationTimer operationTimer(String operation, MeterRegistry meterRegistry) {
+        return new OperationTimer("banking.accounts.operations", operation, "Time to post to or open an account",
+                Duration.ofMillis(1), Duration.ofSeconds(10), meterRegistry);
     }
 
-    private static final int ACCOUNT_NUMBER_LENGTH = 10; // 10-digit account number
-    private static final int MAX_GENERATION_ATTEMPTS = 5;
+    private static Counter consumedCounter(String source, MeterRegistry meterRegistry) {
+        return Counter.builder("banking.consumer.records.consumed")
+                .tag("source", source)
+                .description("Records received from user-created or from its retry topics")
+                .register(meterRegistry);
+    }
+
+    private static Counter failedCounter(String action, MeterRegistry meterRegistry) {
+        return Counter.builder("banking.consumer.records.failed")
+                .tag("action", action)
+                .description("Records that could not be handled, by what was done with them")
+                .register(meterRegistry);
+    }
 
+    private static final int MAX_NUMBER_ATTEMPTS = 5;
+    private static final String HOLDER_INDEX = "uq_bank_accounts_account_holder_id";
+
+    /**
+     * Consumes {@code user-created} on parallel rails: records for the same user are handled in
+     * order, records for different users concurrently. Each record's offset is acknowledged once
+     * it is handled and committed per partition by the receiver. With batching enabled, records
+     * are instead buffered and each batch opens its accounts with one insert.
+     *
+     * <p>A record that fails is handed to {@link RetryTopics} and acknowledged, so the main topic
+     * keeps flowing; retries come back through the same rails once they are due.
+     *
+     * <p>Records are counted as they arrive ({@code banking.consumer.records.consumed}), once
+     * acknowledged or, when batched, committed ({@code .committed}) and when handed to a retry or dead-letter topic
+     * ({@code .failed}).
+     */
     @PostConstruct
     public void startConsuming() {
-        consumerDisposable = kafkaReceiver.receive()
-                .doOnNext(record -> log.info("Received message: key={}, value={}", record.key(), record.value()))
-                .concatMap(this::processRecord)
+        Flux<ReceiverRecord<String, byte[]>> records = kafkaReceiver.receive()
+                .doOnNext(record -> consumed.increment())
+                .doOnNext(record -> log.info("Received message: key={}, {} bytes", record.key(), record.value() == null ? 0 : record.value().length));
+        Disposable main = (recordBatcher.isEnabled()
+                ? recordBatcher.run(records, this::processBatch)
+                        .doOnNext(size -> committed.increment(size))
+                : keyOrderedRails.run(records, this::processRecord))
+                .subscribe();
+        Disposable retries = keyOrderedRails.run(retryTopics.receiveDue()
+                .doOnNext(record -> retriesConsumed.increment())
+                .doOnNext(record -> log.info("Retrying message: topic={}, key={}, attempts={}", record.topic(),
+                        record.key(), RetryTopics.attempts(record))),
+                this::processRecord)
                 .subscribe();
+        consumerDisposable = Disposables.composite(main, retries);
     }
 
-    private Mono<Void> processRecord(ReceiverRecord<String, String> record) {
+    private Mono<Void> processRecord(ReceiverRecord<String, byte[]> record) {
+        UUID userId;
         try {
-            UUID userId = UUID.fromString(record.value()); // validate
-            return createAccountForUser(userId)
-                    .then(commitOffset(record.receiverOffset()));
+            userId = createdUserId(record);
         } catch (IllegalArgumentException e) {
-            // Value wasn't a UUID
-            log.error("Invalid UUID in record: {}", record.value(), e);
-            return commitOffset(record.receiverOffset()); // skip bad record
+            // Value wasn't a user event; no retry will fix that
+            log.error("Malformed user event in record: key={}", record.key(), e);
+            failedDeadLettered.increment();
+            return retryTopics.deadLetter(record, e)
+                    .then(acknowledge(record.receiverOffset()));
+        }
+        if (userId == null) {
+            return acknowledge(record.receiverOffset());
         }
+        return createAccountForUser(userId)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Opening an account for user {} failed, scheduling a retry", userId, e);
+                    failedRetried.increment();
+                    return retryTopics.retry(record, e);
+                })
+                .then(acknowledge(record.receiverOffset()));
     }
 
-    private Mono<Void> commitOffset(ReceiverOffset offset) {
-        return offset.commit()
-                .doOnSuccess(v -> log.debug("Committed offset {}", offset))
-                .doOnError(e -> log.warn("Offset commit failed", e));
+    /**
+     * Opens the accounts of a batch with one insert. Invalid records are dead-lettered; if the
+     * insert fails, every valid record of the batch is scheduled for a retry on its own.
+     */
+    private Mono<Void> processBatch(List<ReceiverRecord<String, byte[]>> records) {
+        List<UUID> userIds = new ArrayList<>(records.size());
+        List<ReceiverRecord<String, byte[]>> valid = new ArrayList<>(records.size());
+        List<Mono<Void>> deadLetters = new ArrayList<>();
+        for (ReceiverRecord<String, byte[]> record : records) {
+            try {
+                UUID userId = createdUserId(record);
+                if (userId != null) {
+                    userIds.add(userId);
+                    valid.add(record);
+                }
+            } catch (IllegalArgumentException e) {
+                log.error("Malformed user event in record: key={}", record.key(), e);
+                failedDeadLettered.increment();
+                deadLetters.add(retryTopics.deadLetter(record, e));
+            }
+        }
+        return Mono.when(deadLetters)
+                .then(createAccountsForUsers(userIds)
+                        .count()
+                        .doOnNext(created -> log.debug("Opened {} accounts for a batch of {} records", created, records.size()))
+                        .then()
+                        .onErrorResume(e -> {
+                            log.warn("Opening accounts for a batch of {} records failed, scheduling retries", valid.size(), e);
+                            failedRetried.increment(valid.size());
+                            return Flux.fromIterable(valid)
+                                    .concatMap(record -> retryTopics.retry(record, e))
+                                    .then();
+                        }));
+    }
+
+    /**
+     * The user whose account the record asks to open, or null for user events this consumer has
+     * no use for, which are skipped. Reads both the binary format and the older bare UUID strings.
+     *
+     * @throws IllegalArgumentException if the value is not a user event
+     */
+    private static UUID createdUserId(ReceiverRecord<String, byte[]> record) {
+        UserEvent event = UserEventCodec.decode(record.value());
+        if (event instanceof UserCreated created) {
+            return created.userId();
+        }
+        log.debug("Skipping {} for user {}", event.getClass().getSimpleName(), event.userId());
+        return null;
+    }
+
+    private Mono<Void> acknowledge(ReceiverOffset offset) {
+        return Mono.fromRunnable(() -> {
+            offset.acknowledge();
+            committed.increment();
+            log.debug("Acknowledged offset {}", offset);
+        });
     }
 
     @PreDestroy
@@ -75,18 +246,32 @@ public class BankAccountServiceImpl implements BankAccountService {
         }
     }
 
+    /**
+     * Opens the user's account unless it already has one, in which case this emits nothing.
+     * Replayed and retried records for a user therefore never fail on the existing account.
+     */
     private Mono<BankAccount> createAccountForUser(UUID userId) {
-        BankAccount account = BankAccount.builder()
-                .balance(0.0)
-                .accountHolderId(userId)
-                .build();
-        return bankAccountRepository.existsByAccountHolderId(userId)
-                .flatMap(exists -> exists
-                ? Mono.error(new RuntimeException("Account already exists for this user"))
-                : generateUniqueAccountNumber()
-                        .doOnNext(account::setAccountNumber)
-                        .then(bankAccountRepository.save(account))
-                );
+        return createAccountsForUsers(List.of(userId)).next();
+    }
+
+    /**
+     * Opens an account for each of {@code userIds} that does not have one yet, with a single
+     * multi-row insert. Users that already have an account, including ones repeated in
+     * {@code userIds}, are skipped, so replaying the topic never opens a second account.
+     * Emits the accounts created.
+     */
+    public Flux<BankAccount> createAccountsForUsers(Collection<UUID> userIds) {
+        List<UUID> distinct = List.copyOf(new LinkedHashSet<>(userIds));
+        if (distinct.isEmpty()) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(distinct)
+                .concatMap(userId -> accountNumberAllocator.next())
+                .collectList()
+                .flatMapMany(numbers -> bankAccountRepository.insertSkippingExistingHolders(
+                        distinct.toArray(UUID[]::new), numbers.toArray(String[]::new)))
+                .retryWhen(numberTaken())
+                .doOnNext(accountCache::invalidate);
     }
 
     @Override
@@ -94,86 +279,143 @@ public class BankAccountServiceImpl implements BankAccountService {
         return bankAccountRepository.existsByAccountHolderId(account.getAccountHolderId())
                 .flatMap(exists -> exists
                 ? Mono.error(new RuntimeException("Account already exists for this user"))
-                : generateUniqueAccountNumber()
-                        .doOnNext(account::setAccountNumber)
-                        .then(bankAccountRepository.save(account))
-                );
+                : saveWithNewNumber(account))
+                .doOnNext(accountCache::invalidate)
+                .as(createAccountTimer::time);
     }
 
     @Override
     public Mono<BankAccount> getAccountById(UUID id) {
-        return bankAccountRepository.findById(id);
+        return accountCache.getById(id, () -> bankAccountRepository.findById(id));
     }
 
     @Override
     public Mono<BankAccount> getAccountByAccountHolderId(UUID userId) {
-        return bankAccountRepository.findByAccountHolderId(userId);
+        return accountCache.getByHolderId(userId, () -> bankAccountRepository.findByAccountHolderId(userId));
     }
 
     @Override
     public Mono<Void> deleteAccount(UUID id) {
-        return bankAccountRepository.deleteById(id);
+        return bankAccountRepository.deleteById(id)
+                .doOnSuccess(v -> accountCache.invalidate(id));
     }
 
+    /**
+     * Posts a deposit as one conditional {@code UPDATE ... RETURNING} plus the ledger insert,
+     * both inside a single R2DBC transaction. The balance arithmetic happens in Postgres, so
+     * concurrent deposits to the same account cannot overwrite each other. Within this instance
+     * the posting also waits its turn in the account's lane, so a hot account never has two of
+     * our transactions queued on its row lock.
+     */
     @Override
-    public Mono<BankAccount> deposit(UUID id, double amount, String description) {
-        return bankAccountRepository.findById(id)
-                .flatMap(account -> {
-                    account.setBalance(account.getBalance() + amount);
+    public Mono<BankAccount> deposit(UUID id, Money amount, String description) {
+        if (amount == null || !amount.isPositive()) {
+            return Mono.error(new RuntimeException("Amount must be positive"));
+        }
+        return accountLaneExecutor.execute(id, () -> credit(id, amount, description)
+                .as(transactionalOperator::transactional)
+                .doOnNext(accountCache::invalidate))
+                .as(depositTimer::time);
+    }
 
-                    BankTransaction transaction = BankTransaction.builder()
-                            .accountId(id)
-                            .amount(amount)
-                            .transactionType("deposit")
-                            .description(description)
-                            .build();
+    /**
+     * Posts a deposit at most once per account and {@code idempotencyKey}; a retry gets the
+     * first result back. The key is claimed in the same transaction as the posting.
+     */
+    @Override
+    public Mono<BankAccount> deposit(UUID id, Money amount, String description, String idempotencyKey) {
+        if (amount == null || !amount.isPositive()) {
+            return Mono.error(new RuntimeException("Amount must be positive"));
+        }
+        return idempotencyGuard.cached(id, idempotencyKey, "deposit",
+                () -> accountLaneExecutor.execute(id, () -> idempotencyGuard
+                        .claimed(id, idempotencyKey, "deposit", () -> credit(id, amount, description))
+                        .as(transactionalOperator::transactional)
+                        .doOnNext(accountCache::invalidate)))
+                .as(depositTimer::time);
+    }
 
-                    return bankTransactionRepository.save(transaction)
-                            .then(bankAccountRepository.save(account));
-                });
+    /**
+     * Posts a withdrawal the same way as {@link #deposit}, with the overdraft check folded into
+     * the {@code UPDATE}. Only when no row comes back do we pay for an extra lookup to tell a
+     * missing account (empty) apart from insufficient funds (error).
+     */
+    @Override
+    public Mono<BankAccount> withdraw(UUID id, Money amount, String description) {
+        if (amount == null || !amount.isPositive()) {
+            return Mono.error(new RuntimeException("Amount must be positive"));
+        }
+        return accountLaneExecutor.execute(id, () -> debit(id, amount, description)
+                .as(transactionalOperator::transactional)
+                .doOnNext(accountCache::invalidate))
+                .as(withdrawTimer::time);
     }
 
     @Override
-    public Mono<BankAccount> withdraw(UUID id, double amount, String description) {
-        return bankAccountRepository.findById(id)
-                .flatMap(account -> {
-                    if (account.getBalance() < amount) {
-                        return Mono.error(new RuntimeException("Insufficient funds"));
-                    }
-                    account.setBalance(account.getBalance() - amount);
-
-                    BankTransaction transaction = BankTransaction.builder()
-                            .accountId(id)
-                            .amount(amount)
-                            .transactionType("withdrawal")
-                            .description(description)
-                            .build();
-                    
-                    return bankTransactionRepository.save(transaction)
-                            .then(bankAccountRepository.save(account));
-                });
-    }
-
-    private Mono<String> generateUniqueAccountNumber() {
-        return Mono.fromCallable(this::generateRandomAccountNumber)
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(candidate
-                        -> bankAccountRepository.existsByAccountNumber(candidate)
-                        .flatMap(exists
-                                -> exists ? Mono.empty() : Mono.just(candidate)
-                        ))
-                .retryWhen(Retry.fixedDelay(MAX_GENERATION_ATTEMPTS, Duration.ofMillis(100)))
-                .switchIfEmpty(Mono.defer(()
-                        -> Mono.error(new RuntimeException("Failed to generate unique account number after "
-                        + MAX_GENERATION_ATTEMPTS + " attempts")))
-                );
-    }
-
-    private String generateRandomAccountNumber() {
-        long min = (long) Math.pow(10, ACCOUNT_NUMBER_LENGTH - 1);
-        long max = (long) Math.pow(10, ACCOUNT_NUMBER_LENGTH) - 1;
-        long randomNumber = ThreadLocalRandom.current().nextLong(min, max + 1);
-        return String.valueOf(randomNumber);
+    public Mono<BankAccount> withdraw(UUID id, Money amount, String description, String idempotencyKey) {
+        if (amount == null || !amount.isPositive()) {
+            return Mono.error(new RuntimeException("Amount must be positive"));
+        }
+        return idempotencyGuard.cached(id, idempotencyKey, "withdrawal",
+                () -> accountLaneExecutor.execute(id, () -> idempotencyGuard
+                        .claimed(id, idempotencyKey, "withdrawal", () -> debit(id, amount, description))
+                        .as(transactionalOperator::transactional)
+                        .doOnNext(accountCache::invalidate)))
+                .as(withdrawTimer::time);
+    }
+
+    private Mono<BankAccount> credit(UUID id, Money amount, String description) {
+        return bankAccountRepository.credit(id, amount)
+                .flatMap(account -> recordTransaction(id, amount, "deposit", description)
+                        .thenReturn(account));
+    }
+
+    private Mono<BankAccount> debit(UUID id, Money amount, String description) {
+        return bankAccountRepository.debit(id, amount)
+                .flatMap(account -> recordTransaction(id, amount, "withdrawal", description)
+                        .thenReturn(account))
+                .switchIfEmpty(Mono.defer(() -> bankAccountRepository.existsById(id)
+                        .flatMap(exists -> exists
+                        ? Mono.<BankAccount>error(new RuntimeException("Insufficient funds"))
+                        : Mono.<BankAccount>empty())));
+    }
+
+    private Mono<BankTransaction> recordTransaction(UUID accountId, Money amount, String type, String description) {
+        BankTransaction transaction = BankTransaction.builder()
+                .accountId(accountId)
+                .amount(amount)
+                .transactionType(type)
+                .description(description)
+                .build();
+        return bankTransactionRepository.save(transaction);
+    }
+
+    /**
+     * Inserts a new account under the next allocated number. Accounts opened before the allocator
+     * got random numbers, so an allocated number can already be taken; the insert then fails on
+     * the unique constraint and is retried with the next number.
+     */
+    private Mono<BankAccount> saveWithNewNumber(BankAccount account) {
+        return accountNumberAllocator.next()
+                .flatMap(number -> {
+                    account.setAccountNumber(number);
+                    return bankAccountRepository.save(account);
+                })
+                .retryWhen(numberTaken())
+                .onErrorMap(this::isHolderConflict, e -> new RuntimeException("Account already exists for this user"));
+    }
+
+    /**
+     * Retries when an allocated number turns out to be taken. A conflict on the holder is not
+     * retried: another request opened that user's account first.
+     */
+    private Retry numberTaken() {
+        return Retry.max(MAX_NUMBER_ATTEMPTS)
+                .filter(e -> e instanceof DuplicateKeyException && !isHolderConflict(e));
+    }
+
+    private boolean isHolderConflict(Throwable e) {
+        return e instanceof DuplicateKeyException && String.valueOf(e.getMessage()).contains(HOLDER_INDEX);
     }
 
 }
@@ -1,14 +1,19 @@
 package com.microbank.banking.services;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
+import com.microbank.banking.dto.TransactionPage;
 import com.microbank.banking.entity.BankTransaction;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public interface BankTransactionService {
-    Flux<BankTransaction> getTransactionsByAccountId(UUID accountId);
+    Mono<TransactionPage> getTransactionPage(UUID accountId, LocalDateTime from, LocalDateTime to, String cursor, Integer limit);
+
+    Flux<BankTransaction> streamTransactions(UUID accountId, LocalDateTime from, LocalDateTime to, String cursor, Integer limit);
 }
@@ -1,20 +1,94 @@
 package com.microbank.banking.services;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import com.microbank.banking.dto.TransactionCursor;
+import com.microbank.banking.dto.TransactionPage;
 import com.microbank.banking.entity.BankTransaction;
 import com.microbank.banking.repository.BankTransactionRepository;
 
 import lombok.AllArgsConstructor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+/**
+ * Reads an account's history newest first with keyset pagination on {@code (created_at, id)}.
+ * {@code from} is inclusive, {@code to} exclusive; both are optional.
+ */
 @AllArgsConstructor
 public class BankTransactionServiceImpl implements BankTransactionService{
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int STREAM_PAGE_SIZE = 500;
+
+    // Bounds used when a filter is absent; ZERO_ID sorts before every id, so (to, ZERO_ID) excludes rows at `to`
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final UUID ZERO_ID = new UUID(0L, 0L);
+
     private final BankTransactionRepository bankTransactionRepository;
 
+    /**
+     * Reads one page. One extra row is fetched to tell whether another page follows, in which
+     * case the page carries the cursor for it.
+     */
+    @Override
+    public Mono<TransactionPage> getTransactionPage(UUID accountId, LocalDateTime from, LocalDateTime to, String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            TransactionCursor before = startingPoint(to, cursor);
+            return bankTransactionRepository.findPage(accountId, from == null ? EARLIEST : from,
+                    before.createdAt(), before.id(), pageSize + 1)
+                    .collectList()
+                    .map(rows -> {
+                        if (rows.size() <= pageSize) {
+                            return TransactionPage.builder().items(rows).build();
+                        }
+                        List<BankTransaction> items = rows.subList(0, pageSize);
+                        return TransactionPage.builder()
+                                .items(items)
+                                .nextCursor(TransactionCursor.after(items.get(pageSize - 1)).encode())
+                                .build();
+                    });
+        });
+    }
+
+    /**
+     * Streams every matching row, or the first {@code limit}. Rows are read in keyset pages of
+     * {@link #STREAM_PAGE_SIZE}, at most one page ahead of what the subscriber has requested, so a
+     * slow client holds back the reads instead of buffering the history in memory, and no
+     * connection stays checked out while it catches up.
+     */
     @Override
-    public Flux<BankTransaction> getTransactionsByAccountId(UUID accountId) {
-        return bankTransactionRepository.findByAccountId(accountId);
+    public Flux<BankTransaction> streamTransactions(UUID accountId, LocalDateTime from, LocalDateTime to, String cursor, Integer limit) {
+        return Flux.defer(() -> {
+            LocalDateTime lowerBound = from == null ? EARLIEST : from;
+            Flux<BankTransaction> rows = streamFrom(accountId, lowerBound, startingPoint(to, cursor));
+            return limit == null ? rows : rows.take(Math.max(0, limit), true);
+        });
+    }
+
+    private Flux<BankTransaction> streamFrom(UUID accountId, LocalDateTime from, TransactionCursor before) {
+        return page(accountId, from, before)
+                .expand(page -> page.size() < STREAM_PAGE_SIZE
+                ? Mono.empty()
+                : page(accountId, from, TransactionCursor.after(page.get(page.size() - 1))))
+                .concatMapIterable(page -> page, 1);
+    }
+
+    private Mono<List<BankTransaction>> page(UUID accountId, LocalDateTime from, TransactionCursor before) {
+        return bankTransactionRepository.findPage(accountId, from, before.createdAt(), before.id(), STREAM_PAGE_SIZE)
+                .collectList();
+    }
+
+    private TransactionCursor startingPoint(LocalDateTime to, String cursor) {
+        TransactionCursor upperBound = new TransactionCursor(to == null ? LATEST : to, ZERO_ID);
+        if (cursor == null) {
+            return upperBound;
+        }
+        TransactionCursor decoded = TransactionCursor.decode(cursor);
+        return decoded.createdAt().isBefore(upperBound.createdAt()) ? decoded : upperBound;
     }
-    
 }
@@ -0,0 +1,14 @@
+package com.microbank.banking.services;
+
+import org.springframework.stereotype.Service;
+
+import com.microbank.banking.dto.PostingRequest;
+import com.microbank.banking.dto.PostingResult;
+
+import reactor.core.publisher.Flux;
+
+@Service
+public interface BulkPostingService {
+
+    public Flux<PostingResult> post(Flux<PostingRequest> postings);
+}
@@ -0,0 +1,207 @@
+package com.microbank.banking.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.dto.PostingRequest;
+import com.microbank.banking.dto.PostingResult;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+/**
+ * Posts large streams of deposits and withdrawals with a handful of statements per batch instead
+ * of several per posting.
+ *
+ * <p>The stream is cut into batches of {@code batchSize}. Each batch runs in one transaction:
+ * postings are grouped by account, every account's net delta is applied by a single
+ * {@link BankAccountRepository#applyDeltas} statement, and the ledger rows are written with
+ * multi-row inserts of {@code insertChunkSize} rows. The overdraft check is made on an account's
+ * net delta, so all postings for an account in a batch are accepted or rejected together. Like
+ * transfers, bulk postings bypass the per-account lanes and rely on the ordered row locks.
+ */
+@Slf4j
+public class BulkPostingServiceImpl implements BulkPostingService {
+
+    static final String POSTED = "posted";
+    static final String REJECTED = "rejected";
+
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final AccountCache accountCache;
+    private final int batchSize;
+    private final int insertChunkSize;
+
+    public BulkPostingServiceImpl(BankAccountRepository bankAccountRepository,
+            BankTransactionRepository bankTransactionRepository,
+            TransactionalOperator transactionalOperator,
+            AccountCache accountCache,
+            int batchSize,
+            int insertChunkSize) {
+        if (batchSize < 1 || insertChunkSize < 1) {
+            throw new IllegalArgumentException("batchSize and insertChunkSize must be positive");
+        }
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.accountCache = accountCache;
+        this.batchSize = batchSize;
+        this.insertChunkSize = insertChunkSize;
+    }
+
+    /**
+     * Emits one result per posting, in input order. Batches commit independently, so if a batch
+     * fails the stream errors after the results of the batches already committed.
+     */
+    @Override
+    public Flux<PostingResult> post(Flux<PostingRequest> postings) {
+        return postings.index()
+                .buffer(batchSize)
+                .concatMap(this::postBatch);
+    }
+
+    private Flux<PostingResult> postBatch(List<Tuple2<Long, PostingRequest>> batch) {
+        PostingResult[] results = new PostingResult[batch.size()];
+        Map<UUID, Money> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            long index = batch.get(i).getT1();
+            PostingRequest posting = batch.get(i).getT2();
+            String invalid = validate(posting);
+            if (invalid != null) {
+                results[i] = rejected(index, posting.getAccountId(), invalid);
+            } else {
+                deltas.merge(posting.getAccountId(), signedAmount(posting), Money::plus);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return Flux.fromArray(results);
+        }
+
+        UUID[] ids = deltas.keySet().toArray(UUID[]::new);
+        BigDecimal[] values = deltas.values().stream().map(Money::toDecimal).toArray(BigDecimal[]::new);
+        return bankAccountRepository.applyDeltas(ids, values)
+                .collectMap(BankAccount::getId)
+                .flatMap(applied -> insertLedgerRows(batch, results, applied).thenReturn(applied))
+                .as(transactionalOperator::transactional)
+                .doOnNext(applied -> applied.values().forEach(accountCache::invalidate))
+                .flatMap(applied -> rejectionReasons(deltas.keySet(), applied.keySet())
+                        .map(reasons -> {
+                            fillResults(batch, results, applied, reasons);
+                            return results;
+                        }))
+                .doOnNext(r -> log.info("Posted batch of {} postings across {} accounts", batch.size(), deltas.size()))
+                .flatMapMany(Flux::fromArray);
+    }
+
+    private String validate(PostingRequest posting) {
+        if (posting.getAccountId() == null) {
+            return "Account is required";
+        }
+        if (posting.getAmount() == null || !posting.getAmount().isPositive()) {
+            return "Amount must be positive";
+        }
+        String type = transactionType(posting);
+        if (!"deposit".equals(type) && !"withdrawal".equals(type)) {
+            return "Unsupported transaction type " + type;
+        }
+        return null;
+    }
+
+    /**
+     * Writes the ledger rows for every posting whose account was updated, skipping the rows
+     * already rejected by validation.
+     */
+    private Mono<Void> insertLedgerRows(List<Tuple2<Long, PostingRequest>> batch, PostingResult[] results,
+            Map<UUID, BankAccount> applied) {
+        List<PostingRequest> rows = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PostingRequest posting = batch.get(i).getT2();
+            if (results[i] == null && applied.containsKey(posting.getAccountId())) {
+                rows.add(posting);
+            }
+        }
+        return Flux.fromIterable(rows)
+                .buffer(insertChunkSize)
+                .concatMap(chunk -> bankTransactionRepository.insertAll(
+                        chunk.stream().map(PostingRequest::getAccountId).toArray(UUID[]::new),
+                        chunk.stream().map(this::transactionType).toArray(String[]::new),
+                        chunk.stream().map(posting -> posting.getAmount().toDecimal()).toArray(BigDecimal[]::new),
+                        chunk.stream().map(PostingRequest::getDescription).toArray(String[]::new)))
+                .then();
+    }
+
+    /**
+     * Works out why accounts were not updated. Only runs when some were not, so the common path
+     * costs no extra query.
+     */
+    private Mono<Map<UUID, String>> rejectionReasons(Set<UUID> requested, Set<UUID> applied) {
+        Set<UUID> skipped = new HashSet<>(requested);
+        skipped.removeAll(applied);
+        if (skipped.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return bankAccountRepository.findAllById(skipped)
+                .map(BankAccount::getId)
+                .collectList()
+                .map(existing -> {
+                    Map<UUID, String> reasons = new LinkedHashMap<>();
+                    for (UUID id : skipped) {
+                        reasons.put(id, existing.contains(id) ? "Insufficient funds" : "Account not found");
+                    }
+                    return reasons;
+                });
+    }
+
+    private void fillResults(List<Tuple2<Long, PostingRequest>> batch, PostingResult[] results,
+            Map<UUID, BankAccount> applied, Map<UUID, String> reasons) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            long index = batch.get(i).getT1();
+            UUID accountId = batch.get(i).getT2().getAccountId();
+            BankAccount account = applied.get(accountId);
+            results[i] = account != null
+                    ? PostingResult.builder()
+                            .index(index)
+                            .accountId(accountId)
+                            .status(POSTED)
+                            .balance(account.getBalance())
+                            .build()
+                    : rejected(index, accountId, reasons.get(accountId));
+        }
+    }
+
+    private PostingResult rejected(long index, UUID accountId, String reason) {
+        return PostingResult.builder()
+                .index(index)
+                .accountId(accountId)
+                .status(REJECTED)
+                .reason(reason)
+                .build();
+    }
+
+    private String transactionType(PostingRequest posting) {
+        return posting.getTransactionType() == null ? "deposit" : posting.getTransactionType();
+    }
+
+    private Money signedAmount(PostingRequest posting) {
+        return "withdrawal".equals(transactionType(posting)) ? posting.getAmount().negate() : posting.getAmount();
+    }
+}
@@ -0,0 +1,16 @@
+package com.microbank.banking.services;
+
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+
+import com.microbank.banking.dto.TransferResponse;
+import com.microbank.banking.entity.Money;
+
+import reactor.core.publisher.Mono;
+
+@Service
+public interface TransferService {
+
+    public Mono<TransferResponse> transfer(UUID fromAccountId, UUID toAccountId, Money amount, String description);
+}
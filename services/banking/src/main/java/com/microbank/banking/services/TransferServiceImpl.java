@@ -0,0 +1,91 @@
+package com.microbank.banking.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.dto.TransferResponse;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Moves money between two accounts in one database transaction.
+ *
+ * <p>Both rows are locked up front in {@code id} order, then the source is debited (with the
+ * overdraft check in the {@code UPDATE}), the destination credited, and two ledger rows sharing a
+ * {@code transfer_id} are written. Transfers deliberately bypass the per-account lanes: they span
+ * two accounts, and the ordered row locks already serialise them safely.
+ */
+@AllArgsConstructor
+@Slf4j
+public class TransferServiceImpl implements TransferService {
+
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final AccountCache accountCache;
+
+    @Override
+    public Mono<TransferResponse> transfer(UUID fromAccountId, UUID toAccountId, Money amount, String description) {
+        if (fromAccountId == null || toAccountId == null) {
+            return Mono.error(new RuntimeException("Both accounts are required"));
+        }
+        if (amount == null || !amount.isPositive()) {
+            return Mono.error(new RuntimeException("Amount must be positive"));
+        }
+        if (fromAccountId.equals(toAccountId)) {
+            return Mono.error(new RuntimeException("Cannot transfer to the same account"));
+        }
+        UUID transferId = UUID.randomUUID();
+
+        Mono<TransferResponse> postLegs = Mono.defer(() -> bankAccountRepository.debit(fromAccountId, amount)
+                .switchIfEmpty(Mono.error(new RuntimeException("Insufficient funds")))
+                .flatMap(debited -> bankAccountRepository.credit(toAccountId, amount)
+                        .thenMany(bankTransactionRepository.saveAll(List.of(
+                                leg(fromAccountId, amount, "transfer_out", description, transferId),
+                                leg(toAccountId, amount, "transfer_in", description, transferId))))
+                        .then(Mono.just(response(transferId, debited, toAccountId, amount)))));
+
+        return bankAccountRepository.lockInIdOrder(fromAccountId, toAccountId)
+                .collectList()
+                .flatMap(locked -> locked.size() < 2
+                ? Mono.<Tuple2<TransferResponse, List<BankAccount>>>empty()
+                : postLegs.map(response -> Tuples.of(response, locked)))
+                .as(transactionalOperator::transactional)
+                .doOnNext(posted -> posted.getT2().forEach(accountCache::invalidate))
+                .map(Tuple2::getT1)
+                .doOnNext(r -> log.info("Transfer {} of {} from {} to {} posted",
+                        transferId, amount, fromAccountId, toAccountId));
+    }
+
+    private BankTransaction leg(UUID accountId, Money amount, String type, String description, UUID transferId) {
+        return BankTransaction.builder()
+                .accountId(accountId)
+                .amount(amount)
+                .transactionType(type)
+                .description(description)
+                .transferId(transferId)
+                .build();
+    }
+
+    private TransferResponse response(UUID transferId, BankAccount debited, UUID toAccountId, Money amount) {
+        return TransferResponse.builder()
+                .transferId(transferId)
+                .fromAccountId(debited.getId())
+                .toAccountId(toAccountId)
+                .amount(amount)
+                .fromBalance(debited.getBalance())
+                .build();
+    }
+}
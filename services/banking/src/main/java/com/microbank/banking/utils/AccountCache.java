@@ -0,0 +1,189 @@
+package com.microbank.banking.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.microbank.banking.entity.BankAccount;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded in-process read-through cache for account lookups by account id and by account holder
+ * id, the two reads the frontend polls.
+ *
+ * <p>Each key holds the lookup itself, cached with {@link Mono#cache()}, so concurrent misses for
+ * one key share a single query. Entries are evicted least-recently-used past {@code maxSize} per
+ * lookup, and on first access after {@code ttl}. A lookup that found no account is cached too,
+ * until the account is created. Failed lookups are not cached.
+ *
+ * <p>Writers on this instance invalidate the account after their transaction commits. Writes on
+ * other instances show up here once the entry expires, so the TTL is the bound on staleness.
+ * Every caller gets its own copy of the account.
+ */
+public class AccountCache {
+
+    private final boolean enabled;
+    private final Region byId;
+    private final Region byHolder;
+
+    public AccountCache(boolean enabled, int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.enabled = enabled;
+        this.byId = new Region("id", maxSize, ttl.toNanos(), meterRegistry);
+        this.byHolder = new Region("holder", maxSize, ttl.toNanos(), meterRegistry);
+    }
+
+    public Mono<BankAccount> getById(UUID id, Supplier<Mono<BankAccount>> lookup) {
+        return enabled ? byId.get(id, lookup) : Mono.defer(lookup);
+    }
+
+    public Mono<BankAccount> getByHolderId(UUID accountHolderId, Supplier<Mono<BankAccount>> lookup) {
+        return enabled ? byHolder.get(accountHolderId, lookup) : Mono.defer(lookup);
+    }
+
+    /**
+     * Drops both lookups of {@code account}. Call once a write to it has committed.
+     */
+    public void invalidate(BankAccount account) {
+        byId.remove(account.getId());
+        byHolder.remove(account.getAccountHolderId());
+    }
+
+    /**
+     * Drops an account known only by id. Finding its holder entry means scanning that lookup, so
+     * this is for rare writes such as deletes; lookups still in flight are dropped as well.
+     */
+    public void invalidate(UUID accountId) {
+        byId.remove(accountId);
+        byHolder.removeIf(account -> account == null || accountId.equals(account.getId()));
+    }
+
+    public int size() {
+        return byId.size() + byHolder.size();
+    }
+
+    private static BankAccount copy(BankAccount account) {
+        return new BankAccount(account.getId(), account.getAccountNumber(), account.getAccountHolderId(),
+                account.getBalance(), account.getCreatedAt());
+    }
+
+    private static final class Region {
+        private final long ttlNanos;
+        private final Map<UUID, Entry> entries;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter sizeEvictions;
+        private final Counter expiredEvictions;
+
+        Region(String lookup, int maxSize, long ttlNanos, MeterRegistry meterRegistry) {
+            this.ttlNanos = ttlNanos;
+            this.hits = Counter.builder("banking.accounts.cache.hits")
+                    .tag("lookup", lookup)
+                    .description("Account lookups answered from the in-memory cache")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("banking.accounts.cache.misses")
+                    .tag("lookup", lookup)
+                    .description("Account lookups that went to the database")
+                    .register(meterRegistry);
+            this.sizeEvictions = Counter.builder("banking.accounts.cache.evictions")
+                    .tag("lookup", lookup)
+                    .tag("cause", "size")
+                    .description("Account cache entries evicted")
+                    .register(meterRegistry);
+            this.expiredEvictions = Counter.builder("banking.accounts.cache.evictions")
+                    .tag("lookup", lookup)
+                    .tag("cause", "expired")
+                    .description("Account cache entries evicted")
+                    .register(meterRegistry);
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                    if (size() > maxSize) {
+                        sizeEvictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+            Gauge.builder("banking.accounts.cache.size", this, Region::size)
+                    .tag("lookup", lookup)
+                    .description("Account lookups held in memory")
+                    .register(meterRegistry);
+        }
+
+        Mono<BankAccount> get(UUID key, Supplier<Mono<BankAccount>> lookup) {
+            return Mono.defer(() -> {
+                long now = System.nanoTime();
+                Entry entry;
+                boolean hit;
+                synchronized (entries) {
+                    entry = entries.get(key);
+                    hit = entry != null && entry.expiresAt - now > 0;
+                    if (!hit) {
+                        if (entry != null) {
+                            expiredEvictions.increment();
+                        }
+                        Entry created = new Entry(now + ttlNanos);
+                        created.result = Mono.defer(lookup)
+                                .doOnSuccess(account -> created.loaded(account))
+                                .doOnError(e -> remove(key, created))
+                                .cache();
+                        entries.put(key, created);
+                        entry = created;
+                    }
+                }
+                (hit ? hits : misses).increment();
+                return entry.result.map(AccountCache::copy);
+            });
+        }
+
+        void remove(UUID key) {
+            synchronized (entries) {
+                entries.remove(key);
+            }
+        }
+
+        void removeIf(Predicate<BankAccount> stale) {
+            synchronized (entries) {
+                entries.values().removeIf(entry -> !entry.loaded || stale.test(entry.account));
+            }
+        }
+
+        int size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+
+        private void remove(UUID key, Entry entry) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+        }
+    }
+
+    private static final class Entry {
+        final long expiresAt;
+        Mono<BankAccount> result;
+        volatile boolean loaded;
+        volatile BankAccount account;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        void loaded(BankAccount account) {
+            this.account = account;
+            this.loaded = true;
+        }
+    }
+}
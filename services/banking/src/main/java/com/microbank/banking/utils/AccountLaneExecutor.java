@@ -0,0 +1,158 @@
+package com.microbank.banking.utils;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Runs reactive operations for the same account strictly one after another, while operations
+ * for different accounts run in parallel.
+ *
+ * <p>Account ids are hashed onto a fixed number of lanes. Each lane owns a lock-free
+ * multi-producer mailbox and subscribes to at most one operation at a time; the next one starts
+ * when the previous one terminates. A lane that already holds {@code maxQueueDepth} waiting
+ * operations rejects new ones with {@code 429 Too Many Requests}.
+ *
+ * <p>Cancelling a queued operation drops it. Cancelling a running one only discards its result:
+ * the operation itself is left to finish so a ledger write is never torn in half.
+ */
+public class AccountLaneExecutor {
+
+    private final Lane[] lanes;
+    private final int maxQueueDepth;
+
+    public AccountLaneExecutor(int laneCount, int maxQueueDepth, MeterRegistry meterRegistry) {
+        if (laneCount < 1 || maxQueueDepth < 1) {
+            throw new IllegalArgumentException("laneCount and maxQueueDepth must be positive");
+        }
+        this.maxQueueDepth = maxQueueDepth;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, meterRegistry);
+        }
+    }
+
+    /**
+     * Queues {@code operation} on the lane owning {@code accountId}. The supplier is invoked only
+     * once every earlier operation on that lane has completed.
+     */
+    public <T> Mono<T> execute(UUID accountId, Supplier<Mono<T>> operation) {
+        return Mono.create(sink -> lanes[laneFor(accountId)].submit(operation, sink));
+    }
+
+    public int laneFor(UUID accountId) {
+        int hash = accountId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int queueDepth(int lane) {
+        return lanes[lane].depth.get();
+    }
+
+    private static final class Task<T> {
+        final Supplier<Mono<T>> operation;
+        final MonoSink<T> sink;
+        final long enqueuedAt = System.nanoTime();
+        volatile boolean cancelled;
+
+        Task(Supplier<Mono<T>> operation, MonoSink<T> sink) {
+            this.operation = operation;
+            this.sink = sink;
+        }
+    }
+
+    private final class Lane {
+        final Queue<Task<?>> mailbox = new ConcurrentLinkedQueue<>();
+        final AtomicInteger depth = new AtomicInteger();
+        final AtomicInteger wip = new AtomicInteger();
+        volatile boolean busy;
+
+        final Timer waitTimer;
+        final Counter rejected;
+
+        Lane(int index, MeterRegistry meterRegistry) {
+            String lane = String.valueOf(index);
+            Gauge.builder("banking.lanes.queue.depth", depth, AtomicInteger::get)
+                    .tag("lane", lane)
+                    .description("Operations waiting in the account lane")
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("banking.lanes.wait")
+                    .tag("lane", lane)
+                    .description("Time an operation waited in its lane before starting")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("banking.lanes.rejected")
+                    .tag("lane", lane)
+                    .description("Operations rejected because the lane was full")
+                    .register(meterRegistry);
+        }
+
+        <T> void submit(Supplier<Mono<T>> operation, MonoSink<T> sink) {
+            if (depth.incrementAndGet() > maxQueueDepth) {
+                depth.decrementAndGet();
+                rejected.increment();
+                sink.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many pending operations for this account, retry later"));
+                return;
+            }
+            Task<T> task = new Task<>(operation, sink);
+            sink.onCancel(() -> task.cancelled = true);
+            mailbox.offer(task);
+            drain();
+        }
+
+        /**
+         * Serialises access to the mailbox consumer side: whichever thread wins {@code wip}
+         * polls and starts tasks, everyone else just records that there is more work.
+         */
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!busy) {
+                    Task<?> task = mailbox.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    depth.decrementAndGet();
+                    if (task.cancelled) {
+                        continue;
+                    }
+                    busy = true;
+                    start(task);
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        <T> void start(Task<T> task) {
+            waitTimer.record(Duration.ofNanos(System.nanoTime() - task.enqueuedAt));
+            Mono<T> source;
+            try {
+                source = task.operation.get();
+            } catch (Throwable e) {
+                source = Mono.error(e);
+            }
+            source.doFinally(signal -> {
+                busy = false;
+                drain();
+            }).subscribe(task.sink::success, task.sink::error, task.sink::success);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.microbank.banking.utils;
+
+import com.microbank.banking.repository.BankAccountRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hands out unique 10-digit account numbers without a database round trip per number.
+ *
+ * <p>Numbers come from {@code account_number_seq}, which advances by {@value #BLOCK_SIZE} per
+ * {@code nextval}: each call reserves a block of that many sequence values for this instance,
+ * and numbers are then handed out from memory. Uniqueness follows from the sequence, so there is
+ * no existence check; a restart only wastes the rest of the block.
+ *
+ * <p>A sequence value {@code n} becomes a 9-digit body {@code 100000000 + permute(n)} followed by
+ * a Luhn check digit. {@link #permute} is a keyed Feistel network over 30 bits, cycle-walked into
+ * the 900M possible bodies, so consecutive accounts get unrelated-looking numbers while
+ * {@link #sequenceOf} can still map a number back. The key and block size are part of the
+ * numbering scheme and must never change once numbers have been issued.
+ */
+@Slf4j
+public class AccountNumberAllocator {
+
+    /** Must match {@code INCREMENT BY} of {@code account_number_seq}. */
+    public static final int BLOCK_SIZE = 1000;
+
+    static final long BODY_COUNT = 900_000_000L;
+    private static final long BODY_OFFSET = 100_000_000L;
+    private static final int HALF_BITS = 15;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int[] ROUND_KEYS = {0x5bd1e995, 0x27d4eb2f, 0x165667b1, 0x1b873593};
+
+    private final BankAccountRepository bankAccountRepository;
+    private long next;
+    private long end;
+    private Mono<Void> refill;
+
+    public AccountNumberAllocator(BankAccountRepository bankAccountRepository) {
+        this.bankAccountRepository = bankAccountRepository;
+    }
+
+    /**
+     * The next unused account number. Only the caller that empties a block waits for the
+     * database; callers arriving meanwhile share that one refill.
+     */
+    public Mono<String> next() {
+        return Mono.defer(() -> {
+            Mono<Void> pending;
+            synchronized (this) {
+                if (next < end) {
+                    return Mono.just(format(next++));
+                }
+                if (refill == null) {
+                    refill = bankAccountRepository.nextAccountNumberBlock()
+                            .doOnNext(this::startBlock)
+                            .doOnError(e -> clearRefill())
+                            .then()
+                            .cache();
+                }
+                pending = refill;
+            }
+            return pending.then(next());
+        });
+    }
+
+    /** Clears {@code refill} before its waiters are released, so they see the new block. */
+    private synchronized void startBlock(long first) {
+        refill = null;
+        if (first + BLOCK_SIZE > BODY_COUNT) {
+            throw new IllegalStateException("Account number space exhausted");
+        }
+        next = first;
+        end = first + BLOCK_SIZE;
+        log.debug("Reserved account numbers {} to {}", first, end - 1);
+    }
+
+    private synchronized void clearRefill() {
+        refill = null;
+    }
+
+    /** The account number for sequence value {@code n}. */
+    public static String format(long n) {
+        long body = BODY_OFFSET + permute(n);
+        return String.valueOf(body * 10 + checkDigit(body));
+    }
+
+    /** The sequence value an account number was issued from, or -1 if it is not one of ours. */
+    public static long sequenceOf(String accountNumber) {
+        if (!isValid(accountNumber)) {
+            return -1;
+        }
+        return unpermute(Long.parseLong(accountNumber) / 10 - BODY_OFFSET);
+    }
+
+    /** Whether {@code accountNumber} is ten digits with a correct Luhn check digit. */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != 10 || accountNumber.charAt(0) == '0') {
+            return false;
+        }
+        for (int i = 0; i < accountNumber.length(); i++) {
+            if (!Character.isDigit(accountNumber.charAt(i))) {
+                return false;
+            }
+        }
+        long number = Long.parseLong(accountNumber);
+        return checkDigit(number / 10) == number % 10;
+    }
+
+    /** Luhn check digit for {@code body}. */
+    static int checkDigit(long body) {
+        int sum = 0;
+        boolean twice = true;
+        for (long rest = body; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (twice) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            twice = !twice;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    static long permute(long n) {
+        if (n < 0 || n >= BODY_COUNT) {
+            throw new IllegalArgumentException("Sequence value out of range: " + n);
+        }
+        long x = n;
+        do {
+            x = feistel(x);
+        } while (x >= BODY_COUNT);
+        return x;
+    }
+
+    static long unpermute(long body) {
+        if (body < 0 || body >= BODY_COUNT) {
+            throw new IllegalArgumentException("Body out of range: " + body);
+        }
+        long x = body;
+        do {
+            x = inverseFeistel(x);
+        } while (x >= BODY_COUNT);
+        return x;
+    }
+
+    private static long feistel(long x) {
+        int left = (int) (x >>> HALF_BITS) & HALF_MASK;
+        int right = (int) x & HALF_MASK;
+        for (int key : ROUND_KEYS) {
+            int mixed = left ^ round(right, key);
+            left = right;
+            right = mixed;
+        }
+        return ((long) left << HALF_BITS) | right;
+    }
+
+    private static long inverseFeistel(long x) {
+        int left = (int) (x >>> HALF_BITS) & HALF_MASK;
+        int right = (int) x & HALF_MASK;
+        for (int i = ROUND_KEYS.length - 1; i >= 0; i--) {
+            int mixed = right ^ round(left, ROUND_KEYS[i]);
+            right = left;
+            left = mixed;
+        }
+        return ((long) left << HALF_BITS) | right;
+    }
+
+    private static int round(int half, int key) {
+        int h = (half + key) * 0x9e3779b1;
+        h ^= h >>> 15;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h & HALF_MASK;
+    }
+}
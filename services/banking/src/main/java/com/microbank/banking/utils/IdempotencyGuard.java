@@ -0,0 +1,224 @@
+package com.microbank.banking.utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.IdempotencyKeyRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Makes deposits and withdrawals sent with an {@code Idempotency-Key} run at most once per
+ * account and key.
+ *
+ * <p>There are two layers. {@link #cached} keeps a bounded LRU of recent results in memory,
+ * including postings that are still running, so a retry inside the hot window gets the first
+ * result without touching Postgres. {@link #claimed} is the durable layer: inside the posting's
+ * own transaction it claims the key in {@code idempotency_keys} and stores the resulting balance.
+ * A retry that misses the cache, for example on another instance, replays the stored result.
+ *
+ * <p>Only postings that commit are remembered. A posting that failed, for example on
+ * insufficient funds, runs again when retried.
+ */
+@Slf4j
+public class IdempotencyGuard {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final Duration cacheTtl;
+    private final Duration ttl;
+    private final Map<CacheKey, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter memoryDuplicates;
+    private final Counter databaseDuplicates;
+
+    public IdempotencyGuard(IdempotencyKeyRepository idempotencyKeyRepository,
+            BankAccountRepository bankAccountRepository,
+            int cacheSize,
+            Duration cacheTtl,
+            Duration ttl,
+            MeterRegistry meterRegistry) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be positive");
+        }
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.cacheTtl = cacheTtl;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        this.hits = Counter.builder("banking.idempotency.cache.hits")
+                .description("Idempotent postings answered from the in-memory cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("banking.idempotency.cache.misses")
+                .description("Idempotent postings not found in the in-memory cache")
+                .register(meterRegistry);
+        this.memoryDuplicates = Counter.builder("banking.idempotency.duplicates")
+                .tag("source", "memory")
+                .description("Retried postings that were not posted again")
+                .register(meterRegistry);
+        this.databaseDuplicates = Counter.builder("banking.idempotency.duplicates")
+                .tag("source", "database")
+                .description("Retried postings that were not posted again")
+                .register(meterRegistry);
+        Gauge.builder("banking.idempotency.cache.size", this, IdempotencyGuard::size)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+        Gauge.builder("banking.idempotency.cache.hit.ratio", this, IdempotencyGuard::hitRatio)
+                .description("Share of idempotent postings answered from memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the in-memory result for {@code key} if there is one, otherwise starts
+     * {@code posting} and caches it. Callers arriving while the posting is still running share
+     * its result. A failed posting is dropped from the cache.
+     */
+    public Mono<BankAccount> cached(UUID accountId, String key, String operation, Supplier<Mono<BankAccount>> posting) {
+        return Mono.defer(() -> {
+            validate(key);
+            CacheKey cacheKey = new CacheKey(accountId, key);
+            long now = System.nanoTime();
+            Entry entry;
+            boolean hit;
+            synchronized (entries) {
+                entry = entries.get(cacheKey);
+                hit = entry != null && entry.expiresAt - now > 0;
+                if (!hit) {
+                    Entry created = new Entry(operation, now + cacheTtl.toNanos());
+                    created.result = Mono.defer(posting)
+                            .doOnError(e -> evict(cacheKey, created))
+                            .cache();
+                    entries.put(cacheKey, created);
+                    entry = created;
+                }
+            }
+            if (!hit) {
+                misses.increment();
+                return entry.result;
+            }
+            hits.increment();
+            if (!entry.operation.equals(operation)) {
+                return Mono.error(reused(entry.operation));
+            }
+            memoryDuplicates.increment();
+            return entry.result;
+        });
+    }
+
+    /**
+     * Runs {@code posting} only if {@code key} can be claimed in {@code idempotency_keys}, and
+     * records its resulting balance; otherwise replays the stored result. Must run inside the
+     * same transaction as the posting, so the claim and the posting commit or roll back together.
+     */
+    public Mono<BankAccount> claimed(UUID accountId, String key, String operation, Supplier<Mono<BankAccount>> posting) {
+        return Mono.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return idempotencyKeyRepository.claim(accountId, key, operation, now, now.plus(ttl))
+                    .hasElement()
+                    .flatMap(claimed -> claimed
+                    ? posting.get().flatMap(account -> idempotencyKeyRepository
+                            .complete(accountId, key, account.getBalance())
+                            .thenReturn(account))
+                    : replay(accountId, key, operation));
+        });
+    }
+
+    /**
+     * The stored row only keeps the balance; the rest of the response is the account as it is
+     * now. A row without a balance means the account did not exist, which replays as empty.
+     */
+    private Mono<BankAccount> replay(UUID accountId, String key, String operation) {
+        return idempotencyKeyRepository.findByAccountIdAndIdempotencyKey(accountId, key)
+                .flatMap(stored -> {
+                    if (!operation.equals(stored.getOperation())) {
+                        return Mono.error(reused(stored.getOperation()));
+                    }
+                    databaseDuplicates.increment();
+                    if (stored.getBalance() == null) {
+                        return Mono.empty();
+                    }
+                    return bankAccountRepository.findById(accountId)
+                            .doOnNext(account -> account.setBalance(stored.getBalance()));
+                });
+    }
+
+    /**
+     * Deletes keys past their TTL. Claiming an expired key reuses its row, so this only keeps
+     * the table from growing with keys that are never retried.
+     */
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        idempotencyKeyRepository.deleteExpired(LocalDateTime.now())
+                .doOnNext(deleted -> log.debug("Purged {} expired idempotency keys", deleted))
+                .doOnError(e -> log.warn("Idempotency key purge failed", e))
+                .onErrorComplete()
+                .block();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private void evict(CacheKey cacheKey, Entry entry) {
+        synchronized (entries) {
+            entries.remove(cacheKey, entry);
+        }
+    }
+
+    private void validate(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private ResponseStatusException reused(String operation) {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used for a " + operation);
+    }
+
+    private record CacheKey(UUID accountId, String key) {
+    }
+
+    private static final class Entry {
+        final String operation;
+        final long expiresAt;
+        Mono<BankAccount> result;
+
+        Entry(String operation, long expiresAt) {
+            this.operation = operation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
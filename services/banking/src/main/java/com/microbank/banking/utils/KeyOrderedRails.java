@@ -0,0 +1,78 @@
+package com.microbank.banking.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverRecord;
+
+/**
+ * Spreads received Kafka records over a fixed number of rails that run in parallel, while records
+ * with the same key stay in order.
+ *
+ * <p>A record goes to the rail picked by its key's hash, or by its partition when it has no key.
+ * Each rail handles one record at a time, so a slow write only holds up the keys sharing its
+ * rail instead of the whole stream. Records of one partition can therefore finish out of
+ * order: handlers acknowledge their record, and the receiver must be created with
+ * {@code maxDeferredCommits} so it only commits a partition up to its oldest unfinished record.
+ *
+ * <p>The number of records received but not yet handled is published per partition as
+ * {@code banking.consumer.in.flight}.
+ */
+public class KeyOrderedRails {
+
+    private final int rails;
+    private final MeterRegistry meterRegistry;
+    private final Map<TopicPartition, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public KeyOrderedRails(int rails, MeterRegistry meterRegistry) {
+        if (rails < 1) {
+            throw new IllegalArgumentException("rails must be positive");
+        }
+        this.rails = rails;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs {@code handler} for every record of {@code records}, one record at a time per rail.
+     * The returned flux completes when {@code records} does, and fails if a handler fails.
+     */
+    public <K, V> Flux<Void> run(Flux<ReceiverRecord<K, V>> records, Function<ReceiverRecord<K, V>, Mono<Void>> handler) {
+        return records
+                .doOnNext(record -> inFlightFor(record.receiverOffset().topicPartition()).incrementAndGet())
+                .groupBy(this::railFor)
+                .flatMap(rail -> rail.concatMap(record -> handler.apply(record)
+                        .doFinally(signal -> inFlightFor(record.receiverOffset().topicPartition()).decrementAndGet())),
+                        rails);
+    }
+
+    public int railFor(ConsumerRecord<?, ?> record) {
+        int hash = record.key() == null ? record.partition() : record.key().hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), rails);
+    }
+
+    public int inFlight(TopicPartition partition) {
+        AtomicInteger count = inFlight.get(partition);
+        return count == null ? 0 : count.get();
+    }
+
+    private AtomicInteger inFlightFor(TopicPartition partition) {
+        return inFlight.computeIfAbsent(partition, p -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("banking.consumer.in.flight", count, AtomicInteger::get)
+                    .tag("topic", p.topic())
+                    .tag("partition", String.valueOf(p.partition()))
+                    .description("Records received from the partition and not yet handled")
+                    .register(meterRegistry);
+            return count;
+        });
+    }
+}
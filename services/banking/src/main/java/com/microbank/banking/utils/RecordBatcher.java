@@ -0,0 +1,123 @@
+package com.microbank.banking.utils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.kafka.common.TopicPartition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+
+/**
+ * Hands received Kafka records to a handler in batches instead of one at a time, so a burst of
+ * records costs one round trip per batch rather than one per record.
+ *
+ * <p>A batch is closed when it holds {@code batchSize} records or when {@code linger} has passed
+ * since its first record, whichever comes first. Batches are handled one after another. Once a
+ * batch's handler completes, only the highest offset of each partition in the batch is committed,
+ * which covers every record before it. A batch whose handler fails is not committed.
+ *
+ * <p>Published meters: {@code banking.consumer.batch.size} (records per batch),
+ * {@code banking.consumer.batch.duration} (handling plus commit), {@code banking.consumer.batch.records}
+ * (records handled; its rate is the consumer's records/sec) and
+ * {@code banking.consumer.batch.throughput} (records/sec achieved by the last batch).
+ */
+@Slf4j
+public class RecordBatcher {
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration linger;
+
+    private final DistributionSummary sizes;
+    private final Timer durations;
+    private final Counter records;
+    private final AtomicLong throughput = new AtomicLong();
+
+    public RecordBatcher(boolean enabled, int batchSize, Duration linger, MeterRegistry meterRegistry) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (linger.isNegative() || linger.isZero()) {
+            throw new IllegalArgumentException("linger must be positive");
+        }
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.linger = linger;
+
+        this.sizes = DistributionSummary.builder("banking.consumer.batch.size")
+                .description("Records per consumed batch")
+                .register(meterRegistry);
+        this.durations = Timer.builder("banking.consumer.batch.duration")
+                .description("Time to handle and commit a consumed batch")
+                .register(meterRegistry);
+        this.records = Counter.builder("banking.consumer.batch.records")
+                .description("Records handled in batches")
+                .register(meterRegistry);
+        Gauge.builder("banking.consumer.batch.throughput", throughput, AtomicLong::get)
+                .description("Records per second achieved by the last batch")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code handler} for each batch of {@code records} and commits the batch once it
+     * completes. Emits each batch's size once its offsets are committed; completes when
+     * {@code records} does, and fails if a handler or a commit fails.
+     */
+    public <K, V> Flux<Integer> run(Flux<ReceiverRecord<K, V>> records, Function<List<ReceiverRecord<K, V>>, Mono<Void>> handler) {
+        return records
+                .bufferTimeout(batchSize, linger, true)
+                .concatMap(batch -> {
+                    long started = System.nanoTime();
+                    return handler.apply(batch)
+                            .then(commit(batch))
+                            .then(Mono.fromCallable(() -> {
+                                completed(batch.size(), System.nanoTime() - started);
+                                return batch.size();
+                            }));
+                });
+    }
+
+    /** The last record's offset of every partition in {@code batch}, in order of first appearance. */
+    public static <K, V> Collection<ReceiverOffset> highestOffsets(List<ReceiverRecord<K, V>> batch) {
+        Map<TopicPartition, ReceiverOffset> highest = new LinkedHashMap<>();
+        for (ReceiverRecord<K, V> record : batch) {
+            highest.merge(record.receiverOffset().topicPartition(), record.receiverOffset(),
+                    (current, next) -> next.offset() > current.offset() ? next : current);
+        }
+        return highest.values();
+    }
+
+    private <K, V> Mono<Void> commit(List<ReceiverRecord<K, V>> batch) {
+        return Flux.fromIterable(highestOffsets(batch))
+                .flatMap(ReceiverOffset::commit)
+                .then();
+    }
+
+    private void completed(int size, long nanos) {
+        sizes.record(size);
+        durations.record(nanos, TimeUnit.NANOSECONDS);
+        records.increment(size);
+        long perSecond = size * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+        throughput.set(perSecond);
+        log.debug("Handled a batch of {} records in {}us ({} records/s)", size, nanos / 1_000, perSecond);
+    }
+}
@@ -0,0 +1,275 @@
+package com.microbank.banking.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.util.retry.Retry;
+
+/**
+ * Tiered retry and dead-letter topics for a consumed topic, so a record that fails is parked
+ * instead of stopping the consumer or being dropped.
+ *
+ * <p>A failed record is re-published to {@code <topic>.retry.1} with the time it becomes due,
+ * and each further failure moves it one tier up, {@code <topic>.retry.2} and so on, each with its
+ * own longer delay. After the last tier, or straight away for a record that can never succeed,
+ * it goes to {@code <topic>.dlq}. Every copy keeps its key, so a user's records stay on one
+ * partition, and carries headers describing where it came from and why it failed.
+ *
+ * <p>Each tier is read by its own consumer in a group of its own, so tiers never rebalance each
+ * other or the main consumer. A tier's consumer holds a record back until it is due. Records
+ * in a tier share one delay, so they become due in the order they arrive and waiting on the
+ * oldest never holds up a newer one. The main topic is never paused for a retry.
+ *
+ * <p>Dead letters stay put until {@link #replayDeadLetters} sends them back to their original
+ * topic.
+ */
+@Slf4j
+public class RetryTopics {
+
+    public static final String ATTEMPTS = "x-attempts";
+    public static final String DUE_AT = "x-due-at";
+    public static final String ORIGINAL_TOPIC = "x-original-topic";
+    public static final String ORIGINAL_PARTITION = "x-original-partition";
+    public static final String ORIGINAL_OFFSET = "x-original-offset";
+    public static final String EXCEPTION = "x-exception";
+    public static final String EXCEPTION_MESSAGE = "x-exception-message";
+    public static final String FAILED_AT = "x-failed-at";
+
+    private static final String RETRY_GROUP_SUFFIX = "-retry-";
+    private static final String REPLAY_GROUP_SUFFIX = "-dlq-replay";
+    private static final int MAX_DEFERRED_COMMITS = 1000;
+    private static final Duration SEND_MAX_BACKOFF = Duration.ofSeconds(10);
+
+    private final String topic;
+    private final List<Duration> delays;
+    private final ReceiverOptions<String, byte[]> receiverOptions;
+    private final KafkaSender<String, byte[]> kafkaSender;
+    private final Duration replayStartTimeout;
+    private final Duration replayIdleTimeout;
+    private final AtomicBoolean replaying = new AtomicBoolean();
+
+    private final List<Counter> retried = new ArrayList<>();
+    private final Counter deadLettered;
+    private final Counter replayed;
+
+    public RetryTopics(String topic,
+            List<Duration> delays,
+            ReceiverOptions<String, byte[]> receiverOptions,
+            KafkaSender<String, byte[]> kafkaSender,
+            Duration replayStartTimeout,
+            Duration replayIdleTimeout,
+            MeterRegistry meterRegistry) {
+        if (delays.isEmpty()) {
+            throw new IllegalArgumentException("at least one retry delay is required");
+        }
+        this.topic = topic;
+        this.delays = List.copyOf(delays);
+        this.receiverOptions = receiverOptions;
+        this.kafkaSender = kafkaSender;
+        this.replayStartTimeout = replayStartTimeout;
+        this.replayIdleTimeout = replayIdleTimeout;
+
+        for (int tier = 1; tier <= delays.size(); tier++) {
+            retried.add(Counter.builder("banking.consumer.retries")
+                    .tag("topic", retryTopic(tier))
+                    .description("Failed records scheduled for another attempt")
+                    .register(meterRegistry));
+        }
+        this.deadLettered = Counter.builder("banking.consumer.dead.letters")
+                .tag("topic", deadLetterTopic())
+                .description("Records given up on and parked in the dead-letter topic")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("banking.consumer.dead.letters.replayed")
+                .tag("topic", deadLetterTopic())
+                .description("Dead letters sent back to their original topic")
+                .register(meterRegistry);
+    }
+
+    public String retryTopic(int tier) {
+        return topic + ".retry." + tier;
+    }
+
+    public String deadLetterTopic() {
+        return topic + ".dlq";
+    }
+
+    /**
+     * Records from every retry tier, each emitted once it is due. Offsets are left to the caller
+     * to acknowledge, as for the main topic.
+     */
+    public Flux<ReceiverRecord<String, byte[]>> receiveDue() {
+        // retried records may be handled out of order, so commit only up to the oldest unfinished one
+        ReceiverOptions<String, byte[]> options = receiverOptions.maxDeferredCommits() > 0
+                ? receiverOptions
+                : receiverOptions.maxDeferredCommits(MAX_DEFERRED_COMMITS);
+        List<Flux<ReceiverRecord<String, byte[]>>> tiers = new ArrayList<>();
+        for (int tier = 1; tier <= delays.size(); tier++) {
+            tiers.add(KafkaReceiver.create(options
+                    .consumerProperty(ConsumerConfig.GROUP_ID_CONFIG, receiverOptions.groupId() + RETRY_GROUP_SUFFIX + tier)
+                    .subscription(List.of(retryTopic(tier))))
+                    .receive()
+                    .concatMap(record -> Mono.delay(untilDue(record)).thenReturn(record)));
+        }
+        return Flux.merge(tiers);
+    }
+
+    /**
+     * Schedules another attempt at {@code record} in the next tier, or parks it in the
+     * dead-letter topic once every tier has been tried. Completes when the copy is written;
+     * the caller can then acknowledge the original.
+     */
+    public Mono<Void> retry(ConsumerRecord<String, byte[]> record, Throwable error) {
+        int attempts = attempts(record) + 1;
+        if (attempts > delays.size()) {
+            return deadLetter(record, error);
+        }
+        Instant dueAt = Instant.now().plus(delays.get(attempts - 1));
+        Counter counter = retried.get(attempts - 1);
+        return send(retryTopic(attempts), record, failureHeaders(record, error, attempts, dueAt))
+                .doOnSuccess(v -> counter.increment());
+    }
+
+    /** Parks {@code record} in the dead-letter topic without further attempts. */
+    public Mono<Void> deadLetter(ConsumerRecord<String, byte[]> record, Throwable error) {
+        return send(deadLetterTopic(), record, failureHeaders(record, error, attempts(record) + 1, null))
+                .doOnSuccess(v -> {
+                    deadLettered.increment();
+                    log.error("Dead-lettered record {}-{}@{}: {}", record.topic(), record.partition(), record.offset(),
+                            error.toString());
+                });
+    }
+
+    /**
+     * Sends up to {@code limit} dead letters back to the topic they first failed on, with their
+     * attempt count reset, and emits how many were sent. Stops early once no dead letter has
+     * arrived for the idle timeout. Progress is kept in a consumer group of its own, so a replay
+     * resumes after the records the previous one sent. A record can be sent twice if a replay is
+     * cut short between sending it and committing its offset.
+     */
+    public Mono<Long> replayDeadLetters(int limit) {
+        if (limit < 1) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive"));
+        }
+        return Mono.defer(() -> {
+            if (!replaying.compareAndSet(false, true)) {
+                return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "A dead-letter replay is already running"));
+            }
+            String group = receiverOptions.groupId() + REPLAY_GROUP_SUFFIX;
+            ReceiverOptions<String, byte[]> options = receiverOptions
+                    .consumerProperty(ConsumerConfig.GROUP_ID_CONFIG, group)
+                    .maxDeferredCommits(MAX_DEFERRED_COMMITS)
+                    .subscription(List.of(deadLetterTopic()));
+            // records past the limit are left unsent and unacknowledged, so the next replay starts with them;
+            // the receiver stays open until every sent record is acknowledged, and commits them on close
+            AtomicLong received = new AtomicLong();
+            // sends complete out of order across target partitions; deferred commits keep the offsets safe
+            return kafkaSender.send(KafkaReceiver.create(options).receive()
+                    .filter(record -> received.incrementAndGet() <= limit)
+                    .map(record -> SenderRecord.<String, byte[], ReceiverOffset>create(replayRecord(record),
+                            record.receiverOffset())))
+                    .doOnNext(result -> result.correlationMetadata().acknowledge())
+                    .take(limit)
+                    .timeout(Mono.delay(replayStartTimeout), result -> Mono.delay(replayIdleTimeout), Flux.empty())
+                    // released before the count is emitted, so a caller can start the next replay right away
+                    .doOnTerminate(() -> replaying.set(false))
+                    .doOnCancel(() -> replaying.set(false))
+                    .count()
+                    .doOnNext(count -> {
+                        replayed.increment(count);
+                        log.info("Replayed {} dead letters from {}", count, deadLetterTopic());
+                    });
+        });
+    }
+
+    /** How many times {@code record} has already failed; zero for a record from the main topic. */
+    public static int attempts(ConsumerRecord<?, ?> record) {
+        String attempts = header(record.headers(), ATTEMPTS);
+        return attempts == null ? 0 : Integer.parseInt(attempts);
+    }
+
+    private static Duration untilDue(ConsumerRecord<?, ?> record) {
+        String dueAt = header(record.headers(), DUE_AT);
+        if (dueAt == null) {
+            return Duration.ZERO;
+        }
+        long millis = Long.parseLong(dueAt) - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, millis));
+    }
+
+    private Mono<Void> send(String target, ConsumerRecord<String, byte[]> record, Headers headers) {
+        ProducerRecord<String, byte[]> copy = new ProducerRecord<>(target, null, record.key(), record.value(), headers);
+        return kafkaSender.send(Mono.just(SenderRecord.create(copy, null)))
+                .then()
+                // a record is only acknowledged once its copy is written, so keep trying rather than lose it
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100))
+                        .maxBackoff(SEND_MAX_BACKOFF)
+                        .doBeforeRetry(signal -> log.warn("Writing record to {} failed, retrying", target,
+                                signal.failure())));
+    }
+
+    /**
+     * The record's own headers plus its failure details. The original topic, partition and
+     * offset are kept from the first failure.
+     */
+    private static Headers failureHeaders(ConsumerRecord<String, byte[]> record, Throwable error, int attempts, Instant dueAt) {
+        Headers headers = new RecordHeaders(record.headers().toArray());
+        if (header(headers, ORIGINAL_TOPIC) == null) {
+            put(headers, ORIGINAL_TOPIC, record.topic());
+            put(headers, ORIGINAL_PARTITION, String.valueOf(record.partition()));
+            put(headers, ORIGINAL_OFFSET, String.valueOf(record.offset()));
+        }
+        put(headers, ATTEMPTS, String.valueOf(attempts));
+        put(headers, EXCEPTION, error.getClass().getName());
+        put(headers, EXCEPTION_MESSAGE, String.valueOf(error.getMessage()));
+        put(headers, FAILED_AT, Instant.now().toString());
+        if (dueAt == null) {
+            headers.remove(DUE_AT);
+        } else {
+            put(headers, DUE_AT, String.valueOf(dueAt.toEpochMilli()));
+        }
+        return headers;
+    }
+
+    private ProducerRecord<String, byte[]> replayRecord(ConsumerRecord<String, byte[]> record) {
+        Headers headers = new RecordHeaders(record.headers().toArray());
+        headers.remove(ATTEMPTS);
+        headers.remove(DUE_AT);
+        String target = header(headers, ORIGINAL_TOPIC);
+        return new ProducerRecord<>(target == null ? topic : target, null, record.key(), record.value(), headers);
+    }
+
+    private static void put(Headers headers, String key, String value) {
+        headers.remove(key);
+        headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String header(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
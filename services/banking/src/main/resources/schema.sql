@@ -15,5 +15,53 @@ CREATE TABLE IF NOT EXISTS bank_transactions (
     amount DECIMAL(15, 2) NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (account_id) REFERENCES bank_accounts(id),
-    description TEXT
-);
\ No newline at end of file
+    description TEXT,
+    transfer_id UUID
+);
+
+-- Both legs of a transfer share a transfer_id; added separately for databases created before transfers existed
+ALTER TABLE bank_transactions ADD COLUMN IF NOT EXISTS transfer_id UUID;
+
+-- Results of deposits/withdrawals sent with an Idempotency-Key, so retries return the first result
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    account_id UUID NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    balance DECIMAL(15, 2),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    UNIQUE (account_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+-- Keyset pagination of an account's history on (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_bank_transactions_account_created ON bank_transactions (account_id, created_at, id);
+
+-- Closing balance per account at the end of each period the account had activity in
+CREATE TABLE IF NOT EXISTS balance_snapshots (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    account_id UUID NOT NULL REFERENCES bank_accounts(id) ON DELETE CASCADE,
+    as_of TIMESTAMP NOT NULL,
+    balance DECIMAL(15, 2) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (account_id, as_of)
+);
+
+-- Period ends the snapshot job has completed, so it knows where to resume
+CREATE TABLE IF NOT EXISTS balance_snapshot_periods (
+    as_of TIMESTAMP PRIMARY KEY,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Lets the snapshot job read one period of postings across all accounts
+CREATE INDEX IF NOT EXISTS idx_bank_transactions_created_at ON bank_transactions (created_at);
+
+-- Account numbers are handed out in blocks; INCREMENT BY must match AccountNumberAllocator.BLOCK_SIZE
+CREATE SEQUENCE IF NOT EXISTS account_number_seq MINVALUE 0 START WITH 0 INCREMENT BY 1000;
+
+-- One account per holder. Batched account opening inserts with ON CONFLICT against this index, and
+-- the frontend looks accounts up by holder. Replaces the earlier non-unique index.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_bank_accounts_account_holder_id ON bank_accounts (account_holder_id);
+DROP INDEX IF EXISTS idx_bank_accounts_account_holder_id;
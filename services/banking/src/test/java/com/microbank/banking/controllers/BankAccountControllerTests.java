@@ -4,10 +4,14 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import com.microbank.banking.dto.BalanceResponse;
 import com.microbank.banking.dto.TransactionRequest;
 import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.services.BalanceSnapshotService;
 import com.microbank.banking.services.BankAccountService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -26,6 +30,9 @@ class BankAccountControllerTest {
     @Mock
     private BankAccountService bankAccountService;
 
+    @Mock
+    private BalanceSnapshotService balanceSnapshotService;
+
     @InjectMocks
     private BankAccountController controller;
 
@@ -42,7 +49,7 @@ class BankAccountControllerTest {
         account = BankAccount.builder()
                 .id(accountId)
                 .accountHolderId(userId)
-                .balance(1000.0)
+                .balance(Money.of("1000.00"))
                 .build();
     }
 
@@ -125,22 +132,22 @@ class BankAccountControllerTest {
     @Test
     void deposit_shouldReturnUpdatedAccount() {
         TransactionRequest request = TransactionRequest.builder()
-                .amount(500.0)
+                .amount(Money.of("500.00"))
                 .description("Deposit")
                 .build();
 
         BankAccount updatedAccount = BankAccount.builder()
                 .id(accountId)
                 .accountHolderId(userId)
-                .balance(1500.0)
+                .balance(Money.of("1500.00"))
                 .build();
 
-        when(bankAccountService.deposit(accountId, 500.0, "Deposit")).thenReturn(Mono.just(updatedAccount));
+        when(bankAccountService.deposit(accountId, Money.of("500.00"), "Deposit")).thenReturn(Mono.just(updatedAccount));
 
-        StepVerifier.create(controller.deposit(accountId, request))
+        StepVerifier.create(controller.deposit(accountId, request, null))
                 .expectNextMatches(response
                         -> response.getStatusCode() == HttpStatus.OK
-                && response.getBody().getBalance() == 1500.0
+                && response.getBody().getBalance().equals(Money.of("1500.00"))
                 )
                 .verifyComplete();
     }
@@ -148,25 +155,51 @@ class BankAccountControllerTest {
     @Test
     void withdraw_shouldReturnUpdatedAccount() {
         TransactionRequest request = TransactionRequest.builder()
-                .amount(200.0)
+                .amount(Money.of("200.00"))
                 .description("Withdraw")
                 .build();
 
         BankAccount updatedAccount = BankAccount.builder()
                 .id(accountId)
                 .accountHolderId(userId)
-                .balance(800.0)
+                .balance(Money.of("800.00"))
                 .build();
 
-        when(bankAccountService.withdraw(accountId, 200.0, "Withdraw"))
+        when(bankAccountService.withdraw(accountId, Money.of("200.00"), "Withdraw"))
                 .thenReturn(Mono.just(updatedAccount));
 
-        StepVerifier.create(controller.withdraw(accountId, request))
+        StepVerifier.create(controller.withdraw(accountId, request, null))
+                .expectNextMatches(response
+                        -> response.getStatusCode() == HttpStatus.OK
+                && response.getBody().getBalance().equals(Money.of("800.00"))
+                )
+                .verifyComplete();
+    }
+
+    @Test
+    void getBalance_shouldReturnBalanceAsOf() {
+        LocalDateTime asOf = LocalDateTime.of(2025, 6, 30, 23, 59, 59);
+        when(balanceSnapshotService.getBalanceAsOf(accountId, asOf)).thenReturn(Mono.just(BalanceResponse.builder()
+                .accountId(accountId)
+                .asOf(asOf)
+                .balance(Money.of("420.00"))
+                .build()));
+
+        StepVerifier.create(controller.getBalance(accountId, asOf))
                 .expectNextMatches(response
                         -> response.getStatusCode() == HttpStatus.OK
-                && response.getBody().getBalance() == 800.0
+                && response.getBody().getBalance().equals(Money.of("420.00"))
+                && response.getBody().getAsOf().equals(asOf)
                 )
                 .verifyComplete();
     }
 
+    @Test
+    void getBalance_shouldReturnNotFound_whenAccountIsMissing() {
+        when(balanceSnapshotService.getBalanceAsOf(accountId, null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(controller.getBalance(accountId, null))
+                .expectNextMatches(response -> response.getStatusCode() == HttpStatus.NOT_FOUND)
+                .verifyComplete();
+    }
 }
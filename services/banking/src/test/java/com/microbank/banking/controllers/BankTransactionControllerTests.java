@@ -1,5 +1,79 @@
 package com.microbank.banking.controllers;
 
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import com.microbank.banking.dto.TransactionPage;
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.services.BankTransactionService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
 public class BankTransactionControllerTests {
-    
+
+    @Mock
+    private BankTransactionService bankTransactionService;
+
+    @InjectMocks
+    private BankTransactionController controller;
+
+    private UUID accountId;
+    private BankTransaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        accountId = UUID.randomUUID();
+        transaction = BankTransaction.builder()
+                .id(UUID.randomUUID())
+                .accountId(accountId)
+                .transactionType("deposit")
+                .amount(Money.of("10.00"))
+                .build();
+    }
+
+    @Test
+    void getTransactions_shouldReturnPageWithNextCursorHeader() {
+        when(bankTransactionService.getTransactionPage(accountId, null, null, null, 1))
+                .thenReturn(Mono.just(TransactionPage.builder().items(List.of(transaction)).nextCursor("abc").build()));
+
+        StepVerifier.create(controller.getTransactions(accountId.toString(), null, null, null, 1))
+                .expectNextMatches(response -> response.getStatusCode() == HttpStatus.OK
+                && response.getBody().size() == 1
+                && "abc".equals(response.getHeaders().getFirst(BankTransactionController.NEXT_CURSOR_HEADER)))
+                .verifyComplete();
+    }
+
+    @Test
+    void getTransactions_shouldOmitHeaderOnLastPage() {
+        when(bankTransactionService.getTransactionPage(eq(accountId), any(), any(), any(), any()))
+                .thenReturn(Mono.just(TransactionPage.builder().items(List.of()).build()));
+
+        StepVerifier.create(controller.getTransactions(accountId.toString(), null, null, null, null))
+                .expectNextMatches(response -> !response.getHeaders().containsKey(BankTransactionController.NEXT_CURSOR_HEADER))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamTransactions_shouldStreamFromTheService() {
+        when(bankTransactionService.streamTransactions(accountId, null, null, null, null))
+                .thenReturn(Flux.just(transaction, transaction));
+
+        StepVerifier.create(controller.streamTransactions(accountId.toString(), null, null, null, null))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
 }
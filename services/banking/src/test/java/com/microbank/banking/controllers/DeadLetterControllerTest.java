@@ -0,0 +1,53 @@
+package com.microbank.banking.controllers;
+
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.microbank.banking.utils.RetryTopics;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DeadLetterControllerTest {
+
+    @Mock
+    private RetryTopics retryTopics;
+
+    @InjectMocks
+    private DeadLetterController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(retryTopics.deadLetterTopic()).thenReturn("user-created.dlq");
+    }
+
+    @Test
+    void replay_shouldReportHowManyDeadLettersWereSent() {
+        when(retryTopics.replayDeadLetters(500)).thenReturn(Mono.just(42L));
+
+        StepVerifier.create(controller.replay(500))
+                .expectNextMatches(entity -> entity.getStatusCode() == HttpStatus.OK
+                && entity.getBody().getReplayed() == 42
+                && entity.getBody().getTopic().equals("user-created.dlq"))
+                .verifyComplete();
+    }
+
+    @Test
+    void replay_shouldPassOnConflictWhileAnotherReplayRuns() {
+        when(retryTopics.replayDeadLetters(1000))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "A dead-letter replay is already running")));
+
+        StepVerifier.create(controller.replay(1000))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException
+                && ((ResponseStatusException) e).getStatusCode() == HttpStatus.CONFLICT)
+                .verify();
+    }
+}
@@ -0,0 +1,55 @@
+package com.microbank.banking.controllers;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import com.microbank.banking.dto.PostingRequest;
+import com.microbank.banking.dto.PostingResult;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.services.BulkPostingService;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class PostingControllerTest {
+
+    @Mock
+    private BulkPostingService bulkPostingService;
+
+    @InjectMocks
+    private PostingController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void post_shouldStreamOneResultPerPosting() {
+        UUID accountId = UUID.randomUUID();
+        Flux<PostingRequest> postings = Flux.just(
+                PostingRequest.builder().accountId(accountId).amount(Money.of("10.00")).build(),
+                PostingRequest.builder().accountId(accountId).amount(Money.of("20.00")).build());
+        when(bulkPostingService.post(any())).thenReturn(Flux.just(
+                PostingResult.builder().index(0).accountId(accountId).status("posted").balance(Money.of("30.00")).build(),
+                PostingResult.builder().index(1).accountId(accountId).status("posted").balance(Money.of("30.00")).build()));
+
+        StepVerifier.create(controller.post(postings))
+                .expectNextMatches(entity -> entity.getStatusCode() == HttpStatus.OK)
+                .verifyComplete();
+
+        StepVerifier.create(controller.post(postings).flatMapMany(entity -> entity.getBody()))
+                .expectNextMatches(result -> result.getIndex() == 0)
+                .expectNextMatches(result -> result.getIndex() == 1)
+                .verifyComplete();
+    }
+}
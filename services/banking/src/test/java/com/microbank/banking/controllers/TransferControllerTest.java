@@ -0,0 +1,72 @@
+package com.microbank.banking.controllers;
+
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import com.microbank.banking.dto.TransferRequest;
+import com.microbank.banking.dto.TransferResponse;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.services.TransferService;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class TransferControllerTest {
+
+    @Mock
+    private TransferService transferService;
+
+    @InjectMocks
+    private TransferController controller;
+
+    private UUID fromId;
+    private UUID toId;
+    private TransferRequest request;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        fromId = UUID.randomUUID();
+        toId = UUID.randomUUID();
+        request = TransferRequest.builder()
+                .fromAccountId(fromId)
+                .toAccountId(toId)
+                .amount(Money.of("25.00"))
+                .description("Dinner")
+                .build();
+    }
+
+    @Test
+    void transfer_shouldReturnCreated() {
+        TransferResponse response = TransferResponse.builder()
+                .transferId(UUID.randomUUID())
+                .fromAccountId(fromId)
+                .toAccountId(toId)
+                .amount(Money.of("25.00"))
+                .fromBalance(Money.of("75.00"))
+                .build();
+        when(transferService.transfer(fromId, toId, Money.of("25.00"), "Dinner")).thenReturn(Mono.just(response));
+
+        StepVerifier.create(controller.transfer(request))
+                .expectNextMatches(entity -> entity.getStatusCode() == HttpStatus.CREATED
+                && entity.getBody().getFromBalance().equals(Money.of("75.00")))
+                .verifyComplete();
+    }
+
+    @Test
+    void transfer_shouldReturnNotFoundWhenAccountMissing() {
+        when(transferService.transfer(fromId, toId, Money.of("25.00"), "Dinner")).thenReturn(Mono.empty());
+
+        StepVerifier.create(controller.transfer(request))
+                .expectNextMatches(entity -> entity.getStatusCode() == HttpStatus.NOT_FOUND)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,73 @@
+package com.microbank.banking.entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+class MoneyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void plus_shouldAddCentsExactly() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 1_000; i++) {
+            total = total.plus(Money.of("0.10"));
+        }
+
+        assertEquals(Money.of("100.00"), total);
+        assertEquals(Money.of("0.30"), Money.of("0.10").plus(Money.of("0.20")));
+    }
+
+    @Test
+    void of_shouldRejectFractionsOfACent() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of("0.005"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of("ten"));
+        assertEquals(Money.of("12.3"), Money.of(new BigDecimal("12.3000")));
+    }
+
+    @Test
+    void plus_shouldFailInsteadOfOverflowing() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void compareTo_shouldOrderByAmountAndRejectOtherCurrencies() {
+        Money euros = new Money(100, Currency.getInstance("EUR"));
+
+        assertTrue(Money.of("9.99").isLessThan(Money.of("10.00")));
+        assertTrue(Money.of("10.00").minus(Money.of("10.01")).isNegative());
+        assertThrows(IllegalArgumentException.class, () -> Money.of("1.00").compareTo(euros));
+        assertThrows(IllegalArgumentException.class, () -> Money.of("1.00").plus(euros));
+        assertThrows(IllegalArgumentException.class, () -> new Money(1, Currency.getInstance("JPY")));
+    }
+
+    @Test
+    void json_shouldStayAPlainNumberWithTwoDecimals() throws Exception {
+        assertEquals("12.30", mapper.writeValueAsString(Money.of("12.3")));
+        assertEquals("-0.05", mapper.writeValueAsString(Money.of("-0.05")));
+        assertEquals("12.30 USD", Money.of("12.3").toString());
+    }
+
+    @Test
+    void json_shouldReadNumbersAndStringsWithoutRounding() throws Exception {
+        assertEquals(Money.ofMinor(1230), mapper.readValue("12.3", Money.class));
+        assertEquals(Money.ofMinor(1200), mapper.readValue("12", Money.class));
+        assertEquals(Money.ofMinor(10), mapper.readValue("\"0.10\"", Money.class));
+        assertEquals(Money.ofMinor(70), mapper.readValue("0.1e0", Money.class).plus(Money.of("0.60")));
+
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue("12.345", Money.class));
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue("\"lots\"", Money.class));
+        assertThrows(MismatchedInputException.class, () -> mapper.readValue("true", Money.class));
+    }
+}
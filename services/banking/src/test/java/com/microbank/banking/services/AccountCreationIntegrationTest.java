@@ -0,0 +1,140 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.PostgresIntegrationTest;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.kafka.receiver.KafkaReceiver;
+
+/**
+ * Opens accounts against a real Postgres with block-allocated numbers, through the one-at-a-time
+ * and the batch path. How either performs on a table of a million accounts is measured by
+ * {@code AccountCreationBenchmark} in the benchmarks module.
+ */
+class AccountCreationIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int ACCOUNTS = 2_500;
+    private static final int CONCURRENCY = 64;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    BankTransactionRepository bankTransactionRepository;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    AccountNumberAllocator accountNumberAllocator;
+
+    BankAccountServiceImpl bankAccountService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        accountNumberAllocator = new AccountNumberAllocator(bankAccountRepository);
+        bankAccountService = new BankAccountServiceImpl(bankAccountRepository, bankTransactionRepository,
+                mock(KafkaReceiver.class), transactionalOperator, new AccountLaneExecutor(16, 10_000, meterRegistry),
+                mock(IdempotencyGuard.class), new AccountCache(false, 1, Duration.ofSeconds(1), meterRegistry),
+                accountNumberAllocator, mock(KeyOrderedRails.class), mock(RecordBatcher.class), mock(RetryTopics.class),
+                meterRegistry);
+    }
+
+    private BankAccount newAccount() {
+        return BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .balance(Money.ZERO)
+                .build();
+    }
+
+    @Test
+    void createAccount_shouldSkipNumbersAlreadyTakenByOlderAccounts() {
+        long sequence = AccountNumberAllocator.sequenceOf(accountNumberAllocator.next().block());
+        // an account opened under the old random scheme happens to hold the next number
+        BankAccount older = newAccount();
+        older.setAccountNumber(AccountNumberAllocator.format(sequence + 1));
+        bankAccountRepository.save(older).block();
+
+        BankAccount created = bankAccountService.createAccount(newAccount()).block();
+
+        assertEquals(AccountNumberAllocator.format(sequence + 2), created.getAccountNumber());
+    }
+
+    @Test
+    void createAccount_shouldIssueUniqueValidNumbersOnBothPaths() {
+        List<UUID> users = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            users.add(UUID.randomUUID());
+        }
+
+        // the single and batch paths draw from the same allocator at the same time
+        List<String> numbers = Flux.merge(
+                        Flux.range(0, ACCOUNTS).flatMap(i -> bankAccountService.createAccount(newAccount()), CONCURRENCY),
+                        Flux.fromIterable(users).buffer(BATCH_SIZE).flatMap(bankAccountService::createAccountsForUsers))
+                .map(BankAccount::getAccountNumber)
+                .collectList()
+                .block(Duration.ofMinutes(2));
+
+        assertEquals(2 * ACCOUNTS, numbers.size());
+        assertEquals(numbers.size(), new HashSet<>(numbers).size());
+        numbers.forEach(number -> assertTrue(AccountNumberAllocator.isValid(number), number));
+        Long duplicated = databaseClient.sql("SELECT COUNT(*) - COUNT(DISTINCT account_number) AS n FROM bank_accounts")
+                .map(row -> row.get("n", Long.class))
+                .one()
+                .block();
+        assertEquals(0L, duplicated);
+    }
+
+    @Test
+    void createAccountsForUsers_shouldSkipUsersThatAlreadyHaveAnAccount() {
+        BankAccount existing = bankAccountService.createAccount(newAccount()).block();
+        UUID fresh = UUID.randomUUID();
+
+        List<BankAccount> created = bankAccountService
+                .createAccountsForUsers(List.of(existing.getAccountHolderId(), fresh, fresh))
+                .collectList()
+                .block();
+
+        assertEquals(1, created.size());
+        assertEquals(fresh, created.get(0).getAccountHolderId());
+        assertTrue(AccountNumberAllocator.isValid(created.get(0).getAccountNumber()));
+        assertEquals(existing.getAccountNumber(),
+                bankAccountRepository.findByAccountHolderId(existing.getAccountHolderId()).block().getAccountNumber());
+
+        // a replay of the same batch opens nothing
+        assertEquals(0L, bankAccountService.createAccountsForUsers(List.of(existing.getAccountHolderId(), fresh))
+                .count()
+                .block());
+    }
+}
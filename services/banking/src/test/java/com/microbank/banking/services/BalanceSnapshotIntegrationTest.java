@@ -0,0 +1,147 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.PostgresIntegrationTest;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BalanceSnapshotRepository;
+import com.microbank.banking.repository.BankAccountRepository;
+
+/**
+ * Point-in-time balances against a real Postgres: the snapshot answer must match a replay of
+ * the whole ledger, at period boundaries and in between. That its cost doesn't grow with a
+ * year of history is measured by {@code BalanceSnapshotBenchmark} in the benchmarks module.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BalanceSnapshotIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int DAYS = 4;
+    private static final int POSTINGS_PER_DAY = 24;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    BalanceSnapshotServiceImpl balanceSnapshotService;
+
+    UUID hotAccount;
+
+    UUID quietAccount;
+
+    private UUID newAccount() {
+        return bankAccountRepository.save(BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .accountNumber("S" + System.nanoTime())
+                .balance(Money.ZERO)
+                .build()).block().getId();
+    }
+
+    @BeforeAll
+    void loadHistory() {
+        balanceSnapshotService = new BalanceSnapshotServiceImpl(balanceSnapshotRepository, bankAccountRepository,
+                transactionalOperator, Duration.ofDays(1), Duration.ofMinutes(5));
+        hotAccount = newAccount();
+        quietAccount = newAccount();
+
+        // postings spread evenly over each day, cycling through every transaction type
+        databaseClient.sql("""
+                INSERT INTO bank_transactions (account_id, transaction_type, amount, created_at, description)
+                SELECT CAST(:account AS uuid),
+                       (ARRAY['deposit', 'withdrawal', 'transfer_in', 'transfer_out', 'deposit'])[g % 5 + 1],
+                       (g % 97) + 0.25,
+                       CAST(:start AS timestamp) + g * (INTERVAL '1 day' / :perDay),
+                       'history'
+                FROM generate_series(0, :rows - 1) AS g
+                """)
+                .bind("account", hotAccount)
+                .bind("start", START)
+                .bind("perDay", POSTINGS_PER_DAY)
+                .bind("rows", (long) DAYS * POSTINGS_PER_DAY)
+                .then()
+                .then(databaseClient.sql("""
+                        INSERT INTO bank_transactions (account_id, transaction_type, amount, created_at, description)
+                        VALUES (:account, 'deposit', 50.00, :at, 'once')
+                        """)
+                        .bind("account", quietAccount)
+                        .bind("at", START.plusHours(5))
+                        .then())
+                .then(databaseClient.sql("ANALYZE bank_transactions").then())
+                .block(Duration.ofMinutes(1));
+
+        assertEquals(DAYS, balanceSnapshotService.snapshotDuePeriods(START.plusDays(DAYS).plusHours(12)).block());
+    }
+
+    private Money replay(UUID accountId, LocalDateTime asOf) {
+        return databaseClient.sql("""
+                SELECT COALESCE(SUM(CASE WHEN transaction_type IN ('withdrawal', 'transfer_out')
+                                         THEN -amount ELSE amount END), 0) AS balance
+                FROM bank_transactions WHERE account_id = :account AND created_at <= :asOf
+                """)
+                .bind("account", accountId)
+                .bind("asOf", asOf)
+                .map(row -> Money.of(row.get("balance", BigDecimal.class)))
+                .one()
+                .block();
+    }
+
+    private Money balance(UUID accountId, LocalDateTime asOf) {
+        return balanceSnapshotService.getBalanceAsOf(accountId, asOf).block().getBalance();
+    }
+
+    @Test
+    void balanceAsOf_shouldMatchFullReplay() {
+        LocalDateTime[] points = {
+            START.minusDays(1),
+            START,
+            START.plusDays(1),
+            START.plusDays(1).minusNanos(1_000),
+            START.plusDays(DAYS / 2).plusHours(7).plusMinutes(13),
+            START.plusDays(DAYS),
+            START.plusDays(DAYS + 30)
+        };
+        for (LocalDateTime asOf : points) {
+            assertEquals(replay(hotAccount, asOf), balance(hotAccount, asOf), "as of " + asOf);
+        }
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime asOf = START.plusSeconds(ThreadLocalRandom.current().nextLong((long) DAYS * 86_400));
+            assertEquals(replay(hotAccount, asOf), balance(hotAccount, asOf), "as of " + asOf);
+        }
+
+        // only one snapshot for an account that posted once, yet every later date still sees it
+        assertEquals(Money.ZERO, balance(quietAccount, START.plusHours(4)));
+        assertEquals(Money.of("50.00"), balance(quietAccount, START.plusDays(DAYS)));
+    }
+
+    @Test
+    void balanceAsOf_shouldBeEmpty_whenAccountDoesNotExist() {
+        assertNull(balanceSnapshotService.getBalanceAsOf(UUID.randomUUID(), START).block());
+    }
+
+    @Test
+    void snapshotDuePeriods_shouldOnlyWriteNewPeriodsOnRerun() {
+        assertEquals(0, balanceSnapshotService.snapshotDuePeriods(START.plusDays(DAYS).plusHours(12)).block());
+    }
+}
@@ -0,0 +1,136 @@
+package com.microbank.banking.services;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BalanceSnapshotRepository;
+import com.microbank.banking.repository.BankAccountRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class BalanceSnapshotServiceImplTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 10, 0, 0);
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private BalanceSnapshotServiceImpl balanceSnapshotService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(balanceSnapshotRepository.claimPeriod(any())).thenReturn(Mono.just(1));
+        when(balanceSnapshotRepository.snapshotPeriod(any(), any())).thenReturn(Mono.just(3));
+        balanceSnapshotService = new BalanceSnapshotServiceImpl(balanceSnapshotRepository, bankAccountRepository,
+                transactionalOperator, Duration.ofDays(1), Duration.ofMinutes(5));
+        accountId = UUID.randomUUID();
+    }
+
+    @Test
+    void getBalanceAsOf_shouldAnswerFromSnapshotQuery() {
+        when(bankAccountRepository.existsById(accountId)).thenReturn(Mono.just(true));
+        when(balanceSnapshotRepository.balanceAsOf(accountId, DAY)).thenReturn(Mono.just(new BigDecimal("125.50")));
+
+        StepVerifier.create(balanceSnapshotService.getBalanceAsOf(accountId, DAY))
+                .expectNextMatches(balance -> balance.getBalance().equals(Money.of("125.50"))
+                && balance.getAsOf().equals(DAY)
+                && balance.getAccountId().equals(accountId))
+                .verifyComplete();
+    }
+
+    @Test
+    void getBalanceAsOf_shouldBeEmpty_whenAccountDoesNotExist() {
+        when(bankAccountRepository.existsById(accountId)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(balanceSnapshotService.getBalanceAsOf(accountId, DAY))
+                .verifyComplete();
+
+        verify(balanceSnapshotRepository, never()).balanceAsOf(any(), any());
+    }
+
+    @Test
+    void snapshotDuePeriods_shouldSnapshotEveryEndedPeriodOldestFirst() {
+        when(balanceSnapshotRepository.findLatestPeriod()).thenReturn(Mono.just(DAY));
+
+        StepVerifier.create(balanceSnapshotService.snapshotDuePeriods(DAY.plusDays(3).plusHours(1)))
+                .expectNext(3)
+                .verifyComplete();
+
+        InOrder inOrder = inOrder(balanceSnapshotRepository);
+        inOrder.verify(balanceSnapshotRepository).snapshotPeriod(DAY, DAY.plusDays(1));
+        inOrder.verify(balanceSnapshotRepository).snapshotPeriod(DAY.plusDays(1), DAY.plusDays(2));
+        inOrder.verify(balanceSnapshotRepository).snapshotPeriod(DAY.plusDays(2), DAY.plusDays(3));
+        verifyNoMoreInteractions(ignoreStubs(balanceSnapshotRepository));
+    }
+
+    @Test
+    void snapshotDuePeriods_shouldWaitForSettleDelay() {
+        when(balanceSnapshotRepository.findLatestPeriod()).thenReturn(Mono.just(DAY));
+
+        StepVerifier.create(balanceSnapshotService.snapshotDuePeriods(DAY.plusDays(1).plusMinutes(2)))
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(balanceSnapshotRepository, never()).claimPeriod(any());
+    }
+
+    @Test
+    void snapshotDuePeriods_shouldStartFromPeriodOfEarliestPosting() {
+        when(balanceSnapshotRepository.findLatestPeriod()).thenReturn(Mono.empty());
+        when(balanceSnapshotRepository.findEarliestPosting()).thenReturn(Mono.just(DAY.plusHours(13)));
+
+        StepVerifier.create(balanceSnapshotService.snapshotDuePeriods(DAY.plusDays(2)))
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(balanceSnapshotRepository).snapshotPeriod(DAY, DAY.plusDays(1));
+    }
+
+    @Test
+    void snapshotDuePeriods_shouldDoNothing_whenThereAreNoPostings() {
+        when(balanceSnapshotRepository.findLatestPeriod()).thenReturn(Mono.empty());
+        when(balanceSnapshotRepository.findEarliestPosting()).thenReturn(Mono.empty());
+
+        StepVerifier.create(balanceSnapshotService.snapshotDuePeriods(DAY))
+                .expectNext(0)
+                .verifyComplete();
+    }
+
+    @Test
+    void snapshotDuePeriods_shouldSkipPeriodClaimedByAnotherInstance() {
+        when(balanceSnapshotRepository.findLatestPeriod()).thenReturn(Mono.just(DAY));
+        when(balanceSnapshotRepository.claimPeriod(DAY.plusDays(1))).thenReturn(Mono.just(0));
+
+        StepVerifier.create(balanceSnapshotService.snapshotDuePeriods(DAY.plusDays(2).plusHours(1)))
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(balanceSnapshotRepository, never()).snapshotPeriod(DAY, DAY.plusDays(1));
+        verify(balanceSnapshotRepository).snapshotPeriod(DAY.plusDays(1), DAY.plusDays(2));
+    }
+}
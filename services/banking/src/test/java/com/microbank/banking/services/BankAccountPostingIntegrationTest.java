@@ -0,0 +1,98 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.PostgresIntegrationTest;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+
+/**
+ * Runs the posting path against a real Postgres: thousands of concurrent deposits to one
+ * account must all land. The atomic path is timed against the old read-modify-write flow by
+ * {@code PostingBenchmark} in the benchmarks module.
+ */
+class BankAccountPostingIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int PARALLEL_DEPOSITS = 5_000;
+
+    @Autowired
+    BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    BankTransactionRepository bankTransactionRepository;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    BankAccountServiceImpl bankAccountService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bankAccountService = new BankAccountServiceImpl(bankAccountRepository, bankTransactionRepository,
+                mock(KafkaReceiver.class), transactionalOperator,
+                new AccountLaneExecutor(16, 10_000, new SimpleMeterRegistry()), mock(IdempotencyGuard.class),
+                mock(AccountCache.class), mock(AccountNumberAllocator.class),
+                mock(KeyOrderedRails.class), mock(RecordBatcher.class), mock(RetryTopics.class), new SimpleMeterRegistry());
+    }
+
+    private BankAccount newAccount(Money balance) {
+        return bankAccountRepository.save(BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .accountNumber(String.valueOf(System.nanoTime()))
+                .balance(balance)
+                .build()).block();
+    }
+
+    @Test
+    void parallelDeposits_shouldAllBeApplied() {
+        BankAccount account = newAccount(Money.ZERO);
+
+        Flux.range(0, PARALLEL_DEPOSITS)
+                .flatMap(i -> bankAccountService.deposit(account.getId(), Money.of("1.00"), "parallel-" + i), 256)
+                .blockLast(Duration.ofMinutes(2));
+
+        BankAccount reloaded = bankAccountRepository.findById(account.getId()).block();
+        long ledgerRows = bankTransactionRepository.findByAccountId(account.getId()).count().block();
+        assertEquals(Money.ofMinor(PARALLEL_DEPOSITS * 100L), reloaded.getBalance());
+        assertEquals(PARALLEL_DEPOSITS, ledgerRows);
+    }
+
+    @Test
+    void parallelWithdrawals_shouldNeverOverdraw() {
+        BankAccount account = newAccount(Money.of("100.00"));
+
+        Flux.range(0, 1_000)
+                .flatMap(i -> bankAccountService.withdraw(account.getId(), Money.of("1.00"), "drain-" + i)
+                        .onErrorResume(e -> Mono.empty()), 256)
+                .blockLast(Duration.ofMinutes(2));
+
+        BankAccount reloaded = bankAccountRepository.findById(account.getId()).block();
+        long ledgerRows = bankTransactionRepository.findByAccountId(account.getId()).count().block();
+        assertEquals(Money.ZERO, reloaded.getBalance());
+        assertEquals(100, ledgerRows);
+    }
+}
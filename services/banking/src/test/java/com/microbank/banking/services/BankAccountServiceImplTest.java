@@ -0,0 +1,497 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.IdempotencyKey;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.repository.IdempotencyKeyRepository;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+import com.microbank.events.UserCreated;
+import com.microbank.events.UserDeleted;
+import com.microbank.events.UserEventCodec;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+class BankAccountServiceImplTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private BankTransactionRepository bankTransactionRepository;
+
+    @Mock
+    private KafkaReceiver<String, byte[]> kafkaReceiver;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private RetryTopics retryTopics;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BankAccountServiceImpl bankAccountService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Run the chain as-is; transaction boundaries are covered by the integration test
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(bankTransactionRepository.save(any(BankTransaction.class)))
+                .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        when(retryTopics.receiveDue()).thenReturn(Flux.never());
+        when(retryTopics.retry(any(), any())).thenReturn(Mono.empty());
+        when(retryTopics.deadLetter(any(), any())).thenReturn(Mono.empty());
+
+        meterRegistry = new SimpleMeterRegistry();
+        bankAccountService = service(true);
+        accountId = UUID.randomUUID();
+    }
+
+    private BankAccountServiceImpl service(boolean batching) {
+        return new BankAccountServiceImpl(bankAccountRepository, bankTransactionRepository,
+                kafkaReceiver, transactionalOperator, new AccountLaneExecutor(4, 100, meterRegistry),
+                new IdempotencyGuard(idempotencyKeyRepository, bankAccountRepository, 100,
+                        Duration.ofMinutes(1), Duration.ofHours(1), meterRegistry),
+                new AccountCache(true, 100, Duration.ofMinutes(1), meterRegistry),
+                new AccountNumberAllocator(bankAccountRepository), new KeyOrderedRails(4, meterRegistry),
+                new RecordBatcher(batching, 100, Duration.ofMillis(50), meterRegistry), retryTopics, meterRegistry);
+    }
+
+    private ReceiverRecord<String, byte[]> userCreated(int partition, long offset, byte[] value) {
+        ReceiverOffset receiverOffset = mock(ReceiverOffset.class);
+        when(receiverOffset.topicPartition()).thenReturn(new TopicPartition("user-created", partition));
+        when(receiverOffset.offset()).thenReturn(offset);
+        when(receiverOffset.commit()).thenReturn(Mono.empty());
+        return new ReceiverRecord<>(new ConsumerRecord<>("user-created", partition, offset, "key-" + offset, value), receiverOffset);
+    }
+
+    private static byte[] created(UUID userId) {
+        return UserEventCodec.encode(new UserCreated(userId, Instant.now()));
+    }
+
+    /** A value in the format used before binary events: the bare user id string. */
+    private static byte[] legacy(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private BankAccount account(Money balance) {
+        return BankAccount.builder()
+                .id(accountId)
+                .accountHolderId(UUID.randomUUID())
+                .balance(balance)
+                .build();
+    }
+
+    private long operations(String operation, String outcome) {
+        return meterRegistry.get("banking.accounts.operations")
+                .tags("operation", operation, "outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    @Test
+    void deposit_shouldCreditAtomicallyAndRecordTransaction() {
+        when(bankAccountRepository.credit(accountId, Money.of("50.00"))).thenReturn(Mono.just(account(Money.of("150.00"))));
+
+        StepVerifier.create(bankAccountService.deposit(accountId, Money.of("50.00"), "Salary"))
+                .expectNextMatches(account -> account.getBalance().equals(Money.of("150.00")))
+                .verifyComplete();
+
+        ArgumentCaptor<BankTransaction> captor = ArgumentCaptor.forClass(BankTransaction.class);
+        verify(bankTransactionRepository).save(captor.capture());
+        verify(bankAccountRepository, never()).findById(any(UUID.class));
+        verify(bankAccountRepository, never()).save(any(BankAccount.class));
+        verify(transactionalOperator).transactional(any(Mono.class));
+        assertEquals("deposit", captor.getValue().getTransactionType());
+        assertEquals(1, operations("deposit", "success"));
+    }
+
+    @Test
+    void deposit_shouldReturnEmptyWhenAccountMissing() {
+        when(bankAccountRepository.credit(accountId, Money.of("50.00"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(bankAccountService.deposit(accountId, Money.of("50.00"), "Salary"))
+                .verifyComplete();
+
+        verify(bankTransactionRepository, never()).save(any(BankTransaction.class));
+        assertEquals(1, operations("deposit", "empty"));
+    }
+
+    @Test
+    void deposit_shouldRejectNonPositiveAmount() {
+        StepVerifier.create(bankAccountService.deposit(accountId, Money.of("-5.00"), "Sneaky"))
+                .expectErrorMessage("Amount must be positive")
+                .verify();
+
+        verify(bankAccountRepository, never()).credit(any(UUID.class), any(Money.class));
+    }
+
+    @Test
+    void withdraw_shouldDebitAtomicallyAndRecordTransaction() {
+        when(bankAccountRepository.debit(accountId, Money.of("40.00"))).thenReturn(Mono.just(account(Money.of("60.00"))));
+
+        StepVerifier.create(bankAccountService.withdraw(accountId, Money.of("40.00"), "ATM"))
+                .expectNextMatches(account -> account.getBalance().equals(Money.of("60.00")))
+                .verifyComplete();
+
+        verify(bankTransactionRepository).save(any(BankTransaction.class));
+        verify(bankAccountRepository, never()).existsById(any(UUID.class));
+    }
+
+    @Test
+    void withdraw_shouldErrorOnInsufficientFunds() {
+        when(bankAccountRepository.debit(accountId, Money.of("400.00"))).thenReturn(Mono.empty());
+        when(bankAccountRepository.existsById(accountId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(bankAccountService.withdraw(accountId, Money.of("400.00"), "ATM"))
+                .expectErrorMessage("Insufficient funds")
+                .verify();
+
+        verify(bankTransactionRepository, never()).save(any(BankTransaction.class));
+        assertEquals(1, operations("withdraw", "error"));
+        assertEquals(0, operations("withdraw", "success"));
+    }
+
+    @Test
+    void withdraw_shouldReturnEmptyWhenAccountMissing() {
+        when(bankAccountRepository.debit(accountId, Money.of("40.00"))).thenReturn(Mono.empty());
+        when(bankAccountRepository.existsById(accountId)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(bankAccountService.withdraw(accountId, Money.of("40.00"), "ATM"))
+                .verifyComplete();
+    }
+
+    @Test
+    void idempotentDeposit_shouldClaimKeyAndStoreBalanceInTheSameTransaction() {
+        when(idempotencyKeyRepository.claim(eq(accountId), eq("key-1"), eq("deposit"), any(), any()))
+                .thenReturn(Mono.just(IdempotencyKey.builder().accountId(accountId).idempotencyKey("key-1").build()));
+        when(idempotencyKeyRepository.complete(accountId, "key-1", Money.of("150.00"))).thenReturn(Mono.just(1));
+        when(bankAccountRepository.credit(accountId, Money.of("50.00"))).thenReturn(Mono.just(account(Money.of("150.00"))));
+
+        StepVerifier.create(bankAccountService.deposit(accountId, Money.of("50.00"), "Salary", "key-1"))
+                .expectNextMatches(account -> account.getBalance().equals(Money.of("150.00")))
+                .verifyComplete();
+
+        verify(idempotencyKeyRepository).complete(accountId, "key-1", Money.of("150.00"));
+        verify(transactionalOperator, times(1)).transactional(any(Mono.class));
+    }
+
+    @Test
+    void idempotentDeposit_shouldPostOnceWhenRetriedInsideTheCacheWindow() {
+        when(idempotencyKeyRepository.claim(eq(accountId), eq("key-1"), eq("deposit"), any(), any()))
+                .thenReturn(Mono.just(IdempotencyKey.builder().accountId(accountId).idempotencyKey("key-1").build()));
+        when(idempotencyKeyRepository.complete(accountId, "key-1", Money.of("150.00"))).thenReturn(Mono.just(1));
+        when(bankAccountRepository.credit(accountId, Money.of("50.00"))).thenReturn(Mono.just(account(Money.of("150.00"))));
+
+        bankAccountService.deposit(accountId, Money.of("50.00"), "Salary", "key-1").block();
+        StepVerifier.create(bankAccountService.deposit(accountId, Money.of("50.00"), "Salary", "key-1"))
+                .expectNextMatches(account -> account.getBalance().equals(Money.of("150.00")))
+                .verifyComplete();
+
+        verify(bankAccountRepository, times(1)).credit(accountId, Money.of("50.00"));
+        verify(idempotencyKeyRepository, times(1)).claim(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void idempotentWithdraw_shouldReplayStoredResultWhenKeyAlreadyClaimed() {
+        when(idempotencyKeyRepository.claim(eq(accountId), eq("key-2"), eq("withdrawal"), any(), any()))
+                .thenReturn(Mono.empty());
+        when(idempotencyKeyRepository.findByAccountIdAndIdempotencyKey(accountId, "key-2"))
+                .thenReturn(Mono.just(IdempotencyKey.builder()
+                        .accountId(accountId)
+                        .idempotencyKey("key-2")
+                        .operation("withdrawal")
+                        .balance(Money.of("60.00"))
+                        .build()));
+        when(bankAccountRepository.findById(accountId)).thenReturn(Mono.just(account(Money.of("10.00"))));
+
+        StepVerifier.create(bankAccountService.withdraw(accountId, Money.of("40.00"), "ATM", "key-2"))
+                .expectNextMatches(account -> account.getBalance().equals(Money.of("60.00")))
+                .verifyComplete();
+
+        verify(bankAccountRepository, never()).debit(any(UUID.class), any(Money.class));
+        verify(bankTransactionRepository, never()).save(any(BankTransaction.class));
+    }
+
+    @Test
+    void getAccountById_shouldServeRepeatedReadsFromCache() {
+        when(bankAccountRepository.findById(accountId)).thenReturn(Mono.just(account(Money.of("100.00"))));
+
+        bankAccountService.getAccountById(accountId).block();
+        StepVerifier.create(bankAccountService.getAccountById(accountId))
+                .expectNextMatches(account -> account.getBalance().equals(Money.of("100.00")))
+                .verifyComplete();
+
+        verify(bankAccountRepository, times(1)).findById(accountId);
+    }
+
+    @Test
+    void deposit_shouldInvalidateCachedLookups() {
+        BankAccount before = account(Money.of("100.00"));
+        BankAccount after = BankAccount.builder()
+                .id(accountId)
+                .accountHolderId(before.getAccountHolderId())
+                .balance(Money.of("150.00"))
+                .build();
+        when(bankAccountRepository.findById(accountId)).thenReturn(Mono.just(before), Mono.just(after));
+        when(bankAccountRepository.findByAccountHolderId(before.getAccountHolderId()))
+                .thenReturn(Mono.just(before), Mono.just(after));
+        when(bankAccountRepository.credit(accountId, Money.of("50.00"))).thenReturn(Mono.just(after));
+
+        bankAccountService.getAccountById(accountId).block();
+        bankAccountService.getAccountByAccountHolderId(before.getAccountHolderId()).block();
+        bankAccountService.deposit(accountId, Money.of("50.00"), "Salary").block();
+
+        assertEquals(Money.of("150.00"), bankAccountService.getAccountById(accountId).block().getBalance());
+        assertEquals(Money.of("150.00"), bankAccountService.getAccountByAccountHolderId(before.getAccountHolderId()).block().getBalance());
+        verify(bankAccountRepository, times(2)).findById(accountId);
+    }
+
+    @Test
+    void deleteAccount_shouldInvalidateHolderLookup() {
+        BankAccount existing = account(Money.ZERO);
+        UUID holderId = existing.getAccountHolderId();
+        when(bankAccountRepository.findByAccountHolderId(holderId)).thenReturn(Mono.just(existing), Mono.empty());
+        when(bankAccountRepository.deleteById(accountId)).thenReturn(Mono.empty());
+
+        bankAccountService.getAccountByAccountHolderId(holderId).block();
+        bankAccountService.deleteAccount(accountId).block();
+
+        StepVerifier.create(bankAccountService.getAccountByAccountHolderId(holderId))
+                .verifyComplete();
+    }
+
+    @Test
+    void createAccount_shouldSaveUnderAllocatedNumberWithoutLookingItUp() {
+        BankAccount account = account(Money.ZERO);
+        when(bankAccountRepository.existsByAccountHolderId(account.getAccountHolderId())).thenReturn(Mono.just(false));
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.save(any(BankAccount.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        StepVerifier.create(bankAccountService.createAccount(account))
+                .expectNextMatches(created -> created.getAccountNumber().equals(AccountNumberAllocator.format(0)))
+                .verifyComplete();
+
+        verify(bankAccountRepository, never()).existsByAccountNumber(any());
+    }
+
+    @Test
+    void createAccount_shouldMoveToNextNumberWhenOneIsAlreadyTaken() {
+        BankAccount account = account(Money.ZERO);
+        when(bankAccountRepository.existsByAccountHolderId(account.getAccountHolderId())).thenReturn(Mono.just(false));
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.save(any(BankAccount.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("account_number")))
+                .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        StepVerifier.create(bankAccountService.createAccount(account))
+                .expectNextMatches(created -> created.getAccountNumber().equals(AccountNumberAllocator.format(1)))
+                .verifyComplete();
+    }
+
+    @Test
+    void createAccount_shouldReportExistingAccountWhenHolderConflicts() {
+        BankAccount account = account(Money.ZERO);
+        when(bankAccountRepository.existsByAccountHolderId(account.getAccountHolderId())).thenReturn(Mono.just(false));
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        // another request opened the account between the existence check and the insert
+        when(bankAccountRepository.save(any(BankAccount.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("uq_bank_accounts_account_holder_id")));
+
+        StepVerifier.create(bankAccountService.createAccount(account))
+                .expectErrorMessage("Account already exists for this user")
+                .verify();
+
+        verify(bankAccountRepository, times(1)).save(any(BankAccount.class));
+    }
+
+    @Test
+    void createAccountsForUsers_shouldInsertDistinctUsersInOneStatement() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.insertSkippingExistingHolders(any(), any()))
+                .thenReturn(Flux.just(BankAccount.builder().id(UUID.randomUUID()).accountHolderId(first).build()));
+
+        StepVerifier.create(bankAccountService.createAccountsForUsers(List.of(first, second, first)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        ArgumentCaptor<UUID[]> holders = ArgumentCaptor.forClass(UUID[].class);
+        ArgumentCaptor<String[]> numbers = ArgumentCaptor.forClass(String[].class);
+        verify(bankAccountRepository).insertSkippingExistingHolders(holders.capture(), numbers.capture());
+        assertArrayEquals(new UUID[] {first, second}, holders.getValue());
+        assertArrayEquals(new String[] {AccountNumberAllocator.format(0), AccountNumberAllocator.format(1)},
+                numbers.getValue());
+    }
+
+    @Test
+    void createAccountsForUsers_shouldRetryWithNewNumbersWhenOneIsTaken() {
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.insertSkippingExistingHolders(any(), any()))
+                .thenReturn(Flux.error(new DuplicateKeyException("bank_accounts_account_number_key")))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(bankAccountService.createAccountsForUsers(List.of(UUID.randomUUID())))
+                .verifyComplete();
+
+        ArgumentCaptor<String[]> numbers = ArgumentCaptor.forClass(String[].class);
+        verify(bankAccountRepository, times(2)).insertSkippingExistingHolders(any(), numbers.capture());
+        assertEquals(AccountNumberAllocator.format(1), numbers.getAllValues().get(1)[0]);
+    }
+
+    @Test
+    void startConsuming_shouldOpenABatchOfAccountsAndCommitHighestOffsetPerPartition() {
+        List<ReceiverRecord<String, byte[]>> records = List.of(
+                userCreated(0, 0, created(UUID.randomUUID())),
+                userCreated(1, 1, legacy(UUID.randomUUID().toString())),
+                userCreated(0, 2, legacy("not-a-uuid")),
+                userCreated(1, 3, created(UUID.randomUUID())),
+                userCreated(1, 4, UserEventCodec.encode(new UserDeleted(UUID.randomUUID(), Instant.now()))));
+        when(kafkaReceiver.receive()).thenReturn(Flux.fromIterable(records));
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.insertSkippingExistingHolders(any(), any())).thenReturn(Flux.empty());
+
+        bankAccountService.startConsuming();
+
+        ArgumentCaptor<UUID[]> holders = ArgumentCaptor.forClass(UUID[].class);
+        verify(bankAccountRepository, timeout(1000)).insertSkippingExistingHolders(holders.capture(), any());
+        assertEquals(3, holders.getValue().length);
+        verify(records.get(2).receiverOffset(), timeout(1000)).commit();
+        verify(records.get(4).receiverOffset(), timeout(1000)).commit();
+        verify(records.get(0).receiverOffset(), never()).commit();
+        verify(records.get(1).receiverOffset(), never()).commit();
+        verify(records.get(3).receiverOffset(), never()).commit();
+        verify(retryTopics).deadLetter(eq(records.get(2)), any(IllegalArgumentException.class));
+        verify(retryTopics, never()).deadLetter(eq(records.get(4)), any());
+        bankAccountService.stopConsuming();
+    }
+
+    @Test
+    void startConsuming_shouldCountABatchAsCommittedOnlyOnceItsOffsetsAre() {
+        List<ReceiverRecord<String, byte[]>> records = List.of(
+                userCreated(0, 0, created(UUID.randomUUID())),
+                userCreated(0, 1, created(UUID.randomUUID())));
+        Sinks.Empty<Void> commit = Sinks.empty();
+        when(records.get(1).receiverOffset().commit()).thenReturn(commit.asMono());
+        when(kafkaReceiver.receive()).thenReturn(Flux.fromIterable(records));
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.insertSkippingExistingHolders(any(), any())).thenReturn(Flux.empty());
+
+        bankAccountService.startConsuming();
+
+        verify(records.get(1).receiverOffset(), timeout(1000)).commit();
+        assertEquals(0.0, meterRegistry.get("banking.consumer.records.committed").counter().count());
+        commit.tryEmitEmpty();
+        assertEquals(2.0, meterRegistry.get("banking.consumer.records.committed").counter().count());
+        bankAccountService.stopConsuming();
+    }
+
+    @Test
+    void startConsuming_shouldRetryEachRecordOfAFailedBatch() {
+        List<ReceiverRecord<String, byte[]>> records = List.of(
+                userCreated(0, 0, created(UUID.randomUUID())),
+                userCreated(0, 1, created(UUID.randomUUID())));
+        when(kafkaReceiver.receive()).thenReturn(Flux.fromIterable(records));
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.insertSkippingExistingHolders(any(), any()))
+                .thenReturn(Flux.error(new RuntimeException("connection reset")));
+
+        bankAccountService.startConsuming();
+
+        verify(records.get(1).receiverOffset(), timeout(1000)).commit();
+        verify(retryTopics).retry(eq(records.get(0)), any(RuntimeException.class));
+        verify(retryTopics).retry(eq(records.get(1)), any(RuntimeException.class));
+        bankAccountService.stopConsuming();
+    }
+
+    @Test
+    void startConsuming_shouldRetryAFailedRecordAndKeepConsuming() {
+        BankAccountServiceImpl consuming = service(false);
+        List<ReceiverRecord<String, byte[]>> records = List.of(
+                userCreated(0, 0, created(UUID.randomUUID())),
+                userCreated(0, 1, legacy("not-a-uuid")),
+                userCreated(0, 2, created(UUID.randomUUID())));
+        when(kafkaReceiver.receive()).thenReturn(Flux.fromIterable(records));
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.insertSkippingExistingHolders(any(), any()))
+                .thenReturn(Flux.error(new RuntimeException("connection reset")))
+                .thenReturn(Flux.empty());
+
+        consuming.startConsuming();
+
+        for (ReceiverRecord<String, byte[]> record : records) {
+            verify(record.receiverOffset(), timeout(1000)).acknowledge();
+        }
+        verify(bankAccountRepository, times(2)).insertSkippingExistingHolders(any(), any());
+        verify(retryTopics).retry(eq(records.get(0)), any(RuntimeException.class));
+        verify(retryTopics).deadLetter(eq(records.get(1)), any(IllegalArgumentException.class));
+        verify(retryTopics, never()).retry(eq(records.get(2)), any());
+        assertEquals(3.0, meterRegistry.get("banking.consumer.records.consumed").tag("source", "main").counter().count());
+        assertEquals(3.0, meterRegistry.get("banking.consumer.records.committed").counter().count());
+        assertEquals(1.0, meterRegistry.get("banking.consumer.records.failed").tag("action", "retry").counter().count());
+        assertEquals(1.0, meterRegistry.get("banking.consumer.records.failed").tag("action", "dead_letter").counter().count());
+        consuming.stopConsuming();
+    }
+
+    @Test
+    void startConsuming_shouldHandleDueRetriesOnTheRails() {
+        BankAccountServiceImpl consuming = service(false);
+        ReceiverRecord<String, byte[]> retried = userCreated(0, 0, created(UUID.randomUUID()));
+        when(kafkaReceiver.receive()).thenReturn(Flux.never());
+        when(retryTopics.receiveDue()).thenReturn(Flux.just(retried));
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(0L));
+        when(bankAccountRepository.insertSkippingExistingHolders(any(), any())).thenReturn(Flux.empty());
+
+        consuming.startConsuming();
+
+        verify(retried.receiverOffset(), timeout(1000)).acknowledge();
+        verify(bankAccountRepository).insertSkippingExistingHolders(any(), any());
+        consuming.stopConsuming();
+    }
+}
@@ -0,0 +1,107 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.microbank.banking.PostgresIntegrationTest;
+import com.microbank.banking.dto.TransactionPage;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+
+/**
+ * Keyset pagination over {@code bank_transactions}. One hot account owns a tenth of the rows;
+ * the rest are spread over cold accounts. How page latency holds up on a ledger of millions of
+ * rows is measured by {@code TransactionHistoryBenchmark} in the benchmarks module.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BankTransactionHistoryIntegrationTest extends PostgresIntegrationTest {
+
+    private static final long ROWS = 10_000;
+    private static final int COLD_ACCOUNTS = 99;
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Autowired
+    BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    BankTransactionRepository bankTransactionRepository;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    BankTransactionServiceImpl bankTransactionService;
+
+    UUID hotAccount;
+
+    private UUID newAccount() {
+        return bankAccountRepository.save(BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .accountNumber("H" + System.nanoTime())
+                .balance(Money.ZERO)
+                .build()).block().getId();
+    }
+
+    @BeforeAll
+    void loadHistory() {
+        bankTransactionService = new BankTransactionServiceImpl(bankTransactionRepository);
+        hotAccount = newAccount();
+        List<UUID> cold = new ArrayList<>();
+        for (int i = 0; i < COLD_ACCOUNTS; i++) {
+            cold.add(newAccount());
+        }
+
+        // every tenth row belongs to the hot account; one row per second going back from NEWEST
+        databaseClient.sql("""
+                INSERT INTO bank_transactions (account_id, transaction_type, amount, created_at, description)
+                SELECT CASE WHEN g % 10 = 0 THEN CAST(:hot AS uuid) ELSE (CAST(:cold AS uuid[]))[g % :coldCount + 1] END,
+                       'deposit', 1.00, CAST(:newest AS timestamp) - g * INTERVAL '1 second', 'history'
+                FROM generate_series(1, :rows) AS g
+                """)
+                .bind("hot", hotAccount)
+                .bind("cold", cold.toArray(UUID[]::new))
+                .bind("coldCount", COLD_ACCOUNTS)
+                .bind("newest", NEWEST)
+                .bind("rows", ROWS)
+                .then()
+                .then(databaseClient.sql("ANALYZE bank_transactions").then())
+                .block(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void pagesShouldWalkTheHistoryWithoutGapsOrDuplicates() {
+        LocalDateTime from = NEWEST.minusHours(1);
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = bankTransactionService.getTransactionPage(hotAccount, from, NEWEST, cursor, 37).block();
+            for (BankTransaction row : page.getItems()) {
+                assertTrue(seen.add(row.getId()), "duplicate row " + row.getId());
+                assertFalse(row.getCreatedAt().isBefore(from));
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // one row every 10 seconds over an hour, `to` exclusive of NEWEST itself
+        assertEquals(360, seen.size());
+        assertEquals(10, pages);
+        assertEquals(360L, bankTransactionService.streamTransactions(hotAccount, from, NEWEST, null, null).count().block());
+    }
+}
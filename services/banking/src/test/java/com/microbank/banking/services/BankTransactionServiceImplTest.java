@@ -0,0 +1,137 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.microbank.banking.dto.TransactionCursor;
+import com.microbank.banking.dto.TransactionPage;
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankTransactionRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class BankTransactionServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private BankTransactionRepository bankTransactionRepository;
+
+    @InjectMocks
+    private BankTransactionServiceImpl bankTransactionService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        accountId = UUID.randomUUID();
+    }
+
+    private List<BankTransaction> rows(int count, int offset) {
+        return IntStream.range(offset, offset + count)
+                .mapToObj(i -> BankTransaction.builder()
+                        .id(UUID.randomUUID())
+                        .accountId(accountId)
+                        .transactionType("deposit")
+                        .amount(Money.of("1.00"))
+                        .createdAt(NOW.minusSeconds(i))
+                        .build())
+                .toList();
+    }
+
+    @Test
+    void getTransactionPage_shouldReturnNextCursorWhenMoreRowsFollow() {
+        List<BankTransaction> rows = rows(11, 0);
+        when(bankTransactionRepository.findPage(eq(accountId), any(), any(), any(), eq(11)))
+                .thenReturn(Flux.fromIterable(rows));
+
+        TransactionPage page = bankTransactionService.getTransactionPage(accountId, null, null, null, 10).block();
+
+        assertEquals(10, page.getItems().size());
+        TransactionCursor next = TransactionCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(9).getId(), next.id());
+        assertEquals(rows.get(9).getCreatedAt(), next.createdAt());
+    }
+
+    @Test
+    void getTransactionPage_shouldOmitCursorOnLastPageAndClampLimit() {
+        when(bankTransactionRepository.findPage(eq(accountId), any(), any(), any(), anyInt()))
+                .thenReturn(Flux.fromIterable(rows(3, 0)));
+
+        TransactionPage page = bankTransactionService.getTransactionPage(accountId, null, null, null, 50_000).block();
+
+        assertEquals(3, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(bankTransactionRepository).findPage(eq(accountId), any(), any(), any(),
+                eq(BankTransactionServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void getTransactionPage_shouldStartAfterTheCursorButNeverAfterTo() {
+        when(bankTransactionRepository.findPage(any(), any(), any(), any(), anyInt())).thenReturn(Flux.empty());
+        UUID lastSeen = UUID.randomUUID();
+        String cursor = new TransactionCursor(NOW.minusDays(1), lastSeen).encode();
+
+        bankTransactionService.getTransactionPage(accountId, NOW.minusDays(7), NOW, cursor, null).block();
+        verify(bankTransactionRepository).findPage(accountId, NOW.minusDays(7), NOW.minusDays(1), lastSeen,
+                BankTransactionServiceImpl.DEFAULT_PAGE_SIZE + 1);
+
+        bankTransactionService.getTransactionPage(accountId, null, NOW.minusDays(2), cursor, null).block();
+        verify(bankTransactionRepository).findPage(eq(accountId), any(), eq(NOW.minusDays(2)), eq(new UUID(0L, 0L)),
+                anyInt());
+    }
+
+    @Test
+    void getTransactionPage_shouldRejectMalformedCursor() {
+        StepVerifier.create(bankTransactionService.getTransactionPage(accountId, null, null, "not-a-cursor", null))
+                .expectError(ResponseStatusException.class)
+                .verify();
+    }
+
+    @Test
+    void streamTransactions_shouldWalkKeysetPagesUntilAShortPage() {
+        int pageSize = BankTransactionServiceImpl.STREAM_PAGE_SIZE;
+        List<BankTransaction> first = rows(pageSize, 0);
+        List<BankTransaction> second = rows(7, pageSize);
+        BankTransaction lastOfFirst = first.get(pageSize - 1);
+        when(bankTransactionRepository.findPage(eq(accountId), any(), any(), any(), eq(pageSize)))
+                .thenReturn(Flux.fromIterable(first));
+        when(bankTransactionRepository.findPage(accountId, LocalDateTime.of(1970, 1, 1, 0, 0),
+                lastOfFirst.getCreatedAt(), lastOfFirst.getId(), pageSize))
+                .thenReturn(Flux.fromIterable(second));
+
+        StepVerifier.create(bankTransactionService.streamTransactions(accountId, null, null, null, null))
+                .expectNextCount(pageSize + 7)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamTransactions_shouldReadAtMostOnePageAheadOfTheSubscriber() {
+        int pageSize = BankTransactionServiceImpl.STREAM_PAGE_SIZE;
+        when(bankTransactionRepository.findPage(eq(accountId), any(), any(), any(), eq(pageSize)))
+                .thenReturn(Flux.fromIterable(rows(pageSize, 0)));
+
+        StepVerifier.create(bankTransactionService.streamTransactions(accountId, null, null, null, 5))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        // every page the mock returns is full, so an eager stream would never stop reading
+        verify(bankTransactionRepository, atMost(2)).findPage(any(), any(), any(), any(), anyInt());
+    }
+}
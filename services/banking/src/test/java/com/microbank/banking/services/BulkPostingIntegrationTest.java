@@ -0,0 +1,109 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.PostgresIntegrationTest;
+import com.microbank.banking.dto.PostingRequest;
+import com.microbank.banking.dto.PostingResult;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Runs bulk postings against a real Postgres, across several batches. Throughput by batch size
+ * is measured by {@code BulkPostingBenchmark} in the benchmarks module.
+ */
+class BulkPostingIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int ACCOUNTS = 200;
+    private static final int POSTINGS = 2_000;
+
+    @Autowired
+    BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    BankTransactionRepository bankTransactionRepository;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    private List<UUID> newAccounts(Money balance) {
+        List<UUID> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(bankAccountRepository.save(BankAccount.builder()
+                    .accountHolderId(UUID.randomUUID())
+                    .accountNumber("B" + System.nanoTime())
+                    .balance(balance)
+                    .build()).block().getId());
+        }
+        return accounts;
+    }
+
+    private Flux<PostingRequest> deposits(List<UUID> accounts, int count) {
+        return Flux.range(0, count).map(i -> PostingRequest.builder()
+                .accountId(accounts.get(i % accounts.size()))
+                .amount(Money.of("1.00"))
+                .transactionType("deposit")
+                .description("payroll-" + i)
+                .build());
+    }
+
+    @Test
+    void bulkPostings_shouldApplyEveryDepositAndLedgerRow() {
+        List<UUID> accounts = newAccounts(Money.ZERO);
+        BulkPostingServiceImpl bulkPostingService = new BulkPostingServiceImpl(bankAccountRepository,
+                bankTransactionRepository, transactionalOperator, mock(AccountCache.class), 500, 1_000);
+
+        long posted = bulkPostingService.post(deposits(accounts, POSTINGS))
+                .filter(result -> BulkPostingServiceImpl.POSTED.equals(result.getStatus()))
+                .count()
+                .block(Duration.ofMinutes(2));
+
+        assertEquals(POSTINGS, posted);
+        Money total = Flux.fromIterable(accounts)
+                .flatMap(bankAccountRepository::findById)
+                .map(BankAccount::getBalance)
+                .reduce(Money.ZERO, Money::plus)
+                .block();
+        assertEquals(Money.ofMinor(POSTINGS * 100L), total);
+        long ledgerRows = Flux.fromIterable(accounts)
+                .flatMap(bankTransactionRepository::findByAccountId)
+                .count()
+                .block();
+        assertEquals(POSTINGS, ledgerRows);
+    }
+
+    @Test
+    void bulkPostings_shouldRejectOverdraftsPerAccount() {
+        List<UUID> accounts = newAccounts(Money.of("5.00"));
+        BulkPostingServiceImpl bulkPostingService = new BulkPostingServiceImpl(bankAccountRepository,
+                bankTransactionRepository, transactionalOperator, mock(AccountCache.class), 100, 50);
+
+        List<PostingResult> results = bulkPostingService.post(Flux.just(
+                PostingRequest.builder().accountId(accounts.get(0)).amount(Money.of("10.00")).transactionType("withdrawal").build(),
+                PostingRequest.builder().accountId(accounts.get(1)).amount(Money.of("3.00")).transactionType("withdrawal").build(),
+                PostingRequest.builder().accountId(UUID.randomUUID()).amount(Money.of("3.00")).transactionType("deposit").build()))
+                .collectList()
+                .block();
+
+        assertEquals("Insufficient funds", results.get(0).getReason());
+        assertEquals(Money.of("2.00"), results.get(1).getBalance());
+        assertEquals("Account not found", results.get(2).getReason());
+        assertEquals(Money.of("5.00"), bankAccountRepository.findById(accounts.get(0)).block().getBalance());
+        assertEquals(0L, bankTransactionRepository.findByAccountId(accounts.get(0)).count().block());
+    }
+}
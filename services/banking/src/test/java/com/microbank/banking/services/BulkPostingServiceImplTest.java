@@ -0,0 +1,162 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.dto.PostingRequest;
+import com.microbank.banking.dto.PostingResult;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class BulkPostingServiceImplTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private BankTransactionRepository bankTransactionRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private AccountCache accountCache;
+
+    private BulkPostingServiceImpl bulkPostingService;
+
+    private UUID first;
+    private UUID second;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(bankTransactionRepository.insertAll(any(), any(), any(), any()))
+                .thenAnswer(inv -> Mono.just((long) ((UUID[]) inv.getArgument(0)).length));
+        bulkPostingService = new BulkPostingServiceImpl(bankAccountRepository, bankTransactionRepository,
+                transactionalOperator, accountCache, 100, 2);
+        first = UUID.randomUUID();
+        second = UUID.randomUUID();
+    }
+
+    private BankAccount account(UUID id, Money balance) {
+        return BankAccount.builder()
+                .id(id)
+                .accountHolderId(UUID.randomUUID())
+                .balance(balance)
+                .build();
+    }
+
+    private PostingRequest posting(UUID accountId, Money amount, String type) {
+        return PostingRequest.builder()
+                .accountId(accountId)
+                .amount(amount)
+                .transactionType(type)
+                .description("payroll")
+                .build();
+    }
+
+    @Test
+    void post_shouldApplyNetDeltaPerAccountInOneStatement() {
+        when(bankAccountRepository.applyDeltas(any(), any()))
+                .thenReturn(Flux.just(account(first, Money.of("25.00")), account(second, Money.of("5.00"))));
+
+        List<PostingResult> results = bulkPostingService.post(Flux.just(
+                posting(first, Money.of("10.00"), "deposit"),
+                posting(second, Money.of("5.00"), null),
+                posting(first, Money.of("20.00"), "deposit"),
+                posting(first, Money.of("5.00"), "withdrawal")))
+                .collectList().block();
+
+        ArgumentCaptor<UUID[]> ids = ArgumentCaptor.forClass(UUID[].class);
+        ArgumentCaptor<BigDecimal[]> deltas = ArgumentCaptor.forClass(BigDecimal[].class);
+        verify(bankAccountRepository, times(1)).applyDeltas(ids.capture(), deltas.capture());
+        assertArrayEquals(new UUID[] {first, second}, ids.getValue());
+        assertArrayEquals(new BigDecimal[] {new BigDecimal("25.00"), new BigDecimal("5.00")}, deltas.getValue());
+
+        assertEquals(4, results.size());
+        assertTrue(results.stream().allMatch(r -> BulkPostingServiceImpl.POSTED.equals(r.getStatus())));
+        assertEquals(Money.of("25.00"), results.get(0).getBalance());
+        assertEquals(3, results.get(3).getIndex());
+        verify(bankAccountRepository, never()).findAllById(anyIterable());
+        verify(accountCache, times(2)).invalidate(any(BankAccount.class));
+    }
+
+    @Test
+    void post_shouldWriteLedgerRowsInChunks() {
+        when(bankAccountRepository.applyDeltas(any(), any())).thenReturn(Flux.just(account(first, Money.of("50.00"))));
+
+        bulkPostingService.post(Flux.range(0, 5).map(i -> posting(first, Money.of("10.00"), "deposit")))
+                .blockLast();
+
+        ArgumentCaptor<String[]> types = ArgumentCaptor.forClass(String[].class);
+        verify(bankTransactionRepository, times(3)).insertAll(any(), types.capture(), any(), any());
+        assertEquals(List.of(2, 2, 1), types.getAllValues().stream().map(t -> t.length).toList());
+    }
+
+    @Test
+    void post_shouldRejectAccountsThatWereNotUpdatedWithTheirReason() {
+        UUID missing = UUID.randomUUID();
+        when(bankAccountRepository.applyDeltas(any(), any())).thenReturn(Flux.just(account(first, Money.of("10.00"))));
+        when(bankAccountRepository.findAllById(anyIterable())).thenReturn(Flux.just(account(second, Money.of("1.00"))));
+
+        List<PostingResult> results = bulkPostingService.post(Flux.just(
+                posting(first, Money.of("10.00"), "deposit"),
+                posting(second, Money.of("50.00"), "withdrawal"),
+                posting(missing, Money.of("1.00"), "deposit")))
+                .collectList().block();
+
+        assertEquals(BulkPostingServiceImpl.POSTED, results.get(0).getStatus());
+        assertEquals("Insufficient funds", results.get(1).getReason());
+        assertEquals("Account not found", results.get(2).getReason());
+
+        ArgumentCaptor<UUID[]> accountIds = ArgumentCaptor.forClass(UUID[].class);
+        verify(bankTransactionRepository).insertAll(accountIds.capture(), any(), any(), any());
+        assertArrayEquals(new UUID[] {first}, accountIds.getValue());
+    }
+
+    @Test
+    void post_shouldRejectInvalidPostingsWithoutTouchingTheDatabase() {
+        List<PostingResult> results = bulkPostingService.post(Flux.just(
+                posting(first, Money.ZERO, "deposit"),
+                posting(null, Money.of("10.00"), "deposit"),
+                posting(first, Money.of("10.00"), "refund")))
+                .collectList().block();
+
+        assertEquals("Amount must be positive", results.get(0).getReason());
+        assertEquals("Account is required", results.get(1).getReason());
+        assertEquals("Unsupported transaction type refund", results.get(2).getReason());
+        verifyNoInteractions(bankAccountRepository, bankTransactionRepository);
+    }
+
+    @Test
+    void post_shouldRunEachBatchInItsOwnTransaction() {
+        bulkPostingService = new BulkPostingServiceImpl(bankAccountRepository, bankTransactionRepository,
+                transactionalOperator, accountCache, 2, 10);
+        when(bankAccountRepository.applyDeltas(any(), any())).thenReturn(Flux.just(account(first, Money.of("10.00"))));
+
+        bulkPostingService.post(Flux.range(0, 5).map(i -> posting(first, Money.of("1.00"), "deposit"))).blockLast();
+
+        verify(bankAccountRepository, times(3)).applyDeltas(any(), any());
+        verify(transactionalOperator, times(3)).transactional(any(Mono.class));
+    }
+}
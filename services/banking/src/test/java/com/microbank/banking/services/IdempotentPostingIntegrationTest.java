@@ -0,0 +1,109 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.PostgresIntegrationTest;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.repository.IdempotencyKeyRepository;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.kafka.receiver.KafkaReceiver;
+
+/**
+ * Retries of one Idempotency-Key against a real Postgres, both within one instance and across
+ * two instances that do not share the in-memory cache.
+ */
+class IdempotentPostingIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    BankTransactionRepository bankTransactionRepository;
+
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    @SuppressWarnings("unchecked")
+    private BankAccountServiceImpl newInstance() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new BankAccountServiceImpl(bankAccountRepository, bankTransactionRepository,
+                mock(KafkaReceiver.class), transactionalOperator, new AccountLaneExecutor(16, 10_000, meterRegistry),
+                new IdempotencyGuard(idempotencyKeyRepository, bankAccountRepository, 1_000,
+                        Duration.ofMinutes(1), Duration.ofHours(1), meterRegistry),
+                mock(AccountCache.class), mock(AccountNumberAllocator.class),
+                mock(KeyOrderedRails.class), mock(RecordBatcher.class), mock(RetryTopics.class), meterRegistry);
+    }
+
+    private BankAccount newAccount(Money balance) {
+        return bankAccountRepository.save(BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .accountNumber(String.valueOf(System.nanoTime()))
+                .balance(balance)
+                .build()).block();
+    }
+
+    @Test
+    void concurrentRetriesAcrossInstances_shouldPostOnce() {
+        BankAccount account = newAccount(Money.ZERO);
+        BankAccountServiceImpl first = newInstance();
+        BankAccountServiceImpl second = newInstance();
+
+        long answered = Flux.range(0, 200)
+                .flatMap(i -> (i % 2 == 0 ? first : second).deposit(account.getId(), Money.of("25.00"), "retry", "payroll-42"), 64)
+                .filter(result -> result.getBalance().equals(Money.of("25.00")))
+                .count()
+                .block(Duration.ofMinutes(1));
+
+        assertEquals(200, answered);
+        assertEquals(Money.of("25.00"), bankAccountRepository.findById(account.getId()).block().getBalance());
+        assertEquals(1L, bankTransactionRepository.findByAccountId(account.getId()).count().block());
+    }
+
+    @Test
+    void retryOnAnotherInstance_shouldReplayTheStoredBalance() {
+        BankAccount account = newAccount(Money.of("100.00"));
+
+        newInstance().withdraw(account.getId(), Money.of("40.00"), "ATM", "atm-7").block();
+        newInstance().deposit(account.getId(), Money.of("5.00"), "unrelated", "other").block();
+        BankAccount replayed = newInstance().withdraw(account.getId(), Money.of("40.00"), "ATM", "atm-7").block();
+
+        assertEquals(Money.of("60.00"), replayed.getBalance());
+        assertEquals(Money.of("65.00"), bankAccountRepository.findById(account.getId()).block().getBalance());
+        assertEquals(2L, bankTransactionRepository.findByAccountId(account.getId()).count().block());
+    }
+
+    @Test
+    void failedPosting_shouldNotKeepTheKey() {
+        BankAccount account = newAccount(Money.of("10.00"));
+        BankAccountServiceImpl service = newInstance();
+
+        assertThrows(RuntimeException.class,
+                () -> service.withdraw(account.getId(), Money.of("50.00"), "too much", "w-1").block());
+        service.deposit(account.getId(), Money.of("100.00"), "top up", "d-1").block();
+
+        assertEquals(Money.of("60.00"), service.withdraw(account.getId(), Money.of("50.00"), "again", "w-1").block().getBalance());
+    }
+}
@@ -0,0 +1,104 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.PostgresIntegrationTest;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Random transfers in both directions across a handful of hot accounts; fails on any deadlock or
+ * if money is created or lost. Latency under this contention is measured by
+ * {@code TransferContentionBenchmark} in the benchmarks module.
+ */
+class TransferContentionIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int HOT_ACCOUNTS = 6;
+    private static final int TRANSFERS = 300;
+    private static final int CONCURRENCY = 64;
+    private static final Money OPENING_BALANCE = Money.of("1000.00");
+
+    @Autowired
+    BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    BankTransactionRepository bankTransactionRepository;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    @Test
+    void randomTransfersAcrossHotAccounts_shouldNotDeadlockOrLeakMoney() {
+        TransferServiceImpl transferService = new TransferServiceImpl(bankAccountRepository,
+                bankTransactionRepository, transactionalOperator, mock(AccountCache.class));
+        List<UUID> accounts = new ArrayList<>();
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            accounts.add(bankAccountRepository.save(BankAccount.builder()
+                    .accountHolderId(UUID.randomUUID())
+                    .accountNumber("T" + System.nanoTime())
+                    .balance(OPENING_BALANCE)
+                    .build()).block().getId());
+        }
+
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        AtomicInteger posted = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+
+        Flux.range(0, TRANSFERS)
+                .flatMap(i -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    UUID from = accounts.get(random.nextInt(HOT_ACCOUNTS));
+                    UUID to = accounts.get(random.nextInt(HOT_ACCOUNTS));
+                    while (to.equals(from)) {
+                        to = accounts.get(random.nextInt(HOT_ACCOUNTS));
+                    }
+                    Money amount = Money.ofMinor(100L * (1 + random.nextInt(50)));
+                    return transferService.transfer(from, to, amount, "contention-" + i)
+                            .doOnNext(r -> posted.incrementAndGet())
+                            .onErrorResume(e -> {
+                                if ("Insufficient funds".equals(e.getMessage())) {
+                                    insufficient.incrementAndGet();
+                                } else {
+                                    unexpected.add(e);
+                                }
+                                return Mono.empty();
+                            });
+                }, CONCURRENCY)
+                .blockLast(Duration.ofMinutes(1));
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures, first: " + unexpected.peek());
+        assertEquals(TRANSFERS, posted.get() + insufficient.get());
+
+        Money total = Flux.fromIterable(accounts)
+                .flatMap(bankAccountRepository::findById)
+                .map(BankAccount::getBalance)
+                .reduce(Money.ZERO, Money::plus)
+                .block();
+        assertEquals(Money.ofMinor(HOT_ACCOUNTS * OPENING_BALANCE.minorUnits()), total);
+
+        long legs = Flux.fromIterable(accounts)
+                .flatMap(bankTransactionRepository::findByAccountId)
+                .count()
+                .block();
+        assertEquals(2L * posted.get(), legs);
+    }
+}
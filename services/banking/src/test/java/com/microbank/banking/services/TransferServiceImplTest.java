@@ -0,0 +1,131 @@
+package com.microbank.banking.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.utils.AccountCache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class TransferServiceImplTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private BankTransactionRepository bankTransactionRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @InjectMocks
+    private TransferServiceImpl transferService;
+
+    private UUID fromId;
+    private UUID toId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(bankTransactionRepository.saveAll(anyIterable()))
+                .thenAnswer(inv -> Flux.fromIterable((Iterable<BankTransaction>) inv.getArgument(0)));
+        fromId = UUID.randomUUID();
+        toId = UUID.randomUUID();
+    }
+
+    private BankAccount account(UUID id, Money balance) {
+        return BankAccount.builder()
+                .id(id)
+                .accountHolderId(UUID.randomUUID())
+                .balance(balance)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transfer_shouldLockBothAccountsThenWriteLinkedLegs() {
+        when(bankAccountRepository.lockInIdOrder(fromId, toId))
+                .thenReturn(Flux.just(account(fromId, Money.of("100.00")), account(toId, Money.ZERO)));
+        when(bankAccountRepository.debit(fromId, Money.of("30.00"))).thenReturn(Mono.just(account(fromId, Money.of("70.00"))));
+        when(bankAccountRepository.credit(toId, Money.of("30.00"))).thenReturn(Mono.just(account(toId, Money.of("30.00"))));
+
+        StepVerifier.create(transferService.transfer(fromId, toId, Money.of("30.00"), "Rent"))
+                .expectNextMatches(response -> response.getFromBalance().equals(Money.of("70.00"))
+                && response.getFromAccountId().equals(fromId)
+                && response.getToAccountId().equals(toId)
+                && response.getTransferId() != null)
+                .verifyComplete();
+
+        ArgumentCaptor<Iterable<BankTransaction>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(bankTransactionRepository).saveAll(captor.capture());
+        List<BankTransaction> legs = (List<BankTransaction>) captor.getValue();
+        assertEquals("transfer_out", legs.get(0).getTransactionType());
+        assertEquals(fromId, legs.get(0).getAccountId());
+        assertEquals("transfer_in", legs.get(1).getTransactionType());
+        assertEquals(toId, legs.get(1).getAccountId());
+        assertEquals(legs.get(0).getTransferId(), legs.get(1).getTransferId());
+        verify(transactionalOperator).transactional(any(Mono.class));
+        verify(accountCache, times(2)).invalidate(any(BankAccount.class));
+    }
+
+    @Test
+    void transfer_shouldErrorOnInsufficientFundsWithoutCrediting() {
+        when(bankAccountRepository.lockInIdOrder(fromId, toId))
+                .thenReturn(Flux.just(account(fromId, Money.of("10.00")), account(toId, Money.ZERO)));
+        when(bankAccountRepository.debit(fromId, Money.of("30.00"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(transferService.transfer(fromId, toId, Money.of("30.00"), "Rent"))
+                .expectErrorMessage("Insufficient funds")
+                .verify();
+
+        verify(bankAccountRepository, never()).credit(any(UUID.class), any(Money.class));
+        verify(bankTransactionRepository, never()).saveAll(anyIterable());
+        verify(accountCache, never()).invalidate(any(BankAccount.class));
+    }
+
+    @Test
+    void transfer_shouldReturnEmptyWhenAnAccountIsMissing() {
+        when(bankAccountRepository.lockInIdOrder(fromId, toId)).thenReturn(Flux.just(account(fromId, Money.of("100.00"))));
+
+        StepVerifier.create(transferService.transfer(fromId, toId, Money.of("30.00"), "Rent"))
+                .verifyComplete();
+
+        verify(bankAccountRepository, never()).debit(any(UUID.class), any(Money.class));
+    }
+
+    @Test
+    void transfer_shouldRejectSameAccountAndNonPositiveAmounts() {
+        StepVerifier.create(transferService.transfer(fromId, fromId, Money.of("30.00"), "Loop"))
+                .expectErrorMessage("Cannot transfer to the same account")
+                .verify();
+        StepVerifier.create(transferService.transfer(fromId, toId, Money.ZERO, "Nothing"))
+                .expectErrorMessage("Amount must be positive")
+                .verify();
+
+        verifyNoInteractions(bankAccountRepository);
+    }
+}
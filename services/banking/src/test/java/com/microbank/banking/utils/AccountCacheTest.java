@@ -0,0 +1,177 @@
+package com.microbank.banking.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class AccountCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountCache cache;
+    private AtomicInteger lookups;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountCache(true, 2, Duration.ofMinutes(1), meterRegistry);
+        lookups = new AtomicInteger();
+    }
+
+    private BankAccount account(UUID id, Money balance) {
+        return BankAccount.builder()
+                .id(id)
+                .accountHolderId(UUID.randomUUID())
+                .balance(balance)
+                .build();
+    }
+
+    private Mono<BankAccount> lookup(BankAccount account) {
+        return Mono.fromCallable(() -> {
+            lookups.incrementAndGet();
+            return account;
+        });
+    }
+
+    private double counter(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+
+    @Test
+    void getById_shouldCollapseConcurrentMissesIntoOneLookup() {
+        UUID id = UUID.randomUUID();
+        Sinks.One<BankAccount> result = Sinks.one();
+
+        Mono<BankAccount> first = cache.getById(id, () -> {
+            lookups.incrementAndGet();
+            return result.asMono();
+        });
+        Mono<BankAccount> second = cache.getById(id, () -> {
+            lookups.incrementAndGet();
+            return result.asMono();
+        });
+        StepVerifier.create(first.zipWith(second))
+                .then(() -> result.tryEmitValue(account(id, Money.of("10.00"))))
+                .expectNextMatches(both -> both.getT1().getBalance().equals(Money.of("10.00")) && both.getT2().getBalance().equals(Money.of("10.00")))
+                .verifyComplete();
+
+        assertEquals(1, lookups.get());
+        assertEquals(1.0, counter("banking.accounts.cache.misses", "lookup", "id"));
+        assertEquals(1.0, counter("banking.accounts.cache.hits", "lookup", "id"));
+    }
+
+    @Test
+    void getById_shouldHandOutCopies() {
+        UUID id = UUID.randomUUID();
+        BankAccount stored = account(id, Money.of("10.00"));
+
+        cache.getById(id, () -> lookup(stored)).block().setBalance(Money.of("999.00"));
+
+        assertEquals(Money.of("10.00"), cache.getById(id, () -> lookup(stored)).block().getBalance());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void getById_shouldCacheMissingAccounts() {
+        UUID id = UUID.randomUUID();
+
+        cache.getById(id, () -> lookup(null).flatMap(Mono::justOrEmpty)).block();
+        StepVerifier.create(cache.getById(id, () -> lookup(null).flatMap(Mono::justOrEmpty)))
+                .verifyComplete();
+
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void getById_shouldNotCacheFailedLookups() {
+        UUID id = UUID.randomUUID();
+
+        StepVerifier.create(cache.getById(id, () -> Mono.error(new RuntimeException("db down"))))
+                .expectErrorMessage("db down")
+                .verify();
+        cache.getById(id, () -> lookup(account(id, Money.of("1.00")))).block();
+
+        assertEquals(1, lookups.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void getById_shouldEvictLeastRecentlyUsedPastMaxSize() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        cache.getById(a, () -> lookup(account(a, Money.of("1.00")))).block();
+        cache.getById(b, () -> lookup(account(b, Money.of("2.00")))).block();
+        cache.getById(a, () -> lookup(account(a, Money.of("1.00")))).block();
+        cache.getById(c, () -> lookup(account(c, Money.of("3.00")))).block();
+        cache.getById(a, () -> lookup(account(a, Money.of("1.00")))).block();
+        cache.getById(b, () -> lookup(account(b, Money.of("2.00")))).block();
+
+        assertEquals(4, lookups.get());
+        assertEquals(2.0, counter("banking.accounts.cache.evictions", "lookup", "id", "cause", "size"));
+    }
+
+    @Test
+    void getById_shouldReloadAfterTtl() {
+        cache = new AccountCache(true, 10, Duration.ZERO, meterRegistry);
+        UUID id = UUID.randomUUID();
+
+        cache.getById(id, () -> lookup(account(id, Money.of("1.00")))).block();
+        cache.getById(id, () -> lookup(account(id, Money.of("2.00")))).block();
+
+        assertEquals(2, lookups.get());
+        assertEquals(1.0, counter("banking.accounts.cache.evictions", "lookup", "id", "cause", "expired"));
+    }
+
+    @Test
+    void invalidate_shouldDropBothLookupsOfAnAccount() {
+        UUID id = UUID.randomUUID();
+        BankAccount stored = account(id, Money.of("1.00"));
+
+        cache.getById(id, () -> lookup(stored)).block();
+        cache.getByHolderId(stored.getAccountHolderId(), () -> lookup(stored)).block();
+        cache.invalidate(stored);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidateById_shouldFindTheHolderLookup() {
+        UUID id = UUID.randomUUID();
+        BankAccount stored = account(id, Money.of("1.00"));
+        BankAccount other = account(UUID.randomUUID(), Money.of("1.00"));
+
+        cache.getByHolderId(stored.getAccountHolderId(), () -> lookup(stored)).block();
+        cache.getByHolderId(other.getAccountHolderId(), () -> lookup(other)).block();
+        cache.invalidate(id);
+
+        assertEquals(1, cache.size());
+        cache.getByHolderId(other.getAccountHolderId(), () -> lookup(other)).block();
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void disabled_shouldAlwaysLookUp() {
+        cache = new AccountCache(false, 10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        UUID id = UUID.randomUUID();
+
+        cache.getById(id, () -> lookup(account(id, Money.of("1.00")))).block();
+        cache.getById(id, () -> lookup(account(id, Money.of("1.00")))).block();
+
+        assertEquals(2, lookups.get());
+        assertEquals(0, cache.size());
+    }
+}
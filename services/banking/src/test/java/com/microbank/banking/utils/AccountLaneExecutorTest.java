@@ -0,0 +1,140 @@
+package com.microbank.banking.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class AccountLaneExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountLaneExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new AccountLaneExecutor(8, 50, meterRegistry);
+    }
+
+    @Test
+    void execute_shouldRunOperationsForOneAccountInSubmissionOrderOneAtATime() {
+        UUID accountId = UUID.randomUUID();
+        List<Integer> completed = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // flatMap subscribes to every operation immediately, so all 40 are queued at once
+        Flux.range(0, 40)
+                .flatMap(i -> executor.execute(accountId, () -> Mono.fromCallable(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    return i;
+                }).delayElement(Duration.ofMillis(1))
+                        .doOnNext(completed::add)
+                        .doOnTerminate(running::decrementAndGet)), 40)
+                .blockLast(Duration.ofSeconds(10));
+
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, completed.get(i));
+        }
+    }
+
+    @Test
+    void execute_shouldRunDifferentLanesInParallel() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        while (executor.laneFor(second) == executor.laneFor(first)) {
+            second = UUID.randomUUID();
+        }
+        Sinks.One<String> gate = Sinks.one();
+
+        // the first lane is parked on the gate, yet the second lane must still make progress
+        StepVerifier blocked = StepVerifier.create(executor.execute(first, gate::asMono))
+                .expectNext("released")
+                .expectComplete()
+                .verifyLater();
+
+        StepVerifier.create(executor.execute(second, () -> Mono.just("done")))
+                .expectNext("done")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        gate.tryEmitValue("released");
+        blocked.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void execute_shouldRejectWithTooManyRequestsWhenLaneIsFull() {
+        UUID accountId = UUID.randomUUID();
+        Sinks.One<Integer> gate = Sinks.one();
+
+        // one running plus a full queue behind it
+        executor.execute(accountId, gate::asMono).subscribe();
+        for (int i = 0; i < 50; i++) {
+            executor.execute(accountId, () -> Mono.just(1)).subscribe();
+        }
+
+        StepVerifier.create(executor.execute(accountId, () -> Mono.just(2)))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                && rse.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS)
+                .verify();
+
+        String lane = String.valueOf(executor.laneFor(accountId));
+        assertEquals(50, executor.queueDepth(executor.laneFor(accountId)));
+        assertEquals(50.0, meterRegistry.get("banking.lanes.queue.depth").tag("lane", lane).gauge().value());
+        assertEquals(1.0, meterRegistry.get("banking.lanes.rejected").tag("lane", lane).counter().count());
+
+        gate.tryEmitValue(0);
+        assertEquals(0, executor.queueDepth(executor.laneFor(accountId)));
+        assertEquals(51, meterRegistry.get("banking.lanes.wait").tag("lane", lane).timer().count());
+    }
+
+    @Test
+    void execute_shouldPropagateErrorsAndKeepTheLaneMoving() {
+        UUID accountId = UUID.randomUUID();
+
+        StepVerifier.create(executor.execute(accountId, () -> Mono.error(new RuntimeException("boom"))))
+                .expectErrorMessage("boom")
+                .verify();
+
+        StepVerifier.create(executor.execute(accountId, () -> {
+            throw new IllegalStateException("thrown by supplier");
+        }))
+                .expectErrorMessage("thrown by supplier")
+                .verify();
+
+        StepVerifier.create(executor.execute(accountId, () -> Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_shouldSkipOperationsCancelledWhileQueued() {
+        UUID accountId = UUID.randomUUID();
+        Sinks.One<Integer> gate = Sinks.one();
+        AtomicInteger invoked = new AtomicInteger();
+
+        executor.execute(accountId, gate::asMono).subscribe();
+        executor.execute(accountId, () -> Mono.fromRunnable(invoked::incrementAndGet)).subscribe().dispose();
+        gate.tryEmitValue(0);
+
+        StepVerifier.create(executor.execute(accountId, () -> Mono.just("after")))
+                .expectNext("after")
+                .verifyComplete();
+        assertEquals(0, invoked.get());
+    }
+}
@@ -0,0 +1,112 @@
+package com.microbank.banking.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.microbank.banking.repository.BankAccountRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class AccountNumberAllocatorTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    private AccountNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        allocator = new AccountNumberAllocator(bankAccountRepository);
+    }
+
+    @Test
+    void format_shouldProduceTenDigitNumbersWithValidCheckDigit() {
+        for (long n : new long[] {0, 1, 999, 123_456_789, AccountNumberAllocator.BODY_COUNT - 1}) {
+            String number = AccountNumberAllocator.format(n);
+            assertEquals(10, number.length(), number);
+            assertNotEquals('0', number.charAt(0));
+            assertTrue(AccountNumberAllocator.isValid(number), number);
+            assertEquals(n, AccountNumberAllocator.sequenceOf(number));
+        }
+    }
+
+    @Test
+    void format_shouldBeCollisionFreeAndNotLookSequential() {
+        Set<String> seen = new HashSet<>();
+        int adjacent = 0;
+        long previous = -1;
+        for (long n = 0; n < 1_000_000; n++) {
+            String number = AccountNumberAllocator.format(n);
+            assertTrue(seen.add(number), number);
+            long body = Long.parseLong(number) / 10;
+            if (Math.abs(body - previous) < 1_000) {
+                adjacent++;
+            }
+            previous = body;
+        }
+        assertTrue(adjacent < 100, "too many consecutive numbers close together: " + adjacent);
+    }
+
+    @Test
+    void isValid_shouldRejectMistypedNumbers() {
+        String number = AccountNumberAllocator.format(42);
+        char last = number.charAt(9);
+        String wrongCheck = number.substring(0, 9) + (char) ('0' + (last - '0' + 1) % 10);
+        String swapped = number.charAt(1) + "" + number.charAt(0) + number.substring(2);
+
+        assertFalse(AccountNumberAllocator.isValid(wrongCheck));
+        assertTrue(number.charAt(0) == number.charAt(1) || !AccountNumberAllocator.isValid(swapped));
+        assertFalse(AccountNumberAllocator.isValid("12345"));
+        assertFalse(AccountNumberAllocator.isValid("12345abcde"));
+        assertEquals(-1, AccountNumberAllocator.sequenceOf(wrongCheck));
+    }
+
+    @Test
+    void next_shouldHandOutAWholeBlockPerDatabaseCall() {
+        when(bankAccountRepository.nextAccountNumberBlock())
+                .thenReturn(Mono.just(0L), Mono.just((long) AccountNumberAllocator.BLOCK_SIZE));
+
+        Set<String> numbers = new HashSet<>(Flux.range(0, AccountNumberAllocator.BLOCK_SIZE + 1)
+                .concatMap(i -> allocator.next())
+                .collectList()
+                .block());
+
+        assertEquals(AccountNumberAllocator.BLOCK_SIZE + 1, numbers.size());
+        assertTrue(numbers.contains(AccountNumberAllocator.format(AccountNumberAllocator.BLOCK_SIZE)));
+        verify(bankAccountRepository, times(2)).nextAccountNumberBlock();
+    }
+
+    @Test
+    void next_shouldShareOneRefillBetweenConcurrentCallers() {
+        Sinks.One<Long> block = Sinks.one();
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(block.asMono());
+
+        StepVerifier.create(Flux.range(0, 10).flatMap(i -> allocator.next()).collectList())
+                .then(() -> block.tryEmitValue(5_000L))
+                .expectNextMatches(numbers -> new HashSet<>(numbers).size() == 10)
+                .verifyComplete();
+
+        verify(bankAccountRepository, times(1)).nextAccountNumberBlock();
+    }
+
+    @Test
+    void next_shouldFailOnceTheNumberSpaceIsExhausted() {
+        when(bankAccountRepository.nextAccountNumberBlock()).thenReturn(Mono.just(AccountNumberAllocator.BODY_COUNT));
+
+        StepVerifier.create(allocator.next())
+                .expectErrorMessage("Account number space exhausted")
+                .verify();
+    }
+}
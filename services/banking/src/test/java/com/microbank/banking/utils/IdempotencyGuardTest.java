@@ -0,0 +1,147 @@
+package com.microbank.banking.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.IdempotencyKey;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.IdempotencyKeyRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class IdempotencyGuardTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyGuard guard;
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new IdempotencyGuard(idempotencyKeyRepository, bankAccountRepository, 2,
+                Duration.ofMinutes(1), Duration.ofHours(1), meterRegistry);
+        accountId = UUID.randomUUID();
+    }
+
+    private BankAccount account(Money balance) {
+        return BankAccount.builder()
+                .id(accountId)
+                .accountHolderId(UUID.randomUUID())
+                .balance(balance)
+                .build();
+    }
+
+    @Test
+    void cached_shouldShareTheResultOfAPostingStillInFlight() {
+        Sinks.One<BankAccount> result = Sinks.one();
+        AtomicInteger runs = new AtomicInteger();
+
+        Mono<BankAccount> first = guard.cached(accountId, "k", "deposit", () -> {
+            runs.incrementAndGet();
+            return result.asMono();
+        });
+        Mono<BankAccount> retry = guard.cached(accountId, "k", "deposit", () -> {
+            runs.incrementAndGet();
+            return Mono.just(account(Money.of("999.00")));
+        });
+
+        StepVerifier.create(first.zipWith(retry))
+                .then(() -> result.tryEmitValue(account(Money.of("10.00"))))
+                .expectNextMatches(both -> both.getT1().getBalance().equals(Money.of("10.00")) && both.getT2().getBalance().equals(Money.of("10.00")))
+                .verifyComplete();
+        assertEquals(1, runs.get());
+        assertEquals(1.0, meterRegistry.get("banking.idempotency.cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("banking.idempotency.duplicates").tag("source", "memory").counter().count());
+        assertEquals(0.5, meterRegistry.get("banking.idempotency.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void cached_shouldRunAgainAfterAFailure() {
+        AtomicInteger runs = new AtomicInteger();
+
+        StepVerifier.create(guard.cached(accountId, "k", "withdrawal", () -> {
+            runs.incrementAndGet();
+            return Mono.error(new RuntimeException("Insufficient funds"));
+        })).expectErrorMessage("Insufficient funds").verify();
+        StepVerifier.create(guard.cached(accountId, "k", "withdrawal", () -> {
+            runs.incrementAndGet();
+            return Mono.just(account(Money.of("5.00")));
+        })).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void cached_shouldEvictTheLeastRecentlyUsedKey() {
+        guard.cached(accountId, "a", "deposit", () -> Mono.just(account(Money.of("1.00")))).block();
+        guard.cached(accountId, "b", "deposit", () -> Mono.just(account(Money.of("2.00")))).block();
+        guard.cached(accountId, "a", "deposit", () -> Mono.just(account(Money.ZERO))).block();
+        guard.cached(accountId, "c", "deposit", () -> Mono.just(account(Money.of("3.00")))).block();
+
+        assertEquals(2, guard.size());
+        assertEquals(Money.of("1.00"), guard.cached(accountId, "a", "deposit", () -> Mono.just(account(Money.ZERO))).block().getBalance());
+        assertEquals(Money.ZERO, guard.cached(accountId, "b", "deposit", () -> Mono.just(account(Money.ZERO))).block().getBalance());
+    }
+
+    @Test
+    void cached_shouldRejectAKeyReusedForAnotherOperationOrInvalidKeys() {
+        guard.cached(accountId, "k", "deposit", () -> Mono.just(account(Money.of("1.00")))).block();
+
+        StepVerifier.create(guard.cached(accountId, "k", "withdrawal", () -> Mono.just(account(Money.ZERO))))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                && rse.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY)
+                .verify();
+        StepVerifier.create(guard.cached(accountId, " ", "deposit", () -> Mono.just(account(Money.ZERO))))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                && rse.getStatusCode() == HttpStatus.BAD_REQUEST)
+                .verify();
+    }
+
+    @Test
+    void claimed_shouldReplayMissingAccountAsEmptyWithoutPosting() {
+        when(idempotencyKeyRepository.claim(eq(accountId), eq("k"), eq("deposit"), any(), any())).thenReturn(Mono.empty());
+        when(idempotencyKeyRepository.findByAccountIdAndIdempotencyKey(accountId, "k"))
+                .thenReturn(Mono.just(IdempotencyKey.builder().accountId(accountId).idempotencyKey("k").operation("deposit").build()));
+        AtomicInteger runs = new AtomicInteger();
+
+        StepVerifier.create(guard.claimed(accountId, "k", "deposit",
+                () -> Mono.fromSupplier(() -> account(Money.ofMinor(runs.incrementAndGet())))))
+                .verifyComplete();
+
+        assertEquals(0, runs.get());
+        assertEquals(1.0, meterRegistry.get("banking.idempotency.duplicates").tag("source", "database").counter().count());
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteKeysPastTheirTtl() {
+        when(idempotencyKeyRepository.deleteExpired(any())).thenReturn(Mono.just(3));
+
+        guard.purgeExpired();
+
+        verify(idempotencyKeyRepository).deleteExpired(any());
+    }
+}
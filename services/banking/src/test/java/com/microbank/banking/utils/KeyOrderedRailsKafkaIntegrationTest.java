@@ -0,0 +1,138 @@
+package com.microbank.banking.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+
+/**
+ * Consumes a real (embedded) Kafka topic through {@link KeyOrderedRails}. Each record stands in
+ * for a database write with a short random delay, so records finish out of order across rails;
+ * every key's records must still be handled in order and every offset committed. How
+ * throughput grows with the number of rails is measured by {@code KeyOrderedRailsBenchmark} in
+ * the benchmarks module.
+ */
+@EmbeddedKafka(partitions = KeyOrderedRailsKafkaIntegrationTest.PARTITIONS, topics = KeyOrderedRailsKafkaIntegrationTest.TOPIC)
+class KeyOrderedRailsKafkaIntegrationTest {
+
+    static final String TOPIC = "user-created-rails";
+    static final int PARTITIONS = 8;
+    private static final int RECORDS = 2_000;
+    private static final int KEYS = 200;
+    private static final int RAILS = 16;
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void produce() {
+        broker = EmbeddedKafkaCondition.getBroker();
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(props)) {
+            for (int i = 0; i < RECORDS; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, "user-" + (i % KEYS), String.valueOf(i)));
+            }
+        }
+    }
+
+    private void consume(String group, Map<String, List<Integer>> seen) throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, group);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        ReceiverOptions<String, String> options = ReceiverOptions.<String, String>create(props)
+                .commitInterval(Duration.ofMillis(100))
+                .maxDeferredCommits(1_000)
+                .subscription(Collections.singleton(TOPIC));
+
+        KeyOrderedRails rails = new KeyOrderedRails(RAILS, new SimpleMeterRegistry());
+        AtomicInteger handled = new AtomicInteger();
+        Disposable consumer = rails.run(KafkaReceiver.create(options).receive(), record -> Mono
+                .delay(Duration.ofMillis(ThreadLocalRandom.current().nextInt(3)))
+                .doOnNext(t -> {
+                    seen.computeIfAbsent(record.key(), k -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(Integer.parseInt(record.value()));
+                    handled.incrementAndGet();
+                    record.receiverOffset().acknowledge();
+                })
+                .then())
+                .subscribe();
+        try {
+            long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+            while (handled.get() < RECORDS && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(RECORDS, handled.get());
+            assertAllOffsetsCommitted(group);
+        } finally {
+            consumer.dispose();
+        }
+    }
+
+    private void assertAllOffsetsCommitted(String group) throws Exception {
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            for (int p = 0; p < PARTITIONS; p++) {
+                latest.put(new TopicPartition(TOPIC, p), OffsetSpec.latest());
+            }
+            Map<TopicPartition, Long> ends = admin.listOffsets(latest).all().get().entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()));
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            Map<TopicPartition, Long> committed;
+            do {
+                Thread.sleep(100);
+                committed = admin.listConsumerGroupOffsets(group).partitionsToOffsetAndMetadata().get().entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue() == null ? -1 : e.getValue().offset()));
+            } while (!committed.equals(ends) && System.nanoTime() < deadline);
+            assertEquals(ends, committed);
+        }
+    }
+
+    @Test
+    void railsShouldKeepEachKeyInOrderAndCommitEveryOffset() throws Exception {
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        consume("rails", seen);
+
+        assertEquals(KEYS, seen.size());
+        seen.values().forEach(values -> {
+            List<Integer> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            assertEquals(sorted, values, "records of one key were reordered");
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package com.microbank.banking.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+class KeyOrderedRailsTest {
+
+    private static final String TOPIC = "user-created";
+
+    private SimpleMeterRegistry meterRegistry;
+    private KeyOrderedRails rails;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rails = new KeyOrderedRails(4, meterRegistry);
+    }
+
+    private ReceiverRecord<String, String> record(int partition, long offset, String key, String value) {
+        ReceiverOffset receiverOffset = mock(ReceiverOffset.class);
+        when(receiverOffset.topicPartition()).thenReturn(new TopicPartition(TOPIC, partition));
+        when(receiverOffset.offset()).thenReturn(offset);
+        return new ReceiverRecord<>(new ConsumerRecord<>(TOPIC, partition, offset, key, value), receiverOffset);
+    }
+
+    @Test
+    void run_shouldKeepRecordsOfOneKeyInOrder() {
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        List<ReceiverRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            records.add(record(i % 3, i, "user-" + (i % 7), String.valueOf(i)));
+        }
+
+        StepVerifier.create(rails.run(Flux.fromIterable(records), record -> Mono.delay(Duration.ofMillis(i(record) % 3))
+                .doOnNext(t -> seen.computeIfAbsent(record.key(), k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(i(record)))
+                .then()))
+                .verifyComplete();
+
+        assertEquals(7, seen.size());
+        seen.values().forEach(values -> {
+            List<Integer> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            assertEquals(sorted, values);
+        });
+    }
+
+    private static int i(ReceiverRecord<String, String> record) {
+        return Integer.parseInt(record.value());
+    }
+
+    @Test
+    void run_shouldHandleDifferentKeysConcurrently() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ReceiverRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            records.add(record(0, i, "user-" + i, String.valueOf(i)));
+        }
+
+        StepVerifier.create(rails.run(Flux.fromIterable(records), record -> Mono.fromRunnable(() -> maxRunning
+                .accumulateAndGet(running.incrementAndGet(), Math::max))
+                .then(Mono.delay(Duration.ofMillis(5)))
+                .doOnTerminate(running::decrementAndGet)
+                .then()))
+                .verifyComplete();
+
+        assertTrue(maxRunning.get() > 1, "records never overlapped");
+        assertTrue(maxRunning.get() <= 4, "more records ran at once than there are rails");
+    }
+
+    @Test
+    void run_shouldTrackInFlightRecordsPerPartition() {
+        Sinks.Empty<Void> release = Sinks.empty();
+        TopicPartition first = new TopicPartition(TOPIC, 0);
+
+        StepVerifier.create(rails.run(Flux.just(record(0, 0, "a", "0"), record(0, 1, "a", "1"), record(1, 0, "b", "2")),
+                record -> release.asMono()))
+                .then(() -> {
+                    assertEquals(2, rails.inFlight(first));
+                    assertEquals(1, rails.inFlight(new TopicPartition(TOPIC, 1)));
+                    assertEquals(2.0, meterRegistry.get("banking.consumer.in.flight")
+                            .tags("topic", TOPIC, "partition", "0").gauge().value());
+                    release.tryEmitEmpty();
+                })
+                .verifyComplete();
+
+        assertEquals(0, rails.inFlight(first));
+    }
+
+    @Test
+    void railFor_shouldUsePartitionWhenRecordHasNoKey() {
+        ConsumerRecord<String, String> keyless = new ConsumerRecord<>(TOPIC, 2, 0, null, "x");
+        ConsumerRecord<String, String> samePartition = new ConsumerRecord<>(TOPIC, 2, 5, null, "y");
+
+        assertEquals(rails.railFor(keyless), rails.railFor(samePartition));
+    }
+}
@@ -0,0 +1,119 @@
+package com.microbank.banking.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+class RecordBatcherTest {
+
+    private static final String TOPIC = "user-created";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ReceiverRecord<String, String> record(int partition, long offset) {
+        ReceiverOffset receiverOffset = mock(ReceiverOffset.class);
+        when(receiverOffset.topicPartition()).thenReturn(new TopicPartition(TOPIC, partition));
+        when(receiverOffset.offset()).thenReturn(offset);
+        when(receiverOffset.commit()).thenReturn(Mono.empty());
+        return new ReceiverRecord<>(new ConsumerRecord<>(TOPIC, partition, offset, null, String.valueOf(offset)),
+                receiverOffset);
+    }
+
+    @Test
+    void run_shouldCloseBatchesAtBatchSize() {
+        RecordBatcher batcher = new RecordBatcher(true, 3, Duration.ofMinutes(1), meterRegistry);
+        Sinks.Many<ReceiverRecord<String, String>> records = Sinks.many().unicast().onBackpressureBuffer();
+        List<Integer> sizes = new ArrayList<>();
+
+        StepVerifier.create(batcher.run(records.asFlux(), batch -> Mono.fromRunnable(() -> sizes.add(batch.size()))))
+                .then(() -> {
+                    for (int i = 0; i < 7; i++) {
+                        records.tryEmitNext(record(0, i));
+                    }
+                })
+                .expectNext(3, 3)
+                .then(() -> assertEquals(List.of(3, 3), sizes))
+                .then(records::tryEmitComplete)
+                .expectNext(1)
+                .verifyComplete();
+
+        assertEquals(List.of(3, 3, 1), sizes);
+        assertEquals(7.0, meterRegistry.get("banking.consumer.batch.records").counter().count());
+        assertEquals(3, meterRegistry.get("banking.consumer.batch.size").summary().count());
+    }
+
+    @Test
+    void run_shouldCloseBatchAfterLinger() {
+        RecordBatcher batcher = new RecordBatcher(true, 100, Duration.ofMillis(50), meterRegistry);
+        Sinks.Many<ReceiverRecord<String, String>> records = Sinks.many().unicast().onBackpressureBuffer();
+        List<Integer> sizes = new ArrayList<>();
+
+        StepVerifier.create(batcher.run(records.asFlux(), batch -> Mono.fromRunnable(() -> sizes.add(batch.size()))))
+                .then(() -> {
+                    records.tryEmitNext(record(0, 0));
+                    records.tryEmitNext(record(0, 1));
+                })
+                .expectNoEvent(Duration.ofMillis(20))
+                .expectNext(2)
+                .then(() -> assertEquals(List.of(2), sizes))
+                .then(records::tryEmitComplete)
+                .verifyComplete();
+    }
+
+    @Test
+    void run_shouldCommitOnlyHighestOffsetOfEachPartition() {
+        RecordBatcher batcher = new RecordBatcher(true, 10, Duration.ofMinutes(1), meterRegistry);
+        List<ReceiverRecord<String, String>> batch = List.of(record(0, 5), record(1, 7), record(0, 6), record(1, 8),
+                record(0, 9));
+
+        StepVerifier.create(batcher.run(Flux.fromIterable(batch), records -> Mono.empty()))
+                .expectNext(5)
+                .verifyComplete();
+
+        verify(batch.get(3).receiverOffset()).commit();
+        verify(batch.get(4).receiverOffset()).commit();
+        for (int i = 0; i < 3; i++) {
+            verify(batch.get(i).receiverOffset(), never()).commit();
+        }
+    }
+
+    @Test
+    void run_shouldNotCommitFailedBatch() {
+        RecordBatcher batcher = new RecordBatcher(true, 10, Duration.ofMinutes(1), meterRegistry);
+        ReceiverRecord<String, String> record = record(0, 0);
+
+        StepVerifier.create(batcher.run(Flux.just(record),
+                records -> Mono.error(new RuntimeException("database unavailable"))))
+                .verifyErrorMessage("database unavailable");
+
+        verify(record.receiverOffset(), never()).commit();
+        assertEquals(0.0, meterRegistry.get("banking.consumer.batch.records").counter().count());
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RecordBatcher(true, 0, Duration.ofMillis(1), meterRegistry));
+        assertThrows(IllegalArgumentException.class, () -> new RecordBatcher(true, 1, Duration.ZERO, meterRegistry));
+    }
+}
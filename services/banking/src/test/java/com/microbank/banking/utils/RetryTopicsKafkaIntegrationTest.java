@@ -0,0 +1,211 @@
+package com.microbank.banking.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+import reactor.test.StepVerifier;
+
+/**
+ * Moves records through the retry tiers and the dead-letter topic of a real (embedded) Kafka,
+ * and replays dead letters back to the main topic.
+ */
+@EmbeddedKafka(partitions = 2, topics = {"user-created", "user-created.retry.1", "user-created.retry.2", "user-created.dlq"})
+class RetryTopicsKafkaIntegrationTest {
+
+    private static final String TOPIC = "user-created";
+    private static final Duration FIRST_DELAY = Duration.ofMillis(300);
+    private static final Duration SECOND_DELAY = Duration.ofMillis(600);
+
+    private EmbeddedKafkaBroker broker;
+    private KafkaSender<String, byte[]> kafkaSender;
+    private SimpleMeterRegistry meterRegistry;
+    private RetryTopics retryTopics;
+
+    @BeforeEach
+    void setUp() {
+        broker = EmbeddedKafkaCondition.getBroker();
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        kafkaSender = KafkaSender.create(SenderOptions.create(producerProps));
+
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, "banking-group-" + UUID.randomUUID());
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        meterRegistry = new SimpleMeterRegistry();
+        retryTopics = new RetryTopics(TOPIC, List.of(FIRST_DELAY, SECOND_DELAY),
+                ReceiverOptions.<String, byte[]>create(consumerProps).commitInterval(Duration.ofMillis(100)),
+                kafkaSender, Duration.ofSeconds(15), Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        kafkaSender.close();
+    }
+
+    /** Values are copied as opaque bytes, so any will do; the user id keeps them recognisable. */
+    private static byte[] value(String userId) {
+        return userId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The record was due {@code delay} after it was sent and was not handed out before then.
+     * Both sides use the wall clock at millisecond precision, like the due-at header.
+     */
+    private static void assertDelayed(ConsumerRecord<?, ?> record, long sentAt, Duration delay, long receivedAt) {
+        long dueAt = Long.parseLong(header(record, RetryTopics.DUE_AT));
+        assertTrue(dueAt >= sentAt + delay.toMillis(), "due " + (dueAt - sentAt) + "ms after sending");
+        assertTrue(receivedAt >= dueAt, "retried " + (dueAt - receivedAt) + "ms early");
+    }
+
+    /** The records in {@code topic} with one of {@code keys}, read by a throwaway consumer. */
+    private List<ConsumerRecord<String, byte[]>> read(String topic, Collection<String> keys) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "reader-" + UUID.randomUUID());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(props, new StringDeserializer(), new ByteArrayDeserializer())) {
+            consumer.subscribe(List.of(topic));
+            long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+            while (records.size() < keys.size() && System.nanoTime() < deadline) {
+                ConsumerRecords<String, byte[]> polled = consumer.poll(Duration.ofMillis(200));
+                polled.forEach(record -> {
+                    if (keys.contains(record.key())) {
+                        records.add(record);
+                    }
+                });
+            }
+            // anything more would be a duplicate
+            consumer.poll(Duration.ofMillis(500)).forEach(record -> {
+                if (keys.contains(record.key())) {
+                    records.add(record);
+                }
+            });
+        }
+        return records;
+    }
+
+    @Test
+    void retry_shouldMoveThroughTiersWithGrowingDelaysAndEndInDeadLetterTopic() {
+        String userId = UUID.randomUUID().toString();
+        ConsumerRecord<String, byte[]> original = new ConsumerRecord<>(TOPIC, 1, 42, userId, value(userId));
+
+        long sentAt = System.currentTimeMillis();
+        retryTopics.retry(original, new RuntimeException("connection reset")).block();
+        ReceiverRecord<String, byte[]> first = retryTopics.receiveDue().blockFirst(Duration.ofSeconds(20));
+        long receivedAt = System.currentTimeMillis();
+
+        assertEquals(retryTopics.retryTopic(1), first.topic());
+        assertEquals(userId, first.key());
+        assertEquals(1, RetryTopics.attempts(first));
+        assertEquals(TOPIC, header(first, RetryTopics.ORIGINAL_TOPIC));
+        assertEquals("1", header(first, RetryTopics.ORIGINAL_PARTITION));
+        assertEquals("42", header(first, RetryTopics.ORIGINAL_OFFSET));
+        assertEquals(RuntimeException.class.getName(), header(first, RetryTopics.EXCEPTION));
+        assertEquals("connection reset", header(first, RetryTopics.EXCEPTION_MESSAGE));
+        assertDelayed(first, sentAt, FIRST_DELAY, receivedAt);
+
+        sentAt = System.currentTimeMillis();
+        retryTopics.retry(first, new RuntimeException("still down")).block();
+        ReceiverRecord<String, byte[]> second = retryTopics.receiveDue()
+                .filter(record -> record.topic().equals(retryTopics.retryTopic(2)))
+                .blockFirst(Duration.ofSeconds(20));
+        receivedAt = System.currentTimeMillis();
+
+        assertEquals(2, RetryTopics.attempts(second));
+        assertEquals("42", header(second, RetryTopics.ORIGINAL_OFFSET));
+        assertDelayed(second, sentAt, SECOND_DELAY, receivedAt);
+
+        retryTopics.retry(second, new RuntimeException("gave up")).block();
+        List<ConsumerRecord<String, byte[]>> deadLetters = read(retryTopics.deadLetterTopic(), List.of(userId));
+
+        assertEquals(1, deadLetters.size());
+        ConsumerRecord<String, byte[]> deadLetter = deadLetters.get(0);
+        assertEquals(userId, new String(deadLetter.value(), StandardCharsets.UTF_8));
+        assertEquals("3", header(deadLetter, RetryTopics.ATTEMPTS));
+        assertEquals("gave up", header(deadLetter, RetryTopics.EXCEPTION_MESSAGE));
+        assertEquals(TOPIC, header(deadLetter, RetryTopics.ORIGINAL_TOPIC));
+        assertNull(deadLetter.headers().lastHeader(RetryTopics.DUE_AT));
+        assertEquals(1.0, meterRegistry.get("banking.consumer.retries").tag("topic", "user-created.retry.2").counter().count());
+        assertEquals(1.0, meterRegistry.get("banking.consumer.dead.letters").counter().count());
+    }
+
+    @Test
+    void replayDeadLetters_shouldSendThemBackInBulkAndResumeWhereItStopped() {
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String userId = UUID.randomUUID().toString();
+            userIds.add(userId);
+            retryTopics.deadLetter(new ConsumerRecord<>(TOPIC, 0, i, userId, value(userId)), new IllegalStateException("bad")).block();
+        }
+
+        assertEquals(30L, retryTopics.replayDeadLetters(30).block(Duration.ofSeconds(30)));
+        assertEquals(20L, retryTopics.replayDeadLetters(1000).block(Duration.ofSeconds(30)));
+        assertEquals(0L, retryTopics.replayDeadLetters(1000).block(Duration.ofSeconds(30)));
+
+        List<ConsumerRecord<String, byte[]>> replayed = read(TOPIC, userIds);
+        assertEquals(50, replayed.size());
+        assertEquals(new HashSet<>(userIds),
+                replayed.stream().map(record -> new String(record.value(), StandardCharsets.UTF_8)).collect(Collectors.toSet()));
+        replayed.forEach(record -> {
+            assertEquals(record.key(), new String(record.value(), StandardCharsets.UTF_8));
+            assertNull(record.headers().lastHeader(RetryTopics.ATTEMPTS));
+            assertEquals("bad", header(record, RetryTopics.EXCEPTION_MESSAGE));
+        });
+        assertEquals(50.0, meterRegistry.get("banking.consumer.dead.letters.replayed").counter().count());
+    }
+
+    @Test
+    void replayDeadLetters_shouldRefuseASecondReplayWhileOneIsRunning() {
+        Mono<Long> running = retryTopics.replayDeadLetters(10);
+        running.subscribe();
+
+        StepVerifier.create(retryTopics.replayDeadLetters(10))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException
+                && ((ResponseStatusException) e).getStatusCode() == HttpStatus.CONFLICT)
+                .verify();
+    }
+}
@@ -0,0 +1,37 @@
+package com.microbank.banking.config;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.benchmarks.EmbeddedDatabase;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * The banking service's {@link R2DBCConfig} and repositories, for an {@link EmbeddedDatabase}.
+ * The schema is read from {@code banking/schema.sql}, where the build unpacks it so that it
+ * doesn't collide with the client's. In this package because the initializer it replaces is
+ * package-private.
+ */
+@Configuration
+@ImportAutoConfiguration({R2dbcAutoConfiguration.class, R2dbcDataAutoConfiguration.class})
+@EnableR2dbcRepositories(basePackageClasses = BankAccountRepository.class)
+public class BankingDatabase extends R2DBCConfig {
+
+    @Bean
+    @Override
+    ConnectionFactoryInitializer initializer(ConnectionFactory connectionFactory) {
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("banking/schema.sql")));
+        return initializer;
+    }
+}
@@ -0,0 +1,124 @@
+package com.microbank.banking.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import reactor.core.publisher.Mono;
+
+/**
+ * The banking service's bearer token filter, built by {@link SecurityConfig} as in the running
+ * service. In this package because the filter's factory method is package-private.
+ *
+ * <p>{@code cachedToken} polls with one token, which after the first request is a cache hit.
+ * {@code uncachedToken} alternates two tokens through a one-entry cache, so every request pays
+ * for the signature check. {@code noToken} is the cost of the exchange and the chain alone. The
+ * exchanges share their codecs and session manager, as the server's do, rather than building
+ * them per request as {@code MockServerWebExchange} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-at-least-32-bytes-long";
+
+    private WebFilter cachingFilter;
+    private WebFilter nonCachingFilter;
+    private WebFilterChain chain;
+    private ServerCodecConfigurer codecs;
+    private DefaultWebSessionManager sessions;
+    private AcceptHeaderLocaleContextResolver locales;
+    private String[] tokens;
+    private int next;
+
+    private static WebFilter filter(int cacheSize) {
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(config, "jwtPreviousSecrets", List.of());
+        ReflectionTestUtils.setField(config, "jwtCacheSize", cacheSize);
+        ReflectionTestUtils.setField(config, "revocationsExpectedEntries", 100);
+        return config.jwtAuthFilter();
+    }
+
+    private static String token(String subject) {
+        return Jwts.builder()
+                .subject(subject)
+                .claim("roles", List.of("ROLE_USER"))
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Setup
+    public void setUp() {
+        cachingFilter = filter(10_000);
+        nonCachingFilter = filter(1);
+        tokens = new String[] {token("user-1"), token("user-2")};
+        chain = exchange -> ReactiveSecurityContextHolder.getContext().then();
+        codecs = ServerCodecConfigurer.create();
+        sessions = new DefaultWebSessionManager();
+        locales = new AcceptHeaderLocaleContextResolver();
+    }
+
+    private ServerWebExchange exchange(String token) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/banking/api/v1/accounts");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return new DefaultServerWebExchange(request.build(), new MockServerHttpResponse(), sessions, codecs, locales);
+    }
+
+    private Void run(WebFilter filter, String token) {
+        ServerWebExchange exchange = exchange(token);
+        Mono<Void> filtered = filter.filter(exchange, chain);
+        if (exchange.getResponse().getStatusCode() != null) {
+            throw new IllegalStateException("token rejected: " + exchange.getResponse().getStatusCode());
+        }
+        return filtered.block();
+    }
+
+    @Benchmark
+    public Void noToken() {
+        return run(cachingFilter, null);
+    }
+
+    @Benchmark
+    public Void cachedToken() {
+        return run(cachingFilter, tokens[0]);
+    }
+
+    @Benchmark
+    public Void uncachedToken() {
+        next ^= 1;
+        return run(nonCachingFilter, tokens[next]);
+    }
+}
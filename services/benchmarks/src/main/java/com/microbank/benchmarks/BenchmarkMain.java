@@ -0,0 +1,41 @@
+package com.microbank.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the usual JMH command line, except that results are written as JSON
+ * to {@value #DEFAULT_RESULT} unless {@code -rf} or {@code -rff} say otherwise. Every run then
+ * leaves a file that can be compared with the previous release's.
+ */
+public final class BenchmarkMain {
+
+    static final String DEFAULT_RESULT = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions command = new CommandLineOptions(args);
+        if (command.shouldHelp() || command.shouldList() || command.shouldListWithParams()
+                || command.shouldListProfilers() || command.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(command);
+        if (!command.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!command.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,19 @@
+package com.microbank.benchmarks;
+
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionCallback;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import reactor.core.publisher.Flux;
+
+/** Runs the callback as-is; the in-memory repositories have nothing to commit or roll back. */
+public class DirectTransactionalOperator implements TransactionalOperator {
+
+    private static final ReactiveTransaction NONE = new ReactiveTransaction() {
+    };
+
+    @Override
+    public <T> Flux<T> execute(TransactionCallback<T> action) {
+        return Flux.defer(() -> action.doInTransaction(NONE));
+    }
+}
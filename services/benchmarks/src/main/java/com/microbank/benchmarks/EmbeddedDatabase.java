@@ -0,0 +1,59 @@
+package com.microbank.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * A service's data layer against an embedded Postgres (the real binaries, run as a child process
+ * as in the load test), for the benchmarks whose numbers come from query plans and table sizes
+ * that the in-memory repositories can't stand in for. {@code configuration} is the service's
+ * R2DBC config as adapted for the benchmarks, such as {@code BankingDatabase}; its beans are
+ * built in a plain application context and handed out with {@link #get(Class)}.
+ */
+public final class EmbeddedDatabase implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final AnnotationConfigApplicationContext context;
+
+    private EmbeddedDatabase(EmbeddedPostgres postgres, AnnotationConfigApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    public static EmbeddedDatabase start(Class<?> configuration) {
+        EmbeddedPostgres postgres;
+        try {
+            postgres = EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start Postgres", e);
+        }
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("embeddedPostgres", Map.of(
+                "spring.r2dbc.url", "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                "spring.r2dbc.username", "postgres",
+                "spring.r2dbc.pool.max-size", 20)));
+        context.register(configuration);
+        context.refresh();
+        return new EmbeddedDatabase(postgres, context);
+    }
+
+    public <T> T get(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        try {
+            postgres.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not stop Postgres", e);
+        }
+    }
+}
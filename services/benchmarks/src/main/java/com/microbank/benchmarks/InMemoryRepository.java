@@ -0,0 +1,122 @@
+package com.microbank.benchmarks;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The CRUD half of a repository, held in a map so the services can be benchmarked without a
+ * database. Only the single-row operations the benchmarked paths use are implemented; the rest
+ * throw {@link UnsupportedOperationException}, so a benchmark that strays onto them fails loudly
+ * instead of measuring something else.
+ */
+public abstract class InMemoryRepository<T> implements ReactiveCrudRepository<T, UUID> {
+
+    protected final Map<UUID, T> rows = new ConcurrentHashMap<>();
+
+    protected abstract UUID idOf(T row);
+
+    protected abstract void assignId(T row, UUID id);
+
+    @Override
+    public <S extends T> Mono<S> save(S row) {
+        return Mono.fromSupplier(() -> {
+            if (idOf(row) == null) {
+                assignId(row, UUID.randomUUID());
+            }
+            rows.put(idOf(row), row);
+            return row;
+        });
+    }
+
+    @Override
+    public Mono<T> findById(UUID id) {
+        return Mono.fromSupplier(() -> rows.get(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(UUID id) {
+        return Mono.fromSupplier(() -> rows.containsKey(id));
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return Flux.defer(() -> Flux.fromIterable(rows.values()));
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.fromSupplier(() -> (long) rows.size());
+    }
+
+    @Override
+    public Mono<Void> deleteById(UUID id) {
+        return Mono.fromRunnable(() -> rows.remove(id));
+    }
+
+    @Override
+    public Mono<Void> delete(T row) {
+        return deleteById(idOf(row));
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.fromRunnable(rows::clear);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> rows) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> rows) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<UUID> id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<UUID> id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<UUID> ids) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<UUID> ids) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<UUID> id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends UUID> ids) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> rows) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> rows) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,144 @@
+package com.microbank.benchmarks.banking;
+
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.config.BankingDatabase;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.services.BankAccountServiceImpl;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+import com.microbank.benchmarks.EmbeddedDatabase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.kafka.receiver.KafkaReceiver;
+
+/**
+ * Opening accounts on a table that already holds {@code existingAccounts}, per account.
+ * "oneAtATime" is the consumer's previous path, one existence check and insert per record in
+ * order; "concurrently" opens them through the same path {@value #CONCURRENCY} at a time; and
+ * "batched" opens them with one {@code createAccountsForUsers} call. "previousExistenceCheck"
+ * is what the old random numbering paid per number on top of the insert. The million-account
+ * table takes a while to load; pass {@code -p existingAccounts=...} for a quicker run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountCreationBenchmark {
+
+    private static final int BATCH = 500;
+    private static final int CONCURRENCY = 64;
+
+    @Param({"0", "1000000"})
+    public long existingAccounts;
+
+    private EmbeddedDatabase database;
+    private BankAccountRepository bankAccountRepository;
+    private BankAccountServiceImpl bankAccountService;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        database = EmbeddedDatabase.start(BankingDatabase.class);
+        bankAccountRepository = database.get(BankAccountRepository.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        bankAccountService = new BankAccountServiceImpl(bankAccountRepository,
+                database.get(BankTransactionRepository.class), mock(KafkaReceiver.class),
+                database.get(TransactionalOperator.class), new AccountLaneExecutor(16, 10_000, meterRegistry),
+                mock(IdempotencyGuard.class), new AccountCache(false, 1, Duration.ofSeconds(1), meterRegistry),
+                new AccountNumberAllocator(bankAccountRepository), mock(KeyOrderedRails.class),
+                mock(RecordBatcher.class), mock(RetryTopics.class), meterRegistry);
+
+        DatabaseClient databaseClient = database.get(DatabaseClient.class);
+        databaseClient.sql("""
+                INSERT INTO bank_accounts (account_holder_id, account_number, balance)
+                SELECT uuid_generate_v4(), 'S' || g, 0.00
+                FROM generate_series(1, :rows) AS g
+                """)
+                .bind("rows", existingAccounts)
+                .then()
+                .then(databaseClient.sql("ANALYZE bank_accounts").then())
+                .block(Duration.ofHours(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    private static BankAccount newAccount() {
+        return BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .balance(Money.ZERO)
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BankAccount oneAtATime() {
+        return Flux.range(0, BATCH)
+                .concatMap(i -> bankAccountService.createAccount(newAccount()))
+                .blockLast(Duration.ofMinutes(1));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BankAccount concurrently() {
+        return Flux.range(0, BATCH)
+                .flatMap(i -> bankAccountService.createAccount(newAccount()), CONCURRENCY)
+                .blockLast(Duration.ofMinutes(1));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BankAccount batched() {
+        List<UUID> users = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            users.add(UUID.randomUUID());
+        }
+        return bankAccountService.createAccountsForUsers(users).blockLast(Duration.ofMinutes(1));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Boolean previousExistenceCheck() {
+        return Flux.range(0, BATCH)
+                .flatMap(i -> bankAccountRepository.existsByAccountNumber(
+                        String.valueOf(ThreadLocalRandom.current().nextLong(1_000_000_000L, 10_000_000_000L))), CONCURRENCY)
+                .blockLast(Duration.ofMinutes(1));
+    }
+}
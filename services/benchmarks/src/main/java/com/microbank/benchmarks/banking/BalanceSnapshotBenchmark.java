@@ -0,0 +1,126 @@
+package com.microbank.benchmarks.banking;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.config.BankingDatabase;
+import com.microbank.banking.dto.BalanceResponse;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BalanceSnapshotRepository;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.services.BalanceSnapshotServiceImpl;
+import com.microbank.benchmarks.EmbeddedDatabase;
+
+/**
+ * A point-in-time balance on an account with {@code days} of history at
+ * {@value #POSTINGS_PER_DAY} postings a day, snapshotted daily. "asOfSecondDay" and
+ * "asOfLastDay" should cost the same, since each reads one snapshot and less than a day of
+ * postings; "fullReplay" sums the whole ledger up to the last day, as the balance was computed
+ * before snapshots. A year of history takes a few minutes to load; pass {@code -p days=...} for
+ * a quicker run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceSnapshotBenchmark {
+
+    private static final int POSTINGS_PER_DAY = 2_000;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"365"})
+    public int days;
+
+    private EmbeddedDatabase database;
+    private DatabaseClient databaseClient;
+    private BalanceSnapshotServiceImpl balanceSnapshotService;
+    private UUID account;
+    private LocalDateTime secondDay;
+    private LocalDateTime lastDay;
+
+    @Setup
+    public void setUp() {
+        database = EmbeddedDatabase.start(BankingDatabase.class);
+        databaseClient = database.get(DatabaseClient.class);
+        BankAccountRepository bankAccountRepository = database.get(BankAccountRepository.class);
+        balanceSnapshotService = new BalanceSnapshotServiceImpl(database.get(BalanceSnapshotRepository.class),
+                bankAccountRepository, database.get(TransactionalOperator.class), Duration.ofDays(1), Duration.ofMinutes(5));
+        account = bankAccountRepository.save(BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .accountNumber("S" + System.nanoTime())
+                .balance(Money.ZERO)
+                .build()).block().getId();
+
+        // postings spread evenly over each day, cycling through every transaction type
+        databaseClient.sql("""
+                INSERT INTO bank_transactions (account_id, transaction_type, amount, created_at, description)
+                SELECT CAST(:account AS uuid),
+                       (ARRAY['deposit', 'withdrawal', 'transfer_in', 'transfer_out', 'deposit'])[g % 5 + 1],
+                       (g % 97) + 0.25,
+                       CAST(:start AS timestamp) + g * (INTERVAL '1 day' / :perDay),
+                       'history'
+                FROM generate_series(0, :rows - 1) AS g
+                """)
+                .bind("account", account)
+                .bind("start", START)
+                .bind("perDay", POSTINGS_PER_DAY)
+                .bind("rows", (long) days * POSTINGS_PER_DAY)
+                .then()
+                .then(databaseClient.sql("ANALYZE bank_transactions").then())
+                .block(Duration.ofHours(1));
+        balanceSnapshotService.snapshotDuePeriods(START.plusDays(days).plusHours(12)).block(Duration.ofHours(1));
+
+        secondDay = START.plusDays(1).plusHours(23);
+        lastDay = START.plusDays(days - 1).plusHours(23);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public BalanceResponse asOfSecondDay() {
+        return balanceSnapshotService.getBalanceAsOf(account, secondDay).block();
+    }
+
+    @Benchmark
+    public BalanceResponse asOfLastDay() {
+        return balanceSnapshotService.getBalanceAsOf(account, lastDay).block();
+    }
+
+    @Benchmark
+    public BigDecimal fullReplay() {
+        return databaseClient.sql("""
+                SELECT COALESCE(SUM(CASE WHEN transaction_type IN ('withdrawal', 'transfer_out')
+                                         THEN -amount ELSE amount END), 0) AS balance
+                FROM bank_transactions WHERE account_id = :account AND created_at <= :asOf
+                """)
+                .bind("account", account)
+                .bind("asOf", lastDay)
+                .map(row -> row.get("balance", BigDecimal.class))
+                .one()
+                .block();
+    }
+}
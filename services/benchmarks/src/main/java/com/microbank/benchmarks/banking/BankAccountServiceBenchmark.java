@@ -0,0 +1,98 @@
+package com.microbank.benchmarks.banking;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.services.BankAccountServiceImpl;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.benchmarks.DirectTransactionalOperator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Deposits, withdrawals and account numbers through {@link BankAccountServiceImpl}, with the
+ * repositories in memory. What is measured is the service's own work: validation, the account
+ * lane, the transaction wrapper, the ledger row, cache invalidation and the metrics. The lanes
+ * and the cache are sized as in {@code application.yml}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BankAccountServiceBenchmark {
+
+    private static final Money AMOUNT = Money.ofMinor(1_00);
+
+    /** Accounts the postings are spread over. */
+    @Param({"1000"})
+    int accounts;
+
+    private BankAccountServiceImpl service;
+    private AccountNumberAllocator allocator;
+    private UUID[] ids;
+    private int next;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InMemoryBankAccountRepository bankAccountRepository = new InMemoryBankAccountRepository();
+        allocator = new AccountNumberAllocator(bankAccountRepository);
+        service = new BankAccountServiceImpl(bankAccountRepository, new InMemoryBankTransactionRepository(),
+                null, new DirectTransactionalOperator(), new AccountLaneExecutor(64, 1000, registry), null,
+                new AccountCache(true, 10_000, Duration.ofSeconds(10), registry), allocator,
+                null, null, null, registry);
+        ids = new UUID[accounts];
+        for (int i = 0; i < accounts; i++) {
+            // enough that withdrawals never run out
+            ids[i] = bankAccountRepository.open(Money.ofMinor(Long.MAX_VALUE / 4)).getId();
+        }
+    }
+
+    private UUID nextAccount() {
+        int i = next;
+        next = i + 1 == ids.length ? 0 : i + 1;
+        return ids[i];
+    }
+
+    @Benchmark
+    public BankAccount deposit() {
+        return service.deposit(nextAccount(), AMOUNT, "benchmark").block();
+    }
+
+    @Benchmark
+    public BankAccount withdraw() {
+        return service.withdraw(nextAccount(), AMOUNT, "benchmark").block();
+    }
+
+    /** Mostly served from the reserved block; one call in {@value AccountNumberAllocator#BLOCK_SIZE} refills it. */
+    @Benchmark
+    public String nextAccountNumber() {
+        return allocator.next().block();
+    }
+
+    @Benchmark
+    public String formatAccountNumber() {
+        return AccountNumberAllocator.format(sequence++ % AccountNumberAllocator.BLOCK_SIZE);
+    }
+}
@@ -0,0 +1,125 @@
+package com.microbank.benchmarks.banking;
+
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.config.BankingDatabase;
+import com.microbank.banking.dto.PostingRequest;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.services.BankAccountServiceImpl;
+import com.microbank.banking.services.BulkPostingServiceImpl;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+import com.microbank.benchmarks.EmbeddedDatabase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.kafka.receiver.KafkaReceiver;
+
+/**
+ * Deposits spread over {@value #ACCOUNTS} accounts, per posting. "single" makes one
+ * {@code deposit} call per posting, {@value #CONCURRENCY} at a time, as a client without the
+ * bulk endpoint would; the numbers post the same deposits through
+ * {@link BulkPostingServiceImpl} with that batch size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkPostingBenchmark {
+
+    private static final int ACCOUNTS = 200;
+    private static final int POSTINGS = 5_000;
+    private static final int CONCURRENCY = 16;
+
+    @Param({"single", "10", "100", "1000", "5000"})
+    public String batch;
+
+    private EmbeddedDatabase database;
+    private List<UUID> accounts;
+    private BankAccountServiceImpl bankAccountService;
+    private BulkPostingServiceImpl bulkPostingService;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        database = EmbeddedDatabase.start(BankingDatabase.class);
+        BankAccountRepository bankAccountRepository = database.get(BankAccountRepository.class);
+        BankTransactionRepository bankTransactionRepository = database.get(BankTransactionRepository.class);
+        TransactionalOperator transactionalOperator = database.get(TransactionalOperator.class);
+        if ("single".equals(batch)) {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            bankAccountService = new BankAccountServiceImpl(bankAccountRepository, bankTransactionRepository,
+                    mock(KafkaReceiver.class), transactionalOperator, new AccountLaneExecutor(16, 10_000, meterRegistry),
+                    mock(IdempotencyGuard.class), mock(AccountCache.class), mock(AccountNumberAllocator.class),
+                    mock(KeyOrderedRails.class), mock(RecordBatcher.class), mock(RetryTopics.class), meterRegistry);
+        } else {
+            bulkPostingService = new BulkPostingServiceImpl(bankAccountRepository, bankTransactionRepository,
+                    transactionalOperator, mock(AccountCache.class), Integer.parseInt(batch), 1_000);
+        }
+
+        accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(bankAccountRepository.save(BankAccount.builder()
+                    .accountHolderId(UUID.randomUUID())
+                    .accountNumber("B" + i)
+                    .balance(Money.ZERO)
+                    .build()).block().getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    private Flux<PostingRequest> deposits() {
+        return Flux.range(0, POSTINGS).map(i -> PostingRequest.builder()
+                .accountId(accounts.get(i % ACCOUNTS))
+                .amount(Money.of("1.00"))
+                .transactionType("deposit")
+                .description("payroll-" + i)
+                .build());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTINGS)
+    public Object post() {
+        if (bulkPostingService == null) {
+            return deposits()
+                    .flatMap(p -> bankAccountService.deposit(p.getAccountId(), p.getAmount(), p.getDescription()), CONCURRENCY)
+                    .blockLast(Duration.ofMinutes(5));
+        }
+        return bulkPostingService.post(deposits()).blockLast(Duration.ofMinutes(5));
+    }
+}
@@ -0,0 +1,111 @@
+package com.microbank.benchmarks.banking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.benchmarks.InMemoryRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Accounts in a map. {@link #credit} and {@link #debit} replace the row atomically, as the
+ * {@code UPDATE ... RETURNING} statements do, and return a new copy of it.
+ */
+class InMemoryBankAccountRepository extends InMemoryRepository<BankAccount> implements BankAccountRepository {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    protected UUID idOf(BankAccount account) {
+        return account.getId();
+    }
+
+    @Override
+    protected void assignId(BankAccount account, UUID id) {
+        account.setId(id);
+    }
+
+    BankAccount open(Money balance) {
+        BankAccount account = new BankAccount(UUID.randomUUID(), AccountNumberAllocator.format(sequence.getAndIncrement()),
+                UUID.randomUUID(), balance, LocalDateTime.now());
+        rows.put(account.getId(), account);
+        return account;
+    }
+
+    /** Wraps around, so a long run never exhausts the number space; repeated numbers do no harm here. */
+    @Override
+    public Mono<Long> nextAccountNumberBlock() {
+        return Mono.fromSupplier(() -> sequence.getAndAdd(AccountNumberAllocator.BLOCK_SIZE) % 100_000_000L);
+    }
+
+    @Override
+    public Mono<BankAccount> credit(UUID id, Money amount) {
+        return Mono.fromSupplier(() -> rows.computeIfPresent(id, (key, account) -> copy(account, account.getBalance().plus(amount))));
+    }
+
+    @Override
+    public Mono<BankAccount> debit(UUID id, Money amount) {
+        return Mono.fromSupplier(() -> {
+            BankAccount[] updated = new BankAccount[1];
+            rows.computeIfPresent(id, (key, account) -> {
+                if (account.getBalance().isLessThan(amount)) {
+                    return account;
+                }
+                updated[0] = copy(account, account.getBalance().minus(amount));
+                return updated[0];
+            });
+            return updated[0];
+        });
+    }
+
+    @Override
+    public Mono<BankAccount> findByAccountNumber(String accountNumber) {
+        return Flux.defer(() -> Flux.fromIterable(rows.values()))
+                .filter(account -> accountNumber.equals(account.getAccountNumber()))
+                .next();
+    }
+
+    @Override
+    public Mono<BankAccount> findByAccountHolderId(UUID accountHolderId) {
+        return Flux.defer(() -> Flux.fromIterable(rows.values()))
+                .filter(account -> accountHolderId.equals(account.getAccountHolderId()))
+                .next();
+    }
+
+    @Override
+    public Mono<Boolean> existsByAccountNumber(String accountNumber) {
+        return findByAccountNumber(accountNumber).hasElement();
+    }
+
+    @Override
+    public Mono<Boolean> existsByAccountHolderId(UUID accountHolderId) {
+        return findByAccountHolderId(accountHolderId).hasElement();
+    }
+
+    @Override
+    public Flux<BankAccount> insertSkippingExistingHolders(UUID[] holderIds, String[] accountNumbers) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Flux<BankAccount> lockInIdOrder(UUID first, UUID second) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Flux<BankAccount> applyDeltas(UUID[] ids, BigDecimal[] deltas) {
+        throw new UnsupportedOperationException();
+    }
+
+    private static BankAccount copy(BankAccount account, Money balance) {
+        return new BankAccount(account.getId(), account.getAccountNumber(), account.getAccountHolderId(), balance,
+                account.getCreatedAt());
+    }
+}
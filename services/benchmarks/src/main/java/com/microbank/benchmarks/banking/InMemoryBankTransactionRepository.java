@@ -0,0 +1,54 @@
+package com.microbank.benchmarks.banking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.benchmarks.InMemoryRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The ledger. A benchmark posts millions of transactions, so {@link #save} stamps them without
+ * keeping them.
+ */
+class InMemoryBankTransactionRepository extends InMemoryRepository<BankTransaction> implements BankTransactionRepository {
+
+    @Override
+    protected UUID idOf(BankTransaction transaction) {
+        return transaction.getId();
+    }
+
+    @Override
+    protected void assignId(BankTransaction transaction, UUID id) {
+        transaction.setId(id);
+    }
+
+    @Override
+    public <S extends BankTransaction> Mono<S> save(S transaction) {
+        return Mono.fromSupplier(() -> {
+            transaction.setId(UUID.randomUUID());
+            transaction.setCreatedAt(LocalDateTime.now());
+            return transaction;
+        });
+    }
+
+    @Override
+    public Flux<BankTransaction> findByAccountId(UUID accountId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Flux<BankTransaction> findPage(UUID accountId, LocalDateTime from, LocalDateTime beforeCreatedAt,
+            UUID beforeId, int limit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<Long> insertAll(UUID[] accountIds, String[] types, BigDecimal[] amounts, String[] descriptions) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,93 @@
+package com.microbank.benchmarks.banking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.Money;
+
+/**
+ * Jackson serialization of the banking responses: one account, one transaction, and a page of
+ * transaction history at the default page size. The mapper is configured like Spring Boot's,
+ * and writers are resolved once, as the codecs do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectWriter accountWriter;
+    private ObjectWriter transactionWriter;
+    private ObjectWriter pageWriter;
+    private BankAccount account;
+    private BankTransaction transaction;
+    private List<BankTransaction> page;
+
+    @Setup
+    public void setUp() {
+        var mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        accountWriter = mapper.writerFor(BankAccount.class);
+        transactionWriter = mapper.writerFor(BankTransaction.class);
+        pageWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, BankTransaction.class));
+
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+        account = new BankAccount(UUID.randomUUID(), "1234567897", UUID.randomUUID(), Money.of("1520.75"), now);
+        transaction = transaction(account.getId(), now, 0);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(transaction(account.getId(), now.minusMinutes(i), i));
+        }
+    }
+
+    private static BankTransaction transaction(UUID accountId, LocalDateTime createdAt, int i) {
+        return BankTransaction.builder()
+                .id(UUID.randomUUID())
+                .accountId(accountId)
+                .amount(Money.ofMinor(1_000 + i * 37L))
+                .transactionType(i % 3 == 0 ? "withdrawal" : "deposit")
+                .description("Card payment " + i)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] account() throws JsonProcessingException {
+        return accountWriter.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] transaction() throws JsonProcessingException {
+        return transactionWriter.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public byte[] transactionPage() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+}
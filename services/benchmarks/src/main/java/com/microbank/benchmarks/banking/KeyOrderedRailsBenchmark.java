@@ -0,0 +1,121 @@
+package com.microbank.benchmarks.banking;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.microbank.banking.utils.KeyOrderedRails;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+
+/**
+ * Consuming an embedded Kafka topic through {@link KeyOrderedRails} with 1, 4 and 16 rails, in
+ * records handled per second. Each record stands in for a database write with a fixed
+ * {@value #WRITE_MILLIS}ms delay, so one rail manages a few hundred records a second and more
+ * rails should multiply that until the keys run out. The consumer is started and assigned its
+ * partitions before the measurement; each invocation produces a batch and waits until every
+ * record of it has been handled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KeyOrderedRailsBenchmark {
+
+    private static final String TOPIC = "user-created";
+    private static final int PARTITIONS = 8;
+    private static final int BATCH = 1_000;
+    private static final int KEYS = 200;
+    private static final int WRITE_MILLIS = 2;
+
+    @Param({"1", "4", "16"})
+    public int rails;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaProducer<String, String> producer;
+    private Disposable consumer;
+    private final Semaphore handled = new Semaphore(0);
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producer = new KafkaProducer<>(producerProps);
+
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, "rails");
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        ReceiverOptions<String, String> options = ReceiverOptions.<String, String>create(consumerProps)
+                .commitInterval(Duration.ofMillis(100))
+                .maxDeferredCommits(10_000)
+                .subscription(Collections.singleton(TOPIC));
+        consumer = new KeyOrderedRails(rails, new SimpleMeterRegistry())
+                .run(KafkaReceiver.create(options).receive(), record -> Mono.delay(Duration.ofMillis(WRITE_MILLIS))
+                        .doOnNext(t -> {
+                            record.receiverOffset().acknowledge();
+                            handled.release();
+                        })
+                        .then())
+                .subscribe();
+
+        // one batch before the warm-up, so the group has joined and been assigned its partitions
+        send();
+    }
+
+    @TearDown
+    public void tearDown() {
+        consumer.dispose();
+        producer.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void send() throws InterruptedException {
+        for (int i = 0; i < BATCH; i++) {
+            producer.send(new ProducerRecord<>(TOPIC, "user-" + (i % KEYS), String.valueOf(i)));
+        }
+        producer.flush();
+        if (!handled.tryAcquire(BATCH, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Records were not handled within a minute");
+        }
+    }
+}
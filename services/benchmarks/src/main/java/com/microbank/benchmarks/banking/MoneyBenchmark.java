@@ -0,0 +1,101 @@
+package com.microbank.benchmarks.banking;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microbank.banking.entity.Money;
+
+/**
+ * Posting to a balance with {@link Money}, {@link BigDecimal} and {@code double}, per posting.
+ * Every posting is the deposit/withdrawal arithmetic the service does: a withdrawal is only
+ * applied if the balance covers it. Amounts run between 0.01 and 500.00, every fourth one a
+ * withdrawal. The {@code double} variant is there for scale only; it drifts off the exact
+ * balance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int AMOUNTS = 4_096;
+
+    private Money[] money;
+    private BigDecimal[] decimals;
+    private double[] doubles;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        money = new Money[AMOUNTS];
+        decimals = new BigDecimal[AMOUNTS];
+        doubles = new double[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            long cents = 1 + random.nextLong(50_000);
+            money[i] = Money.ofMinor(cents);
+            decimals[i] = BigDecimal.valueOf(cents, Money.SCALE);
+            doubles[i] = decimals[i].doubleValue();
+        }
+    }
+
+    private static boolean isWithdrawal(int i) {
+        return (i & 3) == 3;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public Money postMoney() {
+        Money balance = Money.ZERO;
+        for (int i = 0; i < AMOUNTS; i++) {
+            if (!isWithdrawal(i)) {
+                balance = balance.plus(money[i]);
+            } else if (!balance.isLessThan(money[i])) {
+                balance = balance.minus(money[i]);
+            }
+        }
+        return balance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public BigDecimal postBigDecimal() {
+        BigDecimal balance = BigDecimal.ZERO.setScale(Money.SCALE);
+        for (int i = 0; i < AMOUNTS; i++) {
+            if (!isWithdrawal(i)) {
+                balance = balance.add(decimals[i]);
+            } else if (balance.compareTo(decimals[i]) >= 0) {
+                balance = balance.subtract(decimals[i]);
+            }
+        }
+        return balance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public double postDouble() {
+        double balance = 0;
+        for (int i = 0; i < AMOUNTS; i++) {
+            if (!isWithdrawal(i)) {
+                balance += doubles[i];
+            } else if (balance >= doubles[i]) {
+                balance -= doubles[i];
+            }
+        }
+        return balance;
+    }
+}
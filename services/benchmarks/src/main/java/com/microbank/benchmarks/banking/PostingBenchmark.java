@@ -0,0 +1,112 @@
+package com.microbank.benchmarks.banking;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.config.BankingDatabase;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.BankTransaction;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.services.BankAccountServiceImpl;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.banking.utils.AccountLaneExecutor;
+import com.microbank.banking.utils.AccountNumberAllocator;
+import com.microbank.banking.utils.IdempotencyGuard;
+import com.microbank.banking.utils.KeyOrderedRails;
+import com.microbank.banking.utils.RecordBatcher;
+import com.microbank.banking.utils.RetryTopics;
+import com.microbank.benchmarks.EmbeddedDatabase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+
+/**
+ * Latency of one deposit against Postgres. "atomic" is {@code BankAccountServiceImpl.deposit},
+ * a single conditional update plus the ledger insert in one transaction; "readModifyWrite" is
+ * the flow it replaced, which reads the account, adds in Java and saves the ledger row and the
+ * account separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostingBenchmark {
+
+    private static final Money AMOUNT = Money.of("1.00");
+
+    @Param({"atomic", "readModifyWrite"})
+    public String path;
+
+    private EmbeddedDatabase database;
+    private BankAccountRepository bankAccountRepository;
+    private BankTransactionRepository bankTransactionRepository;
+    private BankAccountServiceImpl bankAccountService;
+    private UUID account;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        database = EmbeddedDatabase.start(BankingDatabase.class);
+        bankAccountRepository = database.get(BankAccountRepository.class);
+        bankTransactionRepository = database.get(BankTransactionRepository.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        bankAccountService = new BankAccountServiceImpl(bankAccountRepository, bankTransactionRepository,
+                mock(KafkaReceiver.class), database.get(TransactionalOperator.class),
+                new AccountLaneExecutor(16, 10_000, meterRegistry), mock(IdempotencyGuard.class),
+                mock(AccountCache.class), mock(AccountNumberAllocator.class),
+                mock(KeyOrderedRails.class), mock(RecordBatcher.class), mock(RetryTopics.class), meterRegistry);
+        account = bankAccountRepository.save(BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .accountNumber("P" + System.nanoTime())
+                .balance(Money.ZERO)
+                .build()).block().getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public BankAccount deposit() {
+        return ("atomic".equals(path)
+                ? bankAccountService.deposit(account, AMOUNT, "benchmark")
+                : readModifyWriteDeposit()).block();
+    }
+
+    /** The pre-atomic implementation: findById, mutate in Java, save the ledger row, save the account. */
+    private Mono<BankAccount> readModifyWriteDeposit() {
+        return bankAccountRepository.findById(account)
+                .flatMap(current -> {
+                    current.setBalance(current.getBalance().plus(AMOUNT));
+                    return bankTransactionRepository.save(BankTransaction.builder()
+                            .accountId(account)
+                            .amount(AMOUNT)
+                            .transactionType("deposit")
+                            .description("benchmark")
+                            .build())
+                            .then(bankAccountRepository.save(current));
+                });
+    }
+}
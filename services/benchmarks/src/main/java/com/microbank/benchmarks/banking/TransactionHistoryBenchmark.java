@@ -0,0 +1,118 @@
+package com.microbank.benchmarks.banking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.microbank.banking.config.BankingDatabase;
+import com.microbank.banking.dto.TransactionPage;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.services.BankTransactionServiceImpl;
+import com.microbank.benchmarks.EmbeddedDatabase;
+
+/**
+ * Reading a page of one account's history from a ledger of {@code rows} postings, one a second
+ * going back from {@code NEWEST}, every tenth of them on the account read. The first page, a
+ * page 90% of the way back and a one-hour range in the middle should all cost about the same
+ * however long the ledger is. Loading the default ten million rows takes several minutes; pass
+ * {@code -p rows=...} for a quicker run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionHistoryBenchmark {
+
+    private static final int COLD_ACCOUNTS = 99;
+    private static final int PAGE = 50;
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Param({"10000000"})
+    public long rows;
+
+    private EmbeddedDatabase database;
+    private BankTransactionServiceImpl bankTransactionService;
+    private UUID hotAccount;
+    private String deepCursor;
+
+    @Setup
+    public void setUp() {
+        database = EmbeddedDatabase.start(BankingDatabase.class);
+        bankTransactionService = new BankTransactionServiceImpl(database.get(BankTransactionRepository.class));
+        hotAccount = newAccount();
+        List<UUID> cold = new ArrayList<>();
+        for (int i = 0; i < COLD_ACCOUNTS; i++) {
+            cold.add(newAccount());
+        }
+
+        DatabaseClient databaseClient = database.get(DatabaseClient.class);
+        databaseClient.sql("""
+                INSERT INTO bank_transactions (account_id, transaction_type, amount, created_at, description)
+                SELECT CASE WHEN g % 10 = 0 THEN CAST(:hot AS uuid) ELSE (CAST(:cold AS uuid[]))[g % :coldCount + 1] END,
+                       'deposit', 1.00, CAST(:newest AS timestamp) - g * INTERVAL '1 second', 'history'
+                FROM generate_series(1, :rows) AS g
+                """)
+                .bind("hot", hotAccount)
+                .bind("cold", cold.toArray(UUID[]::new))
+                .bind("coldCount", COLD_ACCOUNTS)
+                .bind("newest", NEWEST)
+                .bind("rows", rows)
+                .then()
+                .then(databaseClient.sql("ANALYZE bank_transactions").then())
+                .block(Duration.ofHours(1));
+
+        deepCursor = bankTransactionService.getTransactionPage(hotAccount, null, NEWEST.minusSeconds(rows * 9 / 10),
+                null, 1).block().getNextCursor();
+    }
+
+    private UUID newAccount() {
+        return database.get(BankAccountRepository.class).save(BankAccount.builder()
+                .accountHolderId(UUID.randomUUID())
+                .accountNumber("H" + System.nanoTime())
+                .balance(Money.ZERO)
+                .build()).block().getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public TransactionPage firstPage() {
+        return bankTransactionService.getTransactionPage(hotAccount, null, null, null, PAGE).block();
+    }
+
+    @Benchmark
+    public TransactionPage pageAtNinetyPercentDepth() {
+        return bankTransactionService.getTransactionPage(hotAccount, null, null, deepCursor, PAGE).block();
+    }
+
+    @Benchmark
+    public TransactionPage oneHourRange() {
+        return bankTransactionService.getTransactionPage(hotAccount, NEWEST.minusSeconds(rows / 2),
+                NEWEST.minusSeconds(rows / 2 - 3_600), null, PAGE).block();
+    }
+}
@@ -0,0 +1,96 @@
+package com.microbank.benchmarks.banking;
+
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.banking.config.BankingDatabase;
+import com.microbank.banking.dto.TransferResponse;
+import com.microbank.banking.entity.BankAccount;
+import com.microbank.banking.entity.Money;
+import com.microbank.banking.repository.BankAccountRepository;
+import com.microbank.banking.repository.BankTransactionRepository;
+import com.microbank.banking.services.TransferServiceImpl;
+import com.microbank.banking.utils.AccountCache;
+import com.microbank.benchmarks.EmbeddedDatabase;
+
+/**
+ * Latency of a transfer between two random accounts out of {@code accounts}, from
+ * {@value #THREADS} threads at once. With a handful of hot accounts most transfers wait on
+ * another's row locks; with many they rarely meet. Opening balances are large enough that no
+ * transfer runs out of funds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(TransferContentionBenchmark.THREADS)
+@Fork(1)
+public class TransferContentionBenchmark {
+
+    static final int THREADS = 16;
+    private static final Money OPENING_BALANCE = Money.of("1000000.00");
+
+    @Param({"6", "1000"})
+    public int accounts;
+
+    private EmbeddedDatabase database;
+    private TransferServiceImpl transferService;
+    private List<UUID> accountIds;
+
+    @Setup
+    public void setUp() {
+        database = EmbeddedDatabase.start(BankingDatabase.class);
+        BankAccountRepository bankAccountRepository = database.get(BankAccountRepository.class);
+        transferService = new TransferServiceImpl(bankAccountRepository,
+                database.get(BankTransactionRepository.class), database.get(TransactionalOperator.class),
+                mock(AccountCache.class));
+
+        accountIds = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            accountIds.add(bankAccountRepository.save(BankAccount.builder()
+                    .accountHolderId(UUID.randomUUID())
+                    .accountNumber("T" + i)
+                    .balance(OPENING_BALANCE)
+                    .build()).block().getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public TransferResponse transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = random.nextInt(accounts - 1);
+        if (to >= from) {
+            to++;
+        }
+        return transferService.transfer(accountIds.get(from), accountIds.get(to),
+                Money.ofMinor(100L * (1 + random.nextInt(50))), "contention").block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,74 @@
+package com.microbank.benchmarks.client;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.microbank.client.config.SecurityConfig;
+import com.microbank.client.entity.User;
+import com.microbank.client.utils.JWTUtil;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Issuing a token at login ({@link JWTUtil#generateToken}) and reading one back
+ * ({@link JWTUtil#getClaimsFromToken}, which always checks the signature). The verifier comes
+ * from the client's {@link SecurityConfig}, with the token lifetime of {@code application.yml}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-at-least-32-bytes-long";
+
+    private JWTUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(config, "jwtPreviousSecrets", List.of());
+        ReflectionTestUtils.setField(config, "jwtCacheSize", 10_000);
+        ReflectionTestUtils.setField(config, "revocationsExpectedEntries", 100);
+        jwtUtil = new JWTUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtVerifier", config.jwtVerifier());
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark User")
+                .email("benchmark@example.com")
+                .password("hashed")
+                .role("USER")
+                .build();
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims getClaimsFromToken() {
+        return jwtUtil.getClaimsFromToken(token);
+    }
+}
@@ -0,0 +1,141 @@
+package com.microbank.benchmarks.client;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.client.entity.User;
+import com.microbank.client.repository.BlacklistedTokenRepository;
+import com.microbank.client.repository.OutboxRepository;
+import com.microbank.client.repository.UserRepository;
+import com.microbank.client.services.AuthService;
+import com.microbank.client.services.AuthServiceImpl;
+import com.microbank.client.utils.OutboxRelay;
+import com.microbank.client.utils.PasswordHasher;
+import com.microbank.client.utils.UserCache;
+import com.microbank.security.JwtVerifier;
+import com.microbank.security.RevokedTokens;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Latency of a cheap request to a server with a single event loop while a storm of logins runs
+ * against it. "idle" has no storm. "inline" runs BCrypt on the event loop, as login used to, so
+ * every request waits behind the hashes queued on the loop. "hasher" hands them to
+ * {@link PasswordHasher}, and should stay close to idle. The storm keeps {@value #CONCURRENCY}
+ * logins in flight for the whole trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    private static final int CONCURRENCY = 16;
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"idle", "inline", "hasher"})
+    public String login;
+
+    private final PasswordEncoder encoder = new BCryptPasswordEncoder(8);
+    private User user;
+    private PasswordHasher hasher;
+    private LoopResources serverLoop;
+    private LoopResources clientLoops;
+    private DisposableServer server;
+    private HttpClient client;
+    private Disposable storm;
+
+    @Setup
+    public void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Storm")
+                .email("storm@example.com")
+                .password(encoder.encode(PASSWORD))
+                .role("USER")
+                .build();
+        hasher = new PasswordHasher(encoder, 1, 64, new SimpleMeterRegistry());
+        AuthService authService = authService("inline".equals(login) ? inlineHasher() : hasher);
+
+        serverLoop = LoopResources.create("storm-server", 1, true);
+        clientLoops = LoopResources.create("storm-client", 2, true);
+        server = HttpServer.create()
+                .port(0)
+                .runOn(serverLoop)
+                .route(routes -> routes
+                        .get("/ping", (request, response) -> response.sendString(Mono.just("pong")))
+                        .get("/login", (request, response) -> response.sendString(
+                                authService.login(user.getEmail(), PASSWORD).map(User::getEmail))))
+                .bindNow();
+        client = HttpClient.create().runOn(clientLoops).port(server.port());
+        if (!"idle".equals(login)) {
+            storm = Flux.range(0, CONCURRENCY)
+                    .flatMap(i -> client.get().uri("/login").responseContent().aggregate().asString().repeat())
+                    .subscribe();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (storm != null) {
+            storm.dispose();
+        }
+        server.disposeNow();
+        serverLoop.disposeLater().block();
+        clientLoops.disposeLater().block();
+        hasher.shutdown();
+    }
+
+    private AuthService authService(PasswordHasher passwordHasher) {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Mono.just(user));
+        return new AuthServiceImpl(userRepository, mock(BlacklistedTokenRepository.class), passwordHasher,
+                mock(OutboxRepository.class), mock(TransactionalOperator.class), mock(OutboxRelay.class),
+                mock(JwtVerifier.class), new RevokedTokens(1),
+                new UserCache(false, 1, Duration.ZERO, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+    }
+
+    /** A hasher that runs BCrypt on whichever thread subscribes: the event loop. */
+    private PasswordHasher inlineHasher() {
+        PasswordHasher inline = mock(PasswordHasher.class);
+        when(inline.matches(any(), anyString()))
+                .thenAnswer(inv -> Mono.fromCallable(() -> encoder.matches(inv.getArgument(0), inv.getArgument(1))));
+        return inline;
+    }
+
+    @Benchmark
+    public String ping() {
+        return client.get().uri("/ping").responseContent().aggregate().asString().block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,120 @@
+package com.microbank.benchmarks.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.microbank.client.utils.ProducerProfile;
+import com.microbank.events.UserCreated;
+import com.microbank.events.UserEventCodec;
+
+import reactor.core.publisher.Flux;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+
+/**
+ * Publishing encoded user-created events to an embedded Kafka broker under several
+ * {@link ProducerProfile}s, in records acknowledged per second. Each invocation sends a batch and
+ * waits for every acknowledgement, so a profile that lingers without filling its batches pays
+ * for it here. "linger-small-window" shows why the sender window has to grow with linger: 256
+ * records spread over the partitions never fill a batch, so every batch waits out the linger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProducerProfileBenchmark {
+
+    private static final int PARTITIONS = 8;
+    private static final int BATCH = 10_000;
+    private static final String TOPIC = "user-created";
+
+    /** Kafka's own producer defaults and the reactive sender's default window. */
+    private static final ProducerProfile KAFKA_DEFAULTS = ProducerProfile.builder()
+            .acks("all")
+            .linger(Duration.ZERO)
+            .batchSize(16_384)
+            .compression("none")
+            .idempotence(true)
+            .maxInFlightRequests(5)
+            .senderMaxInFlight(256)
+            .build();
+
+    /** What the client's {@code application.yml} ships with. */
+    private static final ProducerProfile CONFIGURED = KAFKA_DEFAULTS.toBuilder()
+            .linger(Duration.ofMillis(5))
+            .batchSize(65_536)
+            .compression("lz4")
+            .senderMaxInFlight(8_192)
+            .build();
+
+    private static final Map<String, ProducerProfile> PROFILES = Map.of(
+            "kafka-defaults", KAFKA_DEFAULTS,
+            "linger-small-window", KAFKA_DEFAULTS.toBuilder().linger(Duration.ofMillis(5)).batchSize(65_536).build(),
+            "configured", CONFIGURED,
+            "uncompressed", CONFIGURED.toBuilder().compression("none").build(),
+            "zstd", CONFIGURED.toBuilder().compression("zstd").build(),
+            "acks-1", CONFIGURED.toBuilder().acks("1").idempotence(false).build());
+
+    @Param({"kafka-defaults", "linger-small-window", "configured", "uncompressed", "zstd", "acks-1"})
+    public String profile;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaSender<String, byte[]> sender;
+    private String[] keys;
+    private byte[][] events;
+
+    @Setup
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+        sender = KafkaSender.create(PROFILES.get(profile).senderOptions(broker.getBrokersAsString()));
+
+        keys = new String[BATCH];
+        events = new byte[BATCH][];
+        for (int i = 0; i < BATCH; i++) {
+            UUID userId = new UUID(i, i);
+            keys[i] = userId.toString();
+            events[i] = UserEventCodec.encode(new UserCreated(userId, Instant.now()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sender.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void send() {
+        sender.send(Flux.range(0, BATCH)
+                        .map(i -> SenderRecord.create(new ProducerRecord<>(TOPIC, keys[i], events[i]), i)))
+                .doOnNext(result -> {
+                    if (result.exception() != null) {
+                        throw new IllegalStateException("Send failed", result.exception());
+                    }
+                })
+                .blockLast(Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,114 @@
+package com.microbank.benchmarks.client;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.microbank.benchmarks.EmbeddedDatabase;
+import com.microbank.client.config.ClientDatabase;
+import com.microbank.client.dto.UserCursor;
+import com.microbank.client.dto.UserFilter;
+import com.microbank.client.dto.UserPage;
+import com.microbank.client.repository.UserRepository;
+import com.microbank.client.services.UserServiceImpl;
+
+/**
+ * A page of the admin user listing from a {@code users} table of {@code rows}, created one a
+ * second going back from {@code NEWEST}, with every 1000th an admin and every 500th blacklisted.
+ * The first page, pages 90% of the way back with and without a filter, a one-hour range and an
+ * email prefix search should all cost about the same however many users there are. Loading the
+ * default five million users takes a few minutes; pass {@code -p rows=...} for a quicker run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListingBenchmark {
+
+    private static final int PAGE = 50;
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Param({"5000000"})
+    public long rows;
+
+    private EmbeddedDatabase database;
+    private UserServiceImpl userService;
+    private String deepCursor;
+    private UserFilter oneHour;
+    private UserFilter search;
+
+    @Setup
+    public void setUp() {
+        database = EmbeddedDatabase.start(ClientDatabase.class);
+        userService = new UserServiceImpl(database.get(UserRepository.class), null, null);
+        DatabaseClient databaseClient = database.get(DatabaseClient.class);
+        databaseClient.sql("""
+                INSERT INTO users (name, email, password, role, blacklisted, created_at)
+                SELECT 'User ' || g, 'user' || g || '@example.com', 'hashed',
+                       CASE WHEN g % 1000 = 0 THEN 'ADMIN' ELSE 'USER' END, g % 500 = 0,
+                       CAST(:newest AS timestamp) - g * INTERVAL '1 second'
+                FROM generate_series(1, :rows) AS g
+                """)
+                .bind("newest", NEWEST)
+                .bind("rows", rows)
+                .then()
+                .then(databaseClient.sql("ANALYZE users").then())
+                .block(Duration.ofHours(1));
+
+        deepCursor = new UserCursor(NEWEST.minusSeconds(rows * 9 / 10), new UUID(0L, 0L)).encode();
+        oneHour = new UserFilter(null, null, NEWEST.minusSeconds(rows / 2), NEWEST.minusSeconds(rows / 2 - 3_600), null);
+        search = new UserFilter(null, null, null, null, "user" + rows * 9 / 10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public UserPage firstPage() {
+        return userService.getUserPage(UserFilter.NONE, null, PAGE).block();
+    }
+
+    @Benchmark
+    public UserPage pageAtNinetyPercentDepth() {
+        return userService.getUserPage(UserFilter.NONE, deepCursor, PAGE).block();
+    }
+
+    @Benchmark
+    public UserPage adminsAtNinetyPercentDepth() {
+        return userService.getUserPage(new UserFilter("ADMIN", null, null, null, null), deepCursor, PAGE).block();
+    }
+
+    @Benchmark
+    public UserPage blacklistedAtNinetyPercentDepth() {
+        return userService.getUserPage(new UserFilter(null, true, null, null, null), deepCursor, PAGE).block();
+    }
+
+    @Benchmark
+    public UserPage oneHourRange() {
+        return userService.getUserPage(oneHour, null, PAGE).block();
+    }
+
+    @Benchmark
+    public UserPage emailPrefixSearch() {
+        return userService.getUserPage(search, null, PAGE).block();
+    }
+}
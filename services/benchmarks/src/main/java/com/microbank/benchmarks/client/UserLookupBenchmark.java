@@ -0,0 +1,106 @@
+package com.microbank.benchmarks.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.microbank.benchmarks.EmbeddedDatabase;
+import com.microbank.client.config.ClientDatabase;
+import com.microbank.client.entity.User;
+import com.microbank.client.repository.UserRepository;
+import com.microbank.client.utils.UserCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The login lookup by email on a {@code users} table of {@code rows}. "unindexedEmail" is the
+ * exact match on a column nothing indexes, as the lookup used to be; "indexedLowerEmail" is
+ * {@code findByEmail}, served by the unique index on {@code lower(email)}; and "cacheHit" is the
+ * same lookup through {@link UserCache} for one of {@value #HOT_USERS} users already cached.
+ * Loading the default five million users takes a few minutes; pass {@code -p rows=...} for a
+ * quicker run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private static final int HOT_USERS = 100;
+
+    @Param({"5000000"})
+    public long rows;
+
+    private EmbeddedDatabase database;
+    private DatabaseClient databaseClient;
+    private UserRepository userRepository;
+    private UserCache cache;
+
+    @Setup
+    public void setUp() {
+        database = EmbeddedDatabase.start(ClientDatabase.class);
+        databaseClient = database.get(DatabaseClient.class);
+        userRepository = database.get(UserRepository.class);
+        databaseClient.sql("""
+                INSERT INTO users (name, email, password, role)
+                SELECT 'User ' || g, 'user' || g || '@example.com', 'hashed', 'USER'
+                FROM generate_series(1, :rows) AS g
+                """)
+                .bind("rows", rows)
+                .then()
+                .then(databaseClient.sql("ANALYZE users").then())
+                .block(Duration.ofHours(1));
+
+        cache = new UserCache(true, 10_000, Duration.ofHours(1), new SimpleMeterRegistry());
+        for (int i = 1; i <= HOT_USERS; i++) {
+            String email = "user" + i + "@example.com";
+            cache.getByEmail(email, () -> userRepository.findByEmail(email)).block();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    private static String randomEmail(long bound) {
+        return "user" + ThreadLocalRandom.current().nextLong(1, bound + 1) + "@example.com";
+    }
+
+    @Benchmark
+    public Map<String, Object> unindexedEmail() {
+        return databaseClient.sql("SELECT * FROM users WHERE email = :email")
+                .bind("email", randomEmail(rows))
+                .fetch()
+                .one()
+                .block();
+    }
+
+    @Benchmark
+    public User indexedLowerEmail() {
+        return userRepository.findByEmail(randomEmail(rows)).block();
+    }
+
+    @Benchmark
+    public User cacheHit() {
+        String email = randomEmail(HOT_USERS);
+        return cache.getByEmail(email, () -> userRepository.findByEmail(email)).block();
+    }
+}
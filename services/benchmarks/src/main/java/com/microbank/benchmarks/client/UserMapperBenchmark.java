@@ -0,0 +1,62 @@
+package com.microbank.benchmarks.client;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microbank.client.dto.UserUpdateRequest;
+import com.microbank.client.entity.User;
+import com.microbank.client.utils.UserMapper;
+
+/**
+ * Applying an admin's update to a user with {@link UserMapper}: every field set, and only one,
+ * as a typical blacklist toggle sends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private User user;
+    private UserUpdateRequest fullUpdate;
+    private UserUpdateRequest blacklistOnly;
+
+    @Setup
+    public void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark User")
+                .email("benchmark@example.com")
+                .password("hashed")
+                .role("USER")
+                .blacklisted(false)
+                .build();
+        fullUpdate = new UserUpdateRequest("Renamed User", "renamed@example.com", "+15550100", "ADMIN", true);
+        blacklistOnly = new UserUpdateRequest(null, null, null, null, true);
+    }
+
+    @Benchmark
+    public User fullUpdate() {
+        UserMapper.INSTANCE.mapUserFromUserUpdateRequest(fullUpdate, user);
+        return user;
+    }
+
+    @Benchmark
+    public User blacklistOnly() {
+        UserMapper.INSTANCE.mapUserFromUserUpdateRequest(blacklistOnly, user);
+        return user;
+    }
+}
@@ -0,0 +1,114 @@
+package com.microbank.benchmarks.events;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.microbank.events.UserBlacklisted;
+import com.microbank.events.UserCreated;
+import com.microbank.events.UserDeleted;
+import com.microbank.events.UserEvent;
+import com.microbank.events.UserEventCodec;
+import com.microbank.events.UserUpdated;
+
+/**
+ * Encoding and decoding user events with {@link UserEventCodec} against Jackson JSON of the same
+ * events, the format the topics carried before. Each call takes the next event of a mix that is
+ * mostly user-created, as on the topic today, with some of each other type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserEventCodecBenchmark {
+
+    private static final int EVENTS = 1_024;
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.SIMPLE_NAME, property = "type")
+    @JsonSubTypes({
+        @JsonSubTypes.Type(UserCreated.class),
+        @JsonSubTypes.Type(UserUpdated.class),
+        @JsonSubTypes.Type(UserBlacklisted.class),
+        @JsonSubTypes.Type(UserDeleted.class)})
+    private interface UserEventJson {
+    }
+
+    private ObjectWriter jsonWriter;
+    private ObjectReader jsonReader;
+    private UserEvent[] events;
+    private byte[][] binary;
+    private byte[][] json;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .addMixIn(UserEvent.class, UserEventJson.class);
+        jsonWriter = mapper.writerFor(UserEvent.class);
+        jsonReader = mapper.readerFor(UserEvent.class);
+
+        events = new UserEvent[EVENTS];
+        binary = new byte[EVENTS][];
+        json = new byte[EVENTS][];
+        Instant at = Instant.parse("2026-10-17T09:30:00.123Z");
+        for (int i = 0; i < EVENTS; i++) {
+            UUID userId = UUID.randomUUID();
+            Instant occurredAt = at.plusMillis(i);
+            events[i] = switch (i % 10) {
+                case 7 -> new UserUpdated(userId, occurredAt, "User " + i, "user" + i + "@example.com");
+                case 8 -> new UserBlacklisted(userId, occurredAt, true);
+                case 9 -> new UserDeleted(userId, occurredAt);
+                default -> new UserCreated(userId, occurredAt);
+            };
+            binary[i] = UserEventCodec.encode(events[i]);
+            json[i] = jsonWriter.writeValueAsBytes(events[i]);
+        }
+    }
+
+    private int next() {
+        return next = (next + 1) & (EVENTS - 1);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return UserEventCodec.encode(events[next()]);
+    }
+
+    @Benchmark
+    public UserEvent decodeBinary() {
+        return UserEventCodec.decode(binary[next()]);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonWriter.writeValueAsBytes(events[next()]);
+    }
+
+    @Benchmark
+    public UserEvent decodeJson() throws IOException {
+        return jsonReader.readValue(json[next()]);
+    }
+}
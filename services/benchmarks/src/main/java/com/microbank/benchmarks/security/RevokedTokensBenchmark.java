@@ -0,0 +1,71 @@
+package com.microbank.benchmarks.security;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microbank.security.RevokedTokens;
+import com.microbank.security.TokenDigest;
+
+/**
+ * {@link RevokedTokens#isRevoked} against an index of 100k revocations, for tokens that are not
+ * revoked, the case of almost every request, and for revoked ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevokedTokensBenchmark {
+
+    private static final int REVOKED = 100_000;
+    private static final int PROBES = 4_096;
+
+    private RevokedTokens revokedTokens;
+    private TokenDigest[] revoked;
+    private TokenDigest[] valid;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        revokedTokens = new RevokedTokens(REVOKED);
+        Instant expiresAt = Instant.now().plusSeconds(3_600);
+        revoked = new TokenDigest[PROBES];
+        valid = new TokenDigest[PROBES];
+        for (int i = 0; i < REVOKED; i++) {
+            TokenDigest digest = TokenDigest.of("revoked-" + i);
+            revokedTokens.revoke(digest, expiresAt);
+            if (i < PROBES) {
+                revoked[i] = digest;
+            }
+        }
+        for (int i = 0; i < PROBES; i++) {
+            valid[i] = TokenDigest.of("valid-" + i);
+        }
+    }
+
+    private int next() {
+        return next = (next + 1) & (PROBES - 1);
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revokedTokens.isRevoked(valid[next()]);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revokedTokens.isRevoked(revoked[next()]);
+    }
+}
@@ -0,0 +1,37 @@
+package com.microbank.client.config;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+import com.microbank.benchmarks.EmbeddedDatabase;
+import com.microbank.client.repository.UserRepository;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * The client service's {@link R2DBCConfig} and repositories, for an {@link EmbeddedDatabase}.
+ * The schema is read from {@code client/schema.sql}, where the build unpacks it so that it
+ * doesn't collide with the banking service's. In this package because the initializer it
+ * replaces is package-private.
+ */
+@Configuration
+@ImportAutoConfiguration({R2dbcAutoConfiguration.class, R2dbcDataAutoConfiguration.class})
+@EnableR2dbcRepositories(basePackageClasses = UserRepository.class)
+public class ClientDatabase extends R2DBCConfig {
+
+    @Bean
+    @Override
+    ConnectionFactoryInitializer initializer(ConnectionFactory connectionFactory) {
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("client/schema.sql")));
+        return initializer;
+    }
+}
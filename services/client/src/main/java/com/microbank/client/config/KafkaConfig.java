@@ -1,26 +1,37 @@
 package com.microbank.client.config;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.time.Instant;
 
-import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
 import com.microbank.client.repository.BlacklistedTokenRepository;
+import com.microbank.client.repository.OutboxRepository;
 import com.microbank.client.repository.UserRepository;
 import com.microbank.client.services.AuthService;
 import com.microbank.client.services.AuthServiceImpl;
+import com.microbank.client.utils.OutboxRelay;
+import com.microbank.client.utils.PasswordHasher;
+import com.microbank.client.utils.ProducerProfile;
+import com.microbank.client.utils.UserCache;
+import com.microbank.security.JwtVerifier;
+import com.microbank.security.RevocationFeed;
+import com.microbank.security.RevokedTokens;
+import com.microbank.security.TokenDigest;
+import com.microbank.security.TokenRevocation;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.kafka.sender.KafkaSender;
 import reactor.kafka.sender.SenderOptions;
 
 @Configuration
+@Slf4j
 public class KafkaConfig {
 
     @Autowired
@@ -29,30 +40,105 @@ public class KafkaConfig {
     @Autowired
     private BlacklistedTokenRepository blacklistedTokenRepository;
 
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private RevokedTokens revokedTokens;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${client.producer.acks:all}")
+    private String producerAcks;
+
+    @Value("${client.producer.linger:PT0.005S}")
+    private Duration producerLinger;
+
+    @Value("${client.producer.batch-size:65536}")
+    private int producerBatchSize;
+
+    @Value("${client.producer.compression:lz4}")
+    private String producerCompression;
+
+    @Value("${client.producer.idempotence:true}")
+    private boolean producerIdempotence;
+
+    @Value("${client.producer.max-in-flight-requests:5}")
+    private int producerMaxInFlightRequests;
+
+    @Value("${client.producer.sender-max-in-flight:8192}")
+    private int senderMaxInFlight;
+
+    @Value("${client.outbox.batch-size:500}")
+    private int outboxBatchSize;
+
+    @Value("${client.outbox.poll-interval:PT0.5S}")
+    private Duration outboxPollInterval;
+
+    @Value("${jwt.revocations.purge-interval:PT10M}")
+    private Duration revocationsPurgeInterval;
+
+    @Bean
+    public ProducerProfile producerProfile() {
+        ProducerProfile profile = ProducerProfile.builder()
+                .acks(producerAcks)
+                .linger(producerLinger)
+                .batchSize(producerBatchSize)
+                .compression(producerCompression)
+                .idempotence(producerIdempotence)
+                .maxInFlightRequests(producerMaxInFlightRequests)
+                .senderMaxInFlight(senderMaxInFlight)
+                .build();
+        log.info("Kafka producer profile: {}", profile);
+        return profile;
+    }
+
     @Bean
-    public SenderOptions<String, String> senderOptions() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return SenderOptions.create(props);
+    public SenderOptions<String, byte[]> senderOptions() {
+        return producerProfile().senderOptions(bootstrapServers);
     }
 
     @Bean
-    public KafkaSender<String, String> kafkaSender() {
+    public KafkaSender<String, byte[]> kafkaSender() {
         return KafkaSender.create(senderOptions());
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public OutboxRelay outboxRelay() {
+        return new OutboxRelay(outboxRepository, transactionalOperator, kafkaSender(), outboxBatchSize,
+                outboxPollInterval);
+    }
+
+    /** Loads the revocations still in force from {@code blacklisted_tokens}, then follows the topic. */
+    @Bean
+    public RevocationFeed revocationFeed() {
+        Flux<TokenRevocation> stored = Flux.defer(() -> blacklistedTokenRepository.findByExpiresAtAfter(Instant.now()))
+                .filter(token -> token.getTokenHash() != null)
+                .map(token -> new TokenRevocation(TokenDigest.fromBytes(token.getTokenHash()), token.getExpiresAt()));
+        return new RevocationFeed(revokedTokens, RevocationFeed.receiverOptions(bootstrapServers, "client"), stored,
+                revocationsPurgeInterval);
     }
 
     @Bean
     public AuthService authService() {
-        return new AuthServiceImpl(userRepository, blacklistedTokenRepository, passwordEncoder(), kafkaSender());
+        return new AuthServiceImpl(userRepository, blacklistedTokenRepository, passwordHasher, outboxRepository,
+                transactionalOperator, outboxRelay(), jwtVerifier, revokedTokens,
+                userCache, meterRegistry);
     }
 }
@@ -0,0 +1,33 @@
+package com.microbank.client.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.microbank.client.utils.PasswordHasher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class PasswordConfig {
+
+    /** 0 means half the available processors, so the event loops keep the rest. */
+    @Value("${client.passwords.threads:0}")
+    private int threads;
+
+    @Value("${client.passwords.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    @Bean
+    public PasswordHasher passwordHasher(MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new PasswordHasher(passwordEncoder(), poolSize, queueCapacity, meterRegistry);
+    }
+}
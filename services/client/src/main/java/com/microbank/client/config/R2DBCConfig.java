@@ -1,6 +1,8 @@
 package com.microbank.client.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
@@ -9,18 +11,26 @@ import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
 import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
+import com.microbank.metrics.ConnectionPools;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import io.r2dbc.spi.ConnectionFactory;
 
 @Configuration
 @EnableTransactionManagement
+@EnableConfigurationProperties(R2dbcProperties.class)
 public class R2DBCConfig {
 
-    @Value("${spring.r2dbc.username}")
-    private String username;
-
-    @Value("${spring.r2dbc.password}")
-    private String password;
+    /**
+     * The connection pool, configured from {@code spring.r2dbc} and timed when there is a meter
+     * registry (see {@link ConnectionPools}).
+     */
+    @Bean(destroyMethod = "dispose")
+    ConnectionFactory connectionFactory(R2dbcProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return ConnectionPools.warmedUp("connectionFactory", properties, meterRegistry.getIfAvailable());
+    }
 
     @Bean
     ConnectionFactoryInitializer initializer(
@@ -42,4 +52,11 @@ public class R2DBCConfig {
         return new R2dbcTransactionManager(connectionFactory);
     }
 
+    @Bean
+    TransactionalOperator transactionalOperator(
+            ReactiveTransactionManager transactionManager
+    ) {
+        return TransactionalOperator.create(transactionManager);
+    }
+
 }
@@ -1,9 +1,12 @@
 package com.microbank.client.config;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -24,8 +27,14 @@ import com.microbank.client.repository.UserRepository;
 import com.microbank.client.services.UserService;
 import com.microbank.client.services.UserServiceImpl;
 import com.microbank.client.utils.JWTUtil;
+import com.microbank.client.utils.UserCache;
+import com.microbank.security.JwtVerifier;
+import com.microbank.security.RevokedTokens;
 
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 @Configuration
@@ -36,6 +45,25 @@ public class SecurityConfig {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    /** Absent in slice tests, which then record into the no-op global registry. */
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${jwt.previous-secrets:}")
+    private List<String> jwtPreviousSecrets;
+
+    @Value("${jwt.cache-size:10000}")
+    private int jwtCacheSize;
+
+    @Value("${jwt.revocations.expected-entries:100000}")
+    private int revocationsExpectedEntries;
+
     @Bean
     public SecurityWebFilterChain securityFilterChain(ServerHttpSecurity http) {
         return http
@@ -56,6 +84,7 @@ public class SecurityConfig {
                 )
                 .authorizeExchange(ex -> ex
                 .pathMatchers("/client/api/v1/auth/register", "/client/api/v1/auth/login", "/client/swagger-ui.html", "/client/api-docs/**", "/client/webjars/**", "/client/swagger-ui/**").permitAll()
+                .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .pathMatchers("/client/api/v1/users/admin/**").hasAuthority("ROLE_ADMIN")
                 .anyExchange().authenticated())
                 .addFilterAt(jwtAuthFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
@@ -81,13 +110,33 @@ public class SecurityConfig {
         return new JWTUtil();
     }
 
+    /** Builds the keys once and caches verified tokens until they expire. */
     @Bean
-    public UserService userService() {
-        return new UserServiceImpl(userRepository, jwtUtil());
+    public JwtVerifier jwtVerifier() {
+        return new JwtVerifier(jwtSecret, jwtPreviousSecrets, jwtCacheSize, SecurityConfig::toAuthentication,
+                revokedTokens());
     }
 
+    /** Logged-out tokens, kept current by the {@code RevocationFeed}. */
     @Bean
+    public RevokedTokens revokedTokens() {
+        return new RevokedTokens(revocationsExpectedEntries);
+    }
+
+    @Bean
+    public UserService userService() {
+        return new UserServiceImpl(userRepository, jwtUtil(), userCache);
+    }
+
+    /**
+     * Not a bean: a {@code WebFilter} bean would also run outside the security chain, verifying
+     * and timing every token twice.
+     */
     WebFilter jwtAuthFilter() {
+        JwtVerifier verifier = jwtVerifier();
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        Timer valid = jwtValidationTimer("valid", registry);
+        Timer rejected = jwtValidationTimer("rejected", registry);
         return (exchange, chain) -> {
             String authHeader = exchange.getRequest().getHeaders().getFirst("Authorization");
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -97,13 +146,16 @@ public class SecurityConfig {
 
             String token = authHeader.substring(7); // Remove "Bearer " prefix
 
+            long started = System.nanoTime();
             try {
-                Authentication auth = validateToken(token); // Validate JWT
-                
-                log.info("Token validated for user {}", auth.getName());
+                Authentication auth = verifier.authenticate(token); // Validate JWT
+                valid.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+                log.debug("Token validated for user {}", auth.getName());
                 return chain.filter(exchange)
                         .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
             } catch (Exception e) {
+                rejected.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
                 log.error("JWT validation failed", e);
                 exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
                 return exchange.getResponse().setComplete(); // Block request
@@ -111,15 +163,23 @@ public class SecurityConfig {
         };
     }
 
-    private Authentication validateToken(String token) {
-        Claims claims = jwtUtil().getClaimsFromToken(token);
+    /** Verification only, cache hits included; the request itself is timed by the server metrics. */
+    private static Timer jwtValidationTimer(String outcome, MeterRegistry registry) {
+        return Timer.builder("client.jwt.validation")
+                .tag("outcome", outcome)
+                .description("Time to verify a bearer token")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(registry);
+    }
 
+    static Authentication toAuthentication(Claims claims) {
         String username = claims.getSubject();
-        log.info("Token claims for user {}: {}", username, claims);
         String role = claims.get("role", String.class);
         List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
 
-        log.info("Authorities granted for {}: {}", username, authorities);
+        log.debug("Authorities granted for {}: {}", username, authorities);
 
         return new UsernamePasswordAuthenticationToken(username, null, authorities);
     }
@@ -0,0 +1,29 @@
+package com.microbank.client.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.microbank.client.utils.UserCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class UserCacheConfig {
+
+    @Value("${client.users.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${client.users.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${client.users.cache.ttl:PT5S}")
+    private Duration ttl;
+
+    @Bean
+    public UserCache userCache(MeterRegistry meterRegistry) {
+        return new UserCache(enabled, maxSize, ttl, meterRegistry);
+    }
+}
@@ -1,11 +1,16 @@
 package com.microbank.client.controllers;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.microbank.client.dto.UserFilter;
 import com.microbank.client.dto.UserUpdateRequest;
 import com.microbank.client.entity.User;
 import com.microbank.client.services.UserService;
@@ -20,12 +25,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 @RequestMapping("/client/api/v1/users")
 @AllArgsConstructor
 public class UserController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService userService;
 
     @GetMapping("/{userId}")
@@ -59,10 +67,45 @@ public class UserController {
                 .onErrorReturn(ResponseEntity.notFound().<Void>build());
     }
 
-    @GetMapping("/admin")
-    public Mono<ResponseEntity<Flux<User>>> getAllUsers() {
-        Flux<User> users = userService.getAllUsers();
-        return Mono.just(ResponseEntity.ok().body(users));
+    /**
+     * One page of users, newest first, optionally filtered. When more users follow, the cursor for
+     * the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     */
+    @GetMapping(value = "/admin", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<User>>> getAllUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean blacklisted,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return userService.getUserPage(new UserFilter(role, blacklisted, from, to, search), cursor, limit)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                    }
+                    return response.body(page.getItems());
+                });
+    }
+
+    /**
+     * The same listing as NDJSON, streamed with backpressure. Without {@code limit} it runs to
+     * the end of the matching users.
+     */
+    @GetMapping(value = "/admin", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<User> streamUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean blacklisted,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return userService.streamUsers(new UserFilter(role, blacklisted, from, to, search), cursor, limit);
     }
 
     @GetMapping("/current-user")
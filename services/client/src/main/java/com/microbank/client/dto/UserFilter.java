@@ -0,0 +1,13 @@
+package com.microbank.client.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for the admin user listing; a {@code null} field does not filter. {@code from}
+ * is inclusive and {@code to} exclusive on {@code created_at}. {@code search} matches the start of
+ * the name or the email, ignoring case.
+ */
+public record UserFilter(String role, Boolean blacklisted, LocalDateTime from, LocalDateTime to, String search) {
+
+    public static final UserFilter NONE = new UserFilter(null, null, null, null, null);
+}
@@ -0,0 +1,15 @@
+package com.microbank.client.dto;
+
+import java.util.List;
+
+import com.microbank.client.entity.User;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class UserPage {
+    private List<User> items;
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.microbank.client.entity;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -9,7 +10,6 @@ import org.springframework.data.relational.core.mapping.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import lombok.NonNull;
 
 @Data
 @AllArgsConstructor
@@ -18,8 +18,8 @@ import lombok.NonNull;
 public class BlacklistedToken {
     @Id
     private UUID id;
-    @NonNull
-    private String token;
     private UUID userId;
+    private byte[] tokenHash;
+    private Instant expiresAt;
     private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.microbank.client.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("outbox")
+public class OutboxEvent {
+    @Id
+    private Long id;
+
+    private String topic;
+
+    private String eventKey;
+
+    private byte[] payload;
+
+    private LocalDateTime createdAt;
+}
@@ -1,6 +1,7 @@
 package com.microbank.client.entity;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 import org.springframework.data.annotation.Id;
@@ -36,4 +37,12 @@ public class User {
     private LocalDateTime createdAt;
 
     private Boolean blacklisted;
+
+    /**
+     * The form emails are stored and cached in. Lookups compare {@code lower(email)}, matching the
+     * unique index, so rows stored before normalization are still found.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
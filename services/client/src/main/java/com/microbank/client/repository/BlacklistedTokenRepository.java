@@ -1,5 +1,6 @@
 package com.microbank.client.repository;
 
+import java.time.Instant;
 import java.util.UUID;
 
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -7,7 +8,11 @@ import org.springframework.stereotype.Repository;
 
 import com.microbank.client.entity.BlacklistedToken;
 
+import reactor.core.publisher.Flux;
+
 @Repository
 public interface BlacklistedTokenRepository extends ReactiveCrudRepository<BlacklistedToken, UUID> {
 
+    /** Revocations still in force at {@code now}. */
+    Flux<BlacklistedToken> findByExpiresAtAfter(Instant now);
 }
@@ -0,0 +1,30 @@
+package com.microbank.client.repository;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import com.microbank.client.entity.OutboxEvent;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface OutboxRepository extends ReactiveCrudRepository<OutboxEvent, Long> {
+
+    /**
+     * Takes a transaction-scoped advisory lock on {@code key}. Emits false right away when
+     * another transaction holds it. Must run inside a transaction.
+     */
+    @Query("SELECT pg_try_advisory_xact_lock(:key)")
+    Mono<Boolean> tryLock(long key);
+
+    /** The {@code limit} oldest events, oldest first. */
+    @Query("SELECT * FROM outbox ORDER BY id LIMIT :limit")
+    Flux<OutboxEvent> findOldest(int limit);
+
+    @Modifying
+    @Query("DELETE FROM outbox WHERE id = ANY(CAST(:ids AS bigint[]))")
+    Mono<Integer> deleteByIds(Long[] ids);
+}
@@ -2,6 +2,7 @@ package com.microbank.client.repository;
 
 import java.util.UUID;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,6 +11,21 @@ import com.microbank.client.entity.User;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface UserRepository extends  ReactiveCrudRepository<User, UUID>{
+public interface UserRepository extends  ReactiveCrudRepository<User, UUID>, UserSearchRepository {
+
+    /** Ignores case; served by the unique index on {@code lower(email)}. */
+    @Query("SELECT * FROM users WHERE lower(email) = lower(:email)")
     Mono<User> findByEmail(String email);
+
+    /**
+     * Inserts a user unless the email is already taken, ignoring case. Emits the saved row, or
+     * nothing when the email is taken. Concurrent registrations of one email cannot both succeed.
+     */
+    @Query("""
+            INSERT INTO users (name, email, password, role)
+            VALUES (:name, :email, :password, :role)
+            ON CONFLICT ((lower(email))) DO NOTHING
+            RETURNING *
+            """)
+    Mono<User> insertIfAbsent(String name, String email, String password, String role);
 }
@@ -0,0 +1,16 @@
+package com.microbank.client.repository;
+
+import com.microbank.client.dto.UserCursor;
+import com.microbank.client.dto.UserFilter;
+import com.microbank.client.entity.User;
+
+import reactor.core.publisher.Flux;
+
+public interface UserSearchRepository {
+
+    /**
+     * One keyset page of users matching {@code filter}, newest first, strictly before the
+     * {@code before} position. The caller folds {@code filter.to()} into {@code before}.
+     */
+    Flux<User> findPage(UserFilter filter, UserCursor before, int limit);
+}
@@ -0,0 +1,70 @@
+package com.microbank.client.repository;
+
+import java.util.Locale;
+
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.microbank.client.dto.UserCursor;
+import com.microbank.client.dto.UserFilter;
+import com.microbank.client.entity.User;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * Builds the listing query from the filters actually given, so each variant is planned against
+ * the index that serves it rather than one catch-all plan:
+ * <ul>
+ * <li>no filter, or {@code from}/{@code to}: {@code idx_users_created_at}</li>
+ * <li>{@code role}: {@code idx_users_role_created_at}</li>
+ * <li>{@code blacklisted = true}: the partial {@code idx_users_blacklisted_created_at}</li>
+ * <li>{@code search}: {@code idx_users_name_prefix} and {@code idx_users_email_prefix}</li>
+ * </ul>
+ * Every value is bound; only fixed fragments are concatenated.
+ */
+@AllArgsConstructor
+class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Override
+    public Flux<User> findPage(UserFilter filter, UserCursor before, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM users WHERE (created_at, id) < (:beforeCreatedAt, :beforeId)");
+        if (filter.from() != null) {
+            sql.append(" AND created_at >= :from");
+        }
+        if (filter.role() != null) {
+            sql.append(" AND role = :role");
+        }
+        if (filter.blacklisted() != null) {
+            sql.append(filter.blacklisted() ? " AND blacklisted" : " AND blacklisted IS NOT TRUE");
+        }
+        if (filter.search() != null) {
+            sql.append(" AND (lower(name) LIKE :prefix OR lower(email) LIKE :prefix)");
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql(sql.toString())
+                .bind("beforeCreatedAt", before.createdAt())
+                .bind("beforeId", before.id())
+                .bind("limit", limit);
+        if (filter.from() != null) {
+            query = query.bind("from", filter.from());
+        }
+        if (filter.role() != null) {
+            query = query.bind("role", filter.role().toUpperCase(Locale.ROOT));
+        }
+        if (filter.search() != null) {
+            query = query.bind("prefix", likePrefix(filter.search()));
+        }
+        return query.map((row, metadata) -> converter.read(User.class, row, metadata)).all();
+    }
+
+    /** {@code search} lower-cased, with LIKE wildcards taken literally, followed by {@code %}. */
+    static String likePrefix(String search) {
+        String lower = search.trim().toLowerCase(Locale.ROOT);
+        return lower.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
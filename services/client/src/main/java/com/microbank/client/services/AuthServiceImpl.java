@@ -1,77 +1,156 @@
 package com.microbank.client.services;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
 
-import org.apache.kafka.clients.producer.ProducerRecord;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
 import com.microbank.client.entity.BlacklistedToken;
+import com.microbank.client.entity.OutboxEvent;
 import com.microbank.client.entity.User;
 import com.microbank.client.repository.BlacklistedTokenRepository;
+import com.microbank.client.repository.OutboxRepository;
 import com.microbank.client.repository.UserRepository;
+import com.microbank.client.utils.OutboxRelay;
+import com.microbank.client.utils.PasswordHasher;
+import com.microbank.client.utils.UserCache;
+import com.microbank.events.UserCreated;
+import com.microbank.events.UserEventCodec;
+import com.microbank.metrics.OperationTimer;
+import com.microbank.security.JwtVerifier;
+import com.microbank.security.RevocationFeed;
+import com.microbank.security.RevokedTokens;
+import com.microbank.security.TokenDigest;
+import com.microbank.security.TokenRevocation;
 
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import reactor.kafka.sender.KafkaSender;
-import reactor.kafka.sender.SenderRecord;
 
-@AllArgsConstructor
 @Slf4j
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final BlacklistedTokenRepository blacklistedTokenRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final KafkaSender<String, String> kafkaSender;
+    private final PasswordHasher passwordHasher;
+    private final OutboxRepository outboxRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final OutboxRelay outboxRelay;
+    private final JwtVerifier jwtVerifier;
+    private final RevokedTokens revokedTokens;
+    private final UserCache userCache;
+    private final OperationTimer registerTimer;
+    private final OperationTimer loginTimer;
 
-    @Override
-    public Mono<User> register(User user) {
-        return userRepository.findByEmail(user.getEmail())
-                .flatMap(existing -> Mono.<User>error(new RuntimeException("User already exists")))
-                .switchIfEmpty(
-                        Mono.defer(() -> userRepository.save(
-                        User.builder()
-                                .name(user.getName())
-                                .email(user.getEmail())
-                                .password(passwordEncoder.encode(user.getPassword()))
-                                .role("USER")
-                                .build()
-                ).flatMap(savedUser -> sendUserCreatedEvent(savedUser.getId().toString())
-                        .thenReturn(savedUser)))
-                );
+    public AuthServiceImpl(UserRepository userRepository,
+            BlacklistedTokenRepository blacklistedTokenRepository,
+            PasswordHasher passwordHasher,
+            OutboxRepository outboxRepository,
+            TransactionalOperator transactionalOperator,
+            OutboxRelay outboxRelay,
+            JwtVerifier jwtVerifier,
+            RevokedTokens revokedTokens,
+            UserCache userCache,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.passwordHasher = passwordHasher;
+        this.outboxRepository = outboxRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.outboxRelay = outboxRelay;
+        this.jwtVerifier = jwtVerifier;
+        this.revokedTokens = revokedTokens;
+        this.userCache = userCache;
+        this.registerTimer = operationTimer("register", meterRegistry);
+        this.loginTimer = operationTimer("login", meterRegistry);
+    }
 
+    /** Both operations hash a password, so their histogram reaches further than a lookup's. */
+    private static OperationTimer operationTimer(String operation, MeterRegistry meterRegistry) {
+        return new OperationTimer("client.auth.operations", operation, "Time to register or log in a user",
+                Duration.ofMillis(1), Duration.ofSeconds(30), meterRegistry);
     }
 
-    private Mono<Void> sendUserCreatedEvent(String userId) {
-        var producerRecord = new ProducerRecord<String, String>(
-                "user-created", // Topic name
-                userId, // Key for partitioning
-                userId // Value (user ID)
-        );
+    /**
+     * Saves the user and its {@code user-created} event in one transaction, so the event can
+     * neither be lost nor exist for a user that was not saved. {@link OutboxRelay} sends it to
+     * Kafka after the commit; registration does not wait for the broker. The password is hashed
+     * by {@link PasswordHasher} before the transaction starts.
+     *
+     * <p>The user is a single insert that does nothing if the email is taken, ignoring case, so
+     * two concurrent registrations of one email cannot both succeed.
+     */
+    @Override
+    public Mono<User> register(User user) {
+        String email = User.normalizeEmail(user.getEmail());
+        return Mono.defer(() -> passwordHasher.encode(user.getPassword()))
+                .flatMap(encodedPassword -> userRepository.insertIfAbsent(user.getName(), email, encodedPassword, "USER")
+                        .switchIfEmpty(Mono.error(new RuntimeException("User already exists")))
+                        .flatMap(savedUser -> outboxRepository.save(userCreatedEvent(savedUser.getId()))
+                                .thenReturn(savedUser))
+                        .as(transactionalOperator::transactional))
+                .doOnNext(savedUser -> {
+                    log.info("Queued user-created event for {}", savedUser.getId());
+                    userCache.invalidate(email);
+                    outboxRelay.wake();
+                })
+                .as(registerTimer::time);
+    }
 
-        return kafkaSender.send(Mono.just(SenderRecord.create(producerRecord, userId)))
-                .doOnError(e -> log.error("Failed to send user-created event for {}", userId, e))
-                .doOnNext(r -> log.info("Sent user-created event for {}", userId))
-                .then();  // Convert to Mono<Void>
+    private OutboxEvent userCreatedEvent(UUID userId) {
+        return OutboxEvent.builder()
+                .topic("user-created") // Topic name
+                .eventKey(userId.toString()) // Key for partitioning
+                .payload(UserEventCodec.encode(new UserCreated(userId, Instant.now()))) // Value (binary event)
+                .build();
     }
 
     @Override
     public Mono<User> login(String email, String password) {
-        return userRepository.findByEmail(email)
+        // Look up the cache key itself, so a padded address cannot cache "not found" for the real one
+        String normalized = User.normalizeEmail(email);
+        return userCache.getByEmail(normalized, () -> userRepository.findByEmail(normalized))
                 .switchIfEmpty(Mono.error(new RuntimeException("Invalid credentials")))
-                .flatMap(retrievedUser -> {
-                    if (passwordEncoder.matches(password, retrievedUser.getPassword())) {
-                        return Mono.just(retrievedUser);
-                    } else {
-                        return Mono.error(new RuntimeException("Invalid credentials"));
-                    }
-                });
+                .flatMap(retrievedUser -> passwordHasher.matches(password, retrievedUser.getPassword())
+                        .flatMap(matches -> {
+                            if (matches) {
+                                return Mono.just(retrievedUser);
+                            } else {
+                                return Mono.<User>error(new RuntimeException("Invalid credentials"));
+                            }
+                        }))
+                .as(loginTimer::time);
     }
 
+    /**
+     * Records the token as revoked and queues its {@code token-revoked} event in the same
+     * transaction, so every instance of both services stops accepting it once the event is
+     * relayed. This instance stops straight away.
+     */
     @Override
     public Mono<Void> logout(String token, UUID userId) {
-        return blacklistedTokenRepository.save(BlacklistedToken.builder().token(token).userId(userId).build())
-                .then(Mono.empty());
+        return Mono.fromCallable(() -> new TokenRevocation(TokenDigest.of(token),
+                        jwtVerifier.claims(token).getExpiration().toInstant()))
+                .flatMap(revocation -> blacklistedTokenRepository.save(BlacklistedToken.builder()
+                                .userId(userId)
+                                .tokenHash(revocation.digest().toBytes())
+                                .expiresAt(revocation.expiresAt())
+                                .build())
+                        .then(outboxRepository.save(tokenRevokedEvent(userId, revocation)))
+                        .as(transactionalOperator::transactional)
+                        .doOnNext(saved -> {
+                            revokedTokens.revoke(revocation.digest(), revocation.expiresAt());
+                            outboxRelay.wake();
+                        }))
+                .then();
+    }
+
+    private OutboxEvent tokenRevokedEvent(UUID userId, TokenRevocation revocation) {
+        return OutboxEvent.builder()
+                .topic(RevocationFeed.TOPIC)
+                .eventKey(userId.toString())
+                .payload(revocation.encode())
+                .build();
     }
 }
@@ -4,6 +4,8 @@ import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
+import com.microbank.client.dto.UserFilter;
+import com.microbank.client.dto.UserPage;
 import com.microbank.client.dto.UserUpdateRequest;
 import com.microbank.client.entity.User;
 
@@ -18,7 +20,9 @@ public interface UserService {
 
     public Mono<Void> deleteUser(UUID id);
 
-    public Flux<User> getAllUsers();
+    public Mono<UserPage> getUserPage(UserFilter filter, String cursor, Integer limit);
+
+    public Flux<User> streamUsers(UserFilter filter, String cursor, Integer limit);
 
     public Mono<User> getCurrentUser(String token);
 }
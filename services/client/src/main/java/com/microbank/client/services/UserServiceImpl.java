@@ -1,11 +1,17 @@
 package com.microbank.client.services;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import com.microbank.client.dto.UserCursor;
+import com.microbank.client.dto.UserFilter;
+import com.microbank.client.dto.UserPage;
 import com.microbank.client.dto.UserUpdateRequest;
 import com.microbank.client.entity.User;
 import com.microbank.client.repository.UserRepository;
 import com.microbank.client.utils.JWTUtil;
+import com.microbank.client.utils.UserCache;
 import com.microbank.client.utils.UserMapper;
 
 import lombok.AllArgsConstructor;
@@ -13,11 +19,24 @@ import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * The admin listing reads users newest first with keyset pagination on {@code (created_at, id)},
+ * like the banking service's transaction history.
+ */
 @AllArgsConstructor
 @Slf4j
 public class UserServiceImpl implements  UserService {
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int STREAM_PAGE_SIZE = 500;
+
+    // Upper bound when `to` is absent; ZERO_ID sorts before every id, so (to, ZERO_ID) excludes rows at `to`
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final UUID ZERO_ID = new UUID(0L, 0L);
+
     private final UserRepository userRepository;
     private final JWTUtil jwtUtil;
+    private final UserCache userCache;
 
     @Override
     public Mono<User> getUserById(UUID id) {
@@ -30,27 +49,81 @@ public class UserServiceImpl implements  UserService {
                 .flatMap(user -> {
                     log.info("Before mapping: {}", user);
                     log.info("User update data: {}", userUpdateRequest.getBlacklisted());
+                    String previousEmail = user.getEmail();
                     UserMapper.INSTANCE.mapUserFromUserUpdateRequest(userUpdateRequest, user);
                     log.info("After mapping: {}", user);
-                    return userRepository.save(user);
+                    return userRepository.save(user)
+                            .doOnNext(saved -> {
+                                userCache.invalidate(previousEmail);
+                                userCache.invalidate(saved.getEmail());
+                            });
                 });
     }
 
     @Override
     public Mono<Void> deleteUser(UUID id) {
-        return userRepository.deleteById(id);
+        return userRepository.deleteById(id)
+                .doOnSuccess(deleted -> userCache.invalidate(id));
+    }
+
+    /**
+     * Reads one page. One extra row is fetched to tell whether another page follows, in which
+     * case the page carries the cursor for it.
+     */
+    @Override
+    public Mono<UserPage> getUserPage(UserFilter filter, String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            return userRepository.findPage(filter, startingPoint(filter, cursor), pageSize + 1)
+                    .collectList()
+                    .map(rows -> {
+                        if (rows.size() <= pageSize) {
+                            return UserPage.builder().items(rows).build();
+                        }
+                        List<User> items = rows.subList(0, pageSize);
+                        return UserPage.builder()
+                                .items(items)
+                                .nextCursor(UserCursor.after(items.get(pageSize - 1)).encode())
+                                .build();
+                    });
+        });
     }
 
+    /**
+     * Streams every matching user, or the first {@code limit}. Users are read in keyset pages of
+     * {@link #STREAM_PAGE_SIZE}, at most one page ahead of what the subscriber has requested, so
+     * a slow client holds back the reads and no connection stays checked out while it catches up.
+     */
     @Override
-    public Flux<User> getAllUsers() {
-        return userRepository.findAll();
+    public Flux<User> streamUsers(UserFilter filter, String cursor, Integer limit) {
+        return Flux.defer(() -> {
+            Flux<User> rows = page(filter, startingPoint(filter, cursor))
+                    .expand(page -> page.size() < STREAM_PAGE_SIZE
+                    ? Mono.empty()
+                    : page(filter, UserCursor.after(page.get(page.size() - 1))))
+                    .concatMapIterable(page -> page, 1);
+            return limit == null ? rows : rows.take(Math.max(0, limit), true);
+        });
+    }
+
+    private Mono<List<User>> page(UserFilter filter, UserCursor before) {
+        return userRepository.findPage(filter, before, STREAM_PAGE_SIZE).collectList();
+    }
+
+    private UserCursor startingPoint(UserFilter filter, String cursor) {
+        UserCursor upperBound = new UserCursor(filter.to() == null ? LATEST : filter.to(), ZERO_ID);
+        if (cursor == null) {
+            return upperBound;
+        }
+        UserCursor decoded = UserCursor.decode(cursor);
+        return decoded.createdAt().isBefore(upperBound.createdAt()) ? decoded : upperBound;
     }
 
     @Override
     public Mono<User> getCurrentUser(String token) {
-        log.info("Getting current user from token: {}", token);
-        log.info("Subject: {}", jwtUtil.getClaimsFromToken(token).getSubject());
-        return userRepository.findById(UUID.fromString(jwtUtil.getClaimsFromToken(token).getSubject()));
+        String subject = jwtUtil.getClaimsFromToken(token).getSubject();
+        log.info("Getting current user {}", subject);
+        return userRepository.findById(UUID.fromString(subject));
     }
     
 }
@@ -1,50 +1,36 @@
 package com.microbank.client.utils;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
-import javax.crypto.SecretKey;
-
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.microbank.client.entity.User;
+import com.microbank.security.JwtVerifier;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 
 @Component
 public class JWTUtil {
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    @Autowired
+    private JwtVerifier jwtVerifier;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
     public String generateToken(User user) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         return Jwts.builder()
                 .subject(user.getId().toString())
                 .claim("role", user.getRole())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(key)
+                .signWith(jwtVerifier.signingKey())
                 .compact();
     }
 
     public Claims getClaimsFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        // try {
-            return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        // } catch (JwtException e) {
-        //     return Jwts.claims().build();
-        // }
-        
+        return jwtVerifier.claims(token);
     }
 }
@@ -0,0 +1,131 @@
+package com.microbank.client.utils;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.client.entity.OutboxEvent;
+import com.microbank.client.repository.OutboxRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+
+/**
+ * Sends the events in the {@code outbox} table to Kafka, so the requests that write them never
+ * wait on the broker.
+ *
+ * <p>Each round takes up to {@code batchSize} of the oldest events and sends them with a single
+ * {@link KafkaSender#send}, which lets the producer pack them into a few requests. Events are
+ * deleted in the same transaction once every send is acknowledged. If any send fails, the
+ * transaction rolls back and the whole batch is sent again in a later round, so delivery is at
+ * least once. Rounds repeat while batches come back full.
+ *
+ * <p>Only one relay across all instances drains at a time: a round first takes a Postgres
+ * advisory lock and skips if another instance holds it. Events are read in {@code id} order and
+ * the producer keeps per-partition order, so events with the same key reach Kafka in the order
+ * they were written.
+ *
+ * <p>A round runs every {@code pollInterval}, and straight away when {@link #wake} is called
+ * after a commit.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    /** Advisory lock key held by the relay that is draining; arbitrary but fixed. */
+    static final long RELAY_LOCK = 0x6f7574626f78L;
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final KafkaSender<String, byte[]> kafkaSender;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Sinks.Many<Long> wakeups = Sinks.many().multicast().directBestEffort();
+    private Disposable relay;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+            TransactionalOperator transactionalOperator,
+            KafkaSender<String, byte[]> kafkaSender,
+            int batchSize,
+            Duration pollInterval) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.outboxRepository = outboxRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.kafkaSender = kafkaSender;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        relay = Flux.merge(Flux.interval(pollInterval), wakeups.asFlux())
+                .onBackpressureDrop()
+                .concatMap(tick -> drain(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (relay != null && !relay.isDisposed()) {
+            relay.dispose();
+            log.info("Outbox relay stopped");
+        }
+    }
+
+    /** Asks for a round as soon as the current one, if any, is done. */
+    public void wake() {
+        // best effort: if a round is already running, the polling will catch up
+        wakeups.tryEmitNext(0L);
+    }
+
+    /**
+     * Runs rounds until one comes back short and emits how many events were sent. A failure
+     * is logged and ends the drain; the events are sent again in a later round.
+     */
+    public Mono<Long> drain() {
+        return relayBatch()
+                .repeat()
+                .takeUntil(sent -> sent < batchSize)
+                .reduce(0L, Long::sum)
+                .onErrorResume(e -> {
+                    log.warn("Relaying outbox events failed, retrying in the next round", e);
+                    return Mono.just(0L);
+                });
+    }
+
+    /**
+     * Sends and deletes one batch in a single transaction and emits its size. Emits 0 when the
+     * outbox is empty or another relay is draining it.
+     */
+    public Mono<Integer> relayBatch() {
+        return outboxRepository.tryLock(RELAY_LOCK)
+                .filter(Boolean::booleanValue)
+                .flatMap(locked -> outboxRepository.findOldest(batchSize).collectList())
+                .filter(events -> !events.isEmpty())
+                .flatMap(this::send)
+                .as(transactionalOperator::transactional)
+                .defaultIfEmpty(0);
+    }
+
+    private Mono<Integer> send(List<OutboxEvent> events) {
+        return kafkaSender.send(Flux.fromIterable(events).map(OutboxRelay::toSenderRecord))
+                .then(Mono.defer(() -> outboxRepository.deleteByIds(events.stream().map(OutboxEvent::getId).toArray(Long[]::new))))
+                .doOnNext(deleted -> log.debug("Relayed {} outbox events", deleted))
+                .thenReturn(events.size());
+    }
+
+    private static SenderRecord<String, byte[], Long> toSenderRecord(OutboxEvent event) {
+        return SenderRecord.create(new ProducerRecord<>(event.getTopic(), event.getEventKey(), event.getPayload()),
+                event.getId());
+    }
+}
@@ -0,0 +1,121 @@
+package com.microbank.client.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs password hashing on a pool of its own, off the Netty event loops.
+ *
+ * <p>BCrypt spends tens of milliseconds of CPU per call by design. On an event loop, every other
+ * request served by that loop would wait for it. Here hashes run on {@code threads} platform
+ * threads, with up to {@code queueCapacity} more waiting. Virtual threads would not help, since
+ * the work is CPU-bound. A call that finds the queue full fails at once with
+ * {@code 429 Too Many Requests}, so a login storm sheds load instead of piling up.
+ *
+ * <p>The caller's chain continues on the {@code parallel} scheduler, so the hashing threads only
+ * ever hash. Cancelling a call that is still queued drops it.
+ */
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, int threads, int queueCapacity,
+            MeterRegistry meterRegistry) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        }
+        this.passwordEncoder = passwordEncoder;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("client.passwords.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("client.passwords.hashing")
+                .tag("operation", "encode")
+                .description("Time spent hashing a password")
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("client.passwords.hashing")
+                .tag("operation", "matches")
+                .description("Time spent hashing a password")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("client.passwords.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("client.passwords.rejected")
+                .description("Password hashes rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Mono<T> submit(Timer timer, Supplier<T> hash) {
+        return Mono.<T>create(sink -> {
+            long enqueuedAt = System.nanoTime();
+            Future<?> future;
+            try {
+                future = executor.submit(() -> {
+                    long started = System.nanoTime();
+                    waitTimer.record(started - enqueuedAt, TimeUnit.NANOSECONDS);
+                    T result;
+                    try {
+                        result = hash.get();
+                    } catch (Throwable e) {
+                        sink.error(e);
+                        return;
+                    } finally {
+                        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    }
+                    sink.success(result);
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                sink.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many password checks in progress, retry later"));
+                return;
+            }
+            sink.onCancel(() -> executor.remove((Runnable) future));
+        }).publishOn(Schedulers.parallel());
+    }
+}
@@ -0,0 +1,80 @@
+package com.microbank.client.utils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import lombok.Builder;
+import reactor.kafka.sender.SenderOptions;
+
+/**
+ * The producer settings that trade latency for throughput, in one place so they can be tuned
+ * together and compared in the benchmarks module's {@code ProducerProfileBenchmark}.
+ *
+ * <ul>
+ * <li>{@code linger} and {@code batchSize}: how long the producer waits to fill a per-partition
+ * batch and how large that batch may grow. A longer linger means fewer, fuller requests.</li>
+ * <li>{@code compression}: codec applied per batch ({@code none}, {@code gzip}, {@code snappy},
+ * {@code lz4} or {@code zstd}). It pays off more with fuller batches.</li>
+ * <li>{@code idempotence}: the broker drops retried duplicates and keeps per-partition order
+ * across retries. It needs {@code acks=all} and at most 5 in-flight requests.</li>
+ * <li>{@code maxInFlightRequests}: unacknowledged requests per broker connection.</li>
+ * <li>{@code senderMaxInFlight}: records the reactive sender takes from upstream before their
+ * results come back. It is the backpressure window in front of the producer.</li>
+ * </ul>
+ */
+@Builder(toBuilder = true)
+public record ProducerProfile(
+        String acks,
+        Duration linger,
+        int batchSize,
+        String compression,
+        boolean idempotence,
+        int maxInFlightRequests,
+        int senderMaxInFlight) {
+
+    /** The broker's cap on in-flight requests while idempotence is on. */
+    public static final int MAX_IDEMPOTENT_IN_FLIGHT_REQUESTS = 5;
+
+    public ProducerProfile {
+        if (linger.isNegative()) {
+            throw new IllegalArgumentException("linger must not be negative");
+        }
+        if (batchSize < 1 || maxInFlightRequests < 1 || senderMaxInFlight < 1) {
+            throw new IllegalArgumentException("batchSize and in-flight limits must be positive");
+        }
+        if (idempotence && !"all".equals(acks) && !"-1".equals(acks)) {
+            throw new IllegalArgumentException("idempotence requires acks=all");
+        }
+        if (idempotence && maxInFlightRequests > MAX_IDEMPOTENT_IN_FLIGHT_REQUESTS) {
+            throw new IllegalArgumentException(
+                    "idempotence allows at most " + MAX_IDEMPOTENT_IN_FLIGHT_REQUESTS + " in-flight requests");
+        }
+    }
+
+    /** Values are sent as already encoded bytes, such as the payloads stored in the outbox. */
+    public SenderOptions<String, byte[]> senderOptions(String bootstrapServers) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
+        return SenderOptions.<String, byte[]>create(props).maxInFlight(senderMaxInFlight);
+    }
+
+    @Override
+    public String toString() {
+        return "acks=" + acks + " linger=" + linger.toMillis() + "ms batch=" + batchSize + "B compression="
+                + compression + " idempotence=" + idempotence + " inFlightRequests=" + maxInFlightRequests
+                + " senderMaxInFlight=" + senderMaxInFlight;
+    }
+}
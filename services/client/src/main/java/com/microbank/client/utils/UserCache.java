@@ -0,0 +1,156 @@
+package com.microbank.client.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import com.microbank.client.entity.User;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded in-process read-through cache for the user lookup by email that every login does.
+ *
+ * <p>Keys are normalized emails. Each key holds the lookup itself, cached with
+ * {@link Mono#cache()}, so concurrent logins for one email share a single query. An email with
+ * no user is cached too, so repeated attempts for unknown accounts skip the database as well.
+ * Entries are evicted least-recently-used past {@code maxSize}, and on first access after
+ * {@code ttl}. Failed lookups are not cached.
+ *
+ * <p>Writers on this instance invalidate the user after their change commits. Changes made on
+ * other instances show up here once the entry expires, so the TTL bounds staleness and is kept
+ * short. Every caller gets its own copy of the user.
+ */
+public class UserCache {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public UserCache(boolean enabled, int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("client.users.cache.hits")
+                .description("User lookups by email answered from the in-memory cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("client.users.cache.misses")
+                .description("User lookups by email that went to the database")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("client.users.cache.evictions")
+                .tag("cause", "size")
+                .description("User cache entries evicted")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("client.users.cache.evictions")
+                .tag("cause", "expired")
+                .description("User cache entries evicted")
+                .register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Gauge.builder("client.users.cache.size", this, UserCache::size)
+                .description("User lookups held in memory")
+                .register(meterRegistry);
+    }
+
+    public Mono<User> getByEmail(String email, Supplier<Mono<User>> lookup) {
+        if (!enabled) {
+            return Mono.defer(lookup);
+        }
+        String key = User.normalizeEmail(email);
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Entry entry;
+            boolean hit;
+            synchronized (entries) {
+                entry = entries.get(key);
+                hit = entry != null && entry.expiresAt - now > 0;
+                if (!hit) {
+                    if (entry != null) {
+                        expiredEvictions.increment();
+                    }
+                    Entry created = new Entry(now + ttlNanos);
+                    created.result = Mono.defer(lookup)
+                            .doOnSuccess(created::loaded)
+                            .doOnError(e -> remove(key, created))
+                            .cache();
+                    entries.put(key, created);
+                    entry = created;
+                }
+            }
+            (hit ? hits : misses).increment();
+            return entry.result.map(UserCache::copy);
+        });
+    }
+
+    /** Drops the lookup of {@code email}. Call once a write to that user has committed. */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(User.normalizeEmail(email));
+        }
+    }
+
+    /**
+     * Drops a user known only by id. Finding it means scanning the cache, so this is for rare
+     * writes such as deletes; lookups still in flight are dropped as well.
+     */
+    public void invalidate(UUID userId) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> !entry.loaded || entry.user != null && userId.equals(entry.user.getId()));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getPassword(), user.getEmail(), user.getRole(),
+                user.getCreatedAt(), user.getBlacklisted());
+    }
+
+    private static final class Entry {
+        final long expiresAt;
+        Mono<User> result;
+        volatile boolean loaded;
+        volatile User user;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        void loaded(User user) {
+            this.user = user;
+            this.loaded = true;
+        }
+    }
+}
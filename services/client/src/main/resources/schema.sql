@@ -10,10 +10,46 @@ CREATE TABLE IF NOT EXISTS users (
     role VARCHAR(50) NOT NULL CHECK (role IN ('USER', 'ADMIN')) DEFAULT 'USER'
 );
 
+-- One account per email regardless of case; also serves every login lookup. Creating it fails if
+-- existing rows differ only by case, and those must be merged first.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email));
+
+-- The admin listing pages on (created_at, id), newest first; see UserSearchRepositoryImpl.
+-- Rows without a creation time would fall out of every page, so backfill them (found through
+-- the index) and forbid new ones.
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at, id);
+UPDATE users SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE users ALTER COLUMN created_at SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_users_role_created_at ON users (role, created_at, id);
+-- Few users are blacklisted, so a partial index keeps them listable without a scan
+CREATE INDEX IF NOT EXISTS idx_users_blacklisted_created_at ON users (created_at, id) WHERE blacklisted;
+-- Prefix search on name or email; text_pattern_ops lets LIKE 'abc%' use the index in any collation
+CREATE INDEX IF NOT EXISTS idx_users_name_prefix ON users (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+
 CREATE TABLE IF NOT EXISTS blacklisted_tokens (
     id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
     user_id UUID NOT NULL,
-    token VARCHAR(255) NOT NULL,
+    token VARCHAR(255),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-)
+);
+
+-- The revocation index is loaded from these on startup: the token's SHA-256 and its own expiry,
+-- after which the revocation no longer matters.
+ALTER TABLE blacklisted_tokens ADD COLUMN IF NOT EXISTS token_hash BYTEA;
+ALTER TABLE blacklisted_tokens ADD COLUMN IF NOT EXISTS expires_at TIMESTAMPTZ;
+-- Only the hash is kept; the raw token column is left empty, and cleared on rows that had it.
+ALTER TABLE blacklisted_tokens ALTER COLUMN token DROP NOT NULL;
+UPDATE blacklisted_tokens SET token = NULL WHERE token IS NOT NULL AND token_hash IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_blacklisted_tokens_expires_at ON blacklisted_tokens (expires_at);
+
+-- Events written in the same transaction as the change they describe. OutboxRelay sends them to
+-- Kafka in id order and deletes them once the broker has acknowledged them.
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    event_key VARCHAR(255) NOT NULL,
+    payload BYTEA NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,48 @@
+package com.microbank.client;
+
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.microbank.client.config.R2DBCConfig;
+
+/**
+ * Base for the repository and service tests that run against a real Postgres, skipped where
+ * Docker isn't available. Each test class gets a fresh container with the schema applied by
+ * {@link R2DBCConfig}; the context is closed along with it so the next class doesn't pick up a
+ * cached pool pointing at a stopped database.
+ */
+@DataR2dbcTest
+@Import(R2DBCConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+@DirtiesContext
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES
+            = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("testdb")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        // a PER_CLASS test loads its context when it is instantiated, before the extension has
+        // started the container; start() does nothing once the container is running
+        POSTGRES.start();
+        String r2dbcUrl = String.format("r2dbc:postgresql://%s:%d/%s",
+                POSTGRES.getHost(),
+                POSTGRES.getFirstMappedPort(),
+                POSTGRES.getDatabaseName());
+
+        registry.add("spring.r2dbc.url", () -> r2dbcUrl);
+        registry.add("spring.r2dbc.username", POSTGRES::getUsername);
+        registry.add("spring.r2dbc.password", POSTGRES::getPassword);
+        registry.add("spring.r2dbc.pool.max-size", () -> 20);
+    }
+}
@@ -0,0 +1,91 @@
+package com.microbank.client.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.info.InfoEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.prometheus.PrometheusMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.reactive.ReactiveManagementContextAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementContextAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.microbank.client.repository.BlacklistedTokenRepository;
+import com.microbank.client.repository.UserRepository;
+import com.microbank.client.services.AuthService;
+import com.microbank.client.utils.UserCache;
+
+/**
+ * The health and Prometheus endpoints are scraped without a token, at {@code /actuator}; every
+ * other actuator endpoint still needs one.
+ */
+@WebFluxTest
+@Import(SecurityConfig.class)
+@AutoConfigureObservability
+@ImportAutoConfiguration({
+    EndpointAutoConfiguration.class,
+    WebEndpointAutoConfiguration.class,
+    HealthEndpointAutoConfiguration.class,
+    InfoEndpointAutoConfiguration.class,
+    MetricsAutoConfiguration.class,
+    CompositeMeterRegistryAutoConfiguration.class,
+    ObservationAutoConfiguration.class,
+    PrometheusMetricsExportAutoConfiguration.class,
+    ManagementContextAutoConfiguration.class,
+    ReactiveManagementContextAutoConfiguration.class
+})
+@TestPropertySource(properties = {
+    "management.endpoints.web.exposure.include=health,prometheus,info",
+    "jwt.secret=test-secret-that-is-at-least-32-bytes-long"
+})
+class ActuatorAccessTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @MockitoBean
+    UserCache userCache;
+
+    @MockitoBean
+    UserRepository userRepository;
+
+    @MockitoBean
+    BlacklistedTokenRepository blacklistedTokenRepository;
+
+    @MockitoBean
+    AuthService authService;
+
+    @Test
+    void prometheus_shouldBeScrapedWithoutAToken() {
+        webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).value(body -> assertTrue(body.contains("# TYPE"), body));
+    }
+
+    @Test
+    void health_shouldBeReadableWithoutAToken() {
+        webTestClient.get().uri("/actuator/health")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void otherEndpoints_shouldNeedAToken() {
+        webTestClient.get().uri("/actuator/info")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
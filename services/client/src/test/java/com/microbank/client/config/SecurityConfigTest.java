@@ -4,6 +4,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -15,17 +19,24 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.WebFilterChain;
 
 import com.microbank.client.repository.BlacklistedTokenRepository;
 import com.microbank.client.repository.UserRepository;
 import com.microbank.client.services.AuthService;
 import com.microbank.client.utils.JWTUtil;
+import com.microbank.client.utils.UserCache;
+import com.microbank.security.RevokedTokens;
+import com.microbank.security.TokenDigest;
 
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -34,10 +45,13 @@ import reactor.test.StepVerifier;
 @TestPropertySource(properties = {
     "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
     "spring.r2dbc.url=r2dbc:h2:mem:///testdb;DB_CLOSE_DELAY=-1",
-    "SPRING_R2DBC_URL=test"
+    "SPRING_R2DBC_URL=test",
+    "jwt.secret=test-secret-that-is-at-least-32-bytes-long"
 })
 class SecurityConfigTest {
 
+    private static final String SECRET = "test-secret-that-is-at-least-32-bytes-long";
+
     SecurityConfig securityConfig;
 
     @Autowired
@@ -46,6 +60,9 @@ class SecurityConfigTest {
     @Mock
     JWTUtil jwtUtil;
 
+    @MockitoBean
+    UserCache userCache;
+
     @MockitoBean
     UserRepository userRepository;
 
@@ -59,22 +76,20 @@ class SecurityConfigTest {
     void setup() {
         MockitoAnnotations.openMocks(this);
         securityConfig = new SecurityConfig();
+        ReflectionTestUtils.setField(securityConfig, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(securityConfig, "jwtCacheSize", 100);
+        ReflectionTestUtils.setField(securityConfig, "revocationsExpectedEntries", 100);
     }
 
     @Test
     void jwtAuthFilter_shouldAuthenticate_whenValidToken() {
         // Arrange
-        String tokenValue = "valid-token";
-        Claims claims = mock(Claims.class);
-        when(claims.getSubject()).thenReturn("alice");
-        when(claims.get("role", String.class)).thenReturn("USER");
-
-        JWTUtil mockJwtUtil = mock(JWTUtil.class);
-        when(mockJwtUtil.getClaimsFromToken(tokenValue)).thenReturn(claims);
-
-        // Spy SecurityConfig and make jwtUtil() return our mock
-        securityConfig = spy(securityConfig);
-        doReturn(mockJwtUtil).when(securityConfig).jwtUtil();
+        String tokenValue = Jwts.builder()
+                .subject("alice")
+                .claim("role", "USER")
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
 
         MockServerWebExchange exchange = MockServerWebExchange.from(
                 MockServerHttpRequest.get("/api/test")
@@ -82,18 +97,20 @@ class SecurityConfigTest {
                         .build()
         );
 
-        WebFilterChain chain = mock(WebFilterChain.class);
-        when(chain.filter(any())).thenReturn(Mono.empty());
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        WebFilterChain chain = ex -> ReactiveSecurityContextHolder.getContext()
+                .doOnNext(context -> authentication.set(context.getAuthentication()))
+                .then();
 
         // Act
         Mono<Void> result = securityConfig.jwtAuthFilter().filter(exchange, chain);
 
-        // Assert: filter completes
+        // Assert: filter completes with alice authenticated
         StepVerifier.create(result)
                 .verifyComplete();
 
-        // Optional: verify jwtUtil was used
-        verify(mockJwtUtil).getClaimsFromToken(tokenValue);
+        assertEquals("alice", authentication.get().getName());
+        assertEquals("ROLE_USER", authentication.get().getAuthorities().iterator().next().getAuthority());
     }
 
     @Test
@@ -101,15 +118,6 @@ class SecurityConfigTest {
         // Arrange
         String tokenValue = "invalid-token";
 
-        // Create mock JWTUtil and stub behavior (throw for invalid token)
-        JWTUtil mockJwtUtil = mock(JWTUtil.class);
-        when(mockJwtUtil.getClaimsFromToken(tokenValue))
-                .thenThrow(new RuntimeException("Invalid"));
-
-        
-        securityConfig = spy(securityConfig);
-        doReturn(mockJwtUtil).when(securityConfig).jwtUtil();
-
         // Prepare exchange with Authorization header
         MockServerWebExchange exchange = MockServerWebExchange.from(
                 MockServerHttpRequest.get("/api/test")
@@ -130,6 +138,39 @@ class SecurityConfigTest {
         verify(chain, never()).filter(any());
     }
 
+    @Test
+    void jwtAuthFilter_shouldReturnUnauthorized_whenTokenRevoked() {
+        // Arrange: a valid token that has since been logged out
+        Date expiration = new Date(System.currentTimeMillis() + 3_600_000);
+        String tokenValue = Jwts.builder()
+                .subject("alice")
+                .claim("role", "USER")
+                .expiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        RevokedTokens revokedTokens = new RevokedTokens(10);
+        revokedTokens.revoke(TokenDigest.of(tokenValue), expiration.toInstant());
+
+        // Spy SecurityConfig and make revokedTokens() return our index
+        securityConfig = spy(securityConfig);
+        doReturn(revokedTokens).when(securityConfig).revokedTokens();
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/test")
+                        .header("Authorization", "Bearer " + tokenValue)
+                        .build()
+        );
+        WebFilterChain chain = mock(WebFilterChain.class);
+
+        // Act
+        StepVerifier.create(securityConfig.jwtAuthFilter().filter(exchange, chain))
+                .verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        verify(chain, never()).filter(any());
+    }
+
     @Test
     void jwtAuthFilter_shouldContinue_whenNoToken() {
         // Arrange
@@ -8,16 +8,21 @@ import com.microbank.client.repository.BlacklistedTokenRepository;
 import com.microbank.client.repository.UserRepository;
 import com.microbank.client.services.AuthService;
 import com.microbank.client.utils.JWTUtil;
+import com.microbank.client.utils.UserCache;
+import com.microbank.security.JwtVerifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -31,12 +36,18 @@ class AuthControllerTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @MockitoBean
+    UserCache userCache;
+
     @MockitoBean
     private AuthService authService;
 
     @MockitoBean
     private JWTUtil jwtUtil;
 
+    @MockitoBean
+    private JwtVerifier jwtVerifier;
+
     @MockitoBean
     UserRepository userRepository;
 
@@ -104,10 +115,8 @@ class AuthControllerTest {
         String token = "jwt-token";
         LogoutRequest logoutRequest = new LogoutRequest(testUser.getId());
 
-        io.jsonwebtoken.Claims claims = Mockito.mock(io.jsonwebtoken.Claims.class);
-        when(claims.getSubject()).thenReturn(testUser.getEmail());          // subject used as username
-        when(claims.get("role", String.class)).thenReturn("USER");         // role used to build authorities
-        when(jwtUtil.getClaimsFromToken(token)).thenReturn(claims);
+        when(jwtVerifier.authenticate(token)).thenReturn(new UsernamePasswordAuthenticationToken(
+                testUser.getEmail(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
 
         // authService.logout expects (token, userId) per your controller signature
         Mockito.when(authService.logout(eq(token), eq(logoutRequest.getUserId()))).thenReturn(Mono.empty());
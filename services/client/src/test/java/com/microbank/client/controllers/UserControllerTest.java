@@ -1,12 +1,15 @@
 package com.microbank.client.controllers;
 
 import com.microbank.client.config.SecurityConfig;
+import com.microbank.client.dto.UserFilter;
+import com.microbank.client.dto.UserPage;
 import com.microbank.client.dto.UserUpdateRequest;
 import com.microbank.client.entity.User;
 import com.microbank.client.repository.BlacklistedTokenRepository;
 import com.microbank.client.repository.UserRepository;
 import com.microbank.client.services.UserService;
 import com.microbank.client.utils.JWTUtil;
+import com.microbank.client.utils.UserCache;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,12 +18,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
@@ -28,11 +34,15 @@ import static org.springframework.security.test.web.reactive.server.SecurityMock
 
 @WebFluxTest(UserController.class)
 @Import(SecurityConfig.class)
+@TestPropertySource(properties = "jwt.secret=test-secret-that-is-at-least-32-bytes-long")
 class UserControllerTest {
 
     @Autowired
     private WebTestClient webTestClient;
 
+    @MockitoBean
+    UserCache userCache;
+
     @MockitoBean
     private UserService userService;
 
@@ -111,18 +121,46 @@ class UserControllerTest {
     }
 
     @Test
-    void getAllUsers_shouldReturnFluxOfUsers() {
-        Mockito.when(userService.getAllUsers()).thenReturn(Flux.just(testUser));
+    void getAllUsers_shouldReturnPageWithNextCursorHeader() {
+        Mockito.when(userService.getUserPage(new UserFilter("USER", true, null, null, "ali"), null, 10))
+                .thenReturn(Mono.just(UserPage.builder().items(List.of(testUser)).nextCursor("abc").build()));
         webTestClient
                 .mutateWith(mockUser().roles("ADMIN"))
                 .get()
-                .uri("/client/api/v1/users/admin")
+                .uri("/client/api/v1/users/admin?role=USER&blacklisted=true&search=ali&limit=10")
+                .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals(UserController.NEXT_CURSOR_HEADER, "abc")
                 .expectBodyList(User.class)
                 .contains(testUser);
     }
 
+    @Test
+    void getAllUsers_shouldStreamNdjson() {
+        Mockito.when(userService.streamUsers(UserFilter.NONE, null, null)).thenReturn(Flux.just(testUser, testUser));
+        webTestClient
+                .mutateWith(mockUser().roles("ADMIN"))
+                .get()
+                .uri("/client/api/v1/users/admin")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(User.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getAllUsers_shouldBeForbiddenToUsers() {
+        webTestClient
+                .mutateWith(mockUser().roles("USER"))
+                .get()
+                .uri("/client/api/v1/users/admin")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
     // @Test
     // void getCurrentUser_shouldReturnUser() {
     //     String token = "jwt-token";
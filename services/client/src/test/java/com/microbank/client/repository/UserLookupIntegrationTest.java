@@ -0,0 +1,101 @@
+package com.microbank.client.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.microbank.client.PostgresIntegrationTest;
+import com.microbank.client.entity.User;
+import com.microbank.client.utils.UserCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The login lookup by email: case-insensitive through the unique index on {@code lower(email)},
+ * a single winner among concurrent registrations of one address, and {@link UserCache} in front
+ * of it. How the lookup holds up on millions of users is measured by {@code UserLookupBenchmark}
+ * in the benchmarks module.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserLookupIntegrationTest extends PostgresIntegrationTest {
+
+    private static final long ROWS = 1_000;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @BeforeAll
+    void loadUsers() {
+        databaseClient.sql("""
+                INSERT INTO users (name, email, password, role)
+                SELECT 'User ' || g, 'user' || g || '@example.com', 'hashed', 'USER'
+                FROM generate_series(1, :rows) AS g
+                """)
+                .bind("rows", ROWS)
+                .then()
+                .then(databaseClient.sql("ANALYZE users").then())
+                .block(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void findByEmail_shouldIgnoreCase() {
+        User user = userRepository.findByEmail("USER42@Example.com").block();
+
+        assertNotNull(user);
+        assertEquals("user42@example.com", user.getEmail());
+    }
+
+    @Test
+    void insertIfAbsent_shouldLetOneOfConcurrentRegistrationsWin() {
+        List<String> spellings = List.of("race@example.com", "Race@example.com", "RACE@EXAMPLE.COM",
+                "race@Example.com", "rAcE@example.com", "race@EXAMPLE.com", "RACE@example.com", "race@exAMPLE.COM");
+
+        List<User> saved = Flux.fromIterable(spellings)
+                .flatMap(email -> userRepository.insertIfAbsent("Race", email, "hashed", "USER")
+                        .subscribeOn(Schedulers.parallel()))
+                .collectList()
+                .block();
+
+        assertEquals(1, saved.size());
+        assertEquals(1L, databaseClient.sql("SELECT count(*) AS n FROM users WHERE lower(email) = 'race@example.com'")
+                .map(row -> row.get("n", Long.class))
+                .one()
+                .block());
+    }
+
+    @Test
+    void userCache_shouldAnswerEverySpellingOfAnEmailFromOneQuery() {
+        UserCache cache = new UserCache(true, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        AtomicInteger queries = new AtomicInteger();
+
+        for (String email : List.of("user7@example.com", "USER7@example.com", "User7@Example.COM")) {
+            User user = cache.getByEmail(email, () -> {
+                queries.incrementAndGet();
+                return userRepository.findByEmail(email);
+            }).block();
+            assertEquals("user7@example.com", user.getEmail());
+        }
+        // an email nobody registered is remembered as well
+        for (int i = 0; i < 3; i++) {
+            assertNull(cache.getByEmail("nobody@example.com", () -> {
+                queries.incrementAndGet();
+                return userRepository.findByEmail("nobody@example.com");
+            }).block());
+        }
+
+        assertEquals(2, queries.get());
+    }
+}
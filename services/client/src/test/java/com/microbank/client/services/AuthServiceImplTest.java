@@ -2,25 +2,46 @@ package com.microbank.client.services;
 
 import com.microbank.client.entity.User;
 import com.microbank.client.entity.BlacklistedToken;
+import com.microbank.client.entity.OutboxEvent;
+import com.microbank.client.repository.OutboxRepository;
 import com.microbank.client.repository.UserRepository;
+import com.microbank.client.utils.OutboxRelay;
+import com.microbank.client.utils.PasswordHasher;
+import com.microbank.client.utils.UserCache;
+import com.microbank.events.UserCreated;
+import com.microbank.events.UserEvent;
+import com.microbank.events.UserEventCodec;
+import com.microbank.security.JwtVerifier;
+import com.microbank.security.RevokedTokens;
+import com.microbank.security.TokenDigest;
+import com.microbank.security.TokenRevocation;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import lombok.extern.slf4j.Slf4j;
 
 import com.microbank.client.repository.BlacklistedTokenRepository;
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.reactivestreams.Publisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
 
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.kafka.sender.KafkaSender;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -35,10 +56,28 @@ class AuthServiceImplTest {
     private BlacklistedTokenRepository blacklistedTokenRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private OutboxRelay outboxRelay;
 
     @Mock
-    private KafkaSender<String, String> kafkaSender;
+    private JwtVerifier jwtVerifier;
+
+    @Spy
+    private RevokedTokens revokedTokens = new RevokedTokens(10);
+
+    @Spy
+    private UserCache userCache = new UserCache(true, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -46,8 +85,11 @@ class AuthServiceImplTest {
     private User testUser;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Run the chain as-is; the transaction itself is covered by the relay integration test
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
         testUser = User.builder()
                 .id(UUID.randomUUID())
                 .name("John Doe")
@@ -58,17 +100,14 @@ class AuthServiceImplTest {
     }
 
     @Test
-    void register_shouldSaveNewUserAndSendKafkaEvent() {
-        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Mono.empty());
-        when(passwordEncoder.encode("rawPassword")).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> {
-            User u = inv.getArgument(0);
-            u.setId(UUID.randomUUID());
-            return Mono.just(u);
-        });
-
-        // Corrected KafkaSender mock
-        when(kafkaSender.send(any(Publisher.class))).thenReturn(Flux.empty());
+    void register_shouldSaveNewUserAndQueueUserCreatedEvent() {
+        UUID userId = UUID.randomUUID();
+        testUser.setEmail(" John@Example.com");
+        when(passwordHasher.encode("rawPassword")).thenReturn(Mono.just("encodedPassword"));
+        when(userRepository.insertIfAbsent(anyString(), anyString(), anyString(), anyString())).thenAnswer(inv -> Mono.just(
+                User.builder().id(userId).name(inv.getArgument(0)).email(inv.getArgument(1))
+                        .password(inv.getArgument(2)).role(inv.getArgument(3)).build()));
+        when(outboxRepository.save(any(OutboxEvent.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
 
         StepVerifier.create(authService.register(testUser))
                 .expectNextMatches(user
@@ -77,38 +116,103 @@ class AuthServiceImplTest {
                 && user.getRole().equals("USER"))
                 .verifyComplete();
 
-        verify(userRepository).save(any(User.class));
-        verify(kafkaSender).send(any(Publisher.class));
+        verify(userRepository).insertIfAbsent("John Doe", "john@example.com", "encodedPassword", "USER");
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userCache).invalidate("john@example.com");
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(event.capture());
+        assertEquals("user-created", event.getValue().getTopic());
+        assertEquals(userId.toString(), event.getValue().getEventKey());
+        UserEvent payload = UserEventCodec.decode(event.getValue().getPayload());
+        assertInstanceOf(UserCreated.class, payload);
+        assertEquals(userId, payload.userId());
+        assertNotNull(payload.occurredAt());
+        verify(transactionalOperator).transactional(any(Mono.class));
+        verify(outboxRelay).wake();
+        assertEquals(1, operations("register", "success"));
+    }
+
+    @Test
+    void register_shouldNotWakeRelayWhenOutboxWriteFails() {
+        when(passwordHasher.encode("rawPassword")).thenReturn(Mono.just("encodedPassword"));
+        when(userRepository.insertIfAbsent(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(Mono.just(testUser));
+        when(outboxRepository.save(any(OutboxEvent.class))).thenReturn(Mono.error(new RuntimeException("connection reset")));
+
+        StepVerifier.create(authService.register(testUser))
+                .expectErrorMessage("connection reset")
+                .verify();
+
+        verify(outboxRelay, never()).wake();
     }
 
     @Test
     void register_shouldErrorIfUserExists() {
-        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Mono.just(testUser));
+        when(passwordHasher.encode("rawPassword")).thenReturn(Mono.just("encodedPassword"));
+        when(userRepository.insertIfAbsent(anyString(), anyString(), anyString(), anyString())).thenReturn(Mono.empty());
         log.info("User {} ", testUser);
         StepVerifier.create(authService.register(testUser))
                 .expectErrorMatches(e -> e instanceof RuntimeException &&
                         e.getMessage().equals("User already exists"))
                 .verify();
-        verify(userRepository, never()).save(any(User.class));
+        verify(outboxRepository, never()).save(any(OutboxEvent.class));
+        verify(outboxRelay, never()).wake();
+    }
+
+    @Test
+    void login_shouldLookUpEachEmailOnceWithinTheCacheTtl() {
+        when(userRepository.findByEmail(anyString())).thenReturn(Mono.just(testUser));
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Mono.empty());
+        when(passwordHasher.matches("rawPassword", testUser.getPassword())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(authService.login("john@example.com", "rawPassword")).expectNext(testUser).verifyComplete();
+        StepVerifier.create(authService.login("JOHN@example.com", "rawPassword")).expectNext(testUser).verifyComplete();
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(authService.login("nobody@example.com", "rawPassword"))
+                    .expectErrorMessage("Invalid credentials")
+                    .verify();
+        }
+
+        verify(userRepository, times(1)).findByEmail("john@example.com");
+        verify(userRepository, times(1)).findByEmail("nobody@example.com");
+        verify(userRepository, times(2)).findByEmail(anyString());
+    }
+
+    @Test
+    void login_shouldNotCacheAMissForAPaddedEmail() {
+        // As the query does: lower(email) = lower(:email), with no trim
+        when(userRepository.findByEmail(anyString())).thenAnswer(inv -> inv.<String>getArgument(0)
+                .toLowerCase().equals(testUser.getEmail()) ? Mono.just(testUser) : Mono.empty());
+        when(passwordHasher.matches("rawPassword", testUser.getPassword())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(authService.login("  John@Example.com ", "rawPassword")).expectNext(testUser).verifyComplete();
+        StepVerifier.create(authService.login("john@example.com", "rawPassword")).expectNext(testUser).verifyComplete();
+
+        verify(userRepository, times(1)).findByEmail("john@example.com");
+        verify(userRepository, times(1)).findByEmail(anyString());
     }
 
     @Test
     void login_shouldReturnUserWhenCredentialsMatch() {
         when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Mono.just(testUser));
-        when(passwordEncoder.matches("rawPassword", testUser.getPassword())).thenReturn(true);
+        when(passwordHasher.matches("rawPassword", testUser.getPassword())).thenReturn(Mono.just(true));
         StepVerifier.create(authService.login("john@example.com", "rawPassword"))
                 .expectNext(testUser)
                 .verifyComplete();
+        assertEquals(1, operations("login", "success"));
+        assertEquals(0, operations("login", "error"));
     }
 
     @Test
     void login_shouldErrorWhenPasswordDoesNotMatch() {
         when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Mono.just(testUser));
-        when(passwordEncoder.matches("wrong", testUser.getPassword())).thenReturn(false);
+        when(passwordHasher.matches("wrong", testUser.getPassword())).thenReturn(Mono.just(false));
         StepVerifier.create(authService.login("john@example.com", "wrong"))
                 .expectErrorMatches(e -> e instanceof RuntimeException &&
                         e.getMessage().equals("Invalid credentials"))
                 .verify();
+        assertEquals(1, operations("login", "error"));
+        assertEquals(0, operations("login", "success"));
     }
 
     @Test
@@ -121,15 +225,105 @@ class AuthServiceImplTest {
     }
 
     @Test
-    void logout_shouldSaveBlacklistedToken() {
+    void login_shouldAnswer429WhileThePasswordHasherIsSaturated() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+        PasswordHasher saturated = new PasswordHasher(blockingEncoder, 1, 1, new SimpleMeterRegistry());
+        AuthServiceImpl service = new AuthServiceImpl(userRepository, blacklistedTokenRepository, saturated,
+                outboxRepository, transactionalOperator, outboxRelay, jwtVerifier, revokedTokens, userCache, meterRegistry);
+        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Mono.just(testUser));
+        try {
+            Mono<User> running = service.login("john@example.com", "rawPassword").cache();
+            running.subscribe();
+            Mono<User> queued = service.login("john@example.com", "rawPassword").cache();
+            queued.subscribe();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (saturated.queueDepth() != 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+
+            StepVerifier.create(service.login("john@example.com", "rawPassword"))
+                    .expectErrorSatisfies(e -> assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                            ((ResponseStatusException) e).getStatusCode()))
+                    .verify(Duration.ofSeconds(1));
+
+            release.countDown();
+            assertEquals(testUser, running.block(Duration.ofSeconds(10)));
+            assertEquals(testUser, queued.block(Duration.ofSeconds(10)));
+            assertEquals(1, operations("login", "error"));
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    void logout_shouldSaveBlacklistedTokenAndQueueTokenRevokedEvent() {
         UUID userId = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusSeconds(3_600).truncatedTo(java.time.temporal.ChronoUnit.MILLIS);
+        Claims claims = mock(Claims.class);
+        when(claims.getExpiration()).thenReturn(Date.from(expiresAt));
+        when(jwtVerifier.claims("token123")).thenReturn(claims);
         when(blacklistedTokenRepository.save(any(BlacklistedToken.class)))
-                .thenReturn(Mono.just(BlacklistedToken.builder()
-                        .token("token123")
-                        .userId(userId)
-                        .build()));
+                .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        when(outboxRepository.save(any(OutboxEvent.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
         StepVerifier.create(authService.logout("token123", userId))
                 .verifyComplete();
-        verify(blacklistedTokenRepository).save(any(BlacklistedToken.class));
+
+        TokenDigest digest = TokenDigest.of("token123");
+        ArgumentCaptor<BlacklistedToken> saved = ArgumentCaptor.forClass(BlacklistedToken.class);
+        verify(blacklistedTokenRepository).save(saved.capture());
+        assertEquals(userId, saved.getValue().getUserId());
+        assertArrayEquals(digest.toBytes(), saved.getValue().getTokenHash());
+        assertEquals(expiresAt, saved.getValue().getExpiresAt());
+
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(event.capture());
+        assertEquals("token-revoked", event.getValue().getTopic());
+        assertEquals(userId.toString(), event.getValue().getEventKey());
+        assertEquals(new TokenRevocation(digest, expiresAt), TokenRevocation.decode(event.getValue().getPayload()));
+
+        assertTrue(revokedTokens.isRevoked(digest), "revoked on this instance without waiting for Kafka");
+        verify(outboxRelay).wake();
+    }
+
+    @Test
+    void logout_shouldNotRevokeWhenSavingFails() {
+        Claims claims = mock(Claims.class);
+        when(claims.getExpiration()).thenReturn(Date.from(Instant.now().plusSeconds(3_600)));
+        when(jwtVerifier.claims("token123")).thenReturn(claims);
+        when(blacklistedTokenRepository.save(any(BlacklistedToken.class)))
+                .thenReturn(Mono.error(new RuntimeException("db down")));
+        when(outboxRepository.save(any(OutboxEvent.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        StepVerifier.create(authService.logout("token123", UUID.randomUUID()))
+                .expectErrorMessage("db down")
+                .verify();
+
+        assertFalse(revokedTokens.isRevoked(TokenDigest.of("token123")));
+        verify(outboxRelay, never()).wake();
+    }
+
+    private long operations(String operation, String outcome) {
+        return meterRegistry.get("client.auth.operations")
+                .tags("operation", operation, "outcome", outcome)
+                .timer()
+                .count();
     }
 }
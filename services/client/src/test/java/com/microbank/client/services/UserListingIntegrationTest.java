@@ -0,0 +1,95 @@
+package com.microbank.client.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.microbank.client.PostgresIntegrationTest;
+import com.microbank.client.dto.UserFilter;
+import com.microbank.client.dto.UserPage;
+import com.microbank.client.entity.User;
+import com.microbank.client.repository.UserRepository;
+
+/**
+ * Keyset pagination and filtering of the admin user listing. Users are created one per second
+ * going back from {@code NEWEST}; every 1000th is an admin and every 500th is blacklisted. How
+ * page latency holds up at depth on millions of users is measured by {@code UserListingBenchmark}
+ * in the benchmarks module.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserListingIntegrationTest extends PostgresIntegrationTest {
+
+    private static final long ROWS = 10_000;
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    UserServiceImpl userService;
+
+    @BeforeAll
+    void loadUsers() {
+        userService = new UserServiceImpl(userRepository, null, null);
+        databaseClient.sql("""
+                INSERT INTO users (name, email, password, role, blacklisted, created_at)
+                SELECT 'User ' || g, 'user' || g || '@example.com', 'hashed',
+                       CASE WHEN g % 1000 = 0 THEN 'ADMIN' ELSE 'USER' END, g % 500 = 0,
+                       CAST(:newest AS timestamp) - g * INTERVAL '1 second'
+                FROM generate_series(1, :rows) AS g
+                """)
+                .bind("newest", NEWEST)
+                .bind("rows", ROWS)
+                .then()
+                .then(databaseClient.sql("ANALYZE users").then())
+                .block(Duration.ofMinutes(1));
+    }
+
+    private long count(String where) {
+        return databaseClient.sql("SELECT count(*) AS n FROM users WHERE " + where)
+                .map(row -> row.get("n", Long.class))
+                .one()
+                .block();
+    }
+
+    private Set<UUID> walk(UserFilter filter, int pageSize) {
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            UserPage page = userService.getUserPage(filter, cursor, pageSize).block();
+            for (User user : page.getItems()) {
+                assertTrue(seen.add(user.getId()), "duplicate user " + user.getId());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    @Test
+    void pagesShouldWalkEachFilterWithoutGapsOrDuplicates() {
+        LocalDateTime from = NEWEST.minusHours(1);
+
+        // one user a second over an hour, `to` exclusive of NEWEST itself
+        assertEquals(3_600, walk(new UserFilter(null, null, from, NEWEST, null), 97).size());
+        assertEquals(3, walk(new UserFilter("admin", null, from, NEWEST, null), 2).size());
+        assertEquals(7, walk(new UserFilter(null, true, from, NEWEST, null), 3).size());
+        assertEquals(3_600 - 7, walk(new UserFilter(null, false, from, NEWEST, null), 500).size());
+        assertEquals(count("lower(email) LIKE 'user1234%' OR lower(name) LIKE 'user1234%'"),
+                walk(new UserFilter(null, null, null, null, "USER1234"), 50).size());
+        assertEquals(0, walk(new UserFilter(null, null, null, null, "user_1"), 50).size(), "_ is not a wildcard");
+        assertEquals(3_600L, userService.streamUsers(new UserFilter(null, null, from, NEWEST, null), null, null)
+                .count().block());
+    }
+}
@@ -1,29 +1,45 @@
 package com.microbank.client.services;
 
+import com.microbank.client.dto.UserCursor;
+import com.microbank.client.dto.UserFilter;
+import com.microbank.client.dto.UserPage;
 import com.microbank.client.dto.UserUpdateRequest;
 import com.microbank.client.entity.User;
 import com.microbank.client.repository.UserRepository;
 import com.microbank.client.utils.JWTUtil;
+import com.microbank.client.utils.UserCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class UserServiceImplTest {
 
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private JWTUtil jwtUtil;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -63,6 +79,23 @@ class UserServiceImplTest {
                 .verifyComplete();
 
         verify(userRepository).save(any(User.class));
+        verify(userCache, times(2)).invalidate("alice@example.com");
+    }
+
+    @Test
+    void updateUser_shouldInvalidateTheOldAndNewEmail() {
+        UserUpdateRequest req = new UserUpdateRequest();
+        req.setEmail("alice@example.org");
+
+        when(userRepository.findById(testUser.getId())).thenReturn(Mono.just(testUser));
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        StepVerifier.create(userService.updateUser(req, testUser.getId()))
+                .expectNextMatches(user -> user.getEmail().equals("alice@example.org"))
+                .verifyComplete();
+
+        verify(userCache).invalidate("alice@example.com");
+        verify(userCache).invalidate("alice@example.org");
     }
 
     @Test
@@ -73,17 +106,97 @@ class UserServiceImplTest {
                 .verifyComplete();
 
         verify(userRepository).deleteById(testUser.getId());
+        verify(userCache).invalidate(testUser.getId());
+    }
+
+    private List<User> users(int count, int offset) {
+        return IntStream.range(offset, offset + count)
+                .mapToObj(i -> User.builder()
+                        .id(UUID.randomUUID())
+                        .name("User " + i)
+                        .email("user" + i + "@example.com")
+                        .password("hashed")
+                        .role("USER")
+                        .createdAt(NOW.minusSeconds(i))
+                        .build())
+                .toList();
     }
 
     @Test
-    void getAllUsers_shouldReturnFluxOfUsers() {
-        when(userRepository.findAll()).thenReturn(Flux.just(testUser));
+    void getUserPage_shouldReturnNextCursorWhenMoreUsersFollow() {
+        List<User> rows = users(11, 0);
+        when(userRepository.findPage(eq(UserFilter.NONE), any(), eq(11))).thenReturn(Flux.fromIterable(rows));
 
-        StepVerifier.create(userService.getAllUsers())
-                .expectNext(testUser)
+        UserPage page = userService.getUserPage(UserFilter.NONE, null, 10).block();
+
+        assertEquals(10, page.getItems().size());
+        UserCursor next = UserCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(9).getId(), next.id());
+        assertEquals(rows.get(9).getCreatedAt(), next.createdAt());
+    }
+
+    @Test
+    void getUserPage_shouldOmitCursorOnLastPageAndClampLimit() {
+        when(userRepository.findPage(any(), any(), anyInt())).thenReturn(Flux.fromIterable(users(3, 0)));
+
+        UserPage page = userService.getUserPage(UserFilter.NONE, null, 50_000).block();
+
+        assertEquals(3, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(userRepository).findPage(any(), any(), eq(UserServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void getUserPage_shouldStartAfterTheCursorButNeverAfterTo() {
+        when(userRepository.findPage(any(), any(), anyInt())).thenReturn(Flux.empty());
+        UUID lastSeen = UUID.randomUUID();
+        String cursor = new UserCursor(NOW.minusDays(1), lastSeen).encode();
+
+        UserFilter lastWeek = new UserFilter("ADMIN", null, NOW.minusDays(7), NOW, null);
+        userService.getUserPage(lastWeek, cursor, null).block();
+        verify(userRepository).findPage(lastWeek, new UserCursor(NOW.minusDays(1), lastSeen),
+                UserServiceImpl.DEFAULT_PAGE_SIZE + 1);
+
+        UserFilter olderThanTwoDays = new UserFilter(null, null, null, NOW.minusDays(2), null);
+        userService.getUserPage(olderThanTwoDays, cursor, null).block();
+        verify(userRepository).findPage(eq(olderThanTwoDays), eq(new UserCursor(NOW.minusDays(2), new UUID(0L, 0L))),
+                anyInt());
+    }
+
+    @Test
+    void getUserPage_shouldRejectMalformedCursor() {
+        StepVerifier.create(userService.getUserPage(UserFilter.NONE, "not-a-cursor", null))
+                .expectError(ResponseStatusException.class)
+                .verify();
+    }
+
+    @Test
+    void streamUsers_shouldWalkKeysetPagesUntilAShortPage() {
+        int pageSize = UserServiceImpl.STREAM_PAGE_SIZE;
+        List<User> first = users(pageSize, 0);
+        List<User> second = users(7, pageSize);
+        when(userRepository.findPage(any(), any(), eq(pageSize))).thenReturn(Flux.fromIterable(first));
+        when(userRepository.findPage(UserFilter.NONE, UserCursor.after(first.get(pageSize - 1)), pageSize))
+                .thenReturn(Flux.fromIterable(second));
+
+        StepVerifier.create(userService.streamUsers(UserFilter.NONE, null, null))
+                .expectNextCount(pageSize + 7)
                 .verifyComplete();
     }
 
+    @Test
+    void streamUsers_shouldReadAtMostOnePageAheadOfTheSubscriber() {
+        int pageSize = UserServiceImpl.STREAM_PAGE_SIZE;
+        when(userRepository.findPage(any(), any(), eq(pageSize))).thenReturn(Flux.fromIterable(users(pageSize, 0)));
+
+        StepVerifier.create(userService.streamUsers(UserFilter.NONE, null, 5))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        // every page the mock returns is full, so an eager stream would never stop reading
+        verify(userRepository, atMost(2)).findPage(any(), any(), anyInt());
+    }
+
     // @Test
     // void getCurrentUser_shouldReturnUserFromToken() {
     //     UUID id = testUser.getId();
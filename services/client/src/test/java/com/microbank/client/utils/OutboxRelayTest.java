@@ -0,0 +1,137 @@
+package com.microbank.client.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.reactivestreams.Publisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.microbank.client.entity.OutboxEvent;
+import com.microbank.client.repository.OutboxRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+import reactor.test.StepVerifier;
+
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private KafkaSender<String, byte[]> kafkaSender;
+
+    private OutboxRelay relay;
+
+    private final List<SenderRecord<String, byte[], Long>> sent = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(outboxRepository.tryLock(OutboxRelay.RELAY_LOCK)).thenReturn(Mono.just(true));
+        when(outboxRepository.deleteByIds(any())).thenAnswer(inv -> Mono.just(((Long[]) inv.getArgument(0)).length));
+        when(kafkaSender.send(any(Publisher.class))).thenAnswer(inv -> Flux.from((Publisher<SenderRecord<String, byte[], Long>>) inv.getArgument(0))
+                .doOnNext(sent::add)
+                .map(record -> mock(SenderResult.class)));
+        relay = new OutboxRelay(outboxRepository, transactionalOperator, kafkaSender, 3, Duration.ofMinutes(1));
+    }
+
+    private static List<OutboxEvent> events(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(id -> OutboxEvent.builder().id(id).topic("user-created").eventKey("user-" + (id % 2))
+                        .payload(new byte[] {(byte) id}).build())
+                .toList();
+    }
+
+    @Test
+    void relayBatch_shouldSendEventsInOrderAndDeleteThem() {
+        when(outboxRepository.findOldest(3)).thenReturn(Flux.fromIterable(events(1, 2)));
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(2)
+                .verifyComplete();
+
+        assertEquals(List.of(1, 2), sent.stream().map(record -> (int) record.value()[0]).toList());
+        assertEquals("user-1", sent.get(0).key());
+        assertEquals(1L, sent.get(0).correlationMetadata());
+        ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+        verify(outboxRepository).deleteByIds(ids.capture());
+        assertArrayEquals(new Long[] {1L, 2L}, ids.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relayBatch_shouldKeepEventsWhenASendFails() {
+        when(outboxRepository.findOldest(3)).thenReturn(Flux.fromIterable(events(1, 3)));
+        when(kafkaSender.send(any(Publisher.class))).thenReturn(Flux.error(new RuntimeException("broker unavailable")));
+
+        StepVerifier.create(relay.relayBatch())
+                .expectErrorMessage("broker unavailable")
+                .verify();
+
+        verify(outboxRepository, never()).deleteByIds(any());
+    }
+
+    @Test
+    void relayBatch_shouldSkipWhileAnotherRelayHoldsTheLock() {
+        when(outboxRepository.tryLock(OutboxRelay.RELAY_LOCK)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(outboxRepository, never()).findOldest(anyInt());
+        verifyNoInteractions(kafkaSender);
+    }
+
+    @Test
+    void drain_shouldRepeatWhileBatchesAreFull() {
+        when(outboxRepository.findOldest(3))
+                .thenReturn(Flux.fromIterable(events(1, 3)))
+                .thenReturn(Flux.fromIterable(events(4, 6)))
+                .thenReturn(Flux.fromIterable(events(7, 7)));
+
+        StepVerifier.create(relay.drain())
+                .expectNext(7L)
+                .verifyComplete();
+
+        verify(outboxRepository, times(3)).findOldest(3);
+        assertEquals(7, sent.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drain_shouldSwallowFailuresSoTheNextRoundCanRetry() {
+        when(outboxRepository.findOldest(3)).thenReturn(Flux.fromIterable(events(1, 3)));
+        when(kafkaSender.send(any(Publisher.class))).thenReturn(Flux.error(new RuntimeException("broker unavailable")));
+
+        StepVerifier.create(relay.drain())
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OutboxRelay(outboxRepository, transactionalOperator, kafkaSender, 0, Duration.ofSeconds(1)));
+    }
+}
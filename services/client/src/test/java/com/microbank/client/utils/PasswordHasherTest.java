@@ -0,0 +1,129 @@
+package com.microbank.client.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHasher hasher;
+
+    /** Encodes only once {@link #release} is counted down, so calls pile up behind it. */
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_shouldHashOnThePoolAndContinueOnParallel() {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        AtomicReference<String> hashedOn = new AtomicReference<>();
+        hasher = new PasswordHasher(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashedOn.set(Thread.currentThread().getName());
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        }, 2, 8, meterRegistry);
+
+        String encoded = hasher.encode("secret").block(Duration.ofSeconds(10));
+        String thread = hasher.matches("secret", encoded)
+                .map(matches -> matches + "@" + Thread.currentThread().getName())
+                .block(Duration.ofSeconds(10));
+
+        assertTrue(hashedOn.get().startsWith("password-hasher-"), hashedOn.get());
+        assertTrue(thread.startsWith("true@parallel-"), thread);
+        StepVerifier.create(hasher.matches("wrong", encoded)).expectNext(false).verifyComplete();
+        assertEquals(2, meterRegistry.get("client.passwords.hashing").tag("operation", "matches").timer().count());
+        assertEquals(1, meterRegistry.get("client.passwords.hashing").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void submit_shouldRejectAtOnceWhenTheQueueIsFull() {
+        hasher = new PasswordHasher(blockingEncoder, 1, 1, meterRegistry);
+        Mono<String> running = hasher.encode("running").cache();
+        running.subscribe();
+        Mono<String> queued = hasher.encode("queued").cache();
+        queued.subscribe();
+        awaitQueueDepth(1);
+
+        StepVerifier.create(hasher.encode("rejected"))
+                .expectErrorSatisfies(e -> assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                        ((ResponseStatusException) e).getStatusCode()))
+                .verify(Duration.ofSeconds(1));
+        assertEquals(1, meterRegistry.get("client.passwords.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("client.passwords.queue.depth").gauge().value());
+
+        release.countDown();
+        assertEquals("hashed:running", running.block(Duration.ofSeconds(10)));
+        assertEquals("hashed:queued", queued.block(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void cancel_shouldDropAQueuedHash() {
+        hasher = new PasswordHasher(blockingEncoder, 1, 1, meterRegistry);
+        hasher.encode("running").subscribe();
+        Disposable queued = hasher.encode("queued").subscribe();
+        awaitQueueDepth(1);
+
+        queued.dispose();
+
+        assertEquals(0, hasher.queueDepth());
+    }
+
+    @Test
+    void constructor_shouldRequireAPoolAndAQueue() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(blockingEncoder, 0, 1, meterRegistry));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(blockingEncoder, 1, 0, meterRegistry));
+    }
+
+    private void awaitQueueDepth(int depth) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hasher.queueDepth() != depth && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(depth, hasher.queueDepth());
+    }
+}
@@ -0,0 +1,57 @@
+package com.microbank.client.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+
+import reactor.kafka.sender.SenderOptions;
+
+class ProducerProfileTest {
+
+    private final ProducerProfile profile = ProducerProfile.builder()
+            .acks("all")
+            .linger(Duration.ofMillis(5))
+            .batchSize(65_536)
+            .compression("lz4")
+            .idempotence(true)
+            .maxInFlightRequests(5)
+            .senderMaxInFlight(1_024)
+            .build();
+
+    @Test
+    void senderOptions_shouldCarryEveryProducerSetting() {
+        SenderOptions<String, byte[]> options = profile.senderOptions("broker:9092");
+        Map<String, Object> props = options.producerProperties();
+
+        assertEquals("broker:9092", props.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals("all", props.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(5, props.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(65_536, props.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("lz4", props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(true, props.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals(5, props.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
+        assertEquals(1_024, options.maxInFlight());
+    }
+
+    @Test
+    void constructor_shouldRejectIdempotenceWithoutAcksAll() {
+        assertThrows(IllegalArgumentException.class, () -> profile.toBuilder().acks("1").build());
+    }
+
+    @Test
+    void constructor_shouldRejectTooManyInFlightRequestsWithIdempotence() {
+        assertThrows(IllegalArgumentException.class, () -> profile.toBuilder().maxInFlightRequests(6).build());
+        assertDoesNotThrow(() -> profile.toBuilder().idempotence(false).acks("1").maxInFlightRequests(10).build());
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> profile.toBuilder().batchSize(0).build());
+        assertThrows(IllegalArgumentException.class, () -> profile.toBuilder().senderMaxInFlight(0).build());
+        assertThrows(IllegalArgumentException.class, () -> profile.toBuilder().linger(Duration.ofMillis(-1)).build());
+    }
+}
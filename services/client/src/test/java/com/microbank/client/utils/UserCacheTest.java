@@ -0,0 +1,179 @@
+package com.microbank.client.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.microbank.client.entity.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class UserCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache cache;
+    private AtomicInteger lookups;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserCache(true, 2, Duration.ofMinutes(1), meterRegistry);
+        lookups = new AtomicInteger();
+    }
+
+    private User user(String email) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .name("Alice")
+                .email(email)
+                .password("hashed")
+                .role("USER")
+                .build();
+    }
+
+    private Mono<User> lookup(User user) {
+        return Mono.defer(() -> {
+            lookups.incrementAndGet();
+            return Mono.justOrEmpty(user);
+        });
+    }
+
+    private double counter(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+
+    @Test
+    void getByEmail_shouldCollapseConcurrentMissesIntoOneLookup() {
+        Sinks.One<User> result = Sinks.one();
+
+        Mono<User> first = cache.getByEmail("alice@example.com", () -> {
+            lookups.incrementAndGet();
+            return result.asMono();
+        });
+        Mono<User> second = cache.getByEmail("alice@example.com", () -> {
+            lookups.incrementAndGet();
+            return result.asMono();
+        });
+        StepVerifier.create(first.zipWith(second))
+                .then(() -> result.tryEmitValue(user("alice@example.com")))
+                .expectNextMatches(both -> both.getT1().getEmail().equals("alice@example.com")
+                        && both.getT2().getEmail().equals("alice@example.com"))
+                .verifyComplete();
+
+        assertEquals(1, lookups.get());
+        assertEquals(1.0, counter("client.users.cache.misses"));
+        assertEquals(1.0, counter("client.users.cache.hits"));
+    }
+
+    @Test
+    void getByEmail_shouldShareOneEntryAcrossCaseAndWhitespace() {
+        User stored = user("alice@example.com");
+
+        cache.getByEmail("alice@example.com", () -> lookup(stored)).block();
+        User found = cache.getByEmail("  Alice@Example.COM ", () -> lookup(stored)).block();
+
+        assertEquals(stored.getId(), found.getId());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void getByEmail_shouldCacheUnknownEmails() {
+        StepVerifier.create(cache.getByEmail("nobody@example.com", () -> lookup(null))).verifyComplete();
+        StepVerifier.create(cache.getByEmail("nobody@example.com", () -> lookup(null))).verifyComplete();
+
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void getByEmail_shouldHandOutCopies() {
+        User stored = user("alice@example.com");
+
+        cache.getByEmail("alice@example.com", () -> lookup(stored)).block().setName("Mallory");
+
+        assertEquals("Alice", cache.getByEmail("alice@example.com", () -> lookup(stored)).block().getName());
+        assertEquals("Alice", stored.getName());
+    }
+
+    @Test
+    void getByEmail_shouldNotCacheFailedLookups() {
+        StepVerifier.create(cache.getByEmail("alice@example.com", () -> Mono.error(new IllegalStateException("down"))))
+                .verifyError(IllegalStateException.class);
+
+        StepVerifier.create(cache.getByEmail("alice@example.com", () -> lookup(user("alice@example.com"))))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void getByEmail_shouldLookUpAgainOnceTheEntryExpires() {
+        cache = new UserCache(true, 2, Duration.ZERO, meterRegistry);
+        User stored = user("alice@example.com");
+
+        cache.getByEmail("alice@example.com", () -> lookup(stored)).block();
+        cache.getByEmail("alice@example.com", () -> lookup(stored)).block();
+
+        assertEquals(2, lookups.get());
+        assertEquals(1.0, counter("client.users.cache.evictions", "cause", "expired"));
+    }
+
+    @Test
+    void getByEmail_shouldEvictTheLeastRecentlyUsedPastMaxSize() {
+        cache.getByEmail("a@example.com", () -> lookup(user("a@example.com"))).block();
+        cache.getByEmail("b@example.com", () -> lookup(user("b@example.com"))).block();
+        cache.getByEmail("a@example.com", () -> lookup(user("a@example.com"))).block();
+        cache.getByEmail("c@example.com", () -> lookup(user("c@example.com"))).block();
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, counter("client.users.cache.evictions", "cause", "size"));
+        cache.getByEmail("a@example.com", () -> lookup(user("a@example.com"))).block();
+        assertEquals(3, lookups.get(), "a@ stayed cached");
+        cache.getByEmail("b@example.com", () -> lookup(user("b@example.com"))).block();
+        assertEquals(4, lookups.get(), "b@ was evicted");
+    }
+
+    @Test
+    void invalidate_shouldDropTheEntryByEmail() {
+        User stored = user("alice@example.com");
+        cache.getByEmail("alice@example.com", () -> lookup(stored)).block();
+
+        cache.invalidate("ALICE@example.com");
+        cache.getByEmail("alice@example.com", () -> lookup(stored)).block();
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void invalidate_shouldDropTheEntryById() {
+        User alice = user("alice@example.com");
+        User bob = user("bob@example.com");
+        cache.getByEmail(alice.getEmail(), () -> lookup(alice)).block();
+        cache.getByEmail(bob.getEmail(), () -> lookup(bob)).block();
+
+        cache.invalidate(alice.getId());
+
+        assertEquals(1, cache.size());
+        cache.getByEmail(bob.getEmail(), () -> lookup(bob)).block();
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void getByEmail_shouldAlwaysLookUpWhenDisabled() {
+        cache = new UserCache(false, 2, Duration.ofMinutes(1), meterRegistry);
+        User stored = user("alice@example.com");
+
+        cache.getByEmail("alice@example.com", () -> lookup(stored)).block();
+        cache.getByEmail("alice@example.com", () -> lookup(stored)).block();
+
+        assertEquals(2, lookups.get());
+        assertEquals(0, cache.size());
+    }
+}
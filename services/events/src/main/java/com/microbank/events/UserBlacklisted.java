@@ -0,0 +1,14 @@
+package com.microbank.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** An admin blacklisted the user, or lifted the blacklisting when {@code blacklisted} is false. */
+public record UserBlacklisted(UUID userId, Instant occurredAt, boolean blacklisted) implements UserEvent {
+
+    public UserBlacklisted {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+    }
+}
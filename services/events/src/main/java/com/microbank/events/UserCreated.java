@@ -0,0 +1,13 @@
+package com.microbank.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record UserCreated(UUID userId, Instant occurredAt) implements UserEvent {
+
+    public UserCreated {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+    }
+}
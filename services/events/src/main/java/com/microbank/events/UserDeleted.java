@@ -0,0 +1,13 @@
+package com.microbank.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record UserDeleted(UUID userId, Instant occurredAt) implements UserEvent {
+
+    public UserDeleted {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.microbank.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Something that happened to a user, published by the client service and keyed by
+ * {@link #userId()}. See {@link UserEventCodec} for the wire format.
+ */
+public sealed interface UserEvent permits UserCreated, UserUpdated, UserBlacklisted, UserDeleted {
+
+    UUID userId();
+
+    /** When the change was made; null for events written before the binary format. */
+    Instant occurredAt();
+}
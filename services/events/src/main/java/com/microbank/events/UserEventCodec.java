@@ -0,0 +1,238 @@
+package com.microbank.events;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Encodes {@link UserEvent}s in a compact binary format, so consumers decode a few fixed-size
+ * fields instead of parsing JSON.
+ *
+ * <pre>
+ * size   field
+ * 1      magic byte 0xE7
+ * 1      format version, currently 1
+ * 1      type: 1 created, 2 updated, 3 blacklisted, 4 deleted
+ * 16     userId, most significant half first
+ * 1-10   occurredAt as epoch millis + 1, unsigned varint; 0 when unknown
+ * ...    fields of the type, in order:
+ *          updated      name, email: varint of UTF-8 length + 1 (0 for null), then the bytes
+ *          blacklisted  1 byte, 1 when blacklisted
+ * </pre>
+ *
+ * <p>Compatibility rules: a new version may only append fields to a type. A reader decodes the
+ * fields it knows and ignores anything after them, so older consumers keep reading newer events.
+ * A value that does not start with the magic byte is the format used before this one: the bare
+ * user id as a UUID string on {@code user-created}. It decodes as a {@link UserCreated} without
+ * {@code occurredAt}. Since a UUID string is ASCII, its first byte is never the magic byte.
+ *
+ * <p>Timestamps keep millisecond precision. Malformed input throws
+ * {@link IllegalArgumentException}.
+ */
+public final class UserEventCodec {
+
+    public static final byte MAGIC = (byte) 0xE7;
+    public static final byte VERSION = 1;
+
+    static final byte CREATED = 1;
+    static final byte UPDATED = 2;
+    static final byte BLACKLISTED = 3;
+    static final byte DELETED = 4;
+
+    /** Magic, version, type and user id. */
+    private static final int HEADER_SIZE = 3 + 16;
+
+    private UserEventCodec() {
+    }
+
+    public static byte[] encode(UserEvent event) {
+        long occurredAt = occurredAt(event.occurredAt());
+        int size = HEADER_SIZE + varintSize(occurredAt);
+        byte type;
+        byte[] name = null;
+        byte[] email = null;
+        switch (event) {
+            case UserCreated created -> type = CREATED;
+            case UserUpdated updated -> {
+                type = UPDATED;
+                name = utf8(updated.name());
+                email = utf8(updated.email());
+                size += stringSize(name) + stringSize(email);
+            }
+            case UserBlacklisted blacklisted -> {
+                type = BLACKLISTED;
+                size += 1;
+            }
+            case UserDeleted deleted -> type = DELETED;
+        }
+
+        Writer out = new Writer(size);
+        out.put(MAGIC);
+        out.put(VERSION);
+        out.put(type);
+        out.putLong(event.userId().getMostSignificantBits());
+        out.putLong(event.userId().getLeastSignificantBits());
+        out.putVarint(occurredAt);
+        if (event instanceof UserUpdated) {
+            out.putString(name);
+            out.putString(email);
+        } else if (event instanceof UserBlacklisted blacklisted) {
+            out.put((byte) (blacklisted.blacklisted() ? 1 : 0));
+        }
+        return out.buf;
+    }
+
+    public static UserEvent decode(byte[] value) {
+        if (value == null || value.length == 0) {
+            throw new IllegalArgumentException("Empty user event");
+        }
+        if (value[0] != MAGIC) {
+            return new UserCreated(UUID.fromString(new String(value, StandardCharsets.US_ASCII)), null);
+        }
+        Reader in = new Reader(value);
+        in.skip(1);
+        int version = in.get();
+        if (version < 1) {
+            throw new IllegalArgumentException("Unknown user event version " + version);
+        }
+        int type = in.get();
+        UUID userId = new UUID(in.getLong(), in.getLong());
+        long occurredAtField = in.getVarint();
+        Instant occurredAt = occurredAtField == 0 ? null : Instant.ofEpochMilli(occurredAtField - 1);
+        return switch (type) {
+            case CREATED -> new UserCreated(userId, occurredAt);
+            case UPDATED -> new UserUpdated(userId, occurredAt, in.getString(), in.getString());
+            case BLACKLISTED -> new UserBlacklisted(userId, occurredAt, in.get() != 0);
+            case DELETED -> new UserDeleted(userId, occurredAt);
+            default -> throw new IllegalArgumentException("Unknown user event type " + type);
+        };
+    }
+
+    private static long occurredAt(Instant occurredAt) {
+        if (occurredAt == null) {
+            return 0;
+        }
+        long millis = occurredAt.toEpochMilli();
+        if (millis < 0) {
+            throw new IllegalArgumentException("occurredAt must not be before 1970");
+        }
+        return millis + 1;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] value) {
+        return value == null ? 1 : varintSize(value.length + 1L) + value.length;
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static final class Writer {
+        final byte[] buf;
+        int pos;
+
+        Writer(int size) {
+            buf = new byte[size];
+        }
+
+        void put(byte value) {
+            buf[pos++] = value;
+        }
+
+        void putLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (value >>> shift);
+            }
+        }
+
+        void putVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void putString(byte[] value) {
+            if (value == null) {
+                putVarint(0);
+                return;
+            }
+            putVarint(value.length + 1L);
+            System.arraycopy(value, 0, buf, pos, value.length);
+            pos += value.length;
+        }
+    }
+
+    private static final class Reader {
+        final byte[] buf;
+        int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        void skip(int count) {
+            require(count);
+            pos += count;
+        }
+
+        int get() {
+            require(1);
+            return buf[pos++] & 0xFF;
+        }
+
+        long getLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buf[pos++] & 0xFF);
+            }
+            return value;
+        }
+
+        long getVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = get();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint longer than 10 bytes");
+        }
+
+        String getString() {
+            long length = getVarint();
+            if (length == 0) {
+                return null;
+            }
+            if (length - 1 > buf.length - pos) {
+                throw truncated();
+            }
+            String value = new String(buf, pos, (int) (length - 1), StandardCharsets.UTF_8);
+            pos += (int) (length - 1);
+            return value;
+        }
+
+        private void require(int count) {
+            if (buf.length - pos < count) {
+                throw truncated();
+            }
+        }
+
+        private IllegalArgumentException truncated() {
+            return new IllegalArgumentException("Truncated user event");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.microbank.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** A profile change. Fields that did not change are null. */
+public record UserUpdated(UUID userId, Instant occurredAt, String name, String email) implements UserEvent {
+
+    public UserUpdated {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+    }
+}
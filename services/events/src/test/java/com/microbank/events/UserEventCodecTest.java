@@ -0,0 +1,91 @@
+package com.microbank.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UserEventCodecTest {
+
+    private static final UUID USER_ID = UUID.fromString("3f2504e0-4f89-11d3-9a0c-0305e82c3301");
+    private static final Instant AT = Instant.parse("2026-10-17T09:30:00.123Z");
+
+    @Test
+    void encode_shouldRoundTripEveryEventType() {
+        List<UserEvent> events = List.of(
+                new UserCreated(USER_ID, AT),
+                new UserUpdated(USER_ID, AT, "Zoë Ångström", null),
+                new UserUpdated(USER_ID, null, null, "zoe@example.com"),
+                new UserBlacklisted(USER_ID, AT, true),
+                new UserBlacklisted(USER_ID, AT, false),
+                new UserDeleted(USER_ID, AT));
+
+        for (UserEvent event : events) {
+            assertEquals(event, UserEventCodec.decode(UserEventCodec.encode(event)));
+        }
+    }
+
+    @Test
+    void encode_shouldWriteUserCreatedInTwentyFiveBytes() {
+        byte[] encoded = UserEventCodec.encode(new UserCreated(USER_ID, AT));
+
+        // header 3 + raw UUID 16 + a 2026 timestamp in 6 varint bytes, against 36 for the UUID string
+        assertEquals(25, encoded.length);
+        assertEquals(UserEventCodec.MAGIC, encoded[0]);
+        assertEquals(UserEventCodec.VERSION, encoded[1]);
+        assertEquals(UserEventCodec.CREATED, encoded[2]);
+    }
+
+    @Test
+    void decode_shouldReadLegacyUuidStringsAsUserCreated() {
+        UserEvent event = UserEventCodec.decode(USER_ID.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(new UserCreated(USER_ID, null), event);
+    }
+
+    @Test
+    void decode_shouldIgnoreFieldsAppendedByANewerVersion() {
+        byte[] current = UserEventCodec.encode(new UserBlacklisted(USER_ID, AT, true));
+        byte[] newer = Arrays.copyOf(current, current.length + 3);
+        newer[1] = 2;
+        newer[current.length] = 42;
+
+        assertEquals(new UserBlacklisted(USER_ID, AT, true), UserEventCodec.decode(newer));
+    }
+
+    @Test
+    void decode_shouldRejectMalformedValues() {
+        byte[] created = UserEventCodec.encode(new UserCreated(USER_ID, AT));
+        byte[] unknownType = created.clone();
+        unknownType[2] = 99;
+        byte[] unknownVersion = created.clone();
+        unknownVersion[1] = 0;
+        byte[] updated = UserEventCodec.encode(new UserUpdated(USER_ID, AT, "Alice", "alice@example.com"));
+
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode("not-a-uuid".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(unknownType));
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(unknownVersion));
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(Arrays.copyOf(created, 10)));
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(Arrays.copyOf(updated, updated.length - 1)));
+    }
+
+    @Test
+    void encode_shouldRejectTimestampsBeforeTheEpoch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> UserEventCodec.encode(new UserCreated(USER_ID, Instant.ofEpochMilli(-1))));
+    }
+
+    @Test
+    void varintSize_shouldGrowEverySevenBits() {
+        assertEquals(1, UserEventCodec.varintSize(0));
+        assertEquals(1, UserEventCodec.varintSize(127));
+        assertEquals(2, UserEventCodec.varintSize(128));
+        assertEquals(10, UserEventCodec.varintSize(Long.MAX_VALUE + 1));
+    }
+}
@@ -0,0 +1,22 @@
+package com.microbank.loadtest;
+
+/** The requests a journey makes, each recorded under its own name. */
+enum Endpoint {
+    REGISTER("POST /client/api/v1/auth/register"),
+    LOGIN("POST /client/api/v1/auth/login"),
+    ACCOUNT("GET /banking/api/v1/bank-accounts/{userId}"),
+    DEPOSIT("PATCH /banking/api/v1/bank-accounts/{id}/deposit"),
+    WITHDRAW("PATCH /banking/api/v1/bank-accounts/{id}/withdraw"),
+    HISTORY("GET /banking/api/v1/bank-transactions/{accountId}/transactions");
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    /** Method and path template; the key of the endpoint in the result file. */
+    String label() {
+        return label;
+    }
+}
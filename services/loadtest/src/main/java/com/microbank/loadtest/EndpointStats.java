@@ -0,0 +1,42 @@
+package com.microbank.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and failures of one endpoint. Latencies are recorded in microseconds, from sending
+ * the request until its body has been read, into an HdrHistogram {@link Recorder}: recording is
+ * wait-free, and {@link #reset} drops the warm-up without stopping the recording threads.
+ */
+class EndpointStats {
+
+    /** Up to ten minutes at three significant digits. */
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Recorder latencies = new Recorder(HIGHEST_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long nanos, boolean ok) {
+        latencies.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        latencies.reset();
+        errors.reset();
+    }
+
+    /** Everything recorded since the last {@link #reset}, failures included. */
+    Histogram histogram() {
+        return latencies.getIntervalHistogram();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,142 @@
+package com.microbank.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * One user's visit, as the web client makes it: register, log in, wait for the bank account the
+ * banking service opens from the {@code user-created} event, deposit, withdraw and read the
+ * history. Every request is recorded under its {@link Endpoint}. Each journey registers a new
+ * user, so journeys never contend for the same account.
+ */
+class Journey {
+
+    static final String PASSWORD = "load-test-password";
+    private static final String DEPOSIT = "100.00";
+    private static final String WITHDRAWAL = "40.00";
+    private static final int HISTORY_LIMIT = 20;
+    private static final Duration ACCOUNT_POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration ACCOUNT_TIMEOUT = Duration.ofSeconds(60);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client;
+    private final HttpClient banking;
+    private final Map<Endpoint, EndpointStats> stats;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private record Response(int status, String body) {
+    }
+
+    Journey(HttpClient client, HttpClient banking, Map<Endpoint, EndpointStats> stats) {
+        this.client = client;
+        this.banking = banking;
+        this.stats = stats;
+    }
+
+    /** Journey {@code n} of this run; errors if any step fails. */
+    Mono<Void> run(long n) {
+        String email = "load-" + runId + "-" + n + "@example.com";
+        return call(Endpoint.REGISTER, json(client).post().uri("/client/api/v1/auth/register")
+                .send(body(Map.of("name", "Load User " + n, "email", email, "password", PASSWORD))), 201)
+                .then(call(Endpoint.LOGIN, json(client).post().uri("/client/api/v1/auth/login")
+                        .send(body(Map.of("email", email, "password", PASSWORD))), 200))
+                .flatMap(login -> {
+                    String token = login.body();
+                    HttpClient authorized = json(banking).headers(h -> h.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + token));
+                    return accountId(authorized, subject(token))
+                            .flatMap(accountId -> call(Endpoint.DEPOSIT, authorized.patch()
+                                    .uri("/banking/api/v1/bank-accounts/" + accountId + "/deposit")
+                                    .send(body(Map.of("amount", DEPOSIT, "description", "load test deposit"))), 200)
+                                    .then(call(Endpoint.WITHDRAW, authorized.patch()
+                                            .uri("/banking/api/v1/bank-accounts/" + accountId + "/withdraw")
+                                            .send(body(Map.of("amount", WITHDRAWAL, "description", "load test withdrawal"))), 200))
+                                    .then(call(Endpoint.HISTORY, authorized.get()
+                                            .uri("/banking/api/v1/bank-transactions/" + accountId + "/transactions?limit=" + HISTORY_LIMIT), 200)));
+                })
+                .then();
+    }
+
+    /**
+     * Polls for the user's account until the banking service has opened it. A 404 meanwhile is
+     * expected and not counted as an error.
+     */
+    private Mono<String> accountId(HttpClient authorized, String userId) {
+        return call(Endpoint.ACCOUNT, authorized.get().uri("/banking/api/v1/bank-accounts/" + userId), 200, 404)
+                .flatMap(response -> response.status() == 200 ? Mono.just(field(response.body(), "id")) : Mono.<String>empty())
+                .repeatWhenEmpty(polls -> polls.delayElements(ACCOUNT_POLL_INTERVAL))
+                .timeout(ACCOUNT_TIMEOUT, Mono.error(() -> new IllegalStateException("no account for user " + userId
+                        + " after " + ACCOUNT_TIMEOUT)));
+    }
+
+    /**
+     * Sends the request and records its latency, counting it as an error unless the status is
+     * one of {@code accepted}. Emits the response if its status is accepted, errors otherwise.
+     */
+    private Mono<Response> call(Endpoint endpoint, HttpClient.ResponseReceiver<?> request, int... accepted) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return request
+                    .responseSingle((response, body) -> body.asString().defaultIfEmpty("")
+                            .map(text -> new Response(response.status().code(), text)))
+                    .doOnError(e -> endpointStats.record(System.nanoTime() - started, false))
+                    .flatMap(response -> {
+                        boolean ok = isAccepted(response.status(), accepted);
+                        endpointStats.record(System.nanoTime() - started, ok);
+                        return ok ? Mono.just(response)
+                                : Mono.error(new IllegalStateException(endpoint.label() + " answered " + response.status()));
+                    });
+        });
+    }
+
+    private static boolean isAccepted(int status, int[] accepted) {
+        for (int code : accepted) {
+            if (status == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static HttpClient json(HttpClient http) {
+        return http.headers(h -> h
+                .set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .set(HttpHeaderNames.ACCEPT, HttpHeaderValues.APPLICATION_JSON));
+    }
+
+    private static ByteBufFlux body(Map<String, String> fields) {
+        try {
+            return ByteBufFlux.fromString(Mono.just(JSON.writeValueAsString(fields)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static String field(String json, String name) {
+        try {
+            return JSON.readTree(json).path(name).asText();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected response: " + json, e);
+        }
+    }
+
+    /** The user id a token was issued for, read from its payload; the signature is the services' concern. */
+    private static String subject(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            throw new IllegalStateException("Login did not return a token: " + token);
+        }
+        return field(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8), "sub");
+    }
+}
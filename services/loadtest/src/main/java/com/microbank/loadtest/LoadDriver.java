@@ -0,0 +1,91 @@
+package com.microbank.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs journeys for the warm-up plus the measured duration, then waits for the ones still
+ * running.
+ *
+ * <p>Open loop: a journey starts every {@code 1 / rate} seconds whether or not earlier ones have
+ * finished, the way independent users arrive. Slow responses therefore show up in the
+ * latencies instead of quietly lowering the load (coordinated omission). A journey due while
+ * {@code maxInFlight} are running is dropped and counted.
+ *
+ * <p>Closed loop: {@code users} users each start their next journey as soon as the last one
+ * ends, so the load adapts to the response time, as a fixed pool of callers does.
+ */
+@Slf4j
+class LoadDriver {
+
+    private final LoadTestConfig config;
+    private final Journey journey;
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    record Outcome(long completed, long failed, long dropped) {
+    }
+
+    LoadDriver(LoadTestConfig config, Journey journey) {
+        this.config = config;
+        this.journey = journey;
+    }
+
+    /** Runs until {@code runFor} has passed and every started journey has ended. */
+    Mono<Void> run(Duration runFor) {
+        return switch (config.mode()) {
+            case OPEN -> Flux.interval(Duration.ofNanos(Math.round(1e9 / config.rate())))
+                    .take(runFor)
+                    .flatMap(tick -> {
+                        if (inFlight.get() >= config.maxInFlight()) {
+                            dropped.increment();
+                            return Mono.empty();
+                        }
+                        return journey();
+                    }, Integer.MAX_VALUE)
+                    .then();
+            case CLOSED -> {
+                long deadline = System.nanoTime() + runFor.toNanos();
+                yield Flux.range(0, config.users())
+                        .flatMap(user -> journey()
+                                .repeat(() -> System.nanoTime() < deadline), config.users())
+                        .then();
+            }
+        };
+    }
+
+    private Mono<Void> journey() {
+        return Mono.defer(() -> {
+            long n = started.getAndIncrement();
+            inFlight.incrementAndGet();
+            return journey.run(n)
+                    .doOnSuccess(v -> completed.increment())
+                    .onErrorResume(e -> {
+                        failed.increment();
+                        log.warn("Journey {} failed: {}", n, e.toString());
+                        return Mono.empty();
+                    })
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    /** Counts journeys from now on only. */
+    void reset() {
+        completed.reset();
+        failed.reset();
+        dropped.reset();
+    }
+
+    Outcome outcome() {
+        return new Outcome(completed.sum(), failed.sum(), dropped.sum());
+    }
+}
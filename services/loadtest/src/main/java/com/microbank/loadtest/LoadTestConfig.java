@@ -0,0 +1,74 @@
+package com.microbank.loadtest;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What to run, from {@code -Dloadtest.*} system properties:
+ * <ul>
+ * <li>{@code loadtest.mode}: {@code open} starts journeys at {@code loadtest.rate} per second
+ * whatever the response times; {@code closed} runs {@code loadtest.users} users, each starting
+ * its next journey when the last one ends. Default {@code open}.</li>
+ * <li>{@code loadtest.rate}: journeys started per second in open mode. Default 5.</li>
+ * <li>{@code loadtest.users}: concurrent users in closed mode. Default 10.</li>
+ * <li>{@code loadtest.max-in-flight}: open mode only. Journeys due while this many are running
+ * are dropped and counted, not queued. Default 500.</li>
+ * <li>{@code loadtest.warm-up}, {@code loadtest.duration}: ISO-8601 durations. Requests during
+ * the warm-up are not recorded. Defaults PT15S and PT60S.</li>
+ * <li>{@code loadtest.services}: directory holding {@code client.jar} and {@code banking.jar}.
+ * Defaults to {@code services/} next to the load test jar, where the build copies them.</li>
+ * <li>{@code loadtest.service-jvm-args}: JVM options for both services, space separated.</li>
+ * <li>{@code loadtest.result}: the JSON result file. Default {@code loadtest-result.json}.</li>
+ * <li>{@code loadtest.baseline}: an earlier result file to compare this run with.</li>
+ * </ul>
+ */
+record LoadTestConfig(
+        Mode mode,
+        double rate,
+        int users,
+        int maxInFlight,
+        Duration warmUp,
+        Duration duration,
+        Path services,
+        List<String> serviceJvmArgs,
+        Path result,
+        Path baseline) {
+
+    enum Mode {
+        OPEN, CLOSED
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        String jvmArgs = System.getProperty("loadtest.service-jvm-args", "").trim();
+        String baseline = System.getProperty("loadtest.baseline");
+        LoadTestConfig config = new LoadTestConfig(
+                Mode.valueOf(System.getProperty("loadtest.mode", "open").toUpperCase(Locale.ROOT)),
+                Double.parseDouble(System.getProperty("loadtest.rate", "5")),
+                Integer.getInteger("loadtest.users", 10),
+                Integer.getInteger("loadtest.max-in-flight", 500),
+                Duration.parse(System.getProperty("loadtest.warm-up", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Path.of(System.getProperty("loadtest.services", defaultServices().toString())),
+                jvmArgs.isEmpty() ? List.of() : Arrays.asList(jvmArgs.split("\\s+")),
+                Path.of(System.getProperty("loadtest.result", "loadtest-result.json")),
+                baseline == null ? null : Path.of(baseline));
+        if (config.rate() <= 0 || config.users() < 1 || config.maxInFlight() < 1) {
+            throw new IllegalArgumentException("loadtest.rate, loadtest.users and loadtest.max-in-flight must be positive");
+        }
+        return config;
+    }
+
+    /** {@code services/} next to the jar (or classes directory) this runs from. */
+    private static Path defaultServices() {
+        try {
+            Path location = Path.of(LoadTestConfig.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return location.getParent().resolve("services");
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.microbank.loadtest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Starts Postgres and Kafka stand-ins, then both services against them, drives journeys at the
+ * configured load and writes the latencies per endpoint to a JSON result file. See
+ * {@link LoadTestConfig} for the settings.
+ */
+@Slf4j
+public final class LoadTestMain {
+
+    /** Shared by both services, as in production; any 32 bytes will do for a local run. */
+    private static final String JWT_SECRET = "load-test-secret-that-is-at-least-32-bytes";
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        log.info("Load test: {}", config);
+        try (StandIns standIns = StandIns.start();
+                ServiceProcess client = ServiceProcess.start("client", config.services(), config.serviceJvmArgs(),
+                        environment(standIns, StandIns.CLIENT_DATABASE));
+                ServiceProcess banking = ServiceProcess.start("banking", config.services(), config.serviceJvmArgs(),
+                        environment(standIns, StandIns.BANKING_DATABASE))) {
+            run(config, client, banking);
+        }
+    }
+
+    private static Map<String, String> environment(StandIns standIns, String database) {
+        return Map.of(
+                "SPRING_R2DBC_URL", standIns.r2dbcUrl(database),
+                "SPRING_R2DBC_USERNAME", StandIns.DATABASE_USER,
+                "SPRING_R2DBC_PASSWORD", "",
+                "SPRING_KAFKA_BOOTSTRAP_SERVERS", standIns.kafkaBootstrapServers(),
+                "SPRING_JWT_SECRET", JWT_SECRET,
+                // The databases start empty; the services create their tables, as in their integration tests
+                "SPRING_SQL_INIT_MODE", "always");
+    }
+
+    private static void run(LoadTestConfig config, ServiceProcess client, ServiceProcess banking) throws Exception {
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(config.mode() == LoadTestConfig.Mode.OPEN ? config.maxInFlight() : config.users())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        Journey journey = new Journey(
+                HttpClient.create(connections).baseUrl(client.baseUrl()).responseTimeout(RESPONSE_TIMEOUT),
+                HttpClient.create(connections).baseUrl(banking.baseUrl()).responseTimeout(RESPONSE_TIMEOUT),
+                stats);
+        LoadDriver driver = new LoadDriver(config, journey);
+
+        Instant startedAt = Instant.now();
+        long[] measuring = new long[1];
+        log.info("Warming up for {}, then measuring for {}", config.warmUp(), config.duration());
+        Mono.when(
+                driver.run(config.warmUp().plus(config.duration())),
+                Mono.delay(config.warmUp()).doOnNext(tick -> {
+                    stats.values().forEach(EndpointStats::reset);
+                    driver.reset();
+                    measuring[0] = System.nanoTime();
+                    log.info("Warm-up over, measuring");
+                }))
+                .block();
+        Duration measured = Duration.ofNanos(System.nanoTime() - measuring[0]);
+        connections.dispose();
+
+        Report report = new Report(config, startedAt, measured, driver.outcome());
+        log.info("Journeys: {}", driver.outcome());
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointStats endpointStats = stats.get(endpoint);
+            report.add(endpoint, endpointStats.histogram(), endpointStats.errors(), measured);
+        }
+        report.write(config.result());
+        if (config.baseline() != null) {
+            report.compare(config.baseline());
+        }
+    }
+}
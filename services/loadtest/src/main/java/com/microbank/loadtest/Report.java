@@ -0,0 +1,134 @@
+package com.microbank.loadtest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The result file of a run. Runs compare when their files do: the same keys in the same order,
+ * the run's settings and machine alongside, and latencies at fixed percentiles in milliseconds.
+ * Each endpoint also carries its full histogram, compressed and base64 encoded, so other
+ * percentiles can be read later or runs merged with HdrHistogram's own tools.
+ */
+@Slf4j
+class Report {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, Object> root = new LinkedHashMap<>();
+    private final Map<String, Object> endpoints = new LinkedHashMap<>();
+
+    Report(LoadTestConfig config, Instant startedAt, Duration measured, LoadDriver.Outcome outcome) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("mode", config.mode().name().toLowerCase(Locale.ROOT));
+        settings.put("rate", config.rate());
+        settings.put("users", config.users());
+        settings.put("maxInFlight", config.maxInFlight());
+        settings.put("warmUpSeconds", config.warmUp().toSeconds());
+        settings.put("durationSeconds", config.duration().toSeconds());
+        settings.put("serviceJvmArgs", config.serviceJvmArgs());
+
+        Map<String, Object> machine = new LinkedHashMap<>();
+        machine.put("javaVersion", System.getProperty("java.version"));
+        machine.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        machine.put("processors", Runtime.getRuntime().availableProcessors());
+
+        Map<String, Object> journeys = new LinkedHashMap<>();
+        journeys.put("completed", outcome.completed());
+        journeys.put("failed", outcome.failed());
+        journeys.put("dropped", outcome.dropped());
+        journeys.put("perSecond", round(outcome.completed() / seconds(measured)));
+
+        root.put("startedAt", startedAt.toString());
+        root.put("settings", settings);
+        root.put("machine", machine);
+        root.put("measuredSeconds", round(seconds(measured)));
+        root.put("journeys", journeys);
+        root.put("endpoints", endpoints);
+    }
+
+    void add(Endpoint endpoint, Histogram histogram, long errors, Duration measured) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(histogram.getMean() / 1_000.0));
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    round(histogram.getValueAtPercentile(percentile) / 1_000.0));
+        }
+        latency.put("max", round(histogram.getMaxValue() / 1_000.0));
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("count", histogram.getTotalCount());
+        entry.put("errors", errors);
+        entry.put("perSecond", round(histogram.getTotalCount() / seconds(measured)));
+        entry.put("latencyMillis", latency);
+        entry.put("histogram", encode(histogram));
+        endpoints.put(endpoint.label(), entry);
+
+        log.info(String.format("%-62s %7d req %5d err %8.1f/s  p50 %8.2fms  p99 %8.2fms  max %8.2fms",
+                endpoint.label(), histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds(measured),
+                histogram.getValueAtPercentile(50) / 1_000.0, histogram.getValueAtPercentile(99) / 1_000.0,
+                histogram.getMaxValue() / 1_000.0));
+    }
+
+    void write(Path file) throws IOException {
+        JSON.writeValue(file.toFile(), root);
+        log.info("Results written to {}", file.toAbsolutePath());
+    }
+
+    /** Logs how each endpoint's median and p99 moved since {@code baseline}, an earlier result file. */
+    void compare(Path baseline) throws IOException {
+        JsonNode before = JSON.readTree(baseline.toFile());
+        // Through JSON text, as the baseline was, so numbers parse to the same node types on both sides
+        JsonNode now = JSON.readTree(JSON.writeValueAsBytes(root));
+        if (!before.path("settings").equals(now.path("settings"))) {
+            log.warn("{} was run with different settings: {}", baseline, before.path("settings"));
+        }
+        log.info("Compared with {} ({}):", baseline, before.path("startedAt").asText());
+        for (Map.Entry<String, JsonNode> endpoint : now.path("endpoints").properties()) {
+            JsonNode previous = before.path("endpoints").path(endpoint.getKey()).path("latencyMillis");
+            if (previous.isMissingNode()) {
+                continue;
+            }
+            JsonNode current = endpoint.getValue().path("latencyMillis");
+            log.info(String.format("%-62s p50 %8.2f -> %8.2fms (%+6.1f%%)  p99 %8.2f -> %8.2fms (%+6.1f%%)",
+                    endpoint.getKey(),
+                    previous.path("p50").asDouble(), current.path("p50").asDouble(), change(previous, current, "p50"),
+                    previous.path("p99").asDouble(), current.path("p99").asDouble(), change(previous, current, "p99")));
+        }
+    }
+
+    private static double change(JsonNode before, JsonNode after, String field) {
+        double old = before.path(field).asDouble();
+        return old == 0 ? 0 : (after.path(field).asDouble() - old) / old * 100;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1e9;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
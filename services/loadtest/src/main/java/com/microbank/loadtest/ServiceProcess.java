@@ -0,0 +1,112 @@
+package com.microbank.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * One of the services, started from its boot jar as a separate JVM, as in production. Its
+ * output goes to {@code <name>.log} in the working directory.
+ */
+@Slf4j
+class ServiceProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final String name;
+    private final int port;
+    private final Process process;
+    private final Path logFile;
+
+    private ServiceProcess(String name, int port, Process process, Path logFile) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+        this.logFile = logFile;
+    }
+
+    /**
+     * Starts {@code <services>/<name>.jar} on a free port with {@code environment} added to
+     * ours, and waits until it answers on its health endpoint.
+     */
+    static ServiceProcess start(String name, Path services, List<String> jvmArgs, Map<String, String> environment)
+            throws IOException, InterruptedException {
+        Path jar = services.resolve(name + ".jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found; build with mvn -f services/pom.xml package, or set -Dloadtest.services");
+        }
+        int port = freePort();
+        Path logFile = Path.of(name + ".log");
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile());
+        builder.environment().putAll(environment);
+        builder.environment().put("SERVER_PORT", String.valueOf(port));
+        ServiceProcess service = new ServiceProcess(name, port, builder.start(), logFile);
+        log.info("Starting {} on port {}, logging to {}", name, port, logFile.toAbsolutePath());
+        try {
+            service.awaitReady();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            service.close();
+            throw e;
+        }
+        return service;
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    private void awaitReady() throws IOException, InterruptedException {
+        HttpClient http = HttpClient.create().baseUrl(baseUrl()).responseTimeout(Duration.ofSeconds(2));
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        Integer status = null;
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + logFile);
+            }
+            status = http.get()
+                    .uri("/actuator/health")
+                    .response()
+                    .map(response -> response.status().code())
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+            if (status != null && status == 200) {
+                log.info("{} is up", name);
+                return;
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become healthy within " + STARTUP_TIMEOUT
+                + " (last health status " + status + "), see " + logFile);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
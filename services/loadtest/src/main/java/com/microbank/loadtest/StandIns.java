@@ -0,0 +1,71 @@
+package com.microbank.loadtest;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local replacements for the infrastructure in {@code docker-compose.yml}: one embedded Postgres
+ * server (real Postgres binaries, unpacked and run as a child process) with a database per
+ * service, and one embedded KRaft Kafka broker in this JVM. Nothing needs Docker.
+ */
+@Slf4j
+class StandIns implements AutoCloseable {
+
+    static final String CLIENT_DATABASE = "client";
+    static final String BANKING_DATABASE = "banking";
+    static final String DATABASE_USER = "postgres";
+
+    private static final int PARTITIONS = 4;
+    private static final String[] TOPICS = {
+        "user-created", "user-created.retry.1", "user-created.retry.2", "user-created.retry.3", "user-created.dlq",
+        "token-revoked"
+    };
+
+    private final EmbeddedPostgres postgres;
+    private final EmbeddedKafkaKraftBroker kafka;
+
+    private StandIns(EmbeddedPostgres postgres, EmbeddedKafkaKraftBroker kafka) {
+        this.postgres = postgres;
+        this.kafka = kafka;
+    }
+
+    static StandIns start() throws IOException, SQLException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + CLIENT_DATABASE);
+            statement.execute("CREATE DATABASE " + BANKING_DATABASE);
+        }
+        log.info("Postgres listening on port {}", postgres.getPort());
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPICS);
+        kafka.brokerProperty("auto.create.topics.enable", "true");
+        kafka.afterPropertiesSet();
+        log.info("Kafka listening on {}", kafka.getBrokersAsString());
+        return new StandIns(postgres, kafka);
+    }
+
+    String r2dbcUrl(String database) {
+        return "r2dbc:postgresql://localhost:" + postgres.getPort() + "/" + database;
+    }
+
+    String kafkaBootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            kafka.destroy();
+        } finally {
+            postgres.close();
+        }
+    }
+}
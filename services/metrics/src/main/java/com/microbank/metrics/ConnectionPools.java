@@ -0,0 +1,50 @@
+package com.microbank.metrics;
+
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds a service's connection pool from its {@code spring.r2dbc} properties. The services build
+ * the pool themselves rather than leave it to Spring Boot so that acquires can be timed (see
+ * {@link TimedConnectionPool}); without a meter registry, as in the repository test slices, the
+ * bare pool is returned. The initial connections are opened before the pool is returned, while
+ * the context starts, so the first requests don't pay for connection setup.
+ */
+@Slf4j
+public final class ConnectionPools {
+
+    private ConnectionPools() {
+    }
+
+    public static ConnectionFactory warmedUp(String name, R2dbcProperties properties, MeterRegistry meterRegistry) {
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        ConnectionFactoryBuilder connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl());
+        map.from(properties.getUsername()).to(connectionFactory::username);
+        map.from(properties.getPassword()).to(connectionFactory::password);
+
+        R2dbcProperties.Pool settings = properties.getPool();
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration
+                .builder(connectionFactory.build())
+                .name(name)
+                .initialSize(settings.getInitialSize())
+                .minIdle(settings.getMinIdle())
+                .maxSize(settings.getMaxSize());
+        map.from(settings.getMaxIdleTime()).to(configuration::maxIdleTime);
+        map.from(settings.getMaxLifeTime()).to(configuration::maxLifeTime);
+        map.from(settings.getMaxAcquireTime()).to(configuration::maxAcquireTime);
+        map.from(settings.getMaxCreateConnectionTime()).to(configuration::maxCreateConnectionTime);
+        map.from(settings.getValidationQuery()).whenHasText().to(configuration::validationQuery);
+        ConnectionPool pool = new ConnectionPool(configuration.build());
+        log.info("Opened {} database connections", pool.warmup().block());
+
+        return meterRegistry == null ? pool
+                : new TimedConnectionPool(pool, name, settings.getMaxAcquireTime(), meterRegistry);
+    }
+}
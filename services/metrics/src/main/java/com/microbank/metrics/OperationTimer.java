@@ -0,0 +1,55 @@
+package com.microbank.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times one operation of a service, from subscription until it completes. The time is recorded
+ * under {@code name} with tags {@code operation} and {@code outcome}. The outcome is
+ * {@code success}, {@code empty} (nothing found) or {@code error}. The tag values are fixed, so
+ * the series stay bounded whatever the input.
+ *
+ * <p>The timers publish a latency histogram for Prometheus. Its buckets run from
+ * {@code minimumExpected} to {@code maximumExpected}. The three timers are registered up
+ * front, so timing a call costs two clock reads and one record, with no registry lookup.
+ * A call cancelled before it completes is not recorded.
+ */
+public class OperationTimer {
+
+    private final Timer success;
+    private final Timer empty;
+    private final Timer error;
+
+    public OperationTimer(String name, String operation, String description, Duration minimumExpected,
+            Duration maximumExpected, MeterRegistry meterRegistry) {
+        this.success = timer(name, operation, "success", description, minimumExpected, maximumExpected, meterRegistry);
+        this.empty = timer(name, operation, "empty", description, minimumExpected, maximumExpected, meterRegistry);
+        this.error = timer(name, operation, "error", description, minimumExpected, maximumExpected, meterRegistry);
+    }
+
+    public <T> Mono<T> time(Mono<T> call) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return call
+                    .doOnSuccess(value -> (value == null ? empty : success)
+                            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> error.record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private static Timer timer(String name, String operation, String outcome, String description,
+            Duration minimumExpected, Duration maximumExpected, MeterRegistry meterRegistry) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(minimumExpected)
+                .maximumExpectedValue(maximumExpected)
+                .register(meterRegistry);
+    }
+}
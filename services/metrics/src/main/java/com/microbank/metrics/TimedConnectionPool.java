@@ -0,0 +1,86 @@
+package com.microbank.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Publisher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * The connection pool as the repositories see it. Every {@link #create()} acquires a connection
+ * from {@code pool} and is timed, from subscription until the connection is handed out, under
+ * {@code r2dbc.pool.acquire} with tags {@code name} and {@code outcome} ({@code success} or
+ * {@code error}, the latter when the pool's acquire timeout fires). Acquires that find an idle
+ * connection take microseconds; the histogram's upper buckets show requests queueing for one.
+ *
+ * <p>It unwraps to the pool, so Spring Boot still publishes the pool's own {@code r2dbc.pool}
+ * gauges for it, {@code r2dbc.pool.pending} (acquires waiting) among them.
+ */
+public class TimedConnectionPool implements ConnectionFactory, Wrapped<ConnectionPool>, Closeable, Disposable {
+
+    private final ConnectionPool pool;
+    private final Timer acquired;
+    private final Timer failed;
+
+    public TimedConnectionPool(ConnectionPool pool, String name, Duration maxAcquireTime, MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.acquired = timer(name, "success", maxAcquireTime, meterRegistry);
+        this.failed = timer(name, "error", maxAcquireTime, meterRegistry);
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return pool.create()
+                    .doOnSuccess(connection -> acquired.record(System.nanoTime() - started, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> failed.record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return pool.getMetadata();
+    }
+
+    @Override
+    public ConnectionPool unwrap() {
+        return pool;
+    }
+
+    @Override
+    public Publisher<Void> close() {
+        return pool.close();
+    }
+
+    @Override
+    public void dispose() {
+        pool.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return pool.isDisposed();
+    }
+
+    private static Timer timer(String name, String outcome, Duration maxAcquireTime, MeterRegistry meterRegistry) {
+        return Timer.builder("r2dbc.pool.acquire")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .description("Time to acquire a connection from the pool")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(maxAcquireTime)
+                .register(meterRegistry);
+    }
+}
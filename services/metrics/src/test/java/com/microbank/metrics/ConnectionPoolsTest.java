@@ -0,0 +1,53 @@
+package com.microbank.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.Disposable;
+
+class ConnectionPoolsTest {
+
+    private ConnectionFactory connectionFactory;
+
+    @AfterEach
+    void tearDown() {
+        ((Disposable) connectionFactory).dispose();
+    }
+
+    private static R2dbcProperties properties() {
+        R2dbcProperties properties = new R2dbcProperties();
+        properties.setUrl("r2dbc:h2:mem:///connection-pools-test");
+        properties.getPool().setInitialSize(3);
+        properties.getPool().setMinIdle(3);
+        properties.getPool().setMaxSize(5);
+        properties.getPool().setMaxAcquireTime(Duration.ofSeconds(2));
+        return properties;
+    }
+
+    @Test
+    void warmedUp_shouldOpenTheInitialConnectionsBeforeReturning() {
+        connectionFactory = ConnectionPools.warmedUp("connectionFactory", properties(), null);
+
+        PoolMetrics metrics = assertInstanceOf(ConnectionPool.class, connectionFactory).getMetrics().orElseThrow();
+        assertEquals(3, metrics.idleSize());
+        assertEquals(5, metrics.getMaxAllocatedSize());
+    }
+
+    @Test
+    void warmedUp_shouldTimeAcquiresWhenThereIsARegistry() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        connectionFactory = ConnectionPools.warmedUp("connectionFactory", properties(), meterRegistry);
+
+        assertInstanceOf(TimedConnectionPool.class, connectionFactory);
+        assertNotNull(meterRegistry.find("r2dbc.pool.acquire").tags("name", "connectionFactory").timer());
+    }
+}
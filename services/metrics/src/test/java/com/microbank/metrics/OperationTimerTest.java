@@ -0,0 +1,75 @@
+package com.microbank.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class OperationTimerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OperationTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        timer = new OperationTimer("test.operations", "deposit", "Test operations", Duration.ofMillis(1),
+                Duration.ofSeconds(10), meterRegistry);
+    }
+
+    private Timer recorded(String outcome) {
+        return meterRegistry.get("test.operations").tags("operation", "deposit", "outcome", outcome).timer();
+    }
+
+    @Test
+    void time_shouldRecordEachOutcomeUnderItsOwnTag() {
+        StepVerifier.create(timer.time(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(timer.time(Mono.empty())).verifyComplete();
+        StepVerifier.create(timer.time(Mono.error(new RuntimeException("Insufficient funds"))))
+                .expectErrorMessage("Insufficient funds")
+                .verify();
+
+        assertEquals(1, recorded("success").count());
+        assertEquals(1, recorded("empty").count());
+        assertEquals(1, recorded("error").count());
+        assertEquals(3, meterRegistry.get("test.operations").timers().size(), "no series beyond the three outcomes");
+    }
+
+    @Test
+    void time_shouldMeasureFromSubscriptionNotAssembly() throws InterruptedException {
+        Mono<String> timed = timer.time(Mono.just("ok"));
+        Thread.sleep(50);
+
+        timed.block();
+
+        assertTrue(recorded("success").totalTime(TimeUnit.MILLISECONDS) < 50);
+    }
+
+    @Test
+    void time_shouldRecordEverySubscriptionSeparately() {
+        Mono<String> timed = timer.time(Mono.delay(Duration.ofMillis(20)).thenReturn("ok"));
+
+        timed.block();
+        timed.block();
+
+        assertEquals(2, recorded("success").count());
+        assertTrue(recorded("success").max(TimeUnit.MILLISECONDS) >= 20);
+    }
+
+    @Test
+    void time_shouldNotRecordCancelledCalls() {
+        StepVerifier.create(timer.time(Mono.never()))
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, recorded("success").count() + recorded("empty").count() + recorded("error").count());
+    }
+}
@@ -0,0 +1,81 @@
+package com.microbank.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class TimedConnectionPoolTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        pool.dispose();
+    }
+
+    /** A warmed-up pool of one H2 connection, so a second acquire has to wait for the first to be released. */
+    private TimedConnectionPool singleConnectionPool(Duration maxAcquireTime) {
+        pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get("r2dbc:h2:mem:///timed-pool-test"))
+                .initialSize(1)
+                .maxSize(1)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        pool.warmup().block();
+        return new TimedConnectionPool(pool, "connectionFactory", maxAcquireTime, meterRegistry);
+    }
+
+    private Timer recorded(String outcome) {
+        return meterRegistry.get("r2dbc.pool.acquire").tags("name", "connectionFactory", "outcome", outcome).timer();
+    }
+
+    @Test
+    void create_shouldTimeTheWaitForAConnectionAndShowItAsPending() {
+        TimedConnectionPool timed = singleConnectionPool(Duration.ofSeconds(5));
+        Connection held = timed.create().block();
+
+        Mono<Connection> queued = timed.create().cache();
+        queued.subscribe();
+        assertEquals(1, pool.getMetrics().orElseThrow().pendingAcquireSize());
+
+        Mono.delay(Duration.ofMillis(100)).then(Mono.from(held.close())).block();
+        StepVerifier.create(queued.flatMap(connection -> Mono.from(connection.close())))
+                .verifyComplete();
+
+        assertEquals(2, recorded("success").count());
+        assertTrue(recorded("success").max(TimeUnit.MILLISECONDS) >= 100);
+        assertEquals(0, pool.getMetrics().orElseThrow().pendingAcquireSize());
+    }
+
+    @Test
+    void create_shouldRecordAnErrorWhenTheAcquireTimesOut() {
+        TimedConnectionPool timed = singleConnectionPool(Duration.ofMillis(100));
+        Connection held = timed.create().block();
+
+        StepVerifier.create(timed.create()).verifyError();
+
+        assertEquals(1, recorded("error").count());
+        Mono.from(held.close()).block();
+    }
+
+    @Test
+    void unwrap_shouldExposeThePoolForItsOwnGauges() {
+        TimedConnectionPool timed = singleConnectionPool(Duration.ofSeconds(5));
+
+        assertSame(pool, timed.unwrap());
+    }
+}
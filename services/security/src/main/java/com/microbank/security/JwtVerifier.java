@@ -0,0 +1,175 @@
+package com.microbank.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.security.core.Authentication;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Verifies the bearer tokens of incoming requests for the services' authentication filters.
+ *
+ * <p>The HMAC keys and their parsers are built once, not per request. A verified token is also
+ * cached, keyed by its SHA-256 digest, until the token's own {@code exp}. A client polling with
+ * the same token therefore pays for the signature check once. The cache is a bounded LRU.
+ * Tokens without an {@code exp} are never cached.
+ *
+ * <p>Key rotation: new tokens are signed with the current secret. Tokens signed with one of the
+ * previous secrets are still accepted until that secret is dropped. {@link #rotate} installs a
+ * new set of secrets and empties the cache, so a dropped secret stops authenticating at once.
+ *
+ * <p>Revocation: a token in the {@link RevokedTokens} index is rejected even while it is cached.
+ */
+public class JwtVerifier {
+
+    private final Function<Claims, Authentication> authentication;
+    private final RevokedTokens revokedTokens;
+    private final Map<TokenDigest, Entry> entries;
+    private volatile KeyRing keys;
+
+    /**
+     * @param authentication turns verified claims into the request's authentication; it is
+     * cached along with the token, so it must only depend on the claims
+     */
+    public JwtVerifier(String secret, List<String> previousSecrets, int cacheSize,
+            Function<Claims, Authentication> authentication) {
+        this(secret, previousSecrets, cacheSize, authentication, new RevokedTokens(1));
+    }
+
+    /**
+     * @param revokedTokens tokens to reject although their signature and expiry are valid
+     */
+    public JwtVerifier(String secret, List<String> previousSecrets, int cacheSize,
+            Function<Claims, Authentication> authentication, RevokedTokens revokedTokens) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be positive");
+        }
+        this.authentication = authentication;
+        this.revokedTokens = revokedTokens;
+        this.keys = KeyRing.of(secret, previousSecrets);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TokenDigest, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /** The key new tokens are signed with. */
+    public SecretKey signingKey() {
+        return keys.signing();
+    }
+
+    /**
+     * Verifies {@code token} and returns its claims, without the cache.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or not signed
+     * with one of the accepted secrets
+     */
+    public Claims claims(String token) {
+        return keys.parse(token);
+    }
+
+    /**
+     * The authentication for {@code token}, from the cache while the token is still valid.
+     *
+     * @throws io.jsonwebtoken.JwtException as {@link #claims}
+     * @throws TokenRevokedException if the token was revoked
+     */
+    public Authentication authenticate(String token) {
+        KeyRing current = keys;
+        TokenDigest digest = TokenDigest.of(token);
+        long now = System.currentTimeMillis();
+        if (revokedTokens.isRevoked(digest, now)) {
+            throw new TokenRevokedException();
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(digest);
+            if (entry != null) {
+                if (entry.keys() == current && entry.expiresAt() > now) {
+                    return entry.authentication();
+                }
+                entries.remove(digest);
+            }
+        }
+
+        Claims claims = current.parse(token);
+        Authentication verified = authentication.apply(claims);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            synchronized (entries) {
+                entries.put(digest, new Entry(verified, expiration.getTime(), current));
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * Signs new tokens with {@code secret} from now on and accepts only it and
+     * {@code previousSecrets}. Cached tokens are dropped, including ones verified concurrently
+     * with the old keys.
+     */
+    public void rotate(String secret, List<String> previousSecrets) {
+        keys = KeyRing.of(secret, previousSecrets);
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** The accepted keys, current first, with a parser built once for each. */
+    private record KeyRing(SecretKey signing, List<JwtParser> parsers) {
+
+        static KeyRing of(String secret, List<String> previousSecrets) {
+            if (secret == null || secret.isBlank()) {
+                throw new IllegalArgumentException("A JWT secret is required");
+            }
+            List<String> secrets = new ArrayList<>();
+            secrets.add(secret);
+            if (previousSecrets != null) {
+                previousSecrets.stream().filter(s -> s != null && !s.isBlank()).forEach(secrets::add);
+            }
+            List<JwtParser> parsers = new ArrayList<>(secrets.size());
+            SecretKey signing = null;
+            for (String s : secrets) {
+                SecretKey key = Keys.hmacShaKeyFor(s.getBytes(StandardCharsets.UTF_8));
+                signing = signing == null ? key : signing;
+                parsers.add(Jwts.parser().verifyWith(key).build());
+            }
+            return new KeyRing(signing, List.copyOf(parsers));
+        }
+
+        /** Tries each key in turn; only a signature mismatch moves on to the next one. */
+        Claims parse(String token) {
+            for (int i = 0; ; i++) {
+                try {
+                    return parsers.get(i).parseSignedClaims(token).getPayload();
+                } catch (SignatureException e) {
+                    if (i == parsers.size() - 1) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    private record Entry(Authentication authentication, long expiresAt, KeyRing keys) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.microbank.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.util.retry.Retry;
+
+/**
+ * Keeps a {@link RevokedTokens} index current on every instance of a service.
+ *
+ * <p>On start it loads the revocations the service has stored, if any, and reads
+ * {@link #TOPIC} from the beginning. Every instance reads the whole topic: see
+ * {@link #receiverOptions}. The topic's retention must therefore cover the token lifetime
+ * ({@code jwt.expiration}). Services without their own copy of {@code blacklisted_tokens}
+ * rebuild the index from the topic alone. Revocations are idempotent, so one seen both in the
+ * table and on the topic is simply applied twice.
+ *
+ * <p>Expired revocations are purged every {@code purgeInterval}.
+ */
+@Slf4j
+public class RevocationFeed {
+
+    public static final String TOPIC = "token-revoked";
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private final RevokedTokens revokedTokens;
+    private final ReceiverOptions<String, byte[]> receiverOptions;
+    private final Flux<TokenRevocation> stored;
+    private final Duration purgeInterval;
+    private Disposable feed;
+    private Disposable purger;
+
+    /**
+     * @param stored the revocations this service has persisted; empty if it keeps none
+     */
+    public RevocationFeed(RevokedTokens revokedTokens, ReceiverOptions<String, byte[]> receiverOptions,
+            Flux<TokenRevocation> stored, Duration purgeInterval) {
+        this.revokedTokens = revokedTokens;
+        this.receiverOptions = receiverOptions;
+        this.stored = stored;
+        this.purgeInterval = purgeInterval;
+    }
+
+    /**
+     * Options for a consumer that reads all of {@link #TOPIC} on every start: the group is new
+     * for each instance, so it gets every partition and has no committed offsets, and it never
+     * commits.
+     */
+    public static ReceiverOptions<String, byte[]> receiverOptions(String bootstrapServers, String service) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, service + "-revocations-" + UUID.randomUUID());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return ReceiverOptions.<String, byte[]>create(props).subscription(List.of(TOPIC));
+    }
+
+    @PostConstruct
+    public void start() {
+        stored.subscribe(this::apply,
+                e -> log.warn("Loading stored token revocations failed; relying on {}", TOPIC, e),
+                () -> log.info("Loaded stored token revocations, {} in force", revokedTokens.size()));
+        feed = KafkaReceiver.create(receiverOptions)
+                .receive()
+                .doOnNext(record -> accept(record.value()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(MAX_BACKOFF)
+                        .doBeforeRetry(signal -> log.warn("Reading {} failed, retrying", TOPIC, signal.failure())))
+                .subscribe();
+        purger = Flux.interval(purgeInterval)
+                .subscribe(tick -> {
+                    int dropped = revokedTokens.purge();
+                    log.debug("Purged {} expired token revocations, {} in force", dropped, revokedTokens.size());
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Disposable disposable : new Disposable[] { feed, purger }) {
+            if (disposable != null && !disposable.isDisposed()) {
+                disposable.dispose();
+            }
+        }
+    }
+
+    /** Applies one record of {@link #TOPIC}; a malformed one is logged and skipped. */
+    void accept(byte[] value) {
+        try {
+            apply(TokenRevocation.decode(value));
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping malformed {} record: {}", TOPIC, e.getMessage());
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        revokedTokens.revoke(revocation.digest(), revocation.expiresAt());
+    }
+}
@@ -0,0 +1,117 @@
+package com.microbank.security;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of revoked tokens, consulted by {@link JwtVerifier} on every request.
+ *
+ * <p>Membership is answered by a Bloom filter in front of an exact set of {@link TokenDigest}s.
+ * Almost every token asked about is not revoked. For those, the filter answers after a few
+ * array reads, without touching the set. A token the filter flags, rightly or not, is confirmed
+ * against the set. The set holds each token's original expiry. A revocation counts only until
+ * that expiry, since the token would be rejected as expired anyway.
+ *
+ * <p>{@link #purge} drops expired revocations and rebuilds the filter, so memory follows the
+ * revocations still in force. The filter is sized for {@code expectedEntries} at a 1% false
+ * positive rate. It is rebuilt at twice the size whenever it fills up.
+ *
+ * <p>Lookups take no lock. Revocations and purges are serialized among themselves.
+ */
+public class RevokedTokens {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final int expectedEntries;
+    private final Map<TokenDigest, Long> expiries = new ConcurrentHashMap<>();
+    private volatile Bloom bloom;
+
+    public RevokedTokens(int expectedEntries) {
+        if (expectedEntries < 1) {
+            throw new IllegalArgumentException("expectedEntries must be positive");
+        }
+        this.expectedEntries = expectedEntries;
+        this.bloom = Bloom.of(expiries.keySet(), expectedEntries);
+    }
+
+    /** Revokes the token with {@code digest} until {@code expiresAt}, the token's own expiry. */
+    public void revoke(TokenDigest digest, Instant expiresAt) {
+        long expires = expiresAt.toEpochMilli();
+        if (expires <= System.currentTimeMillis()) {
+            return;
+        }
+        synchronized (this) {
+            // the set before the filter: a lookup that sees the bit also sees the entry
+            expiries.merge(digest, expires, Math::max);
+            if (expiries.size() > bloom.capacity()) {
+                bloom = Bloom.of(expiries.keySet(), 2 * expiries.size());
+            } else {
+                bloom.add(digest);
+            }
+        }
+    }
+
+    public boolean isRevoked(TokenDigest digest) {
+        return isRevoked(digest, System.currentTimeMillis());
+    }
+
+    boolean isRevoked(TokenDigest digest, long now) {
+        if (!bloom.mightContain(digest)) {
+            return false;
+        }
+        Long expires = expiries.get(digest);
+        return expires != null && expires > now;
+    }
+
+    /** Drops the revocations of tokens that have expired and returns how many were dropped. */
+    public synchronized int purge() {
+        long now = System.currentTimeMillis();
+        int before = expiries.size();
+        expiries.values().removeIf(expires -> expires <= now);
+        bloom = Bloom.of(expiries.keySet(), Math.max(expectedEntries, 2 * expiries.size()));
+        return before - expiries.size();
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    /**
+     * A Bloom filter over digests. The digest is already a uniform hash, so its first two words
+     * drive the double hashing directly.
+     */
+    private record Bloom(AtomicLongArray bits, long mask, int hashes, int capacity) {
+
+        static Bloom of(Collection<TokenDigest> digests, int capacity) {
+            double optimalBits = -capacity * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2));
+            long size = Math.max(64, Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1);
+            int hashes = Math.max(1, (int) Math.round(size / (double) capacity * Math.log(2)));
+            Bloom bloom = new Bloom(new AtomicLongArray((int) (size >>> 6)), size - 1, Math.min(hashes, 16),
+                    capacity);
+            digests.forEach(bloom::add);
+            return bloom;
+        }
+
+        void add(TokenDigest digest) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = (digest.a() + i * digest.b()) & mask;
+                int word = (int) (bit >>> 6);
+                long flag = 1L << bit;
+                bits.getAndAccumulate(word, flag, (current, set) -> current | set);
+            }
+        }
+
+        boolean mightContain(TokenDigest digest) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = (digest.a() + i * digest.b()) & mask;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.microbank.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 of a bearer token. Caches, the revocation index and the {@code blacklisted_tokens}
+ * table hold this instead of the token, so none of them hold a usable credential.
+ */
+public record TokenDigest(long a, long b, long c, long d) {
+
+    public static final int BYTES = 32;
+
+    public static TokenDigest of(String token) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        return fromBytes(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static TokenDigest fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != BYTES) {
+            throw new IllegalArgumentException("A token digest is " + BYTES + " bytes");
+        }
+        ByteBuffer hash = ByteBuffer.wrap(bytes);
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(BYTES).putLong(a).putLong(b).putLong(c).putLong(d).array();
+    }
+}
@@ -0,0 +1,45 @@
+package com.microbank.security;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * A logged-out token, as published on {@link RevocationFeed#TOPIC}: the token's digest and its
+ * original expiry.
+ *
+ * <pre>
+ * size   field
+ * 1      magic byte 0xE8
+ * 1      format version, currently 1
+ * 32     token digest
+ * 8      expiresAt as epoch millis
+ * </pre>
+ *
+ * <p>A reader ignores anything after the fields it knows, as with the user events.
+ */
+public record TokenRevocation(TokenDigest digest, Instant expiresAt) {
+
+    public static final byte MAGIC = (byte) 0xE8;
+    public static final byte VERSION = 1;
+
+    private static final int SIZE = 2 + TokenDigest.BYTES + 8;
+
+    public byte[] encode() {
+        return ByteBuffer.allocate(SIZE)
+                .put(MAGIC)
+                .put(VERSION)
+                .put(digest.toBytes())
+                .putLong(expiresAt.toEpochMilli())
+                .array();
+    }
+
+    public static TokenRevocation decode(byte[] value) {
+        if (value == null || value.length < SIZE || value[0] != MAGIC || value[1] < 1) {
+            throw new IllegalArgumentException("Not a token revocation");
+        }
+        ByteBuffer in = ByteBuffer.wrap(value, 2, SIZE - 2);
+        byte[] digest = new byte[TokenDigest.BYTES];
+        in.get(digest);
+        return new TokenRevocation(TokenDigest.fromBytes(digest), Instant.ofEpochMilli(in.getLong()));
+    }
+}
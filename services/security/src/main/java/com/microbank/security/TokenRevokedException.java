@@ -0,0 +1,11 @@
+package com.microbank.security;
+
+import io.jsonwebtoken.JwtException;
+
+/** The token is well formed and signed, but was revoked by a logout. */
+public class TokenRevokedException extends JwtException {
+
+    public TokenRevokedException() {
+        super("Token has been revoked");
+    }
+}
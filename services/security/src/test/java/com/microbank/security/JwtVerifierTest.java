@@ -0,0 +1,160 @@
+package com.microbank.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwtVerifierTest {
+
+    private static final String OLD_SECRET = "an-old-secret-that-is-at-least-32-bytes-long";
+    private static final String SECRET = "the-current-secret-that-is-at-least-32-bytes";
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private Authentication toAuthentication(Claims claims) {
+        verifications.incrementAndGet();
+        return new UsernamePasswordAuthenticationToken(claims.getSubject(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + claims.get("role", String.class))));
+    }
+
+    private JwtVerifier verifier(int cacheSize, String secret, String... previousSecrets) {
+        return new JwtVerifier(secret, List.of(previousSecrets), cacheSize, this::toAuthentication);
+    }
+
+    private static String token(String secret, String subject, Date expiration) {
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return Jwts.builder()
+                .subject(subject)
+                .claim("role", "USER")
+                .expiration(expiration)
+                .signWith(key)
+                .compact();
+    }
+
+    private static Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000);
+    }
+
+    @Test
+    void authenticate_shouldVerifyOnceAndAnswerRepeatsFromTheCache() {
+        JwtVerifier verifier = verifier(10, SECRET);
+        String token = token(SECRET, "alice", inOneHour());
+
+        Authentication first = verifier.authenticate(token);
+        Authentication second = verifier.authenticate(token);
+
+        assertEquals("alice", first.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(first.getAuthorities()));
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, verifier.size());
+    }
+
+    @Test
+    void authenticate_shouldRejectTokensSignedWithAnotherKeyOrTampered() {
+        JwtVerifier verifier = verifier(10, SECRET);
+        String token = token(SECRET, "alice", inOneHour());
+        String forged = token(OLD_SECRET, "alice", inOneHour());
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        assertThrows(SignatureException.class, () -> verifier.authenticate(forged));
+        assertThrows(JwtException.class, () -> verifier.authenticate(tampered));
+        assertThrows(JwtException.class, () -> verifier.authenticate("not-a-token"));
+        assertEquals(0, verifier.size());
+    }
+
+    @Test
+    void authenticate_shouldStopAnsweringFromTheCacheOnceTheTokenExpires() throws InterruptedException {
+        JwtVerifier verifier = verifier(10, SECRET);
+        Date expiration = new Date(System.currentTimeMillis() + 1_000);
+        String token = token(SECRET, "alice", expiration);
+
+        verifier.authenticate(token);
+        Thread.sleep(Math.max(0, expiration.getTime() - System.currentTimeMillis()) + 1_100);
+
+        assertThrows(ExpiredJwtException.class, () -> verifier.authenticate(token));
+        assertEquals(0, verifier.size());
+    }
+
+    @Test
+    void authenticate_shouldNotCacheTokensWithoutExpiry() {
+        JwtVerifier verifier = verifier(10, SECRET);
+        String token = token(SECRET, "alice", null);
+
+        verifier.authenticate(token);
+        verifier.authenticate(token);
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, verifier.size());
+    }
+
+    @Test
+    void authenticate_shouldKeepTheCacheBounded() {
+        JwtVerifier verifier = verifier(2, SECRET);
+
+        for (String subject : List.of("a", "b", "c")) {
+            verifier.authenticate(token(SECRET, subject, inOneHour()));
+        }
+
+        assertEquals(2, verifier.size());
+    }
+
+    @Test
+    void rotate_shouldAcceptPreviousSecretsUntilTheyAreDropped() {
+        JwtVerifier verifier = verifier(10, OLD_SECRET);
+        String issuedBefore = token(OLD_SECRET, "alice", inOneHour());
+        verifier.authenticate(issuedBefore);
+
+        verifier.rotate(SECRET, List.of(OLD_SECRET));
+        String issuedAfter = Jwts.builder().subject("bob").claim("role", "USER").expiration(inOneHour())
+                .signWith(verifier.signingKey()).compact();
+
+        assertEquals(0, verifier.size());
+        assertEquals("alice", verifier.authenticate(issuedBefore).getName());
+        assertEquals("bob", verifier.authenticate(issuedAfter).getName());
+        assertEquals("bob", verifier(10, SECRET).claims(issuedAfter).getSubject());
+
+        verifier.rotate(SECRET, List.of());
+
+        assertThrows(SignatureException.class, () -> verifier.authenticate(issuedBefore));
+        assertEquals("bob", verifier.authenticate(issuedAfter).getName());
+    }
+
+    @Test
+    void authenticate_shouldRejectRevokedTokensEvenWhenCached() {
+        RevokedTokens revoked = new RevokedTokens(10);
+        JwtVerifier verifier = new JwtVerifier(SECRET, List.of(), 10, this::toAuthentication, revoked);
+        Date expiration = inOneHour();
+        String token = token(SECRET, "alice", expiration);
+        verifier.authenticate(token);
+
+        revoked.revoke(TokenDigest.of(token), expiration.toInstant());
+
+        assertThrows(TokenRevokedException.class, () -> verifier.authenticate(token));
+        assertEquals("bob", verifier.authenticate(token(SECRET, "bob", inOneHour())).getName());
+    }
+
+    @Test
+    void constructor_shouldRequireASecret() {
+        assertThrows(IllegalArgumentException.class, () -> verifier(10, " "));
+        assertThrows(IllegalArgumentException.class, () -> verifier(0, SECRET));
+    }
+}
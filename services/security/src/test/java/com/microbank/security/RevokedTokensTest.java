@@ -0,0 +1,93 @@
+package com.microbank.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class RevokedTokensTest {
+
+    private static Instant inOneHour() {
+        return Instant.now().plusSeconds(3_600);
+    }
+
+    @Test
+    void isRevoked_shouldAnswerForRevokedTokensOnly() {
+        RevokedTokens revoked = new RevokedTokens(100);
+        TokenDigest loggedOut = TokenDigest.of("logged-out");
+
+        revoked.revoke(loggedOut, inOneHour());
+
+        assertTrue(revoked.isRevoked(loggedOut));
+        assertTrue(revoked.isRevoked(TokenDigest.of("logged-out")));
+        assertFalse(revoked.isRevoked(TokenDigest.of("still-in-use")));
+    }
+
+    @Test
+    void isRevoked_shouldStopOnceTheTokenWouldHaveExpired() {
+        RevokedTokens revoked = new RevokedTokens(100);
+        TokenDigest digest = TokenDigest.of("token");
+        long expires = System.currentTimeMillis() + 60_000;
+
+        revoked.revoke(digest, Instant.ofEpochMilli(expires));
+        revoked.revoke(TokenDigest.of("expired"), Instant.now().minusSeconds(1));
+
+        assertTrue(revoked.isRevoked(digest, expires - 1));
+        assertFalse(revoked.isRevoked(digest, expires));
+        assertEquals(1, revoked.size(), "an already expired token is not recorded");
+    }
+
+    @Test
+    void purge_shouldDropExpiredRevocationsAndKeepTheRest() throws InterruptedException {
+        RevokedTokens revoked = new RevokedTokens(100);
+        TokenDigest shortLived = TokenDigest.of("short-lived");
+        TokenDigest longLived = TokenDigest.of("long-lived");
+        revoked.revoke(shortLived, Instant.now().plusMillis(50));
+        revoked.revoke(longLived, inOneHour());
+
+        Thread.sleep(100);
+
+        assertEquals(1, revoked.purge());
+        assertEquals(1, revoked.size());
+        assertFalse(revoked.isRevoked(shortLived));
+        assertTrue(revoked.isRevoked(longLived));
+    }
+
+    @Test
+    void revoke_shouldGrowPastTheExpectedEntriesWithoutLosingAny() {
+        RevokedTokens revoked = new RevokedTokens(8);
+        TokenDigest[] digests = new TokenDigest[1_000];
+        for (int i = 0; i < digests.length; i++) {
+            digests[i] = TokenDigest.of("token-" + i);
+            revoked.revoke(digests[i], inOneHour());
+        }
+
+        for (TokenDigest digest : digests) {
+            assertTrue(revoked.isRevoked(digest));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            falsePositives += revoked.isRevoked(TokenDigest.of("other-" + i)) ? 1 : 0;
+        }
+        assertEquals(0, falsePositives, "the exact set confirms every filter hit");
+    }
+
+    @Test
+    void tokenRevocation_shouldRoundTripAndRejectOtherPayloads() {
+        TokenRevocation revocation = new TokenRevocation(TokenDigest.of("token"),
+                Instant.ofEpochMilli(1_760_000_000_123L));
+
+        byte[] encoded = revocation.encode();
+
+        assertEquals(42, encoded.length);
+        assertEquals(revocation, TokenRevocation.decode(encoded));
+        assertThrows(IllegalArgumentException.class, () -> TokenRevocation.decode(new byte[] { 1, 2, 3 }));
+        assertThrows(IllegalArgumentException.class, () -> TokenRevocation.decode("token".getBytes()));
+    }
+
+    @Test
+    void constructor_shouldRequireAPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new RevokedTokens(0));
+    }
+}